@@ -0,0 +1,78 @@
+import java.lang.management.ManagementFactory;
+
+// Zählt die Allokationen des Spieltakts (engine.step) im eingeschwungenen
+// Zustand:
+//  - dicht besetzt (populate) mit der gewünschten Anzahl Hindernisse,
+//  - im echten Spiel nach Fahrplan über alle Level: der Spieler wird
+//    unter das Ziel gesetzt und geht hinein (Levelaufstieg), nach dem
+//    letzten Level startet RESTART neu.
+// Erwartet werden 0 Bytes; sonst endet das Programm mit Exit-Code 1.
+//
+// Aufruf: java AllocationBenchmark [anzahl] [level] [takte]
+public class AllocationBenchmark {
+    private static final int ALLOCATION_ROUNDS = 5;   // Weitere Runden, falls der JIT noch anlegt
+    private static final int TICKS_PER_LEVEL = 200;   // Takte bis zum nächsten Levelaufstieg
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static long thread;
+
+    public static void main(String[] args) {
+        int count = Bench.intList(args, 0, 10_000)[0];
+        int level = Bench.intList(args, 1, LevelMap.classic().getLevelCount())[0];
+        int ticks = Bench.intList(args, 2, 200_000)[0];
+
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread);   // Erster Aufruf legt selbst etwas an
+
+        GameEngine crowded = new GameEngine(Bench.SEED);
+        crowded.populate(level, count);
+        long allocated = measure(crowded, ticks, false);
+        System.out.printf("%d Takte mit %d Hindernissen (Level %d): %d Bytes alloziert (%.3f pro Takt)%n",
+                ticks, count, level, allocated, (double) allocated / ticks);
+        boolean ok = allocated == 0 && crowded.isRunning();
+
+        GameEngine game = new GameEngine(Bench.SEED);
+        allocated = measure(game, ticks, true);
+        int levelUps = run(game, ticks, true);
+        System.out.printf("%d Takte im Spiel mit %d Levelaufstiegen (Level 1-%d): %d Bytes alloziert (%.3f pro Takt)%n",
+                ticks, levelUps, game.getMap().getLevelCount(), allocated, (double) allocated / ticks);
+        ok &= allocated == 0 && levelUps > 0;
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Aufwärmen (JIT, Spur-Arrays erreichen ihre Endgröße), dann messen;
+    // bleibt etwas übrig, bis zu ALLOCATION_ROUNDS Runden
+    private static long measure(GameEngine engine, int ticks, boolean levelUps) {
+        run(engine, ticks, levelUps);
+        long allocated = 1;
+        for (int round = 0; allocated > 0 && round < ALLOCATION_ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            run(engine, ticks, levelUps);
+            allocated = threads.getThreadAllocatedBytes(thread) - before;
+        }
+        return allocated;
+    }
+
+    // Gibt die Anzahl der Levelaufstiege zurück
+    private static int run(GameEngine engine, int ticks, boolean levelUps) {
+        Player player = engine.getPlayer();
+        int raised = 0;
+        for (int i = 1; i <= ticks; i++) {
+            if (!engine.isRunning()) {
+                engine.step(Input.RESTART);
+            } else if (levelUps && i % TICKS_PER_LEVEL == 0) {
+                // Direkt unter das Ziel und hinein
+                player.reset(player.getX(), engine.getMap().getGoalY());
+                int before = engine.getCurrentLevel();
+                engine.step(Input.UP);
+                raised += engine.getCurrentLevel() > before || !engine.isRunning() ? 1 : 0;
+            } else {
+                engine.step(Input.NONE);
+            }
+        }
+        return raised;
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.Locale;
+
+// Misst, wie der BatchRunner mit der Zahl der Threads skaliert: gleiche
+// Sitzungen (gleiche Seeds) mit 1, 2, 4, ... Threads bis zur Zahl der Kerne.
+// Ausgegeben werden Takte/s, Beschleunigung und Effizienz gegenüber 1 Thread.
+// Mehr Threads als Kerne bringen nichts - die Messung endet bei den Kernen.
+//
+// Aufruf: java BatchScalingBenchmark [sitzungen] [threads,...] [maxTakte]
+public class BatchScalingBenchmark {
+    public static void main(String[] args) {
+        int sessions = Bench.intList(args, 0, 20_000)[0];
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] threadCounts = Bench.intList(args, 1, powersOfTwoUpTo(cores));
+        int maxTicks = Bench.intList(args, 2, 5 * 60 * GameConfig.DEFAULT_TICK_RATE)[0];
+        int rounds = Integer.getInteger("bench.iterations", 5);
+
+        System.out.printf(Locale.ROOT, "%d Kerne, %d Sitzungen, bestes von %d Läufen%n",
+                cores, sessions, rounds);
+
+        // Aufwärmen, damit der JIT nicht in die erste Messung fällt
+        new BatchRunner(cores, maxTicks, RandomBot::new).run(sessions, Bench.SEED);
+
+        double baseline = 0;
+        for (int threads : threadCounts) {
+            BatchRunner runner = new BatchRunner(threads, maxTicks, RandomBot::new);
+            double best = 0;
+            for (int r = 0; r < rounds; r++) {
+                best = Math.max(best, runner.run(sessions, Bench.SEED).getTicksPerSecond());
+            }
+            if (baseline == 0) {
+                baseline = best / threads;
+            }
+            double speedup = best / baseline;
+            System.out.printf(Locale.ROOT, "%3d Threads  %14.0f Takte/s  x%5.2f  Effizienz %5.1f%%%n",
+                    threads, best, speedup, speedup / threads * 100);
+        }
+    }
+
+    private static int[] powersOfTwoUpTo(int max) {
+        int count = 0;
+        for (int n = 1; n <= max; n *= 2) {
+            count++;
+        }
+        boolean exact = Integer.bitCount(max) == 1;
+        int[] values = new int[exact ? count : count + 1];
+        int i = 0;
+        for (int n = 1; n <= max; n *= 2) {
+            values[i++] = n;
+        }
+        if (!exact) {
+            values[i] = max;
+        }
+        return values;
+    }
+}
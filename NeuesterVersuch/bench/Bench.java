@@ -0,0 +1,78 @@
+import java.util.Locale;
+
+// Kleines Messwerkzeug im Stil von JMH (ohne externe Abhängigkeiten):
+// Aufwärmrunden, Messrunden mit fester Dauer, Ergebnis in ns pro Operation
+public final class Bench {
+    // Einstellungen (über -Dbench.warmup / -Dbench.iterations / -Dbench.millis änderbar)
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("bench.warmup", 3);
+    private static final int MEASURE_ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long ITERATION_MILLIS = Long.getLong("bench.millis", 300);
+    // Fester Seed, damit zwei Läufe dieselben Hindernisse erzeugen (-Dbench.seed)
+    public static final long SEED = Long.getLong("bench.seed", 1L);
+
+    // Senke für Ergebnisse, damit der JIT die Arbeit nicht wegoptimiert
+    private static volatile long sink;
+
+    // Eine zu messende Operation; der Rückgabewert wird "verbraucht"
+    public interface Op {
+        long run();
+    }
+
+    private Bench() {}
+
+    // Misst eine Operation und gibt die mittleren Nanosekunden pro Aufruf zurück
+    public static double measure(String name, Op op) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(op);
+        }
+
+        double[] results = new double[MEASURE_ITERATIONS];
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            results[i] = runIteration(op);
+        }
+
+        double mean = 0;
+        for (double r : results) {
+            mean += r;
+        }
+        mean /= results.length;
+
+        double variance = 0;
+        for (double r : results) {
+            variance += (r - mean) * (r - mean);
+        }
+        double stdDev = Math.sqrt(variance / results.length);
+
+        System.out.printf(Locale.ROOT, "%-50s %14.1f ns/op  +- %10.1f%n", name, mean, stdDev);
+        return mean;
+    }
+
+    // Führt die Operation so oft wie möglich innerhalb einer Runde aus
+    private static double runIteration(Op op) {
+        long deadline = System.nanoTime() + ITERATION_MILLIS * 1_000_000L;
+        long ops = 0;
+        long acc = 0;
+        long start = System.nanoTime();
+        long now;
+        do {
+            acc += op.run();
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink += acc;
+        return (double) (now - start) / ops;
+    }
+
+    // Liest eine kommagetrennte Zahlenliste aus einem Argument oder nimmt die Vorgabe
+    public static int[] intList(String[] args, int index, int... defaults) {
+        if (args.length <= index) {
+            return defaults;
+        }
+        String[] parts = args[index].split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
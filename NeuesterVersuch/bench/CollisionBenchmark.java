@@ -0,0 +1,142 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+// Durchgehende Kollision bei verschiedenen Taktraten: je Taktrate eine
+// Engine mit vollem Level 5, dazu je Takt zufällige Spieler auf der Straße.
+// Das Ergebnis der Engine wird mit einer Suche über alle tödlichen
+// Hindernisse verglichen, die jede Subpixel-Position des Takts einzeln
+// abfährt. Gezählt wird außerdem, wie viele Treffer die alte Prüfung (nur
+// die Position am Ende des Takts) übersehen hätte - dort wäre das Auto
+// durch den Frosch hindurchgesprungen.
+// Misst die Dauer eines Spieltakts und rechnet sie auf eine Sekunde Spiel um.
+// Endet mit Exit-Code 1, wenn ein Ergebnis abweicht.
+//
+// Aufruf: java CollisionBenchmark [taktraten,...] [hindernisse]
+public class CollisionBenchmark {
+    private static final int SECONDS = 200;   // Simulierte Spielzeit je Taktrate
+    private static final int PROBES = 64;     // Zufällige Spielerpositionen je Takt
+
+    public static void main(String[] args) {
+        int obstacles = Bench.intList(args, 1, 300)[0];
+        long wrong = 0;
+        for (int tickRate : Bench.intList(args, 0, 5, 10, 20, 60)) {
+            wrong += check(tickRate, obstacles);
+        }
+        if (wrong > 0) {
+            System.out.println("FEHLER: " + wrong + " Kollisionen weichen von der Suche ab");
+            System.exit(1);
+        }
+        System.out.println("Alle Kollisionen gleich der Suche über jede Subpixel-Position");
+    }
+
+    private static long check(int tickRate, int obstacles) {
+        GameEngine engine = new GameEngine(Bench.SEED, LevelMap.classic(), tickRate);
+        engine.populate(5, obstacles);
+        int[] roadY = roadRows(engine);
+        FastRandom random = new FastRandom(Bench.SEED);
+        Player player = new Player(0, 0);
+        long[] before = new long[0];
+        long probes = 0;
+        long hits = 0;
+        long tunneled = 0;
+        long wrong = 0;
+        for (long t = 0; t < (long) SECONDS * tickRate; t++) {
+            before = positions(engine, before);
+            engine.moveObstacles();
+            for (int p = 0; p < PROBES; p++) {
+                int x = (int) (random.nextDouble() * (engine.getWorldWidth() - GameEngine.PLAYER_SIZE));
+                int y = roadY[(int) (random.nextDouble() * roadY.length)];
+                player.reset(x, y);
+                boolean dead = engine.collides(player);
+                int hit = search(engine, before, player);
+                if (dead != (hit != 0)) {
+                    wrong++;
+                }
+                hits += hit != 0 ? 1 : 0;
+                tunneled += hit < 0 ? 1 : 0;
+                probes++;
+            }
+        }
+
+        GameEngine timed = new GameEngine(Bench.SEED, LevelMap.classic(), tickRate);
+        timed.populate(5, obstacles);
+        double tickNanos = Bench.measure(tickRate + " Takte/s: Spieltakt", () -> {
+            timed.step(Input.NONE);
+            return timed.getTick();
+        });
+        System.out.printf(Locale.ROOT, "%3d Takte/s: %d Proben, %d Treffer, %d davon ohne Überstreichen übersehen, "
+                        + "%d falsch, %.1f µs je Sekunde Spiel%n",
+                tickRate, probes, hits, tunneled, wrong, tickNanos * tickRate / 1e3);
+        return wrong;
+    }
+
+    // Oberkanten, an denen ein Spieler ganz auf der Straße steht
+    private static int[] roadRows(GameEngine engine) {
+        int[] rows = new int[engine.getWorldHeight()];
+        int count = 0;
+        for (int y = 0; y + GameEngine.PLAYER_SIZE <= engine.getWorldHeight(); y++) {
+            if (engine.getMap().zoneAt(y) == LaneType.ROAD) {
+                rows[count++] = y;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    // Subpixel-Positionen aller Hindernisse vor dem Takt (je Archetyp
+    // hintereinander)
+    private static long[] positions(GameEngine engine, long[] into) {
+        int total = 0;
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            total += engine.getArchetype(a).size();
+        }
+        long[] result = into.length >= total ? into : new long[total];
+        int k = 0;
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            ObstacleStore store = engine.getArchetype(a);
+            for (int i = 0; i < store.size(); i++) {
+                result[k++] = store.getFixedX(i);
+            }
+        }
+        return result;
+    }
+
+    // 1: Treffer an der Pixelposition am Ende des Takts (die alte Prüfung),
+    // -1: nur unterwegs getroffen, 0: kein Treffer. Fährt jede
+    // Subpixel-Position zwischen vorher und nachher ab; ein neu erzeugtes
+    // Hindernis (Sprung statt eines Schritts) steht nur an seiner neuen
+    // Position.
+    private static int search(GameEngine engine, long[] before, Player player) {
+        long left = (long) player.getX() << ObstacleStore.SUBPIXEL_BITS;
+        long right = (long) (player.getX() + player.getWidth()) << ObstacleStore.SUBPIXEL_BITS;
+        int result = 0;
+        int k = 0;
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            ObstacleStore store = engine.getArchetype(a);
+            boolean lethal = store.has(ObstacleStore.LETHAL);
+            for (int i = 0; i < store.size(); i++, k++) {
+                int y = store.getY(i);
+                if (!lethal || store.isSubmerged(i)
+                        || player.getY() >= y + store.getHeight(i) || y >= player.getY() + player.getHeight()) {
+                    continue;
+                }
+                long now = store.getFixedX(i);
+                long from = now - before[k] == store.getFixedSpeed(i) ? before[k] : now;
+                long width = (long) store.getWidth(i) << ObstacleStore.SUBPIXEL_BITS;
+                long step = now >= from ? 1 : -1;
+                for (long x = from; ; x += step) {
+                    if (x < right && x + width > left) {
+                        if (player.intersects(store.getX(i), y, store.getWidth(i), store.getHeight(i))) {
+                            return 1;
+                        }
+                        result = -1;
+                        break;
+                    }
+                    if (x == now) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
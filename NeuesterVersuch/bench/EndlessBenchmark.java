@@ -0,0 +1,83 @@
+import java.lang.management.ManagementFactory;
+
+// Zeigt, dass die endlose Welt unabhängig von der gelaufenen Strecke gleich
+// viel kostet: Zeit pro Takt und Allokationen nach 0, 10.000, ... Reihen.
+// Außerdem wird geprüft, dass nach höchstens 10 Reihen eine Wiese kommt.
+// Endet mit Exit-Code 1, wenn ein Takt etwas alloziert oder die Wiesen
+// fehlen.
+//
+// Aufruf: java EndlessBenchmark [reihen,...] [takte]
+public class EndlessBenchmark {
+    // Höchstens so viele Messrunden je Strecke, bis eine ohne Allokation ist
+    private static final int ALLOCATION_ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final long THREAD = Thread.currentThread().getId();
+
+    public static void main(String[] args) {
+        int[] distances = Bench.intList(args, 0, 0, 10_000, 1_000_000, 100_000_000);
+        int ticks = Bench.intList(args, 1, 100_000)[0];
+
+        THREADS.getThreadAllocatedBytes(THREAD);   // Erster Aufruf legt selbst etwas an
+
+        boolean failed = false;
+        for (int distance : distances) {
+            EndlessEngine engine = new EndlessEngine(Bench.SEED);
+            long generateStart = System.nanoTime();
+            engine.skipTo(distance);
+            long generateNanos = System.nanoTime() - generateStart;
+
+            if (!checkSafeRows(engine)) {
+                System.out.println("Abstand der Wiesen verletzt bei Reihe " + distance);
+                failed = true;
+            }
+
+            double nanos = Bench.measure(String.format("updateGame nach %d Reihen", distance), () -> {
+                engine.updateGame();
+                return engine.getTick();
+            });
+
+            // Solange der JIT noch übersetzt (C2 ersetzt updateGame() einmal
+            // mitten im Lauf), zählt der Thread ein paar hundert Bytes der VM
+            // mit - ohne JIT (-Xint) ist es 0. Eine echte Allokation je Takt
+            // zeigt sich in jeder Runde; gewertet wird die letzte.
+            long allocated = allocated(engine, ticks);
+            int rounds = 1;
+            while (allocated > 0 && rounds < ALLOCATION_ROUNDS) {
+                allocated = allocated(engine, ticks);
+                rounds++;
+            }
+            System.out.printf("  %d Reihen im Ring, Erzeugung %.1f ns/Reihe, %d Bytes in %d Takten (Messrunde %d)%n",
+                    engine.getLanes().getCapacity(),
+                    distance == 0 ? 0.0 : (double) generateNanos / distance, allocated, ticks, rounds);
+            failed |= allocated > 0;
+            failed |= nanos <= 0;
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    // Bytes, die 'ticks' Takte allozieren
+    private static long allocated(EndlessEngine engine, int ticks) {
+        long before = THREADS.getThreadAllocatedBytes(THREAD);
+        for (int i = 0; i < ticks; i++) {
+            engine.updateGame();
+        }
+        return THREADS.getThreadAllocatedBytes(THREAD) - before;
+    }
+
+    // Höchstens 10 Straßen-/Flussreihen am Stück
+    private static boolean checkSafeRows(EndlessEngine engine) {
+        LaneRing lanes = engine.getLanes();
+        int run = 0;
+        for (int row = lanes.getBaseRow(); row < lanes.getEndRow(); row++) {
+            run = lanes.getType(row) == LaneType.SAFE ? 0 : run + 1;
+            if (run > 10) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,365 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+// Archetypen gegen Objektliste: ein Takt (Bewegen, Neuerzeugen, Kollision
+// und Tragen für einen Spieler) einmal mit den Systemen der Engine über die
+// Archetyp-Arrays und einmal klassisch als ArrayList<Obstacle> mit einem
+// Objekt je Hindernis (Neuerzeugen wie früher: entfernen und neues Objekt
+// anhängen) - beide starten mit denselben Hindernissen. Bei 100k passen
+// beide nicht mehr in den Cache; der Abstand hängt dann stark von Cache
+// und Speicher der Maschine ab, deshalb steht die Maschine mit in der
+// Ausgabe.
+// Dazu Prüfungen auf einer Karte mit Schildkröten:
+//  - sie tauchen wirklich ab und wieder auf,
+//  - Kollision und Tragen stimmen mit einer Suche über alle Hindernisse
+//    überein (Tödliches über den im Takt überstrichenen Bereich,
+//    abgetauchte tragen nicht),
+//  - die Vorausschau des LaneIndex findet zu künftigen Takten denselben
+//    ersten Treffer wie eine Suche über alle Slots,
+//  - Spielstand und Rückspulen geben das Spiel samt Tauchzyklen exakt wieder.
+// Endet mit Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf: java EntityBenchmark [anzahl,...]
+public class EntityBenchmark {
+    private static final int TICKS = 20_000;
+    private static final int PROBES = 64;   // Zufällige Spielerpositionen je Takt
+    private static final int LOOKAHEAD_TICKS = 40;   // So weit schaut checkLookahead() voraus
+
+    private static final String TURTLE_MAP = String.join("\n",
+            "frogger-map 1", "points 10 20 30 40 50",
+            "zone safe 0 40", "zone river 40 200", "zone safe 200 250",
+            "zone road 250 540", "zone safe 540 600",
+            "lane road 250 540 2-4 2 8:1-3 2:2-4 3:3-5 4:4-6 5:5-7",
+            "lane river 0 200 5-6 2 6:1-2 2:2-3 2:3-4 3:4-5 3:5-6",
+            "lane river 80 120 2-3 2 3:1-2 1:1-2 1:2-3 1:2-3 1:3-4 dive 60");
+
+    // Hindernis als eigenes Objekt (wie vor den Archetypen)
+    private static final class Obstacle {
+        int x;
+        final int y;
+        final int width;
+        final int height;
+        final int speed;
+        final boolean lethal;
+        final boolean rideable;
+
+        Obstacle(int x, int y, int width, int height, int speed, boolean lethal, boolean rideable) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.speed = speed;
+            this.lethal = lethal;
+            this.rideable = rideable;
+        }
+
+        boolean intersects(Player player) {
+            return player.intersects(x, y, width, height);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean ok = true;
+        System.out.printf(Locale.ROOT, "Maschine: %d Kerne, %s, Java %s (%s), Heap %d MB%n",
+                Runtime.getRuntime().availableProcessors(), System.getProperty("os.arch"),
+                System.getProperty("java.version"), System.getProperty("java.vm.name"),
+                Runtime.getRuntime().maxMemory() >> 20);
+        for (int count : Bench.intList(args, 0, 10_000, 100_000)) {
+            compare(count);
+        }
+
+        LevelMap map = LevelMap.wrap(MapCompiler.compile(new BufferedReader(new StringReader(TURTLE_MAP))));
+        ok &= checkCollisions(map);
+        ok &= checkLookahead(map);
+        ok &= checkSnapshot(map);
+        ok &= checkRewind(map);
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static void compare(int count) {
+        GameEngine engine = new GameEngine(Bench.SEED);
+        engine.populate(3, count);
+        ArrayList<Obstacle> list = new ArrayList<>();
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            ObstacleStore store = engine.getArchetype(a);
+            for (int i = 0; i < store.size(); i++) {
+                list.add(new Obstacle(store.getX(i), store.getY(i), store.getWidth(i), store.getHeight(i),
+                        store.getSpeed(i), store.has(ObstacleStore.LETHAL), store.has(ObstacleStore.RIDEABLE)));
+            }
+        }
+
+        // Spieler abwechselnd auf der Straße und im Fluss
+        Player player = new Player(0, 0);
+        FastRandom random = new FastRandom(Bench.SEED);
+        int[] rows = { 280, 310, 100, 130 };
+        long[] round = new long[1];
+        String suffix = String.format(Locale.ROOT, " (%,d Hindernisse)", count);
+
+        double archetypes = Bench.measure("Archetypen: Takt" + suffix, () -> {
+            engine.moveObstacles();
+            player.reset(GameEngine.PANEL_WIDTH / 2, rows[(int) (round[0]++ & 3)]);
+            return engine.collides(player) ? 1 : player.getX();
+        });
+        ArrayList<Obstacle> respawned = new ArrayList<>();
+        double objects = Bench.measure("ArrayList<Obstacle>: Takt" + suffix, () -> {
+            // Wie früher im GamePanel: wer das Feld verlässt, fliegt aus der
+            // Liste, und ein neues Objekt kommt hinten dazu
+            for (int i = 0; i < list.size(); i++) {
+                Obstacle o = list.get(i);
+                o.x += o.speed;
+                if ((o.speed > 0 && o.x > GameEngine.PANEL_WIDTH) || (o.speed < 0 && o.x + o.width < 0)) {
+                    list.remove(i--);
+                    respawned.add(respawn(o, random));
+                }
+            }
+            list.addAll(respawned);
+            respawned.clear();
+            player.reset(GameEngine.PANEL_WIDTH / 2, rows[(int) (round[0]++ & 3)]);
+            return collides(list, player, engine.getMap()) ? 1 : player.getX();
+        });
+        System.out.printf(Locale.ROOT, "  Archetypen %.1fx so schnell%n", objects / archetypes);
+    }
+
+    // Neues Hindernis in der Spur eines alten: Breite, Tempo und Seite zufällig
+    private static Obstacle respawn(Obstacle old, FastRandom random) {
+        int width = (int) (random.nextDouble() * 3 + 2) * GameEngine.PLAYER_SIZE;
+        int speed = (int) (random.nextDouble() * 3 + 3) * 2;
+        if (random.nextDouble() < 0.5) {
+            return new Obstacle(-width, old.y, width, old.height, speed, old.lethal, old.rideable);
+        }
+        return new Obstacle(GameEngine.PANEL_WIDTH, old.y, width, old.height, -speed, old.lethal, old.rideable);
+    }
+
+    // Kollision und Tragen über die ganze Liste (Reihenfolge wie die Engine:
+    // erst Tödliches, dann das erste Tragende)
+    private static boolean collides(ArrayList<Obstacle> list, Player player, LevelMap map) {
+        LaneType zone = map.zoneAt(player.getY());
+        if (zone == LaneType.ROAD) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).lethal && list.get(i).intersects(player)) {
+                    return true;
+                }
+            }
+        }
+        if (zone == LaneType.RIVER) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).rideable && list.get(i).intersects(player)) {
+                    player.moveWithObstacle(list.get(i).speed);
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Zufällige Spieler im Fluss und auf der Straße: Ergebnis der Engine
+    // gegen eine Suche über alle Slots aller Archetypen
+    private static boolean checkCollisions(LevelMap map) {
+        GameEngine engine = new GameEngine(Bench.SEED, map);
+        engine.populate(3, 300);
+        FastRandom random = new FastRandom(Bench.SEED);
+        Player player = new Player(0, 0);
+        long submerged = 0;
+        long surfaced = 0;
+        long probes = 0;
+        int wrong = 0;
+        for (int t = 0; t < TICKS; t++) {
+            engine.moveObstacles();
+            ObstacleStore turtles = engine.getTurtles();
+            for (int i = 0; i < turtles.size(); i++) {
+                if (turtles.isSubmerged(i)) {
+                    submerged++;
+                } else {
+                    surfaced++;
+                }
+            }
+            for (int p = 0; p < PROBES; p++) {
+                int x = (int) (random.nextDouble() * (GameEngine.PANEL_WIDTH - GameEngine.PLAYER_SIZE));
+                int y = 40 + (int) (random.nextDouble() * 500);
+                player.reset(x, y);
+                boolean dead = engine.collides(player);
+                int carried = player.getX() - x;
+                if (!agrees(engine, x, y, dead, carried)) {
+                    wrong++;
+                }
+                probes++;
+            }
+        }
+        System.out.printf(Locale.ROOT, "Schildkröten: %.1f%% der Zeit abgetaucht; %d Kollisionsproben, %d falsch%n",
+                100.0 * submerged / Math.max(1, submerged + surfaced), probes, wrong);
+        return wrong == 0 && submerged > 0 && surfaced > 0;
+    }
+
+    // True wenn Tod bzw. Tragen zu einer Suche über alle Slots passt. Das
+    // Spiel trägt mit dem ersten Tragenden in Index-Reihenfolge (oberstes
+    // Band des LaneIndex, darin kleinstes X); bei gleichem X entscheidet die
+    // Einfügereihenfolge - dann zählt jedes davon.
+    private static boolean agrees(GameEngine engine, int x, int y, boolean dead, int carried) {
+        Player probe = new Player(x, y);
+        LaneType zone = engine.getMap().zoneAt(y);
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            ObstacleStore store = engine.getArchetype(a);
+            boolean counts = zone == LaneType.ROAD ? store.has(ObstacleStore.LETHAL)
+                    : zone == LaneType.RIVER && store.has(ObstacleStore.RIDEABLE);
+            if (!counts) {
+                continue;
+            }
+            long first = Long.MAX_VALUE;   // Band und X des ersten Treffers
+            if (zone == LaneType.ROAD) {
+                for (int i = 0; i < store.size(); i++) {
+                    if (sweeps(probe, store, i)) {
+                        return dead;
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < store.size(); i++) {
+                if (touches(probe, store, i)) {
+                    first = Math.min(first, order(store, i));
+                }
+            }
+            if (first == Long.MAX_VALUE) {
+                continue;
+            }
+            for (int i = 0; i < store.size(); i++) {
+                if (!dead && touches(probe, store, i) && order(store, i) == first && store.stepX(i) == carried) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return dead == (zone == LaneType.RIVER) && carried == 0;
+    }
+
+    private static boolean touches(Player probe, ObstacleStore store, int slot) {
+        return !store.isSubmerged(slot)
+                && probe.intersects(store.getX(slot), store.getY(slot), store.getWidth(slot), store.getHeight(slot));
+    }
+
+    // Tödliches zählt über den ganzen Weg seit dem letzten Takt
+    private static boolean sweeps(Player probe, ObstacleStore store, int slot) {
+        int y = store.getY(slot);
+        long tick = store.getTick();
+        return probe.getY() < y + store.getHeight(slot) && y < probe.getY() + probe.getHeight()
+                && store.sweptLeftAt(slot, tick) < probe.getX() + probe.getWidth()
+                && store.sweptRightAt(slot, tick) > probe.getX()
+                && !store.isSubmerged(slot);
+    }
+
+    private static long order(ObstacleStore store, int slot) {
+        return (long) Math.floorDiv(store.getY(slot), GameEngine.OBSTACLE_HEIGHT) << 32
+                | (store.getX(slot) & 0xFFFFFFFFL) ^ 0x80000000L;
+    }
+
+    // Zufällige Rechtecke bis LOOKAHEAD_TICKS Takte voraus: Ergebnis von
+    // findIntersectingAt() gegen eine Suche über alle Slots des Archetyps
+    // (erster Treffer in Index-Reihenfolge wie in agrees())
+    private static boolean checkLookahead(LevelMap map) {
+        GameEngine engine = new GameEngine(Bench.SEED, map);
+        engine.populate(3, 300);
+        FastRandom random = new FastRandom(~Bench.SEED);
+        long probes = 0;
+        long hits = 0;
+        int wrong = 0;
+        for (int t = 0; t < TICKS / 10; t++) {
+            engine.moveObstacles();
+            for (int p = 0; p < PROBES; p++) {
+                int a = (int) (random.nextDouble() * engine.getArchetypeCount());
+                ObstacleStore store = engine.getArchetype(a);
+                int width = (int) (random.nextDouble() * 3 + 1) * GameEngine.PLAYER_SIZE;
+                int x = (int) (random.nextDouble() * (GameEngine.PANEL_WIDTH - width));
+                int y = 40 + (int) (random.nextDouble() * 500);
+                long tick = store.getTick() + (long) (random.nextDouble() * LOOKAHEAD_TICKS);
+                int found = engine.getIndex(a).findIntersectingAt(x, y, width, GameEngine.PLAYER_SIZE, tick);
+
+                long first = Long.MAX_VALUE;
+                for (int i = 0; i < store.size(); i++) {
+                    if (touchesAt(store, i, x, y, width, tick)) {
+                        first = Math.min(first, order(store, i));
+                    }
+                }
+                boolean right = found < 0 ? first == Long.MAX_VALUE
+                        : touchesAt(store, found, x, y, width, tick) && order(store, found) == first;
+                wrong += right ? 0 : 1;
+                hits += found >= 0 ? 1 : 0;
+                probes++;
+            }
+        }
+        System.out.printf(Locale.ROOT, "Vorausschau: %d Proben, %d Treffer, %d falsch%n", probes, hits, wrong);
+        return wrong == 0 && hits > 0;
+    }
+
+    private static boolean touchesAt(ObstacleStore store, int slot, int x, int y, int width, long tick) {
+        int ox = store.xAt(slot, tick);
+        int oy = store.getY(slot);
+        return !store.isSubmergedAt(slot, tick)
+                && x < ox + store.getWidth(slot) && ox < x + width
+                && y < oy + store.getHeight(slot) && oy < y + GameEngine.PLAYER_SIZE;
+    }
+
+    // Spielstand mitten im Spiel laden und gleich weiterspielen
+    private static boolean checkSnapshot(LevelMap map) throws IOException {
+        GameEngine original = new GameEngine(Bench.SEED, map);
+        RandomBot bot = new RandomBot(~Bench.SEED);
+        for (int t = 0; t < TICKS / 2; t++) {
+            play(original, bot.decide(original));
+        }
+        GameEngine copy = new GameEngine(0, map);
+        new GameSnapshot().restore(copy, new GameSnapshot().save(original));
+        int wrong = 0;
+        for (int t = 0; t < TICKS / 2; t++) {
+            Input input = bot.decide(original);
+            play(original, input);
+            play(copy, input);
+            wrong += checksum(original) == checksum(copy) ? 0 : 1;
+        }
+        System.out.println("Spielstand mit Schildkröten: " + wrong + " Abweichungen");
+        return wrong == 0;
+    }
+
+    // Jedes gehaltene Bild muss beim Zurückspulen genau wiederkommen
+    private static boolean checkRewind(LevelMap map) {
+        GameEngine engine = new GameEngine(Bench.SEED, map);
+        RewindBuffer buffer = new RewindBuffer(engine);
+        RandomBot bot = new RandomBot(Bench.SEED);
+        long[] checksums = new long[TICKS + 1];
+        checksums[0] = checksum(engine);
+        for (int t = 1; t <= TICKS; t++) {
+            play(engine, bot.decide(engine));
+            checksums[(int) buffer.getNewestFrame()] = checksum(engine);
+        }
+        GameEngine target = new GameEngine(0, map);
+        int wrong = 0;
+        for (long frame = buffer.getNewestFrame(); frame >= buffer.getOldestFrame(); frame--) {
+            buffer.seek(target, frame);
+            wrong += checksum(target) == checksums[(int) frame] ? 0 : 1;
+        }
+        System.out.println("Zurückspulen mit Schildkröten: " + buffer.getFrameCount() + " Bilder, "
+                + wrong + " Abweichungen");
+        return wrong == 0;
+    }
+
+    // Ein Takt; nach Spielende sofort neu starten
+    private static void play(GameEngine engine, Input input) {
+        if (!engine.isRunning()) {
+            engine.applyInput(Input.RESTART);
+        }
+        engine.applyInput(input);
+        engine.updateGame();
+    }
+
+    private static long checksum(GameEngine engine) {
+        ByteBuffer state = new GameSnapshot().save(engine);
+        CRC32 crc = new CRC32();
+        crc.update(state);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,130 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.Locale;
+
+// Misst den Bildexport ohne Fenster (java.awt.headless=true): ein Spiel mit
+// dem PlannerBot wird Takt für Takt gezeichnet und als PNG geschrieben.
+// Ausgegeben werden Bilder/s, Bilder pro CPU-Sekunde ("pro Kern"), die
+// Spitze des Heaps und wie lange das Zeichnen auf freie Bilder warten musste.
+// Zum Vergleich läuft derselbe Export ohne Gegendruck (sehr viele Bilder im
+// Umlauf) - der Heap wächst dann mit, mit Gegendruck bleibt er flach.
+// Endet mit Exit-Code 1, wenn zwei Läufe verschiedene Bilder zeichnen.
+//
+// Aufruf: java ExportBenchmark [bilder] [worker,...]
+public class ExportBenchmark {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        int frames = Bench.intList(args, 0, 600)[0];
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] workerCounts = Bench.intList(args, 1, 1, 2, Math.max(4, cores));
+
+        File directory = Files.createTempDirectory("frogger-export").toFile();
+        try {
+            System.out.printf(Locale.ROOT, "%d Kerne, %d Bilder %dx%d%n",
+                    cores, frames, GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT);
+            long reference = run("Aufwärmen", directory, frames, 1, 2, 0);
+            run("nur zeichnen", null, frames, 1, 2, 0);
+
+            boolean same = true;
+            for (int workers : workerCounts) {
+                same &= run(workers + " Worker", directory, frames, workers, 2 * workers, 0) == reference;
+            }
+            run("Vorschau 200px", directory, frames, 1, 2, 200);
+            same &= run("ohne Gegendruck", directory, frames, 1, frames, 0) == reference;
+
+            if (!same) {
+                System.out.println("FEHLER: Läufe zeichnen verschiedene Bilder");
+                System.exit(1);
+            }
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    // Ein Exportlauf; ohne Ordner wird nur gezeichnet. Liefert eine
+    // Prüfsumme über alle gezeichneten Pixel.
+    private static long run(String name, File directory, int frames, int workers,
+                            int inFlight, int thumbnailWidth) throws IOException, InterruptedException {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        System.gc();
+        resetHeapPeak();
+
+        GameEngine engine = new GameEngine(Bench.SEED);
+        PlannerBot bot = new PlannerBot();
+        OffscreenRenderer renderer = new OffscreenRenderer(new GameRenderer(engine));
+        FrameExporter exporter = directory == null ? null
+                : new FrameExporter(directory, workers, inFlight, thumbnailWidth);
+        BufferedImage scratch = OffscreenRenderer.newFrame();
+        long checksum = 0;
+
+        long cpuStart = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            if (!engine.isRunning()) {
+                engine.resetGame();
+            }
+            engine.step(bot.decide(engine));
+
+            BufferedImage frame = exporter == null ? scratch : exporter.acquire();
+            renderer.render(frame);
+            checksum = checksum * 31 + hash(OffscreenRenderer.pixels(frame));
+            if (exporter != null) {
+                exporter.submit(frame, String.format(Locale.ROOT, "frame-%08d", i));
+            }
+        }
+        if (exporter != null) {
+            exporter.close();
+        }
+        double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+        double cpuSeconds = Math.max(1, os.getProcessCpuTime() - cpuStart) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%-18s %8.1f Bilder/s %8.1f pro Kern  Heap-Spitze %6.1f MB",
+                name, frames / seconds, frames / cpuSeconds, heapPeak() / 1e6);
+        if (exporter != null) {
+            System.out.printf(Locale.ROOT, "  %4d im Umlauf  %6.0f ms gebremst  %6.1f KB/Bild",
+                    exporter.getFramesAllocated(), exporter.getWaitNanos() / 1e6,
+                    exporter.getBytesWritten() / 1e3 / Math.max(1, exporter.getFramesWritten()));
+        }
+        System.out.println();
+        return checksum;
+    }
+
+    private static long hash(int[] pixels) {
+        long h = 0;
+        for (int p : pixels) {
+            h = h * 0x9E3779B97F4A7C15L + p;
+        }
+        return h;
+    }
+
+    private static void resetHeapPeak() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // Summe der Spitzen aller Heap-Bereiche seit resetHeapPeak()
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
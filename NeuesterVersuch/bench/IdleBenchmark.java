@@ -0,0 +1,160 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ruhezustand der Spielschleife (ohne Fenster): misst je Zustand für eine
+// feste Dauer die Durchläufe der Schleife (jedes Aufwachen des Threads), die
+// gezeichneten Bilder und die CPU-Zeit des Schleifen-Threads
+//  - Spiel läuft (Vergleich),
+//  - Pausetaste, Fokus verloren, Fenster minimiert,
+//  - Endbildschirm (Game Over) ohne Eingabe.
+// Prüft, dass die Schleife in jedem Ruhezustand kein einziges Mal aufwacht
+// und nichts zeichnet, dass eine Eingabe sie vom Endbildschirm sofort weckt
+// (Neustart) und dass Tasten während der Pause verfallen.
+// Endet mit Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf: java IdleBenchmark [millisekunden je Zustand]
+public class IdleBenchmark {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final AtomicLong frames = new AtomicLong();   // Gezeichnete Bilder
+
+    private static String error;   // Erste fehlgeschlagene Prüfung
+
+    public static void main(String[] args) throws InterruptedException {
+        int millis = Bench.intList(args, 0, 1000)[0];
+
+        // Schleife mit 60 Bildern/s; "Zeichnen" zählt nur mit
+        GameEngine engine = new GameEngine(Bench.SEED);
+        GameLoop loop = new GameLoop(engine, new GameConfig(GameConfig.DEFAULT_TICK_RATE, 60),
+                alpha -> frames.incrementAndGet());
+        loop.start();
+        long thread = loopThread();
+
+        measure("Spiel läuft", loop, thread, millis, false);
+        for (int reason : new int[] {GameLoop.PAUSED, GameLoop.UNFOCUSED, GameLoop.ICONIFIED}) {
+            loop.suspend(reason);
+            measure(name(reason), loop, thread, millis, true);
+            loop.resume(reason);
+        }
+        measure("Alle Gründe zurückgenommen", loop, thread, millis, false);
+
+        // Tasten während der Pause verfallen
+        loop.suspend(GameLoop.PAUSED);
+        awaitResting(loop);
+        int y;
+        synchronized (engine) {
+            y = engine.getPlayer().getY();
+        }
+        loop.submit(Input.UP);
+        awaitResting(loop);
+        loop.resume(GameLoop.PAUSED);
+        Thread.sleep(200);
+        synchronized (engine) {
+            if (engine.getPlayer().getY() != y) {
+                fail("Taste während der Pause wurde angewendet");
+            }
+        }
+
+        // Endbildschirm: Spieler läuft nach oben, bis das Spiel vorbei ist
+        for (int i = 0; i < 100_000; i++) {
+            synchronized (engine) {
+                if (!engine.isRunning()) {
+                    break;
+                }
+            }
+            loop.submit(Input.UP);
+            Thread.sleep(1);
+        }
+        synchronized (engine) {
+            if (engine.isRunning()) {
+                fail("Spiel nicht zu Ende gekommen");
+            }
+        }
+        measure("Endbildschirm", loop, thread, millis, true);
+
+        // Neustart weckt die Schleife
+        long start = System.nanoTime();
+        loop.submit(Input.RESTART);
+        boolean restarted = false;
+        while (!restarted && System.nanoTime() - start < 1_000_000_000L) {
+            synchronized (engine) {
+                restarted = engine.isRunning();
+            }
+            Thread.onSpinWait();
+        }
+        System.out.printf(Locale.ROOT, "Neustart vom Endbildschirm nach %.2f ms%n", (System.nanoTime() - start) / 1e6);
+        if (!restarted) {
+            fail("Eingabe hat die Schleife nicht geweckt");
+        }
+        measure("Nach dem Neustart", loop, thread, millis, false);
+        loop.stop();
+
+        if (error != null) {
+            System.out.println("FEHLER: " + error);
+            System.exit(1);
+        }
+        System.out.println("Schleife ruht ohne Aufwachen, Eingaben wecken sie");
+    }
+
+    // Misst Durchläufe, Bilder und CPU-Zeit über 'millis'; im Ruhezustand
+    // erst, wenn die Schleife ihr letztes Bild gezeichnet hat und parkt
+    private static void measure(String name, GameLoop loop, long thread, int millis, boolean idle)
+            throws InterruptedException {
+        if (idle) {
+            awaitResting(loop);
+        }
+        long wakeups = loop.getWakeups();
+        long drawn = frames.get();
+        long cpu = THREADS.getThreadCpuTime(thread);
+        long start = System.nanoTime();
+        Thread.sleep(millis);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        wakeups = loop.getWakeups() - wakeups;
+        drawn = frames.get() - drawn;
+        cpu = THREADS.getThreadCpuTime(thread) - cpu;
+        System.out.printf(Locale.ROOT, "%-28s %8.1f Aufwachen/s %6.1f Bilder/s %8.3f ms CPU/s%n",
+                name, wakeups / seconds, drawn / seconds, cpu / 1e6 / seconds);
+        if (idle && (wakeups != 0 || drawn != 0)) {
+            fail(name + ": " + wakeups + "x aufgewacht, " + drawn + " Bilder");
+        }
+        if (!idle && wakeups == 0) {
+            fail(name + ": Schleife läuft nicht");
+        }
+    }
+
+    // Wartet, bis die Schleife parkt (höchstens eine Sekunde)
+    private static void awaitResting(GameLoop loop) throws InterruptedException {
+        for (int i = 0; i < 1000 && !loop.isResting(); i++) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);   // Letztes Bild zeichnen und parken
+    }
+
+    private static long loopThread() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("GameLoop")) {
+                return thread.getId();
+            }
+        }
+        throw new IllegalStateException("Kein GameLoop-Thread");
+    }
+
+    private static String name(int reason) {
+        switch (reason) {
+            case GameLoop.PAUSED:
+                return "Pausetaste";
+            case GameLoop.UNFOCUSED:
+                return "Fokus verloren";
+            default:
+                return "Fenster minimiert";
+        }
+    }
+
+    private static void fail(String message) {
+        if (error == null) {
+            error = message;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.Locale;
+
+// Belastungstest für die InputQueue mit einem Erzeuger- und einem
+// Verbraucher-Thread (wie EDT und Spielschleife):
+//  1. Erzeuger wiederholt bei vollem Puffer - alle Eingaben müssen in
+//     Reihenfolge und vollständig ankommen.
+//  2. Erzeuger verwirft bei vollem Puffer - was ankommt, muss in Reihenfolge
+//     sein, und angekommen + verworfen muss die Gesamtzahl ergeben.
+// Die laufende Nummer steckt im Zeitstempel. Gemessen wird außerdem, wie
+// lange offer() braucht (der Erzeuger darf nie blockieren; einzelne hohe
+// Maxima stammen vom Betriebssystem, das den Thread verdrängt).
+// Endet mit Exit-Code 1, wenn etwas verloren geht oder vertauscht ist.
+//
+// Aufruf: java InputQueueStressTest [ereignisse] [kapazität]
+public class InputQueueStressTest {
+    private static final Input[] MOVES = {Input.UP, Input.LEFT, Input.DOWN, Input.RIGHT};
+
+    public static void main(String[] args) throws InterruptedException {
+        int events = Bench.intList(args, 0, 10_000_000)[0];
+        int capacity = Bench.intList(args, 1, 256)[0];
+
+        boolean ok = run("Wiederholen bei vollem Puffer", events, capacity, true);
+        ok &= run("Verwerfen bei vollem Puffer", events, capacity, false);
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String name, int events, int capacity, boolean retry)
+            throws InterruptedException {
+        InputQueue queue = new InputQueue(capacity, CoalescingPolicy.ALL);
+        LatencyHistogram offerNanos = new LatencyHistogram();
+        long[] accepted = new long[1];
+
+        Thread producer = new Thread(() -> {
+            for (long seq = 0; seq < events; seq++) {
+                Input input = MOVES[(int) (seq & 3)];
+                long start = System.nanoTime();
+                boolean added = queue.offer(input, seq);
+                offerNanos.record(System.nanoTime() - start);
+                if (added) {
+                    accepted[0]++;
+                } else if (retry) {
+                    seq--;               // Gleiche Nummer noch einmal
+                    Thread.yield();      // Verbraucher zum Zug kommen lassen
+                }
+            }
+        }, "Erzeuger");
+
+        Consumer consumer = new Consumer();
+        long start = System.nanoTime();
+        producer.start();
+        while (producer.isAlive() || queue.size() > 0) {
+            if (queue.drain(consumer) == 0) {
+                Thread.yield();
+            }
+        }
+        producer.join();
+        queue.drain(consumer);
+        long nanos = System.nanoTime() - start;
+
+        // Beim Wiederholen zählt jeder abgelehnte Versuch als verworfen
+        boolean ok = consumer.errors == 0 && consumer.received == accepted[0]
+                && (retry ? accepted[0] == events : accepted[0] + queue.getDropped() == events);
+        System.out.printf(Locale.ROOT, "%s: %d empfangen, %d verworfen, %d Fehler, %.1f Mio/s%n",
+                name, consumer.received, queue.getDropped(), consumer.errors,
+                consumer.received * 1e3 / nanos);
+        System.out.printf(Locale.ROOT, "  offer(): p50 %d ns, p99 %d ns, p99.99 %d ns, max %d ns%n",
+                offerNanos.getPercentile(50), offerNanos.getPercentile(99),
+                offerNanos.getPercentile(99.99), offerNanos.getMax());
+        System.out.println(ok ? "  OK" : "  FEHLER");
+        return ok;
+    }
+
+    // Prüft, dass die Nummern streng steigen und die Eingabe zur Nummer passt
+    private static class Consumer implements InputQueue.Sink {
+        long last = -1;
+        long received;
+        long errors;
+
+        @Override
+        public void accept(Input input, long seq) {
+            if (seq <= last || input != MOVES[(int) (seq & 3)]) {
+                errors++;
+            }
+            last = seq;
+            received++;
+        }
+    }
+}
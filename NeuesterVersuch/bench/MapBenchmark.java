@@ -0,0 +1,126 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Große Karten: schreibt eine Textkarte mit vielen Spuren, übersetzt sie
+// zeilenweise in eine Datei und vergleicht dann
+//  - Text komplett einlesen und übersetzen (wie beim Start ohne Binärform),
+//  - die übersetzte Datei einblenden (mmap, Spuren erst beim Zugriff),
+//  - Zugriffe auf zufällige Spuren und ein Spiel auf der Karte.
+// Prüft außerdem, dass die klassische Karte als Datei dasselbe Spiel ergibt
+// wie die eingebaute. Endet mit Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf: java MapBenchmark [spuren]
+public class MapBenchmark {
+    private static final int TICKS = 2_000;
+
+    public static void main(String[] args) throws IOException {
+        int lanes = Bench.intList(args, 0, 100_000)[0];
+        Path text = Files.createTempFile("frogger", ".txt");
+        Path binary = Files.createTempFile("frogger", ".fmap");
+        try {
+            writeText(text, lanes);
+            long start = System.nanoTime();
+            try (BufferedReader in = Files.newBufferedReader(text)) {
+                MapCompiler.compile(in, binary);
+            }
+            System.out.printf(Locale.ROOT, "%d Spuren: Text %d KB, übersetzt %d KB in %.1f ms%n", lanes,
+                    Files.size(text) >> 10, Files.size(binary) >> 10, (System.nanoTime() - start) / 1e6);
+
+            Bench.measure("Text einlesen und übersetzen", () -> load(text, false).getLaneCount());
+            Bench.measure("Übersetzt einblenden (mmap)", () -> load(binary, false).getLaneCount());
+            Bench.measure("Einblenden und komplett prüfen", () -> load(binary, true).getLaneCount());
+            LevelMap map = LevelMap.open(binary);
+            FastRandom random = new FastRandom(Bench.SEED);
+            Bench.measure("Zufällige Spur lesen", () -> {
+                int lane = (int) (random.nextDouble() * map.getLaneCount());
+                return map.getLaneTop(lane) + map.getMaxSpeed(1, lane);
+            });
+
+            // Spiel auf der großen Karte: Start (liest jede Spur), dann Takte
+            // mit Neuerzeugung
+            Bench.measure("Spiel starten", () -> new GameEngine(Bench.SEED, map).getCars().size());
+            GameEngine engine = new GameEngine(Bench.SEED, map);
+            start = System.nanoTime();
+            for (int i = 0; i < TICKS; i++) {
+                engine.updateGame();
+            }
+            System.out.printf(Locale.ROOT, "Spiel: %d Hindernisse, %.1f µs/Takt%n",
+                    engine.getCars().size() + engine.getLogs().size(), (System.nanoTime() - start) / 1e3 / TICKS);
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+        }
+
+        if (!classicMatches()) {
+            System.out.println("FEHLER: klassische Karte als Datei weicht ab");
+            System.exit(1);
+        }
+        System.out.println("Klassische Karte als Datei: gleiches Spiel wie eingebaut");
+    }
+
+    private static LevelMap load(Path file, boolean validate) {
+        try {
+            LevelMap map = LevelMap.load(file);
+            if (validate) {
+                map.validate();
+            }
+            return map;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Klassische Zonen, darin zufällige Spuren; nur wenige bringen zum Start
+    // Hindernisse mit
+    private static void writeText(Path file, int lanes) throws IOException {
+        FastRandom random = new FastRandom(Bench.SEED);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("frogger-map 1\npoints 10 20 30 40 50\n");
+            out.write("zone safe 0 40\nzone river 40 200\nzone safe 200 250\nzone road 250 540\nzone safe 540 600\n");
+            StringBuilder line = new StringBuilder();
+            for (int lane = 0; lane < lanes; lane++) {
+                boolean road = random.nextDouble() < 0.5;
+                int top = road ? 250 + 30 * (int) (random.nextDouble() * 8) : 40 * (int) (random.nextDouble() * 4);
+                line.setLength(0);
+                line.append(road ? "lane road " : "lane river ").append(top).append(' ')
+                        .append(top + GameEngine.OBSTACLE_HEIGHT).append(road ? " 2-4 2" : " 5-6 2");
+                for (int level = 1; level <= 5; level++) {
+                    int count = lane % 1000 == 0 ? 2 : 0;
+                    line.append(' ').append(count).append(':').append(level).append('-').append(level + 2);
+                }
+                out.write(line.append('\n').toString());
+            }
+        }
+    }
+
+    private static boolean classicMatches() throws IOException {
+        Path file = Files.createTempFile("classic", ".fmap");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                out.write(String.join("\n",
+                        "frogger-map 1", "points 10 20 30 40 50",
+                        "zone safe 0 40", "zone river 40 200", "zone safe 200 250",
+                        "zone road 250 540", "zone safe 540 600",
+                        "lane road 250 540 2-4 2 8:1-3 2:2-4 3:3-5 4:4-6 5:5-7",
+                        "lane river 0 200 5-6 2 8:1-2 2:2-3 3:3-4 4:4-5 5:5-6"));
+            }
+            GameEngine builtIn = new GameEngine(Bench.SEED);
+            GameEngine loaded = new GameEngine(Bench.SEED, LevelMap.load(file));
+            for (int i = 0; i < TICKS; i++) {
+                Input input = i % 7 == 0 ? Input.UP : Input.NONE;
+                builtIn.step(builtIn.isRunning() ? input : Input.RESTART);
+                loaded.step(loaded.isRunning() ? input : Input.RESTART);
+            }
+            GameSnapshot a = new GameSnapshot();
+            GameSnapshot b = new GameSnapshot();
+            return a.save(builtIn).equals(b.save(loaded));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
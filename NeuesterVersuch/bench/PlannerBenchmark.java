@@ -0,0 +1,82 @@
+import java.util.Locale;
+
+// Misst die Entscheidungszeit des PlannerBot je Hindernisanzahl (Level 5),
+// einmal mit fortgeschriebenem Gitter und einmal mit Neuberechnung bei jeder
+// Entscheidung. Zum Vergleich: ein Takt dauert bei 20 Takten/s 50 ms.
+// Bei hoher Dichte ist kein Durchkommen - damit nicht jeder Takt ein
+// Neustart ist, läuft die Welt weiter und der Spieler startet nach einem
+// Treffer unten neu (wie auf dem Mehrspieler-Server).
+// Dazu, wie weit der Planer im normalen Spiel kommt.
+//
+// Aufruf: java PlannerBenchmark [anzahlen] [takte]
+public class PlannerBenchmark {
+    private static final int LEVEL = LevelMap.classic().getLevelCount();
+    private static final int WARMUP_TICKS = 2_000;
+
+    public static void main(String[] args) {
+        int[] counts = Bench.intList(args, 0, 64, 256, 1024, 4096, 10_000);
+        int ticks = Bench.intList(args, 1, 5_000)[0];
+
+        System.out.printf("%-28s %10s %10s %10s %12s%n", "Level 5", "p50 us", "p99 us", "max us", "Ebenen/Takt");
+        for (int count : counts) {
+            for (boolean memoize : new boolean[] { true, false }) {
+                measure(count, ticks, memoize);
+            }
+        }
+        System.out.println();
+        playNormalGames(20);
+    }
+
+    // Normale Spiele bis zum Ende: wie viele gewinnt der Planer?
+    private static void playNormalGames(int games) {
+        int won = 0;
+        long levels = 0;
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 0; i < games; i++) {
+            GameEngine engine = new GameEngine(Bench.SEED + i);
+            PlannerBot bot = new PlannerBot();
+            while (engine.isRunning()) {
+                long start = System.nanoTime();
+                Input input = bot.decide(engine);
+                latency.record(System.nanoTime() - start);
+                engine.step(input);
+            }
+            won += engine.isGameWon() ? 1 : 0;
+            levels += engine.getCurrentLevel();
+        }
+        System.out.printf(Locale.ROOT, "Normales Spiel: %d von %d gewonnen, im Mittel Level %.2f, "
+                        + "Entscheidung p50 %.1f us, p99 %.1f us%n", won, games, levels / (double) games,
+                latency.getPercentile(50) / 1e3, latency.getPercentile(99) / 1e3);
+    }
+
+    private static void measure(int count, int ticks, boolean memoize) {
+        GameEngine engine = new GameEngine(Bench.SEED);
+        engine.populate(LEVEL, count);
+        PlannerBot bot = new PlannerBot(memoize);
+        LatencyHistogram latency = new LatencyHistogram();
+        long expansionsBefore = 0;
+        Player player = engine.getPlayer();
+        int startX = player.getX();
+        int startY = player.getY();
+        for (int i = 0; i < WARMUP_TICKS + ticks; i++) {
+            if (i == WARMUP_TICKS) {
+                latency.reset();
+                expansionsBefore = bot.getExpandedLayers();
+            }
+            long start = System.nanoTime();
+            Input input = bot.decide(engine);
+            latency.record(System.nanoTime() - start);
+
+            // Takt ohne Spielende
+            engine.movePlayer(player, input);
+            engine.moveObstacles();
+            if (engine.collides(player) || player.getY() < engine.getMap().getGoalY()) {
+                player.reset(startX, startY);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%-28s %10.1f %10.1f %10.1f %12.0f%n",
+                "n=" + count + (memoize ? " fortgeschrieben" : " neu berechnet"),
+                latency.getPercentile(50) / 1e3, latency.getPercentile(99) / 1e3, latency.getMax() / 1e3,
+                (bot.getExpandedLayers() - expansionsBefore) / (double) ticks);
+    }
+}
@@ -0,0 +1,135 @@
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+// Prüft und misst den Rückspulpuffer:
+//  - ein Zufallsspieler spielt lange (mit Neustarts), zu jedem Bild wird die
+//    Prüfsumme des echten Spielstands gemerkt,
+//  - eine zweite Engine wird kreuz und quer durch den Puffer gespult
+//    (zufällig rückwärts und Bild für Bild vorwärts) und muss jedes Mal
+//    genau diesen Spielstand haben,
+//  - Zurückspulen im laufenden Spiel und eine Aufzeichnung mit REWIND
+//    spielen identisch weiter.
+// Ausgegeben werden Seek-Zeiten, gehaltene Sekunden und belegter Speicher.
+// Endet mit Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf: java RewindBenchmark [takte] [speicher-kb]
+public class RewindBenchmark {
+    private static final int RANDOM_SEEKS = 2_000;
+
+    public static void main(String[] args) {
+        int ticks = Bench.intList(args, 0, 200_000)[0];
+        int capacity = Bench.intList(args, 1, 1024)[0] << 10;
+
+        GameEngine engine = new GameEngine(Bench.SEED);
+        RewindBuffer buffer = new RewindBuffer(engine, capacity, RewindBuffer.DEFAULT_KEYFRAME_INTERVAL);
+        RandomBot bot = new RandomBot(~Bench.SEED);
+        long[] checksums = new long[ticks + 1];
+        checksums[0] = checksum(engine);
+        for (int i = 1; i <= ticks; i++) {
+            play(engine, bot);
+            checksums[(int) buffer.getNewestFrame()] = checksum(engine);
+        }
+
+        long frames = buffer.getFrameCount();
+        System.out.printf(Locale.ROOT, "%d Takte gespielt, %d Bilder gehalten (%.1f s bei %d Takten/s)%n",
+                ticks, frames, frames / (double) GameConfig.DEFAULT_TICK_RATE, GameConfig.DEFAULT_TICK_RATE);
+        System.out.printf(Locale.ROOT, "Speicher: %d von %d Bytes belegt, Obergrenze %d (%.1f Bytes/Bild)%n",
+                buffer.getUsedBytes(), buffer.getCapacityBytes(), capacity,
+                buffer.getUsedBytes() / (double) frames);
+        boolean ok = buffer.getCapacityBytes() <= capacity;
+
+        // Zufällige Sprünge (meist ab Schlüsselbild)
+        GameEngine target = new GameEngine(0);
+        FastRandom random = new FastRandom(Bench.SEED);
+        LatencyHistogram jumps = new LatencyHistogram();
+        int wrong = 0;
+        for (int i = 0; i < RANDOM_SEEKS; i++) {
+            long frame = buffer.getOldestFrame() + (long) (random.nextDouble() * frames);
+            long start = System.nanoTime();
+            buffer.seek(target, frame);
+            jumps.record(System.nanoTime() - start);
+            wrong += checksum(target) == checksums[(int) frame] ? 0 : 1;
+        }
+        print("Seek zufällig", jumps);
+
+        // Scrubben: Bild für Bild vorwärts, dann rückwärts
+        LatencyHistogram forward = new LatencyHistogram();
+        LatencyHistogram backward = new LatencyHistogram();
+        for (long frame = buffer.getOldestFrame(); frame <= buffer.getNewestFrame(); frame++) {
+            long start = System.nanoTime();
+            buffer.seek(target, frame);
+            forward.record(System.nanoTime() - start);
+            wrong += checksum(target) == checksums[(int) frame] ? 0 : 1;
+        }
+        for (long frame = buffer.getNewestFrame(); frame >= buffer.getOldestFrame(); frame--) {
+            long start = System.nanoTime();
+            buffer.seek(target, frame);
+            backward.record(System.nanoTime() - start);
+            wrong += checksum(target) == checksums[(int) frame] ? 0 : 1;
+        }
+        print("Scrubben vorwärts", forward);
+        print("Scrubben rückwärts", backward);
+        System.out.println("Abweichende Spielstände: " + wrong);
+        ok &= wrong == 0;
+
+        ok &= checkLiveRewind(ticks / 10);
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Spielt mit REWIND-Eingaben (aufgezeichnet) und prüft, dass das
+    // Zurückspulen den Stand von vor getRewindTicks() Bildern herstellt und die
+    // Aufzeichnung genauso abläuft
+    private static boolean checkLiveRewind(int ticks) {
+        GameEngine engine = new GameEngine(Bench.SEED);
+        RewindBuffer buffer = new RewindBuffer(engine);
+        ReplayRecorder recorder = new ReplayRecorder(engine);
+        RandomBot bot = new RandomBot(Bench.SEED);
+        GameEngine expected = new GameEngine(0);
+        int rewinds = 0;
+        int wrong = 0;
+        for (int i = 1; i <= ticks; i++) {
+            play(engine, bot);
+            if (i % 97 == 0) {
+                long frame = Math.max(buffer.getOldestFrame(),
+                        buffer.getNewestFrame() - buffer.getRewindTicks());
+                buffer.seek(expected, frame);
+                engine.applyInput(Input.REWIND);
+                rewinds++;
+                // Bis auf den weiterlaufenden Takt gleich
+                expected.setStatus(engine.getTick(), expected.getScore(), expected.getCurrentLevel(),
+                        expected.isGameWon(), expected.isGameOver());
+                wrong += checksum(expected) == checksum(engine) ? 0 : 1;
+            }
+        }
+        Replay replay = recorder.toReplay();
+        boolean same = replay.matches(replay.simulate());
+        System.out.println("Zurückspulen im Spiel: " + rewinds + "x, " + wrong + " Abweichungen, Aufzeichnung "
+                + (same ? "identisch" : "ABWEICHUNG"));
+        return wrong == 0 && same;
+    }
+
+    // Ein Takt mit Zufallsspieler; nach Spielende sofort neu starten
+    private static void play(GameEngine engine, RandomBot bot) {
+        if (!engine.isRunning()) {
+            engine.applyInput(Input.RESTART);
+        }
+        engine.applyInput(bot.decide(engine));
+        engine.updateGame();
+    }
+
+    private static long checksum(GameEngine engine) {
+        ByteBuffer state = new GameSnapshot().save(engine);
+        CRC32 crc = new CRC32();
+        crc.update(state);
+        return crc.getValue();
+    }
+
+    private static void print(String name, LatencyHistogram histogram) {
+        System.out.printf(Locale.ROOT, "%-20s p50 %8.1f us  p99 %8.1f us  max %8.1f us  (n=%d)%n", name,
+                histogram.getPercentile(50) / 1000.0, histogram.getPercentile(99) / 1000.0,
+                histogram.getMax() / 1000.0, histogram.getCount());
+    }
+}
@@ -0,0 +1,200 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Lasttest für den GameServer über Loopback: startet den Server im selben
+// Prozess und verbindet viele simulierte Clients, die alle von einem
+// Thread über einen Selector bedient werden. Jeder Client drückt im
+// Schnitt 'eingaben' Tasten pro Sekunde. Einige Clients bauen die Welt
+// mit WorldMirror nach und prüfen sie an den Prüfsummen des Servers und
+// an der Taktrate, die der Server beim Verbinden mitteilt. Zum Schluss
+// trennen alle Clients; danach muss der Server genau 0 Verbindungen zählen.
+//
+// Ausgegeben werden Bandbreite je Client, Verspätung und Dauer der Takte.
+// Endet mit Exit-Code 1 bei Abweichungen oder getrennten Clients.
+//
+// Aufruf: java ServerLoadTest [clients] [sekunden] [eingaben] [taktrate]
+public class ServerLoadTest {
+    private static final int VERIFYING_CLIENTS = 8;
+    private static final long INPUT_PERIOD_NANOS = 50_000_000L;
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+
+    // Ein simulierter Client
+    private static final class Client {
+        final SocketChannel channel;
+        final WorldMirror mirror;   // Nur bei prüfenden Clients
+        final ByteBuffer pending;   // Unvollständige Nachrichten (nur prüfend)
+        long bytesIn;
+        long bytesOut;
+        long measuredIn;            // Stand zu Beginn der Messung
+        long measuredOut;
+
+        Client(SocketChannel channel, boolean verifying) {
+            this.channel = channel;
+            this.mirror = verifying ? new WorldMirror() : null;
+            this.pending = verifying
+                    ? ByteBuffer.allocate(4 << 20).order(ByteOrder.LITTLE_ENDIAN) : null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clientCount = Bench.intList(args, 0, 1000)[0];
+        int seconds = Bench.intList(args, 1, 10)[0];
+        int inputsPerSecond = Bench.intList(args, 2, 1)[0];
+        int tickRate = Bench.intList(args, 3, GameConfig.DEFAULT_TICK_RATE)[0];
+
+        GameServer server = new GameServer(new SharedWorld(Bench.SEED, tickRate), 0);
+        server.start();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getPort());
+
+        Selector selector = Selector.open();
+        Client[] clients = new Client[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            clients[i] = new Client(channel, i < VERIFYING_CLIENTS);
+            channel.register(selector, SelectionKey.OP_READ, clients[i]);
+        }
+        System.out.println(clientCount + " Clients verbunden mit Port " + server.getPort());
+
+        ByteBuffer sink = ByteBuffer.allocateDirect(64 * 1024);
+        ByteBuffer input = ByteBuffer.allocateDirect(1);
+        FastRandom random = new FastRandom(Bench.SEED);
+        double pressChance = inputsPerSecond * (INPUT_PERIOD_NANOS / 1e9);
+
+        long start = System.nanoTime();
+        long measureStart = start + WARMUP_NANOS;
+        long end = measureStart + seconds * 1_000_000_000L;
+        long nextInput = start;
+        long ticksAtMeasureStart = -1;
+        boolean failed = false;
+        while (System.nanoTime() < end && !failed) {
+            selector.select(10);
+            for (SelectionKey key : selector.selectedKeys()) {
+                failed |= !receive((Client) key.attachment(), sink);
+            }
+            selector.selectedKeys().clear();
+
+            long now = System.nanoTime();
+            if (ticksAtMeasureStart < 0 && now >= measureStart) {
+                ticksAtMeasureStart = clients[0].mirror.getTick();
+                server.requestStatisticsReset();
+                for (Client client : clients) {
+                    client.measuredIn = client.bytesIn;
+                    client.measuredOut = client.bytesOut;
+                }
+            }
+            if (now >= nextInput) {
+                for (Client client : clients) {
+                    if (random.nextDouble() < pressChance) {
+                        input.clear();
+                        input.put((byte) randomDirection(random).ordinal()).flip();
+                        client.bytesOut += client.channel.write(input);
+                    }
+                }
+                nextInput += INPUT_PERIOD_NANOS;
+            }
+        }
+        long ticks = clients[0].mirror.getTick() - ticksAtMeasureStart;
+        int connected = server.getConnectionCount();
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        selector.close();
+        long closeStart = System.nanoTime();
+        while (server.getConnectionCount() > 0 && System.nanoTime() - closeStart < 5_000_000_000L) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);   // Weitere Takte mit abgemeldeten Schlüsseln
+        int remaining = server.getConnectionCount();
+        server.stop();
+
+        long[] down = new long[clientCount];
+        long up = 0;
+        for (int i = 0; i < clientCount; i++) {
+            down[i] = (clients[i].bytesIn - clients[i].measuredIn) / seconds;
+            up += clients[i].bytesOut - clients[i].measuredOut;
+        }
+        Arrays.sort(down);
+        long total = 0;
+        for (long bytes : down) {
+            total += bytes;
+        }
+        System.out.printf(Locale.ROOT, "%d Takte in %d s gemessen (%.1f Takte/s), %d Spieler verbunden%n",
+                ticks, seconds, ticks / (double) seconds, connected);
+        System.out.printf(Locale.ROOT, "Download je Client: Mittel %d B/s, min %d, max %d (gesamt %.2f MB/s)%n",
+                total / clientCount, down[0], down[clientCount - 1], total / 1e6);
+        System.out.printf(Locale.ROOT, "Upload je Client:   Mittel %.1f B/s%n", up / (double) clientCount / seconds);
+        print("Takt-Verspätung", server.getTickJitter());
+        print("Takt + Versand", server.getTickTime());
+        System.out.println("Ausgelassene Takte: " + server.getSkippedTicks()
+                + ", verworfene Eingaben: " + server.getWorld().getDroppedInputs()
+                + ", zu langsame Clients getrennt: " + server.getSlowDisconnects());
+
+        long checks = 0;
+        long mismatches = 0;
+        int wrongRate = 0;
+        for (int i = 0; i < Math.min(VERIFYING_CLIENTS, clientCount); i++) {
+            checks += clients[i].mirror.getHashChecks();
+            mismatches += clients[i].mirror.getHashMismatches();
+            wrongRate += clients[i].mirror.getTickRate() != tickRate ? 1 : 0;
+        }
+        System.out.println("Prüfsummen der Client-Welten: " + checks + " geprüft, " + mismatches + " abweichend");
+        System.out.println("Taktrate " + tickRate + " Takte/s, bei " + wrongRate + " Clients anders gemeldet");
+
+        System.out.println("Nach dem Trennen aller Clients: " + remaining + " Verbindungen");
+
+        if (failed || mismatches > 0 || checks == 0 || wrongRate > 0 || remaining != 0 || connected != clientCount
+                || server.getSlowDisconnects() > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Liest alles Verfügbare; prüfende Clients zerlegen es in Nachrichten
+    private static boolean receive(Client client, ByteBuffer sink) throws IOException {
+        ByteBuffer buffer = client.mirror == null ? sink : client.pending;
+        int n;
+        while ((n = client.channel.read(buffer)) > 0) {
+            client.bytesIn += n;
+            if (client.mirror == null) {
+                buffer.clear();
+            } else {
+                applyMessages(client);
+            }
+        }
+        return n == 0;   // -1: Server hat getrennt
+    }
+
+    private static void applyMessages(Client client) {
+        ByteBuffer buffer = client.pending;
+        buffer.flip();
+        while (buffer.remaining() >= 4 && buffer.remaining() - 4 >= buffer.getInt(buffer.position())) {
+            int length = buffer.getInt();
+            ByteBuffer message = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+            message.limit(length);
+            client.mirror.apply(message);
+            buffer.position(buffer.position() + length);
+        }
+        buffer.compact();
+    }
+
+    private static Input randomDirection(FastRandom random) {
+        double roll = random.nextDouble();
+        if (roll < 0.55) {
+            return Input.UP;
+        }
+        return roll < 0.7 ? Input.LEFT : roll < 0.85 ? Input.RIGHT : Input.DOWN;
+    }
+
+    private static void print(String name, LatencyHistogram histogram) {
+        System.out.printf(Locale.ROOT, "%-16s p50 %7.3f ms  p99 %7.3f ms  max %7.3f ms  (n=%d)%n", name,
+                histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6,
+                histogram.getMax() / 1e6, histogram.getCount());
+    }
+}
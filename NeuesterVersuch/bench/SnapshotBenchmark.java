@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Misst Speichern und Laden von Spielständen je Hindernisanzahl und prüft:
+//  - nach dem Aufwärmen wird dabei nichts alloziert,
+//  - ein geladener Spielstand (auch per mmap aus einer Datei) spielt exakt
+//    so weiter wie das Original - auch auf der großen Karte, gespeichert zu
+//    einem Takt, der kein Vielfaches von OFFSCREEN_INTERVAL ist (dort werden
+//    ferne Spuren nur jeden OFFSCREEN_INTERVAL-ten Takt neu erzeugt),
+//  - ein Spielstand einer anderen Karte und einer, dessen letzter Teil
+//    nicht passt (Prüfsumme stimmt), werden abgelehnt; die Engine bleibt
+//    dabei unverändert.
+// Endet mit Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf: java SnapshotBenchmark [anzahlen] [level]
+public class SnapshotBenchmark {
+    private static final int COMPARE_TICKS = 2_000;
+    private static final int LARGE_COMPARE_TICKS = 200;
+    // Höchstens so viele Messrunden, bis eine ohne Allokation ist (der JIT
+    // übersetzt nach kurzem Aufwärmen teils noch während der ersten)
+    private static final int ALLOCATION_ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int[] counts = Bench.intList(args, 0, 16, 10_000, 100_000);
+        int level = Bench.intList(args, 1, 3)[0];
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread);   // Erster Aufruf legt selbst etwas an
+
+        boolean ok = true;
+        for (int count : counts) {
+            String suffix = " (n=" + count + ")";
+            GameEngine engine = new GameEngine(Bench.SEED);
+            engine.populate(level, count);
+            GameEngine target = new GameEngine(Bench.SEED + 1);
+            GameSnapshot snapshot = new GameSnapshot();
+            ByteBuffer saved = snapshot.save(engine);
+            System.out.printf("Spielstand%s: %d Bytes%n", suffix, saved.remaining());
+
+            Bench.measure("save" + suffix, () -> snapshot.save(engine).remaining());
+            GameSnapshot loader = new GameSnapshot();
+            ByteBuffer data = new GameSnapshot().save(engine);
+            Bench.measure("restore" + suffix, () -> {
+                data.position(0);
+                try {
+                    loader.restore(target, data);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                return target.getTick();
+            });
+
+            // Allokationen nach dem Aufwärmen
+            long allocated = Long.MAX_VALUE;
+            int rounds = 0;
+            while (allocated > 0 && rounds < ALLOCATION_ROUNDS) {
+                long before = threads.getThreadAllocatedBytes(thread);
+                for (int i = 0; i < 1_000; i++) {
+                    snapshot.save(engine);
+                    data.position(0);
+                    loader.restore(target, data);
+                }
+                allocated = threads.getThreadAllocatedBytes(thread) - before;
+                rounds++;
+            }
+            System.out.printf("  1000x save+restore: %d Bytes alloziert (Messrunde %d)%n", allocated, rounds);
+            ok &= allocated == 0;
+
+            // Gleiches Weiterspielen: aus dem Puffer und aus der Datei (mmap)
+            Path file = Files.createTempFile("frogger", ".fsnp");
+            try {
+                snapshot.write(engine, file);
+                GameEngine fromBuffer = new GameEngine(0);
+                new GameSnapshot().restore(fromBuffer, new GameSnapshot().save(engine));
+                GameEngine fromFile = new GameEngine(0);
+                new GameSnapshot().load(fromFile, file);
+
+                for (int i = 0; i < COMPARE_TICKS; i++) {
+                    engine.updateGame();
+                    fromBuffer.updateGame();
+                    fromFile.updateGame();
+                }
+                boolean same = sameState(engine, fromBuffer) && sameState(engine, fromFile);
+                System.out.println("  Weiterspielen nach Laden " + COMPARE_TICKS + " Takte: "
+                        + (same ? "identisch" : "ABWEICHUNG"));
+                ok &= same;
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+        ok &= largeMap(Paths.get("maps/large.txt"));
+        ok &= rejected(Paths.get("maps/turtles.txt"));
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Große Karte: Spielstand zu Takten auf und zwischen den Prüftakten der
+    // fernen Spuren, geladen in eine neue Engine
+    private static boolean largeMap(Path file) throws IOException {
+        LevelMap map = LevelMap.load(file);
+        boolean ok = true;
+        for (int tick = 400; tick < 400 + GameEngine.OFFSCREEN_INTERVAL; tick++) {
+            GameEngine engine = new GameEngine(Bench.SEED, map);
+            while (engine.getTick() < tick) {
+                engine.step(Input.NONE);
+            }
+            GameEngine copy = new GameEngine(Bench.SEED + 1, map);
+            new GameSnapshot().restore(copy, new GameSnapshot().save(engine));
+            for (int i = 0; i < LARGE_COMPARE_TICKS; i++) {
+                engine.step(Input.NONE);
+                copy.step(Input.NONE);
+            }
+            boolean same = sameState(engine, copy);
+            System.out.println("  Große Karte, gespeichert in Takt " + tick + ", " + LARGE_COMPARE_TICKS
+                    + " Takte weiter: " + (same ? "identisch" : "ABWEICHUNG"));
+            ok &= same;
+        }
+        return ok;
+    }
+
+    // Abgelehnte Spielstände lassen die Engine, wie sie war
+    private static boolean rejected(Path otherMap) throws IOException {
+        GameEngine engine = new GameEngine(Bench.SEED);
+        for (int i = 0; i < 100; i++) {
+            engine.step(Input.NONE);
+        }
+        GameEngine target = new GameEngine(Bench.SEED + 1);
+        target.step(Input.UP);
+        ByteBuffer before = copy(new GameSnapshot().save(target));
+
+        // Andere Karte
+        GameEngine other = new GameEngine(Bench.SEED, LevelMap.load(otherMap));
+        boolean ok = fails("andere Karte", target, copy(new GameSnapshot().save(other)));
+
+        // Spuranzahl im Index des letzten Archetyps falsch, Prüfsumme neu
+        // berechnet: alles davor wäre schon gelesen
+        ByteBuffer data = copy(new GameSnapshot().save(engine));
+        int header = data.limit() - engine.stateBytes();
+        int offset = header + 8 + 4 + 8 + 16 + 4 + 4 + 1 + 8;
+        int last = engine.getArchetypeCount() - 1;
+        for (int a = 0; a < last; a++) {
+            offset += engine.getArchetype(a).snapshotBytes() + engine.getIndex(a).snapshotBytes();
+        }
+        offset += engine.getArchetype(last).snapshotBytes();
+        data.putInt(offset, data.getInt(offset) + 1);
+        java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+        crc.update(data.duplicate().position(header));
+        data.putInt(header - 4, (int) crc.getValue());
+        ok &= fails("falscher Index", target, data);
+
+        boolean same = copy(new GameSnapshot().save(target)).equals(before);
+        System.out.println("  Abgelehnte Spielstände: Engine " + (same ? "unverändert" : "VERÄNDERT"));
+        return ok && same;
+    }
+
+    private static boolean fails(String name, GameEngine target, ByteBuffer data) {
+        try {
+            new GameSnapshot().restore(target, data);
+            System.out.println("  " + name + ": FEHLER, angenommen");
+            return false;
+        } catch (IOException e) {
+            System.out.println("  " + name + ": abgelehnt (" + e.getMessage() + ")");
+            return true;
+        }
+    }
+
+    private static ByteBuffer copy(ByteBuffer data) {
+        ByteBuffer copy = ByteBuffer.allocate(data.remaining()).order(ByteOrder.LITTLE_ENDIAN);
+        copy.put(data.duplicate()).flip();
+        return copy;
+    }
+
+    // Vergleicht zwei Engines Byte für Byte über ihren Spielstand
+    private static boolean sameState(GameEngine a, GameEngine b) {
+        ByteBuffer left = new GameSnapshot().save(a);
+        ByteBuffer right = new GameSnapshot().save(b);
+        return left.equals(right);
+    }
+}
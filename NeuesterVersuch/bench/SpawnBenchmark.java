@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Fahrplan der Hindernisse (SpawnScheduler): spielt Partien mit dem
+// PlannerBot durch die Level (klassische Karte und maps/turtles.txt) und
+// lässt die große Karte laufen. Prüft nach jedem Takt (große Karte: alle
+// CHECK_INTERVAL Takte)
+//  - jedes Hindernis liegt genau in einer Reihe, alle einer Reihe fahren
+//    gleich schnell,
+//  - zwischen zwei Hindernissen einer Reihe sind mindestens MIN_GAP frei,
+//  - jede Reihe hat genau die Anzahl ihres Levels, insgesamt höchstens
+//    POPULATION_CAP.
+// Misst je Level Hindernisse und Dauer eines Takts sowie die Allokationen
+// der Takte ab der zweiten Partie (mit Levelwechseln und Neustarts; alle
+// Partien laufen in derselben Engine). Allokationen gibt es dabei nur,
+// wenn eine Spur zum ersten Mal ein Tempo bekommt (neue Gruppe im
+// LaneIndex) - begrenzt durch die Tempi der Karte.
+// Endet mit Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf (im Ordner NeuesterVersuch): java SpawnBenchmark [partien] [takte große Karte]
+public class SpawnBenchmark {
+    private static final int CHECK_INTERVAL = 100;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final long THREAD = Thread.currentThread().getId();
+
+    private static String error;   // Erste fehlgeschlagene Prüfung
+
+    public static void main(String[] args) throws IOException {
+        int games = Bench.intList(args, 0, 10)[0];
+        int largeTicks = Bench.intList(args, 1, 2000)[0];
+
+        play("Klassisch", LevelMap.classic(), games);
+        play("Schildkröten", LevelMap.load(Paths.get("maps/turtles.txt")), games);
+        run("Große Karte", LevelMap.load(Paths.get("maps/large.txt")), largeTicks);
+
+        if (error != null) {
+            System.out.println("FEHLER: " + error);
+            System.exit(1);
+        }
+        System.out.println("Alle Reihen mit Mindestabstand und Anzahl laut Fahrplan");
+    }
+
+    // Partien bis zum Ende; Zeiten je Level, Allokationen ab der zweiten Partie
+    private static void play(String name, LevelMap map, int games) {
+        int levels = map.getLevelCount();
+        long[] nanos = new long[levels + 1];
+        long[] ticks = new long[levels + 1];
+        long[] worst = new long[levels + 1];
+        long allocated = 0;
+        long measuredTicks = 0;
+        int won = 0;
+
+        GameEngine engine = new GameEngine(Bench.SEED, map);
+        PlannerBot bot = new PlannerBot();
+        for (int game = 0; game < games; game++) {
+            if (game > 0) {
+                engine.step(Input.RESTART);
+            }
+            while (engine.isRunning()) {
+                Input input = bot.decide(engine);
+                int level = engine.getCurrentLevel();
+                long bytes = THREADS.getThreadAllocatedBytes(THREAD);
+                long start = System.nanoTime();
+                engine.step(input);
+                long time = System.nanoTime() - start;
+                if (game > 0) {
+                    allocated += THREADS.getThreadAllocatedBytes(THREAD) - bytes;
+                    measuredTicks++;
+                }
+                nanos[level] += time;
+                ticks[level]++;
+                worst[level] = Math.max(worst[level], time);
+                check(name, engine);
+            }
+            won += engine.isGameWon() ? 1 : 0;
+        }
+
+        System.out.printf(Locale.ROOT, "%s: %d von %d Partien gewonnen, %d Bytes in %d Takten alloziert%n",
+                name, won, games, allocated, measuredTicks);
+        SpawnScheduler scheduler = new SpawnScheduler(map, map.getStartY());
+        for (int level = 1; level <= levels; level++) {
+            if (ticks[level] > 0) {
+                System.out.printf(Locale.ROOT, "  Level %d: %4d Hindernisse, Takt %6.2f µs (max %7.1f µs, n=%d)%n",
+                        level, population(scheduler, level), nanos[level] / 1e3 / ticks[level],
+                        worst[level] / 1e3, ticks[level]);
+            }
+        }
+    }
+
+    // Große Karte: der Spieler wartet am Start
+    private static void run(String name, LevelMap map, int ticks) {
+        long start = System.nanoTime();
+        GameEngine engine = new GameEngine(Bench.SEED, map);
+        System.out.printf(Locale.ROOT, "%s: Start %.1f ms, %d Hindernisse (Obergrenze %d)%n", name,
+                (System.nanoTime() - start) / 1e6, population(engine.getScheduler(), 1),
+                SpawnScheduler.POPULATION_CAP);
+        check(name, engine);
+
+        double tickNanos = Bench.measure(name + ": Spieltakt", () -> {
+            engine.step(Input.NONE);
+            return engine.getTick();
+        });
+        long bytes = THREADS.getThreadAllocatedBytes(THREAD);
+        for (int i = 1; i <= ticks; i++) {
+            engine.step(Input.NONE);
+            if (i % CHECK_INTERVAL == 0) {
+                bytes -= THREADS.getThreadAllocatedBytes(THREAD);
+                check(name, engine);
+                bytes += THREADS.getThreadAllocatedBytes(THREAD);
+            }
+        }
+        long allocated = THREADS.getThreadAllocatedBytes(THREAD) - bytes;
+        System.out.printf(Locale.ROOT, "  %d Takte geprüft, %.1f µs/Takt, %d Bytes alloziert%n",
+                ticks, tickNanos / 1e3, allocated);
+    }
+
+    private static int population(SpawnScheduler scheduler, int level) {
+        int total = 0;
+        for (int row = 0; row < scheduler.getRowCount(); row++) {
+            total += scheduler.getTarget(level, row);
+        }
+        return total;
+    }
+
+    // Prüft alle Reihen; merkt sich die erste Abweichung
+    private static void check(String name, GameEngine engine) {
+        if (error != null) {
+            return;
+        }
+        SpawnScheduler scheduler = engine.getScheduler();
+        int rows = scheduler.getRowCount();
+        int[] counts = new int[rows];
+        int[] speeds = new int[rows];
+        int total = 0;
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            ObstacleStore obstacles = engine.getArchetype(a);
+            for (int i = 0; i < obstacles.size(); i++) {
+                int row = scheduler.rowAt(obstacles.getY(i));
+                if (row < 0) {
+                    error = name + ": Hindernis bei y=" + obstacles.getY(i) + " liegt in keiner Reihe";
+                    return;
+                }
+                if (counts[row]++ > 0 && speeds[row] != obstacles.getSpeed(i)) {
+                    error = name + ": Reihe " + row + " mit verschiedenen Tempi";
+                    return;
+                }
+                speeds[row] = obstacles.getSpeed(i);
+                total++;
+            }
+        }
+        if (total > SpawnScheduler.POPULATION_CAP) {
+            error = name + ": " + total + " Hindernisse über der Obergrenze";
+            return;
+        }
+
+        // Je Reihe nach X sortiert: X (mit Vorzeichen) oben, Breite unten
+        long[][] byRow = new long[rows][];
+        for (int row = 0; row < rows; row++) {
+            int target = scheduler.getTarget(engine.getCurrentLevel(), row);
+            if (counts[row] != target) {
+                error = name + ": Reihe " + row + " hat " + counts[row] + " statt " + target + " Hindernisse";
+                return;
+            }
+            byRow[row] = new long[counts[row]];
+            counts[row] = 0;
+        }
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            ObstacleStore obstacles = engine.getArchetype(a);
+            for (int i = 0; i < obstacles.size(); i++) {
+                int row = scheduler.rowAt(obstacles.getY(i));
+                byRow[row][counts[row]++] = ((long) obstacles.getX(i) << 24) | obstacles.getWidth(i);
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            long[] keys = byRow[row];
+            Arrays.sort(keys);
+            for (int k = 1; k < keys.length; k++) {
+                long rightEdge = (keys[k - 1] >> 24) + (keys[k - 1] & 0xFFFFFF);
+                long gap = (keys[k] >> 24) - rightEdge;
+                if (gap < SpawnScheduler.MIN_GAP) {
+                    error = name + ": Reihe " + row + " (y=" + scheduler.getRowY(row) + ") nur " + gap
+                            + " Pixel Abstand im Takt " + engine.getTick();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Vergleicht die Bildzeit mit einfarbigen Rechtecken (fillRect) und mit
+// Sprites aus dem Atlas, ohne Fenster in ein int-Bild. Bei vielen
+// Hindernissen überdecken sie sich vielfach; "ohne Verdeckung" zeichnet zum
+// Vergleich jedes Sprite, wie es ein einfacher Renderer tun würde.
+// Danach: Zoomstufen wechseln, um den LRU-Cache der Varianten zu sehen.
+//
+// Aufruf: java SpriteBenchmark [anzahlen] [level]
+public class SpriteBenchmark {
+    private static final double[] ZOOMS = { 0.5, 0.75, 1.0, 1.25, 1.5, 2.0, 2.5, 3.0 };
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int[] counts = Bench.intList(args, 0, 16, 1_000, 10_000);
+        int level = Bench.intList(args, 1, 3)[0];
+
+        for (int count : counts) {
+            String suffix = " (n=" + count + ")";
+            GameEngine engine = new GameEngine(Bench.SEED);
+            engine.populate(level, count);
+
+            BufferedImage frame = OffscreenRenderer.newFrame();
+            OffscreenRenderer rects = new OffscreenRenderer(new GameRenderer(engine));
+            OffscreenRenderer sprites = new OffscreenRenderer(new GameRenderer(engine, new SpriteCache()));
+            SpriteCache naive = new SpriteCache();
+            BufferedImage background = emptyField(level);
+
+            Bench.measure("fillRect" + suffix, () -> {
+                rects.render(frame);
+                return frame.getRGB(0, 0);
+            });
+            Bench.measure("Sprites" + suffix, () -> {
+                sprites.render(frame);
+                return frame.getRGB(0, 0);
+            });
+            Bench.measure("Sprites ohne Verdeckung" + suffix, () -> {
+                Graphics2D g = frame.createGraphics();
+                naive.validate(g);
+                g.drawImage(background, 0, 0, null);   // Untergrund und Anzeige wie oben
+                drawAll(g, naive, engine.getCars(), Sprite.CAR, 1.0);
+                drawAll(g, naive, engine.getLogs(), Sprite.LOG, 1.0);
+                Player player = engine.getPlayer();
+                naive.draw(g, Sprite.FROG, player.getX(), player.getY(),
+                        player.getWidth(), player.getHeight(), false);
+                g.dispose();
+                return frame.getRGB(0, 0);
+            });
+        }
+
+        // Zoom: jede Stufe braucht eigene Varianten (Auto- und Stammbreiten,
+        // gespiegelt). Bei einem zu kleinen Cache verdrängen sie sich.
+        GameEngine engine = new GameEngine(Bench.SEED);
+        engine.populate(level, 10_000);
+        BufferedImage frame = OffscreenRenderer.newFrame();
+        for (int capacity : new int[] { SpriteCache.DEFAULT_CAPACITY, 16 }) {
+            SpriteCache cache = new SpriteCache(capacity);
+            int[] step = { 0 };
+            Bench.measure("Zoomwechsel je Bild (Cache " + capacity + ")", () -> {
+                double zoom = ZOOMS[step[0]++ % ZOOMS.length];
+                Graphics2D g = frame.createGraphics();
+                cache.validate(g);
+                drawAll(g, cache, engine.getCars(), Sprite.CAR, zoom);
+                drawAll(g, cache, engine.getLogs(), Sprite.LOG, zoom);
+                g.dispose();
+                return cache.size();
+            });
+            System.out.printf("  %d Varianten, %d angelegt, %d verdrängt%n",
+                    cache.size(), cache.getMisses(), cache.getEvictions());
+        }
+    }
+
+    // Bild des Spielfelds ohne Hindernisse
+    private static BufferedImage emptyField(int level) {
+        GameEngine empty = new GameEngine(Bench.SEED);
+        empty.populate(level, 0);
+        BufferedImage image = OffscreenRenderer.newFrame();
+        new OffscreenRenderer(new GameRenderer(empty, new SpriteCache())).render(image);
+        return image;
+    }
+
+    private static void drawAll(Graphics g, SpriteCache cache, ObstacleStore obstacles, Sprite sprite, double zoom) {
+        for (int i = 0; i < obstacles.size(); i++) {
+            cache.draw(g, sprite, (int) (obstacles.getX(i) * zoom), (int) (obstacles.getY(i) * zoom),
+                    (int) (obstacles.getWidth(i) * zoom), (int) (obstacles.getHeight(i) * zoom),
+                    obstacles.getSpeed(i) < 0);
+        }
+    }
+}
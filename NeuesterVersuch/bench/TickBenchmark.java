@@ -0,0 +1,84 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Misst den Spieltakt: Hindernisbewegung, Kollisionsprüfung, kompletter Takt
+// (ohne und mit TickProfiler) und das Zeichnen in ein Offscreen-Bild - je Hindernisanzahl und Level.
+//
+// Aufruf: java -Djava.awt.headless=true TickBenchmark [anzahlen] [level]
+// z.B.    java -Djava.awt.headless=true TickBenchmark 16,1000,100000 1,5
+public class TickBenchmark {
+    public static void main(String[] args) {
+        // 16 = Startzustand (je 8 Autos und Baumstämme auf der klassischen Karte)
+        int[] counts = Bench.intList(args, 0, 16, 1_000, 10_000, 100_000);
+        int[] levels = Bench.intList(args, 1, 1, 3, LevelMap.classic().getLevelCount());
+
+        BufferedImage image = new BufferedImage(
+                GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        for (int count : counts) {
+            for (int level : levels) {
+                String suffix = " (n=" + count + ", level=" + level + ")";
+
+                GameEngine engine = prepare(level, count);
+                Bench.measure("moveObstacles" + suffix, () -> {
+                    engine.moveObstacles();
+                    return engine.getCars().getX(0);
+                });
+
+                GameEngine collisions = prepare(level, count);
+                Bench.measure("checkCollisions" + suffix, () -> {
+                    collisions.checkCollisions();
+                    return collisions.getPlayer().getX();
+                });
+
+                GameEngine tick = prepare(level, count);
+                Bench.measure("updateGame" + suffix, () -> {
+                    tick.updateGame();
+                    return tick.getScore();
+                });
+
+                // Gleicher Takt mit eingeschalteter Messung (Kosten des Profilers)
+                GameEngine profiled = prepare(level, count);
+                profiled.setProfiler(new TickProfiler());
+                Bench.measure("updateGame mit TickProfiler" + suffix, () -> {
+                    profiled.updateGame();
+                    return profiled.getScore();
+                });
+
+                GameEngine painted = prepare(level, count);
+                GameRenderer renderer = new GameRenderer(painted);
+                Graphics2D g = image.createGraphics();
+                Bench.measure("paint" + suffix, () -> {
+                    renderer.paint(g);
+                    return image.getRGB(0, 0);
+                });
+                g.dispose();
+            }
+        }
+    }
+
+    // Erzeugt eine Engine mit fester Hindernisanzahl; der Spieler steht
+    // mitten auf der Straße und wird von keinem Auto berührt, damit die
+    // Kollisionsprüfung wie im Normalfall alle Autos ansehen muss
+    private static GameEngine prepare(int level, int count) {
+        GameEngine engine = new GameEngine(Bench.SEED);
+        engine.populate(level, count);
+        LevelMap map = engine.getMap();
+        int roadMiddle = 0;
+        for (int zone = 0; zone < map.getZoneCount(); zone++) {
+            if (map.getZoneType(zone) == LaneType.ROAD) {
+                roadMiddle = (map.getZoneTop(zone) + map.getZoneBottom(zone)) / 2;
+                break;
+            }
+        }
+        Player player = engine.getPlayer();
+        player.reset(GameEngine.PANEL_WIDTH / 2, roadMiddle);
+        ObstacleStore cars = engine.getCars();
+        for (int i = cars.size() - 1; i >= 0; i--) {
+            if (player.intersects(cars.getX(i), cars.getY(i), cars.getWidth(i), cars.getHeight(i))) {
+                engine.removeObstacle(cars, engine.getIndex(GameEngine.CARS), i);
+            }
+        }
+        return engine;
+    }
+}
@@ -0,0 +1,234 @@
+import java.util.Arrays;
+
+// Prüft, dass die geschlossene Form der Hindernisbahnen (ObstacleStore:
+// Start-X + Tempo * Takte) genau dasselbe ergibt wie das frühere schrittweise
+// x += speed:
+//  - eine Referenz bewegt jedes Hindernis jeden Takt selbst und wird nach
+//    jedem Takt mit getX() verglichen (lange Sitzung mit Zufallsspieler),
+//  - Vorausschau: xAt(slot, jetzt + 20) stimmt 20 Takte später, sofern der
+//    Slot nicht neu erzeugt wurde,
+//  - Überspringen: advance(k) über die ereignislosen Takte ergibt denselben
+//    Stand wie k einzelne Takte.
+// Danach werden Vorausschau und Simulation verglichen.
+// Endet mit Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf: java TrajectoryCheck [takte]
+public class TrajectoryCheck {
+    private static final int LOOKAHEAD = 20;
+
+    // Bewegt eine Kopie der Hindernisse Takt für Takt (altes Verfahren)
+    private static final class Reference implements GameListener {
+        final ObstacleStore store;
+        int[] x = new int[0];
+        int[] speed = new int[0];
+        long[] spawnedAt = new long[0];   // Takt der letzten Neuerzeugung
+        boolean[] spawned = new boolean[0];
+        long tick;
+
+        Reference(ObstacleStore store) {
+            this.store = store;
+            copy();
+        }
+
+        // Übernimmt den Stand (beim Start und nach einem Neustart)
+        void copy() {
+            int n = store.size();
+            x = new int[n];
+            speed = new int[n];
+            spawnedAt = new long[n];
+            spawned = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = store.getX(i);
+                speed[i] = store.getSpeed(i);
+                spawnedAt[i] = tick;
+            }
+        }
+
+        @Override
+        public void obstacleSpawned(ObstacleStore obstacles, int slot) {
+            if (obstacles != store) {
+                return;
+            }
+            if (slot >= x.length) {
+                x = Arrays.copyOf(x, slot + 1);
+                speed = Arrays.copyOf(speed, slot + 1);
+                spawnedAt = Arrays.copyOf(spawnedAt, slot + 1);
+                spawned = Arrays.copyOf(spawned, slot + 1);
+                x[slot] = store.getX(slot) - store.getSpeed(slot);   // Wird unten noch bewegt
+            } else {
+                x[slot] = store.getX(slot) - store.getSpeed(slot);
+            }
+            speed[slot] = store.getSpeed(slot);
+            spawned[slot] = true;
+        }
+
+        @Override
+        public void tickCompleted(long engineTick) {
+            tick++;
+            for (int i = 0; i < x.length; i++) {
+                x[i] += speed[i];
+                if (spawned[i]) {
+                    spawnedAt[i] = tick;
+                    spawned[i] = false;
+                }
+            }
+        }
+
+        @Override
+        public void gameReset() {
+            copy();
+        }
+
+        boolean matches() {
+            if (x.length != store.size()) {
+                return false;
+            }
+            for (int i = 0; i < x.length; i++) {
+                if (x[i] != store.getX(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public static void main(String[] args) {
+        int ticks = Bench.intList(args, 0, 200_000)[0];
+        boolean ok = true;
+
+        // 1. Schrittweise Referenz gegen geschlossene Form
+        GameEngine engine = new GameEngine(Bench.SEED);
+        Reference cars = new Reference(engine.getCars());
+        Reference logs = new Reference(engine.getLogs());
+        engine.addListener(cars);
+        engine.addListener(logs);
+        RandomBot bot = new RandomBot(~Bench.SEED);
+        int[] predicted = new int[0];
+        long predictedAt = -1;
+        long mismatches = 0;
+        long predictions = 0;
+        long wrongPredictions = 0;
+        for (int i = 0; i < ticks; i++) {
+            if (!engine.isRunning()) {
+                engine.applyInput(Input.RESTART);
+                predictedAt = -1;   // Neustart: alle Hindernisse neu
+            }
+            engine.applyInput(bot.decide(engine));
+            engine.updateGame();
+            if (!cars.matches() || !logs.matches()) {
+                mismatches++;
+            }
+
+            // Vorausschau über LOOKAHEAD Takte (nur Autos, gleiche Regeln)
+            ObstacleStore store = engine.getCars();
+            if (predictedAt >= 0 && cars.tick == predictedAt + LOOKAHEAD) {
+                for (int slot = 0; slot < Math.min(predicted.length, store.size()); slot++) {
+                    if (cars.spawnedAt[slot] <= predictedAt) {
+                        predictions++;
+                        wrongPredictions += predicted[slot] == store.getX(slot) ? 0 : 1;
+                    }
+                }
+                predictedAt = -1;
+            }
+            if (predictedAt < 0 && i % LOOKAHEAD == 0) {
+                predictedAt = cars.tick;
+                predicted = new int[store.size()];
+                for (int slot = 0; slot < predicted.length; slot++) {
+                    predicted[slot] = store.xAt(slot, store.getTick() + LOOKAHEAD);
+                }
+            }
+        }
+        System.out.println(ticks + " Takte: " + mismatches + " Abweichungen zur schrittweisen Bewegung, "
+                + predictions + " Vorausschauen (" + LOOKAHEAD + " Takte), " + wrongPredictions + " falsch");
+        ok &= mismatches == 0 && wrongPredictions == 0 && predictions > 0;
+
+        // 2. Ereignislose Takte überspringen
+        int skips = 0;
+        int wrongSkips = 0;
+        for (int level = 1; level <= LevelMap.classic().getLevelCount(); level++) {
+            GameEngine stepped = new GameEngine(Bench.SEED + level);
+            GameEngine skipped = new GameEngine(Bench.SEED + level);
+            stepped.populate(level, 200);
+            skipped.populate(level, 200);
+            for (int round = 0; round < 50; round++) {
+                long idle = Math.min(idleTicks(skipped.getCars()), idleTicks(skipped.getLogs()));
+                int[] spawns = new int[1];
+                GameListener counter = new GameListener() {
+                    @Override
+                    public void obstacleSpawned(ObstacleStore store, int slot) {
+                        spawns[0]++;
+                    }
+                };
+                stepped.addListener(counter);
+                for (long t = 0; t < idle; t++) {
+                    stepped.moveObstacles();
+                }
+                boolean quiet = spawns[0] == 0;
+                for (int a = 0; a < skipped.getArchetypeCount(); a++) {
+                    skipped.getArchetype(a).advance(idle);
+                }
+                boolean same = sameX(stepped.getCars(), skipped.getCars())
+                        && sameX(stepped.getLogs(), skipped.getLogs());
+
+                // Der Takt danach erzeugt wirklich etwas neu
+                stepped.moveObstacles();
+                skipped.moveObstacles();
+                stepped.removeListener(counter);
+                boolean eventful = spawns[0] > 0;
+
+                skips++;
+                wrongSkips += quiet && same && eventful ? 0 : 1;
+            }
+        }
+        System.out.println(skips + " Sprünge über ereignislose Takte: " + wrongSkips + " falsch");
+        ok &= wrongSkips == 0;
+
+        // 3. Kosten: Position in LOOKAHEAD Takten simulieren oder ausrechnen
+        GameEngine bench = new GameEngine(Bench.SEED);
+        bench.populate(3, 10_000);
+        ObstacleStore store = bench.getCars();
+        Bench.measure("Position +" + LOOKAHEAD + " Takte: geschlossen", () -> {
+            long sum = 0;
+            for (int slot = 0; slot < store.size(); slot++) {
+                sum += store.xAt(slot, store.getTick() + LOOKAHEAD);
+            }
+            return sum;
+        });
+        Bench.measure("Position +" + LOOKAHEAD + " Takte: simuliert", () -> {
+            long sum = 0;
+            for (int slot = 0; slot < store.size(); slot++) {
+                int x = store.getX(slot);
+                for (int t = 0; t < LOOKAHEAD; t++) {
+                    x += store.getSpeed(slot);
+                }
+                sum += x;
+            }
+            return sum;
+        });
+
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Takte, in denen sicher kein Hindernis den Bildschirm verlässt
+    private static long idleTicks(ObstacleStore store) {
+        long idle = Long.MAX_VALUE;
+        for (int slot = 0; slot < store.size(); slot++) {
+            idle = Math.min(idle, store.ticksUntilOffScreen(slot, GameEngine.PANEL_WIDTH) - 1);
+        }
+        return idle;
+    }
+
+    private static boolean sameX(ObstacleStore a, ObstacleStore b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.getX(i) != b.getX(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,109 @@
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Große Welt mit Kamera: lädt eine Karte (Vorgabe maps/large.txt mit gut
+// 50.000 Hindernissen) und misst
+//  - einen Spieltakt (Spuren weit weg vom Spieler nur jeden 4. Takt),
+//  - ein Bild mit Kamera, nur die Hindernisse im Ausschnitt (mit und ohne
+//    Sprites, bei Zoom 1 und herausgezoomt),
+//  - zum Vergleich dasselbe Bild, wenn alle Hindernisse gezeichnet werden.
+// Prüft, dass beide Bilder Pixel für Pixel gleich sind. Endet mit
+// Exit-Code 1, wenn eine Prüfung fehlschlägt.
+//
+// Aufruf (im Ordner NeuesterVersuch): java ViewportBenchmark [karte]
+public class ViewportBenchmark {
+    private static final double FRAME_NANOS = 1e9 / 60;
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        Path file = Paths.get(args.length > 0 ? args[0] : "maps/large.txt");
+
+        LevelMap map = LevelMap.load(file);
+        GameEngine engine = new GameEngine(Bench.SEED, map);
+        System.out.printf(Locale.ROOT, "Welt %dx%d, %d Hindernisse%n",
+                engine.getWorldWidth(), engine.getWorldHeight(), obstacleCount(engine));
+
+        // Spieltakte; der Spieler wartet am Start (ein Neustart würde alle
+        // Hindernisse neu erzeugen)
+        double tickNanos = Bench.measure("Spieltakt", () -> {
+            engine.step(Input.NONE);
+            return engine.getTick();
+        });
+
+        boolean same = true;
+        double worst = tickNanos;
+        for (int zoomSteps : new int[] {0, -3}) {
+            GameRenderer plain = new GameRenderer(engine);
+            GameRenderer textured = new GameRenderer(engine, new SpriteCache());
+            plain.zoomBy(zoomSteps);
+            textured.zoomBy(zoomSteps);
+            worst = Math.max(worst, tickNanos + frame("Bild (Rechtecke)", plain));
+            worst = Math.max(worst, tickNanos + frame("Bild (Sprites)", textured));
+            System.out.printf(Locale.ROOT, "Zoom %.2f: %d Hindernisse im Ausschnitt%n",
+                    Math.pow(Camera.ZOOM_STEP, zoomSteps), visibleCount(engine, plain.getCamera()));
+            same &= sameImage(plain);
+            same &= sameImage(textured);
+        }
+        System.out.printf(Locale.ROOT, "Takt + Bild: höchstens %.2f ms (%s 60 FPS)%n",
+                worst / 1e6, worst <= FRAME_NANOS ? "hält" : "verfehlt");
+
+        if (!same) {
+            System.out.println("FEHLER: Bild mit Kamera weicht vom vollständig gezeichneten ab");
+            System.exit(1);
+        }
+        System.out.println("Bild mit Kamera gleich dem vollständig gezeichneten");
+    }
+
+    private static int obstacleCount(GameEngine engine) {
+        int count = 0;
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            count += engine.getArchetype(a).size();
+        }
+        return count;
+    }
+
+    // Hindernisse, die der Index für den Ausschnitt der Kamera liefert
+    private static int visibleCount(GameEngine engine, Camera camera) {
+        Rectangle view = new Rectangle();
+        camera.view(view);
+        int[] slots = new int[obstacleCount(engine)];
+        int count = 0;
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            count += engine.getIndex(a).collect(view.x, view.y, view.width, view.height, slots);
+        }
+        return count;
+    }
+
+    // Misst ein Bild mit und ohne Auswahl; liefert die Zeit mit Auswahl
+    private static double frame(String name, GameRenderer renderer) {
+        OffscreenRenderer offscreen = new OffscreenRenderer(renderer);
+        BufferedImage image = OffscreenRenderer.newFrame();
+        double culled = Bench.measure(name + ", Ausschnitt", () -> {
+            offscreen.render(image);
+            return OffscreenRenderer.pixels(image)[0];
+        });
+        renderer.setCulling(false);
+        Bench.measure(name + ", alle", () -> {
+            offscreen.render(image);
+            return OffscreenRenderer.pixels(image)[0];
+        });
+        renderer.setCulling(true);
+        return culled;
+    }
+
+    private static boolean sameImage(GameRenderer renderer) {
+        OffscreenRenderer offscreen = new OffscreenRenderer(renderer);
+        BufferedImage culled = OffscreenRenderer.newFrame();
+        BufferedImage full = OffscreenRenderer.newFrame();
+        offscreen.render(culled);
+        renderer.setCulling(false);
+        offscreen.render(full);
+        renderer.setCulling(true);
+        return Arrays.equals(OffscreenRenderer.pixels(culled), OffscreenRenderer.pixels(full));
+    }
+}
@@ -0,0 +1,100 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Zusammenfassung eines Stapellaufs: Durchsatz, Verteilung von Punkten und
+// Leveln sowie Überlebensdauer der Sitzungen
+public class BatchReport {
+    private final SessionResult[] results;
+    private final long elapsedNanos;     // Wanduhrzeit des ganzen Laufs
+    private final int parallelism;       // Anzahl Worker-Threads
+
+    private final long totalTicks;
+    private final int wins;
+    private final long[] sortedTicks;    // Überlebte Takte, aufsteigend
+    private final TreeMap<Integer, Integer> scoreCounts = new TreeMap<>();
+    private final int[] levelCounts;     // Sitzungen je erreichtem Level
+
+    public BatchReport(SessionResult[] results, long elapsedNanos, int parallelism) {
+        this.results = results;
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+
+        int maxLevel = 0;
+        for (SessionResult result : results) {
+            maxLevel = Math.max(maxLevel, result.getLevel());
+        }
+        levelCounts = new int[maxLevel + 1];
+
+        long ticks = 0;
+        int won = 0;
+        sortedTicks = new long[results.length];
+        for (int i = 0; i < results.length; i++) {
+            SessionResult result = results[i];
+            ticks += result.getTicks();
+            if (result.isWon()) {
+                won++;
+            }
+            sortedTicks[i] = result.getTicks();
+            scoreCounts.merge(result.getScore(), 1, Integer::sum);
+            levelCounts[result.getLevel()]++;
+        }
+        Arrays.sort(sortedTicks);
+        totalTicks = ticks;
+        wins = won;
+    }
+
+    // Spieltakte pro Sekunde über alle Sitzungen
+    public double getTicksPerSecond() {
+        return totalTicks * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    // Überlebte Takte beim Perzentil p (0..100)
+    public long getSurvivalPercentile(double p) {
+        if (sortedTicks.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100 * sortedTicks.length) - 1;
+        return sortedTicks[Math.max(0, Math.min(sortedTicks.length - 1, index))];
+    }
+
+    // Gibt den Bericht lesbar aus
+    public void print(PrintStream out) {
+        int sessions = results.length;
+        out.printf(Locale.ROOT, "%d Sitzungen auf %d Threads in %.1f ms%n",
+                sessions, parallelism, elapsedNanos / 1e6);
+        out.printf(Locale.ROOT, "Durchsatz: %.0f Takte/s (%d Takte gesamt)%n",
+                getTicksPerSecond(), totalTicks);
+        out.printf(Locale.ROOT, "Gewonnen: %d (%.1f%%)%n", wins, percent(wins, sessions));
+
+        out.println("Punkte:");
+        for (Map.Entry<Integer, Integer> entry : scoreCounts.entrySet()) {
+            out.printf(Locale.ROOT, "  %5d  %8d  (%5.1f%%)%n",
+                    entry.getKey(), entry.getValue(), percent(entry.getValue(), sessions));
+        }
+
+        out.println("Erreichtes Level:");
+        for (int level = 1; level < levelCounts.length; level++) {
+            out.printf(Locale.ROOT, "  %5d  %8d  (%5.1f%%)%n",
+                    level, levelCounts[level], percent(levelCounts[level], sessions));
+        }
+
+        out.printf(Locale.ROOT, "Überlebte Takte: min %d, p50 %d, p90 %d, p99 %d, max %d, Mittel %.1f%n",
+                getSurvivalPercentile(0), getSurvivalPercentile(50), getSurvivalPercentile(90),
+                getSurvivalPercentile(99), getSurvivalPercentile(100),
+                sessions == 0 ? 0.0 : (double) totalTicks / sessions);
+    }
+
+    private static double percent(int count, int total) {
+        return total == 0 ? 0 : count * 100.0 / total;
+    }
+
+    // Getter-Methoden
+    public SessionResult[] getResults() { return results; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public int getParallelism() { return parallelism; }
+    public long getTotalTicks() { return totalTicks; }
+    public int getWins() { return wins; }
+}
@@ -0,0 +1,101 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongFunction;
+
+// Spielt sehr viele unabhängige Sitzungen ohne Fenster auf allen Kernen.
+// Jede Sitzung hat ihre eigene GameEngine und ihren eigenen Bot; geteilt wird
+// nur das Ergebnis-Array, in das jede Sitzung ihren eigenen Platz schreibt.
+//
+// Aufruf: java BatchRunner [sitzungen] [threads] [maxTakte] [seed] [random|planner]
+public class BatchRunner {
+    // Kleinere Teilbereiche werden nicht weiter aufgeteilt
+    private static final int SPLIT_THRESHOLD = 4;
+
+    private final int parallelism;              // Anzahl Worker-Threads
+    private final long maxTicks;                // Obergrenze pro Sitzung
+    private final LongFunction<Bot> botFactory; // Erzeugt einen Bot pro Seed
+
+    public BatchRunner(int parallelism, long maxTicks, LongFunction<Bot> botFactory) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism muss positiv sein: " + parallelism);
+        }
+        if (maxTicks <= 0) {
+            throw new IllegalArgumentException("maxTicks muss positiv sein: " + maxTicks);
+        }
+        this.parallelism = parallelism;
+        this.maxTicks = maxTicks;
+        this.botFactory = botFactory;
+    }
+
+    // Führt 'sessions' Sitzungen mit den Seeds baseSeed, baseSeed + 1, ... aus
+    public BatchReport run(int sessions, long baseSeed) {
+        SessionResult[] results = new SessionResult[sessions];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            pool.invoke(new SessionTask(results, 0, sessions, baseSeed));
+            long elapsed = System.nanoTime() - start;
+            return new BatchReport(results, elapsed, parallelism);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Spielt eine Sitzung bis zum Ende oder bis maxTicks
+    public SessionResult runSession(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        Bot bot = botFactory.apply(~seed);   // Anderer Zufall als die Engine
+        while (engine.isRunning() && engine.getTick() < maxTicks) {
+            engine.step(bot.decide(engine));
+        }
+        return new SessionResult(seed, engine.getTick(), engine.getScore(),
+                engine.getCurrentLevel(), engine.isGameWon());
+    }
+
+    // Teilt den Bereich der Sitzungen rekursiv auf (Work-Stealing gleicht
+    // unterschiedlich lange Sitzungen aus)
+    private class SessionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SessionResult[] results;
+        private final int from;
+        private final int to;
+        private final long baseSeed;
+
+        SessionTask(SessionResult[] results, int from, int to, long baseSeed) {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.baseSeed = baseSeed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = runSession(baseSeed + i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SessionTask(results, from, middle, baseSeed),
+                    new SessionTask(results, middle, to, baseSeed));
+        }
+    }
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        long maxTicks = args.length > 2 ? Long.parseLong(args[2])
+                : 5 * 60 * GameConfig.DEFAULT_TICK_RATE;   // 5 Minuten Spielzeit
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+        BotType botType = args.length > 4 ? BotType.parse(args[4]) : BotType.RANDOM;
+        if (botType == BotType.NONE) {
+            throw new IllegalArgumentException("BatchRunner braucht einen Bot");
+        }
+
+        BatchRunner runner = new BatchRunner(threads, maxTicks, botType::create);
+        runner.run(sessions, seed).print(System.out);
+    }
+}
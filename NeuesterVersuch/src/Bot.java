@@ -0,0 +1,9 @@
+// Ein automatischer Spieler: entscheidet vor jedem Takt über die Eingabe
+public interface Bot {
+    Input decide(GameEngine engine);
+
+    // Vor dem Start: IllegalArgumentException, wenn der Bot diese Engine
+    // nicht spielen kann (decide() läuft in der Spielschleife und darf das
+    // nicht mehr)
+    default void check(GameEngine engine) {}
+}
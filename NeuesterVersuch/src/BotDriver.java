@@ -0,0 +1,29 @@
+import java.awt.EventQueue;
+
+// Lässt einen Bot im Fenster spielen. Nach jedem Takt entscheidet er (im
+// Thread der Spielschleife, unter der Sperre der Engine); seine Eingabe geht
+// wie ein Tastendruck über den EDT in die Spielschleife und wird zu Beginn
+// des nächsten Takts angewendet.
+public class BotDriver implements GameListener {
+    private final GameEngine engine;
+    private final Bot bot;
+    private final GameLoop gameLoop;
+
+    public BotDriver(GameEngine engine, Bot bot, GameLoop gameLoop) {
+        bot.check(engine);   // Hier, nicht erst in tickCompleted()
+        this.engine = engine;
+        this.bot = bot;
+        this.gameLoop = gameLoop;
+        synchronized (engine) {   // Die Spielschleife läuft evtl. schon
+            engine.addListener(this);
+        }
+    }
+
+    @Override
+    public void tickCompleted(long tick) {
+        Input input = bot.decide(engine);
+        if (input != Input.NONE) {
+            EventQueue.invokeLater(() -> gameLoop.submit(input));   // Gleicher Weg wie keyPressed
+        }
+    }
+}
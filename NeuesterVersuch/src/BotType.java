@@ -0,0 +1,25 @@
+import java.util.Locale;
+
+// Automatischer Spieler, beim Start wählbar (-Dfrogger.bot=none|random|planner)
+public enum BotType {
+    NONE,     // Gespielt wird mit der Tastatur
+    RANDOM,   // Zufällige Tasten (RandomBot)
+    PLANNER;  // Plant einen sicheren Weg voraus (PlannerBot)
+
+    // Erzeugt den Bot (null bei NONE)
+    public Bot create(long seed) {
+        switch (this) {
+            case RANDOM:
+                return new RandomBot(seed);
+            case PLANNER:
+                return new PlannerBot();
+            default:
+                return null;
+        }
+    }
+
+    // Liest den Typ aus einem Text (Groß-/Kleinschreibung egal)
+    public static BotType parse(String value) {
+        return BotType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
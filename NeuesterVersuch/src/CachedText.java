@@ -0,0 +1,50 @@
+import java.awt.*;
+
+// Text mit Zahlenwert (z.B. Punkte oder Level), dessen String nur neu gebaut
+// wird, wenn sich der Wert ändert. Die Glyphen selbst puffert Java2D bereits;
+// hier entfällt die Allokation von Schrift und String in jedem Bild.
+public class CachedText {
+    private final String prefix;   // Fester Textanfang, z.B. "Punkte: "
+    private final String suffix;   // Fester Textrest, z.B. "/5"
+    private final boolean withValue; // False bei reinem Festtext
+    private final Font font;
+    private final Color color;
+
+    private int value;             // Wert, zu dem text gehört
+    private String text;           // Zuletzt gebauter Text
+
+    // Text mit Zahlenwert zwischen prefix und suffix
+    public CachedText(String prefix, String suffix, Font font, Color color) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.withValue = true;
+        this.font = font;
+        this.color = color;
+    }
+
+    // Fester Text ohne Zahlenwert
+    public CachedText(String text, Font font, Color color) {
+        this.prefix = text;
+        this.suffix = "";
+        this.withValue = false;
+        this.font = font;
+        this.color = color;
+        this.text = text;
+    }
+
+    // Zeichnet einen festen Text mit Grundlinie bei (x, y)
+    public void draw(Graphics g, int x, int y) {
+        draw(g, 0, x, y);
+    }
+
+    // Zeichnet den Text mit Grundlinie bei (x, y) - wie Graphics.drawString
+    public void draw(Graphics g, int newValue, int x, int y) {
+        if (withValue && (text == null || newValue != value)) {
+            text = prefix + newValue + suffix;
+            value = newValue;
+        }
+        g.setFont(font);
+        g.setColor(color);
+        g.drawString(text, x, y);
+    }
+}
@@ -0,0 +1,79 @@
+import java.awt.Rectangle;
+
+// Ausschnitt einer Welt, die größer sein kann als das Fenster. Die Kamera
+// folgt dem Spieler; verschieben und zoomen kommen vom Benutzer (EDT),
+// update() vom Thread, der zeichnet. Was update() berechnet, gilt für das
+// ganze nächste Bild - view() liefert Ausschnitt und Zoom immer zusammen.
+public class Camera {
+    static final double MIN_ZOOM = 0.25;
+    static final double MAX_ZOOM = 4.0;
+    static final double ZOOM_STEP = 1.25;     // Faktor je Stufe
+
+    private final int viewWidth;              // Fenstergröße in Pixeln
+    private final int viewHeight;
+    private final int worldWidth;
+    private final int worldHeight;
+    private final double minZoom;             // Weiter heraus als ganze Welt lohnt nicht
+
+    // Vom Benutzer eingestellt
+    private double zoom = 1.0;
+    private int panX;                         // Verschiebung gegenüber dem Spieler
+    private int panY;
+
+    // Ergebnis des letzten update()
+    private final Rectangle area = new Rectangle();
+    private double areaZoom = 1.0;
+
+    public Camera(int viewWidth, int viewHeight, int worldWidth, int worldHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        minZoom = Math.min(1.0, Math.max(MIN_ZOOM,
+                Math.min((double) viewWidth / worldWidth, (double) viewHeight / worldHeight)));
+        area.setBounds(0, 0, viewWidth, viewHeight);
+    }
+
+    // Zoomt um 'steps' Stufen (positiv = näher heran)
+    public synchronized void zoomBy(int steps) {
+        zoom = Math.max(minZoom, Math.min(MAX_ZOOM, zoom * Math.pow(ZOOM_STEP, steps)));
+    }
+
+    // Verschiebt das Bild um dx, dy Fensterpixel (wie beim Ziehen mit der Maus)
+    public synchronized void panBy(int dx, int dy) {
+        panX = clamp(panX - (int) Math.round(dx / zoom), -worldWidth, worldWidth);
+        panY = clamp(panY - (int) Math.round(dy / zoom), -worldHeight, worldHeight);
+    }
+
+    // Wieder auf den Spieler, ohne Zoom
+    public synchronized void reset() {
+        zoom = 1.0;
+        panX = 0;
+        panY = 0;
+    }
+
+    // Berechnet den Ausschnitt für das nächste Bild: Mittelpunkt (x, y) in
+    // der Welt plus Verschiebung, an den Rändern der Welt angehalten
+    public synchronized void update(int x, int y) {
+        int width = (int) Math.ceil(viewWidth / zoom);
+        int height = (int) Math.ceil(viewHeight / zoom);
+        area.setBounds(position(x + panX - width / 2, width, worldWidth),
+                position(y + panY - height / 2, height, worldHeight), width, height);
+        areaZoom = zoom;
+    }
+
+    // Linke bzw. obere Kante; ist der Ausschnitt größer als die Welt, mittig
+    private static int position(int start, int size, int world) {
+        return size >= world ? (world - size) / 2 : clamp(start, 0, world - size);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    // Kopiert den sichtbaren Teil der Welt nach 'out' und liefert den Zoom
+    public synchronized double view(Rectangle out) {
+        out.setBounds(area);
+        return areaZoom;
+    }
+}
@@ -0,0 +1,81 @@
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+
+// Maus und Tasten für die Kamera eines FrameRenderer: Ziehen oder W/A/S/D
+// verschiebt, Mausrad oder +/- zoomt, Pos1 springt zurück zum Spieler.
+// Ändert nur die Ansicht, nie den Spielzustand; 'changed' läuft nach jeder
+// Änderung (neues Bild, auch wenn die Spielschleife ruht).
+public class CameraControls extends MouseAdapter {
+    private static final int KEY_PAN = 100;   // Fensterpixel je Tastendruck
+
+    private final FrameRenderer renderer;
+    private final Runnable changed;
+    private int lastX;                        // Mausposition beim letzten Ziehen
+    private int lastY;
+
+    public CameraControls(FrameRenderer renderer, Runnable changed) {
+        this.renderer = renderer;
+        this.changed = changed;
+    }
+
+    // True wenn die Taste zur Kamera gehört (dann nicht ans Spiel weitergeben)
+    public boolean keyPressed(KeyEvent e) {
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_PLUS:
+            case KeyEvent.VK_ADD:
+            case KeyEvent.VK_EQUALS:
+                renderer.zoomBy(1);
+                changed.run();
+                return true;
+            case KeyEvent.VK_MINUS:
+            case KeyEvent.VK_SUBTRACT:
+                renderer.zoomBy(-1);
+                changed.run();
+                return true;
+            case KeyEvent.VK_W:
+                renderer.panBy(0, KEY_PAN);
+                changed.run();
+                return true;
+            case KeyEvent.VK_S:
+                renderer.panBy(0, -KEY_PAN);
+                changed.run();
+                return true;
+            case KeyEvent.VK_A:
+                renderer.panBy(KEY_PAN, 0);
+                changed.run();
+                return true;
+            case KeyEvent.VK_D:
+                renderer.panBy(-KEY_PAN, 0);
+                changed.run();
+                return true;
+            case KeyEvent.VK_HOME:
+                renderer.resetView();
+                changed.run();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void mousePressed(MouseEvent e) {
+        lastX = e.getX();
+        lastY = e.getY();
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        renderer.panBy(e.getX() - lastX, e.getY() - lastY);
+        changed.run();
+        lastX = e.getX();
+        lastY = e.getY();
+    }
+
+    @Override
+    public void mouseWheelMoved(MouseWheelEvent e) {
+        renderer.zoomBy(-e.getWheelRotation());
+        changed.run();
+    }
+}
@@ -0,0 +1,14 @@
+import java.util.Locale;
+
+// Wie die Eingaben eines Takts zusammengefasst werden, wenn die Tastatur
+// schneller Ereignisse liefert als das Spiel taktet (Tastenwiederholung)
+public enum CoalescingPolicy {
+    ALL,               // Jede Eingabe wird angewendet
+    COLLAPSE_REPEATS,  // Gleiche Eingaben direkt hintereinander zählen einmal pro Takt
+    ONE_PER_TICK;      // Höchstens eine Eingabe pro Takt, der Rest wartet auf die nächsten
+
+    // Liest die Einstellung aus einem Text (Groß-/Kleinschreibung egal)
+    public static CoalescingPolicy parse(String value) {
+        return CoalescingPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,187 @@
+import java.awt.*;
+import java.util.Arrays;
+
+// Sammelt pro Bild die Bereiche, die sich gegenüber dem vorherigen Bild
+// geändert haben. Jedes gezeichnete Objekt meldet seine aktuelle Position per
+// track(); verglichen wird mit der Position, die es im letzten Bild hatte.
+// Bei Page-Flipping enthält der Hintergrundpuffer ein älteres Bild - dann
+// werden zusätzlich die Bereiche der vorigen Bilder erneut gezeichnet.
+public class DirtyRegionTracker {
+    // Ab so vielen Einzelbereichen lohnt sich das Aufteilen nicht mehr
+    private static final int MAX_REGIONS = 32;
+
+    private final int width;               // Größe der Zeichenfläche
+    private final int height;
+
+    private final Rectangle[] regions = new Rectangle[MAX_REGIONS];
+    private int count;                     // Belegte Bereiche im aktuellen Bild
+    private boolean full;                  // Ganzes Bild neu zeichnen
+    private boolean fullRequested = true;  // Nächstes Bild komplett (erstes Bild immer)
+
+    // Eigene Bereiche der vorigen Bilder, [0] = letztes Bild (nur bei history > 1)
+    private final Rectangle[][] past;
+    private final int[] pastCounts;
+    private final boolean[] pastFull;
+    private final Rectangle[] own = new Rectangle[MAX_REGIONS]; // Zwischenspeicher
+
+    // Positionen aller Objekte im letzten und im aktuellen Bild (x, y, w, h)
+    private int[] previous = new int[256];
+    private int previousCount;             // Anzahl Objekte im letzten Bild
+    private int[] current = new int[256];
+    private int cursor;                    // Nächstes Objekt im aktuellen Bild
+
+    // history = wie viele Bilder der Hintergrundpuffer zurückliegt
+    // (1 = Blit oder kopierendes Flipping, 2 = Flipping mit Doppelpuffer)
+    public DirtyRegionTracker(int width, int height, int history) {
+        this.width = width;
+        this.height = height;
+        int pastFrames = Math.max(1, history) - 1;
+        for (int i = 0; i < MAX_REGIONS; i++) {
+            regions[i] = new Rectangle();
+            own[i] = new Rectangle();
+        }
+        past = new Rectangle[pastFrames][MAX_REGIONS];
+        for (Rectangle[] frame : past) {
+            for (int i = 0; i < MAX_REGIONS; i++) {
+                frame[i] = new Rectangle();
+            }
+        }
+        pastCounts = new int[pastFrames];
+        pastFull = new boolean[pastFrames];
+    }
+
+    // Beginnt ein neues Bild
+    public void beginFrame() {
+        count = 0;
+        full = false;
+        cursor = 0;
+        if (fullRequested) {
+            fullRequested = false;
+            markAll();
+        }
+    }
+
+    // Das nächste Bild wird komplett gezeichnet (z.B. nach Zustandswechsel)
+    public void requestFullRepaint() {
+        fullRequested = true;
+    }
+
+    // Meldet ein gezeichnetes Objekt mit seiner aktuellen Position
+    public void track(int x, int y, int w, int h) {
+        int index = cursor * 4;
+        if (index + 4 > current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[index] = x;
+        current[index + 1] = y;
+        current[index + 2] = w;
+        current[index + 3] = h;
+
+        if (cursor < previousCount) {
+            int px = previous[index];
+            int py = previous[index + 1];
+            int pw = previous[index + 2];
+            int ph = previous[index + 3];
+            if (px != x || py != y || pw != w || ph != h) {
+                add(px, py, pw, ph);
+                add(x, y, w, h);
+            }
+        } else {
+            add(x, y, w, h);   // Neues Objekt
+        }
+        cursor++;
+    }
+
+    // Schließt das Bild ab: Objekte, die es nicht mehr gibt, werden übermalt
+    public void endFrame() {
+        for (int i = cursor; i < previousCount; i++) {
+            int index = i * 4;
+            add(previous[index], previous[index + 1], previous[index + 2], previous[index + 3]);
+        }
+        int[] swap = previous;
+        previous = current;
+        current = swap;
+        previousCount = cursor;
+
+        if (past.length == 0) {
+            return;
+        }
+
+        // Eigene Bereiche merken, bevor die der vorigen Bilder dazukommen
+        int ownCount = count;
+        boolean ownFull = full;
+        for (int i = 0; i < ownCount; i++) {
+            own[i].setBounds(regions[i]);
+        }
+
+        // Bei Page-Flipping auch die Bereiche der vorigen Bilder nachziehen
+        for (int f = 0; f < past.length && !full; f++) {
+            if (pastFull[f]) {
+                markAll();
+            }
+            for (int i = 0; i < pastCounts[f] && !full; i++) {
+                Rectangle r = past[f][i];
+                add(r.x, r.y, r.width, r.height);
+            }
+        }
+
+        // Historie weiterschieben (Arrays werden wiederverwendet)
+        Rectangle[] recycled = past[past.length - 1];
+        System.arraycopy(past, 0, past, 1, past.length - 1);
+        System.arraycopy(pastCounts, 0, pastCounts, 1, past.length - 1);
+        System.arraycopy(pastFull, 0, pastFull, 1, past.length - 1);
+        past[0] = recycled;
+        for (int i = 0; i < ownCount; i++) {
+            recycled[i].setBounds(own[i]);
+        }
+        pastCounts[0] = ownCount;
+        pastFull[0] = ownFull;
+    }
+
+    // Markiert einen Bereich als geändert (wird mit Nachbarn zusammengefasst)
+    public void add(int x, int y, int w, int h) {
+        if (full) {
+            return;
+        }
+        // Auf die Zeichenfläche beschneiden
+        int x1 = Math.max(0, x);
+        int y1 = Math.max(0, y);
+        int x2 = Math.min(width, x + w);
+        int y2 = Math.min(height, y + h);
+        if (x1 >= x2 || y1 >= y2) {
+            return;
+        }
+
+        // Mit einem berührenden Bereich vereinigen
+        for (int i = 0; i < count; i++) {
+            Rectangle r = regions[i];
+            if (x1 <= r.x + r.width && r.x <= x2 && y1 <= r.y + r.height && r.y <= y2) {
+                int nx = Math.min(r.x, x1);
+                int ny = Math.min(r.y, y1);
+                r.width = Math.max(r.x + r.width, x2) - nx;
+                r.height = Math.max(r.y + r.height, y2) - ny;
+                r.x = nx;
+                r.y = ny;
+                return;
+            }
+        }
+
+        if (count == MAX_REGIONS) {
+            markAll();
+            return;
+        }
+        regions[count++].setBounds(x1, y1, x2 - x1, y2 - y1);
+    }
+
+    // Erzwingt ein komplettes Neuzeichnen
+    public void markAll() {
+        full = true;
+        count = 1;
+        regions[0].setBounds(0, 0, width, height);
+    }
+
+    // Anzahl der neu zu zeichnenden Bereiche (0 = nichts zu tun)
+    public int getRegionCount() { return count; }
+    public Rectangle getRegion(int i) { return regions[i]; }
+    public boolean isFull() { return full; }
+}
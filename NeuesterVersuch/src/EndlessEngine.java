@@ -0,0 +1,188 @@
+// Spiellogik der endlosen Welt nach der Textplanung: 15 sichtbare Reihen zu
+// je 20 Blöcken. Der Spieler darf nur nach vorne (oben) und zur Seite; steht
+// er auf der mittleren Reihe, rückt das Bild um drei Reihen weiter. Für jede
+// neu erreichte Reihe gibt es einen Punkt.
+//
+// Simuliert werden nur die sichtbaren Reihen und ein kleiner Vorlauf; die
+// Reihen liegen in einem LaneRing fester Größe.
+public class EndlessEngine implements Game {
+    // Raster laut Textplanung
+    public static final int COLUMNS = 20;
+    public static final int VISIBLE_ROWS = 15;
+    public static final int BLOCK_WIDTH = GameEngine.PANEL_WIDTH / COLUMNS;    // 40 Pixel
+    public static final int ROW_HEIGHT = GameEngine.PANEL_HEIGHT / VISIBLE_ROWS; // 40 Pixel
+    public static final int SCROLL_ROWS = 3;      // Um so viele Reihen rückt das Bild weiter
+
+    static final int LOOKAHEAD_ROWS = 5;          // Vorlauf über dem sichtbaren Bereich
+    static final int CHUNK_ROWS = 5;              // Reihen, die gemeinsam erzeugt werden
+    private static final int MIDDLE_ROW = VISIBLE_ROWS / 2;
+    private static final int WRAP_MARGIN = 5 * BLOCK_WIDTH; // Längster Baumstamm
+
+    private final long seed;
+    private final int tickRate;        // Spieltakte pro Sekunde (Tempi gelten je Sekunde)
+    private final FastRandom random;
+    private final LaneGenerator generator;
+    private final LaneRing lanes;
+
+    // Spieler (X in Pixeln, Reihe in Weltkoordinaten; Reihe 0 = Start)
+    private int playerX;
+    private int playerRow;
+
+    private int cameraRow;             // Unterste sichtbare Reihe
+    private int score;                 // Höchste erreichte Reihe
+    private boolean gameOver;
+    private long tick;
+    private int generation;            // Zählt die erzeugten Welten (Neustarts)
+    private TickProfiler profiler = TickProfiler.DISABLED;
+
+    public EndlessEngine() {
+        this(FastRandom.randomSeed());
+    }
+
+    public EndlessEngine(long seed) {
+        this(seed, GameConfig.DEFAULT_TICK_RATE);
+    }
+
+    public EndlessEngine(long seed, int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("tickRate muss positiv sein: " + tickRate);
+        }
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.random = new FastRandom(seed);
+        this.generator = new LaneGenerator(random, BLOCK_WIDTH);
+        // Sichtbar + Vorlauf, dazu ein Chunk Spielraum unter der Kamera
+        this.lanes = new LaneRing(VISIBLE_ROWS + LOOKAHEAD_ROWS + CHUNK_ROWS - 1,
+                CHUNK_ROWS, GameEngine.PANEL_WIDTH, WRAP_MARGIN, tickRate);
+        resetGame();
+    }
+
+    // Startet eine neue Welt (der Zufall läuft weiter, die Welt ist also neu)
+    public void resetGame() {
+        generator.reset();
+        lanes.reset(generator);
+        playerX = COLUMNS / 2 * BLOCK_WIDTH + (BLOCK_WIDTH - GameEngine.PLAYER_SIZE) / 2;
+        playerRow = 0;
+        cameraRow = 0;
+        score = 0;
+        gameOver = false;
+        generation++;
+    }
+
+    @Override
+    public void step(Input input) {
+        applyInput(input);
+        if (isRunning()) {
+            updateGame();
+        }
+    }
+
+    @Override
+    public void applyInput(Input input) {
+        if (gameOver) {
+            if (input == Input.RESTART) {
+                resetGame();
+            }
+            return;
+        }
+
+        switch (input) {
+            case UP:
+                playerRow++;
+                if (playerRow > score) {
+                    score = playerRow;   // Ein Punkt pro neu erreichter Reihe
+                }
+                if (playerRow - cameraRow >= MIDDLE_ROW) {
+                    scroll(SCROLL_ROWS);
+                }
+                break;
+            case LEFT:
+                playerX = Math.max(0, playerX - BLOCK_WIDTH);
+                break;
+            case RIGHT:
+                playerX = Math.min(GameEngine.PANEL_WIDTH - GameEngine.PLAYER_SIZE,
+                        playerX + BLOCK_WIDTH);
+                break;
+            default:
+                break;   // Zurückgehen ist nicht erlaubt
+        }
+    }
+
+    // Rückt den sichtbaren Ausschnitt weiter und erzeugt die Reihen davor
+    void scroll(int rows) {
+        cameraRow += rows;
+        lanes.ensure(getLastSimulatedRow(), generator);
+    }
+
+    // Setzt Spieler und Kamera direkt auf eine Reihe (für Benchmarks);
+    // alle Reihen dazwischen werden erzeugt und wieder verworfen
+    void skipTo(int row) {
+        playerRow = row;
+        scroll(row - cameraRow);
+    }
+
+    // Ein Spieltakt: Hindernisse bewegen, mitfahren, Kollision prüfen
+    void updateGame() {
+        tick++;
+        long start = profiler.start();
+        lanes.move(cameraRow, getLastSimulatedRow());
+        start = profiler.lap(Phase.MOVE, start);
+        checkPlayer();
+        profiler.lap(Phase.COLLISIONS, start);
+    }
+
+    private void checkPlayer() {
+        LaneType type = lanes.getType(playerRow);
+        int hit = lanes.findOverlap(playerRow, playerX, GameEngine.PLAYER_SIZE);
+        if (type == LaneType.ROAD) {
+            gameOver = hit >= 0;
+        } else if (type == LaneType.RIVER) {
+            if (hit < 0) {
+                gameOver = true;   // Ins Wasser gefallen
+                return;
+            }
+            playerX += lanes.stepX(playerRow, hit);
+            // Vom Baumstamm über den Rand getragen
+            gameOver = playerX < 0 || playerX + GameEngine.PLAYER_SIZE > GameEngine.PANEL_WIDTH;
+        }
+    }
+
+    // Oberste Reihe, die noch simuliert wird
+    int getLastSimulatedRow() {
+        return cameraRow + VISIBLE_ROWS + LOOKAHEAD_ROWS - 1;
+    }
+
+    // Y-Position einer Reihe auf dem Bildschirm (Oberkante)
+    public int rowToScreenY(int row) {
+        return (VISIBLE_ROWS - 1 - (row - cameraRow)) * ROW_HEIGHT;
+    }
+
+    @Override
+    public boolean isRunning() { return !gameOver; }
+
+    // Getter-Methoden
+    public LaneRing getLanes() { return lanes; }
+    public int getPlayerX() { return playerX; }
+    public int getPlayerY() { return rowToScreenY(playerRow) + (ROW_HEIGHT - GameEngine.PLAYER_SIZE) / 2; }
+    public int getPlayerRow() { return playerRow; }
+    public int getCameraRow() { return cameraRow; }
+    public int getScore() { return score; }
+    public boolean isGameOver() { return gameOver; }
+    public long getSeed() { return seed; }
+    public int getTickRate() { return tickRate; }
+    public long getTick() { return tick; }
+    public int getGeneration() { return generation; }
+    @Override
+    public TickProfiler getProfiler() { return profiler; }
+    @Override
+    public void setProfiler(TickProfiler profiler) { this.profiler = profiler; }
+
+    // Anzahl der Hindernisse in den simulierten Reihen
+    public int getObstacleCount() {
+        int count = 0;
+        for (int row = cameraRow; row <= getLastSimulatedRow(); row++) {
+            count += lanes.getCount(row);
+        }
+        return count;
+    }
+}
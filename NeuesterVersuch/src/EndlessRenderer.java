@@ -0,0 +1,194 @@
+import java.awt.*;
+
+// Zeichnet die endlose Welt: nur die sichtbaren Reihen, Reihe für Reihe
+public class EndlessRenderer implements FrameRenderer {
+    private static final Font UI_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 50);
+
+    // Bereich der Punkteanzeige (für die Änderungsverfolgung)
+    private static final Rectangle UI_BOUNDS = new Rectangle(0, 0, 250, 40);
+
+    private final EndlessEngine engine;
+
+    private final CachedText scoreText = new CachedText("Reihen: ", "", UI_FONT, Color.BLACK);
+    private final CachedText gameOverText = new CachedText("GAME OVER", TITLE_FONT, Color.RED);
+    private final CachedText finalScoreText = new CachedText("Reihen geschafft: ", "", UI_FONT, Color.RED);
+    private final CachedText restartText = new CachedText("Leertaste zum Neustart", UI_FONT, Color.RED);
+    private final CachedText pausedText = new CachedText("PAUSE", TITLE_FONT, Color.BLUE);
+    private final CachedText resumeText = new CachedText("P zum Weiterspielen", UI_FONT, Color.BLUE);
+
+    // Zustand beim letzten collectDirtyRegions() - Änderung = neu zeichnen
+    private int trackedScore = -1;
+    private int trackedCameraRow = -1;
+    private int trackedGeneration = -1;
+    private boolean trackedRunning;
+    private boolean trackedPaused;
+
+    private final Rectangle clip = new Rectangle();   // Wiederverwendet beim Zeichnen
+
+    private final ProfilerOverlay overlay;            // Messanzeige (F3)
+    private boolean trackedOverlay;
+
+    private volatile double interpolation = 1.0;
+    private volatile boolean paused;   // Pause-Anzeige
+
+    public EndlessRenderer(EndlessEngine engine) {
+        this.engine = engine;
+        this.overlay = new ProfilerOverlay(engine);
+    }
+
+    @Override
+    public void setInterpolation(double interpolation) {
+        this.interpolation = interpolation;
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        // Nur Reihen zeichnen, die den Clip-Bereich berühren
+        int top = 0;
+        int bottom = GameEngine.PANEL_HEIGHT;
+        if (g.getClip() != null) {
+            g.getClipBounds(clip);
+            top = Math.max(top, clip.y);
+            bottom = Math.min(bottom, clip.y + clip.height);
+        }
+
+        TickProfiler profiler = engine.getProfiler();
+        long start = profiler.start();
+        double behind = behindTicks();
+        LaneRing lanes = engine.getLanes();
+        int firstRow = engine.getCameraRow();
+        int lastRow = firstRow + EndlessEngine.VISIBLE_ROWS - 1;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int y = engine.rowToScreenY(row);
+            if (y < bottom && y + EndlessEngine.ROW_HEIGHT > top) {
+                drawGround(g, lanes.getType(row), y);
+            }
+        }
+        start = profiler.lap(Phase.BACKGROUND, start);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            int y = engine.rowToScreenY(row);
+            if (y < bottom && y + EndlessEngine.ROW_HEIGHT > top) {
+                drawObstacles(g, lanes, row, y, behind);
+            }
+        }
+        start = profiler.lap(Phase.OBSTACLES, start);
+
+        g.setColor(Color.BLACK);
+        g.fillRect(engine.getPlayerX(), engine.getPlayerY(),
+                GameEngine.PLAYER_SIZE, GameEngine.PLAYER_SIZE);
+        start = profiler.lap(Phase.PLAYER, start);
+
+        drawUI(g);
+        profiler.lap(Phase.UI, start);
+    }
+
+    @Override
+    public void toggleOverlay() {
+        overlay.toggle();
+    }
+
+    @Override
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    // Zeichnet den Untergrund einer Reihe
+    private void drawGround(Graphics g, LaneType type, int y) {
+        switch (type) {
+            case ROAD:
+                g.setColor(Color.GRAY);
+                break;
+            case RIVER:
+                g.setColor(Color.BLUE);
+                break;
+            default:
+                g.setColor(Color.GREEN);
+                break;
+        }
+        g.fillRect(0, y, GameEngine.PANEL_WIDTH, EndlessEngine.ROW_HEIGHT);
+    }
+
+    // Zeichnet die Hindernisse einer Reihe
+    private void drawObstacles(Graphics g, LaneRing lanes, int row, int y, double behind) {
+        LaneType type = lanes.getType(row);
+        if (type == LaneType.SAFE) {
+            return;
+        }
+
+        g.setColor(type == LaneType.ROAD ? Color.RED : GameRenderer.LOG_COLOR);
+        int shift = (int) Math.round(lanes.getFixedSpeed(row) * behind / ObstacleStore.SUBPIXELS);
+        for (int i = 0; i < lanes.getCount(row); i++) {
+            g.fillRect(lanes.getX(row, i) - shift, y, lanes.getWidth(row, i), EndlessEngine.ROW_HEIGHT);
+        }
+    }
+
+    // Steht das Spiel, bewegt sich nichts - dann nicht interpolieren
+    private double behindTicks() {
+        return engine.isRunning() ? 1.0 - interpolation : 0.0;
+    }
+
+    @Override
+    public void collectDirtyRegions(DirtyRegionTracker tracker) {
+        // Weiterscrollen verschiebt alle Reihen, ein Neustart bringt eine neue
+        // Welt, Spielende und Pause das Overlay - in allen Fällen alles neu zeichnen
+        if (engine.isRunning() != trackedRunning || engine.getCameraRow() != trackedCameraRow
+                || engine.getGeneration() != trackedGeneration || overlay.isVisible() != trackedOverlay
+                || paused != trackedPaused) {
+            trackedRunning = engine.isRunning();
+            trackedPaused = paused;
+            trackedOverlay = overlay.isVisible();
+            trackedCameraRow = engine.getCameraRow();
+            trackedGeneration = engine.getGeneration();
+            tracker.requestFullRepaint();
+        }
+
+        tracker.beginFrame();
+
+        double behind = behindTicks();
+        LaneRing lanes = engine.getLanes();
+        int cameraRow = engine.getCameraRow();
+        for (int row = cameraRow; row < cameraRow + EndlessEngine.VISIBLE_ROWS; row++) {
+            int y = engine.rowToScreenY(row);
+            int shift = (int) Math.round(lanes.getFixedSpeed(row) * behind / ObstacleStore.SUBPIXELS);
+            for (int i = 0; i < lanes.getCount(row); i++) {
+                tracker.track(lanes.getX(row, i) - shift, y,
+                        lanes.getWidth(row, i), EndlessEngine.ROW_HEIGHT);
+            }
+        }
+        tracker.track(engine.getPlayerX(), engine.getPlayerY(),
+                GameEngine.PLAYER_SIZE, GameEngine.PLAYER_SIZE);
+
+        if (engine.getScore() != trackedScore) {
+            trackedScore = engine.getScore();
+            tracker.add(UI_BOUNDS.x, UI_BOUNDS.y, UI_BOUNDS.width, UI_BOUNDS.height);
+        }
+        if (overlay.isVisible()) {
+            Rectangle r = ProfilerOverlay.BOUNDS;   // Werte ändern sich laufend
+            tracker.add(r.x, r.y, r.width, r.height);
+        }
+
+        tracker.endFrame();
+    }
+
+    private void drawUI(Graphics g) {
+        int score = engine.getScore();
+        scoreText.draw(g, score, 20, 30);
+
+        if (engine.isGameOver()) {
+            int centerX = GameEngine.PANEL_WIDTH / 2;
+            int centerY = GameEngine.PANEL_HEIGHT / 2;
+            gameOverText.draw(g, centerX - 150, centerY);
+            finalScoreText.draw(g, score, centerX - 100, centerY + 50);
+            restartText.draw(g, centerX - 100, centerY + 80);
+        } else if (paused) {
+            int centerX = GameEngine.PANEL_WIDTH / 2;
+            int centerY = GameEngine.PANEL_HEIGHT / 2;
+            pausedText.draw(g, centerX - 80, centerY);
+            resumeText.draw(g, centerX - 100, centerY + 50);
+        }
+
+        overlay.draw(g, engine.getObstacleCount());
+    }
+}
@@ -0,0 +1,61 @@
+// Schneller, reproduzierbarer Zufallsgenerator (xoroshiro128++).
+// Jede Spielsitzung hat ihre eigene Instanz - kein gemeinsamer Zustand wie
+// bei Math.random(). Der Zustand (zwei longs) kann gelesen und gesetzt werden,
+// damit sich Spielstände mitsamt Zufall speichern und wiederherstellen lassen.
+public final class FastRandom {
+    private long s0;
+    private long s1;
+
+    public FastRandom(long seed) {
+        setSeed(seed);
+    }
+
+    // Setzt den Startwert; splitmix64 verteilt ihn auf beide Zustandswörter
+    public void setSeed(long seed) {
+        long z = seed;
+        s0 = mix(z += 0x9E3779B97F4A7C15L);
+        s1 = mix(z + 0x9E3779B97F4A7C15L);
+        if ((s0 | s1) == 0) {
+            s1 = 1;   // Der Zustand 0/0 ist für xoroshiro verboten
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Nächste 64 Zufallsbits
+    public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long result = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return result;
+    }
+
+    // Gleichverteilt in [0, 1) - Ersatz für Math.random()
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    // Startwert für Sitzungen ohne festen Seed
+    public static long randomSeed() {
+        return mix(System.nanoTime() ^ Thread.currentThread().getId() * 0x9E3779B97F4A7C15L);
+    }
+
+    // Zustand lesen/setzen (für Spielstände)
+    public long getState0() { return s0; }
+    public long getState1() { return s1; }
+
+    public void setState(long state0, long state1) {
+        if ((state0 | state1) == 0) {
+            throw new IllegalArgumentException("Zufallszustand darf nicht 0/0 sein");
+        }
+        s0 = state0;
+        s1 = state1;
+    }
+}
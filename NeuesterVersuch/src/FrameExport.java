@@ -0,0 +1,104 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+// Exportiert eine Aufzeichnung als PNG-Bildfolge - auch auf Servern ohne
+// Bildschirm. Gezeichnet wird jeder n-te Takt, kodiert auf mehreren Threads.
+// Eigene Karten wie im Spiel über -Dfrogger.map.
+//
+// Aufruf: java [-Dfrogger.map=karte] FrameExport <datei> <zielordner> [jederNteTakt] [worker] [vorschaubreite]
+public class FrameExport {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Aufruf: java FrameExport <datei> <zielordner> "
+                    + "[jederNteTakt] [worker] [vorschaubreite]");
+            System.exit(2);
+        }
+        // Muss vor dem ersten Zugriff auf AWT gesetzt sein
+        System.setProperty("java.awt.headless", "true");
+
+        Replay replay = Replay.read(new File(args[0]));
+        String mapPath = System.getProperty("frogger.map");
+        LevelMap map = LevelMap.loadOrClassic(mapPath);
+        if (!replay.fits(map)) {
+            System.err.println("Aufzeichnung gehört zu einer anderen Karte als "
+                    + (mapPath == null ? "der klassischen" : mapPath) + " (-Dfrogger.map)");
+            System.exit(2);
+        }
+        File directory = new File(args[1]);
+        int every = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int workers = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        int thumbnailWidth = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        if (every <= 0) {
+            throw new IllegalArgumentException("jederNteTakt muss positiv sein: " + every);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Ordner kann nicht angelegt werden: " + directory);
+        }
+
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuStart = os.getProcessCpuTime();
+        long start = System.nanoTime();
+
+        FrameExporter exporter = new FrameExporter(directory, workers, 2 * workers, thumbnailWidth);
+        GameEngine engine = new GameEngine(replay.getSeed(), map, replay.getTickRate());
+        Capture capture = new Capture(exporter, new OffscreenRenderer(new GameRenderer(engine, new SpriteCache())), every);
+        engine.addListener(capture);
+        try {
+            replay.simulate(engine);
+        } finally {
+            exporter.close();
+        }
+        capture.rethrow();
+
+        double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+        double cpuSeconds = Math.max(1, os.getProcessCpuTime() - cpuStart) / 1e9;
+        long frames = exporter.getFramesWritten();
+        System.out.printf(Locale.ROOT, "%d Bilder (%.1f MB) in %.2f s: %.1f Bilder/s, "
+                        + "%.1f Bilder/s pro Kern (CPU %.2f s), %d Bilder im Umlauf, %.0f ms gebremst%n",
+                frames, exporter.getBytesWritten() / 1e6, seconds, frames / seconds,
+                frames / cpuSeconds, cpuSeconds, exporter.getFramesAllocated(),
+                exporter.getWaitNanos() / 1e6);
+    }
+
+    // Zeichnet nach jedem n-ten Takt ein Bild und gibt es zum Kodieren ab
+    private static final class Capture implements GameListener {
+        private final FrameExporter exporter;
+        private final int every;
+        private final OffscreenRenderer renderer;
+        private Exception error;
+
+        Capture(FrameExporter exporter, OffscreenRenderer renderer, int every) {
+            this.exporter = exporter;
+            this.renderer = renderer;
+            this.every = every;
+        }
+
+        @Override
+        public void tickCompleted(long tick) {
+            if (error != null || tick % every != 0) {
+                return;
+            }
+            try {
+                BufferedImage frame = exporter.acquire();
+                renderer.render(frame);
+                exporter.submit(frame, String.format(Locale.ROOT, "frame-%08d", tick));
+            } catch (IOException | InterruptedException e) {
+                error = e;   // Listener dürfen nicht werfen; Rest überspringen
+            }
+        }
+
+        void rethrow() throws IOException, InterruptedException {
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            if (error instanceof InterruptedException) {
+                throw (InterruptedException) error;
+            }
+        }
+    }
+}
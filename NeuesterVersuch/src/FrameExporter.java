@@ -0,0 +1,200 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Schreibt Bilder parallel als PNG. Der aufrufende Thread zeichnet, eine
+// feste Zahl von Worker-Threads kodiert (PngEncoder). Es gibt nur 'inFlight' Bilder:
+// acquire() wartet, bis ein Worker eines zurückgegeben hat. Ist das
+// Kodieren langsamer als das Zeichnen, wird so das Zeichnen gebremst statt
+// immer mehr Bilder im Speicher zu sammeln.
+//
+// Mit thumbnailWidth > 0 werden verkleinerte Vorschaubilder geschrieben.
+public class FrameExporter implements AutoCloseable {
+    // Markiert das Ende der Arbeit für die Worker
+    private static final Job POISON = new Job(null, null);
+
+    private final File directory;
+    private final int thumbnailWidth;            // 0 = volle Größe
+    private final BlockingQueue<BufferedImage> free;   // Zurückgegebene Bilder
+    private final BlockingQueue<Job> jobs;
+    private final Thread[] workers;
+    private int allocated;                       // Bisher angelegte Bilder
+    private final int inFlight;
+
+    private volatile IOException failure;        // Erster Fehler eines Workers
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private long waitNanos;                      // Zeit in acquire() (Gegendruck)
+    private boolean closed;
+
+    public FrameExporter(File directory, int workerCount, int inFlight, int thumbnailWidth) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount muss positiv sein: " + workerCount);
+        }
+        if (inFlight < workerCount) {
+            throw new IllegalArgumentException("inFlight muss mindestens workerCount sein: " + inFlight);
+        }
+        if (thumbnailWidth < 0 || thumbnailWidth > GameEngine.PANEL_WIDTH) {
+            throw new IllegalArgumentException("Ungültige Vorschaubreite: " + thumbnailWidth);
+        }
+        this.directory = directory;
+        this.thumbnailWidth = thumbnailWidth;
+        this.inFlight = inFlight;
+        free = new ArrayBlockingQueue<>(inFlight);
+        jobs = new ArrayBlockingQueue<>(inFlight + workerCount);
+
+        workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(this::work, "png-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    // Liefert ein freies Bild zum Zeichnen; wartet, wenn alle unterwegs sind
+    public BufferedImage acquire() throws IOException, InterruptedException {
+        checkFailure();
+        BufferedImage frame = free.poll();
+        if (frame != null) {
+            return frame;
+        }
+        if (allocated < inFlight) {
+            allocated++;
+            return OffscreenRenderer.newFrame();
+        }
+        long start = System.nanoTime();
+        frame = free.take();
+        waitNanos += System.nanoTime() - start;
+        checkFailure();
+        return frame;
+    }
+
+    // Gibt ein gezeichnetes Bild zum Kodieren ab (Dateiname ohne Endung)
+    public void submit(BufferedImage frame, String name) throws InterruptedException {
+        jobs.put(new Job(frame, name));
+    }
+
+    // Wartet, bis alle Bilder geschrieben sind, und beendet die Worker. Wird
+    // der Thread dabei unterbrochen, wird trotzdem zu Ende gewartet (sonst
+    // fehlten Bilder) und das Unterbrechungs-Flag danach wieder gesetzt.
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            boolean interrupted = false;
+            for (int i = 0; i < workers.length; i++) {
+                while (true) {
+                    try {
+                        jobs.put(POISON);
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;   // Flag ist jetzt gelöscht, put() wartet wieder
+                    }
+                }
+            }
+            for (Thread worker : workers) {
+                while (worker.isAlive()) {
+                    try {
+                        worker.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Worker: verkleinern, Bild zurückgeben, kodieren
+    private void work() {
+        PngEncoder encoder = new PngEncoder();   // Je Worker, mit eigenen Puffern
+        BufferedImage thumbnail = thumbnailWidth > 0 ? newThumbnail() : null;
+        try {
+            while (true) {
+                Job job = jobs.take();
+                if (job == POISON) {
+                    return;
+                }
+                BufferedImage output = job.frame;
+                if (thumbnail != null) {
+                    scale(job.frame, thumbnail);
+                    output = thumbnail;
+                    free.add(job.frame);   // Vorlage wird nicht mehr gebraucht
+                }
+                if (failure == null) {
+                    encode(encoder, output, job.name);
+                }
+                if (thumbnail == null) {
+                    free.add(job.frame);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void encode(PngEncoder encoder, BufferedImage image, String name) {
+        File file = new File(directory, name + ".png");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024)) {
+            encoder.encode(OffscreenRenderer.pixels(image), image.getWidth(), image.getHeight(), out);
+        } catch (IOException e) {
+            synchronized (this) {
+                if (failure == null) {
+                    failure = new IOException("Export von " + file + " fehlgeschlagen", e);
+                }
+            }
+            return;
+        }
+        written.incrementAndGet();
+        bytesWritten.addAndGet(file.length());
+    }
+
+    private BufferedImage newThumbnail() {
+        int height = GameEngine.PANEL_HEIGHT * thumbnailWidth / GameEngine.PANEL_WIDTH;
+        return new BufferedImage(thumbnailWidth, Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static void scale(BufferedImage source, BufferedImage target) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, target.getWidth(), target.getHeight(), null);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Getter-Methoden (Werte für Messungen)
+    public long getFramesWritten() { return written.get(); }
+    public long getBytesWritten() { return bytesWritten.get(); }
+    public long getWaitNanos() { return waitNanos; }
+    public int getFramesAllocated() { return allocated; }
+
+    // Ein Bild mit seinem Dateinamen
+    private static final class Job {
+        final BufferedImage frame;
+        final String name;
+
+        Job(BufferedImage frame, String name) {
+            this.frame = frame;
+            this.name = name;
+        }
+    }
+}
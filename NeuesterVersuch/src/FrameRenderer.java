@@ -0,0 +1,29 @@
+import java.awt.*;
+
+// Zeichnet den Zustand eines Spielmodus (passiv über Swing oder aktiv)
+public interface FrameRenderer {
+    // Zeichnet das komplette Bild (bzw. den Clip-Bereich)
+    void paint(Graphics g);
+
+    // Anteil (0..1) zwischen letztem und nächstem Spieltakt
+    void setInterpolation(double interpolation);
+
+    // Meldet die seit dem letzten Bild geänderten Bereiche
+    void collectDirtyRegions(DirtyRegionTracker tracker);
+
+    // Blendet die Messanzeige ein oder aus
+    void toggleOverlay();
+
+    // Pause-Anzeige, solange die Spielschleife ruht
+    void setPaused(boolean paused);
+
+    // Kamera (nur wo die Welt größer sein kann als das Fenster)
+    default void zoomBy(int steps) {
+    }
+
+    default void panBy(int dx, int dy) {
+    }
+
+    default void resetView() {
+    }
+}
@@ -0,0 +1,15 @@
+// Gemeinsame Schnittstelle der Spielmodi für Spielschleife und Fenster
+public interface Game {
+    // Verarbeitet die Eingabe und führt einen Spieltakt aus
+    void step(Input input);
+
+    // Verarbeitet eine Eingabe sofort (ohne Spieltakt)
+    void applyInput(Input input);
+
+    // True solange das Spiel nicht vorbei ist
+    boolean isRunning();
+
+    // Messung der Takt-Abschnitte (Vorgabe: TickProfiler.DISABLED)
+    void setProfiler(TickProfiler profiler);
+    TickProfiler getProfiler();
+}
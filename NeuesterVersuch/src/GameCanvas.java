@@ -0,0 +1,162 @@
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+
+// Aktives Zeichnen: die Spielschleife zeichnet selbst in eine BufferStrategy
+// (Page-Flipping bzw. Blit) und bestimmt, wann ein Bild erscheint. Neu
+// gezeichnet werden nur die Bereiche, in denen sich etwas bewegt hat.
+public class GameCanvas extends Canvas implements KeyListener {
+    private static final long serialVersionUID = 1L;
+
+    private final Game engine;               // Spiellogik (ohne Swing)
+    private final FrameRenderer renderer;     // Zeichnet den Spielzustand
+    private final CameraControls cameraControls;
+    private final GameLoop gameLoop;         // Steuert die Spielschleife
+
+    private BufferStrategy strategy;         // Puffer für das aktive Zeichnen
+    private DirtyRegionTracker tracker;      // Geänderte Bereiche je Bild
+    private boolean alwaysFull;              // Pufferinhalt nach show() undefiniert
+
+    public GameCanvas(Game engine, FrameRenderer renderer, GameConfig config) {
+        setPreferredSize(new Dimension(GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT));
+        setIgnoreRepaint(true);   // AWT soll nicht selbst zeichnen
+
+        // Aktiviert Tastaturfokus
+        setFocusable(true);
+        addKeyListener(this);
+
+        this.engine = engine;
+        this.renderer = renderer;
+        gameLoop = new GameLoop(engine, config, this::renderFrame);
+
+        // Kamera: Ziehen, Mausrad und Tasten
+        cameraControls = new CameraControls(renderer, gameLoop::refresh);
+        addMouseListener(cameraControls);
+        addMouseMotionListener(cameraControls);
+        addMouseWheelListener(cameraControls);
+    }
+
+    // Sobald der Canvas einen nativen Peer hat: Puffer anlegen, Schleife starten
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createStrategy();
+        gameLoop.start();
+    }
+
+    // Beim Entfernen die Schleife anhalten, bevor der Puffer verschwindet
+    @Override
+    public void removeNotify() {
+        try {
+            gameLoop.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        super.removeNotify();
+    }
+
+    // Bevorzugt Page-Flipping, bei dem der Hintergrundpuffer das zuletzt
+    // gezeigte Bild behält; sonst entscheidet AWT (Flip oder Blit)
+    private void createStrategy() {
+        BufferCapabilities copied = new BufferCapabilities(
+                new ImageCapabilities(true), new ImageCapabilities(true),
+                BufferCapabilities.FlipContents.COPIED);
+        try {
+            createBufferStrategy(2, copied);
+        } catch (AWTException e) {
+            createBufferStrategy(2);
+        }
+        strategy = getBufferStrategy();
+
+        int history = historyOf(strategy);
+        alwaysFull = history == 0;
+        tracker = new DirtyRegionTracker(
+                GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT, Math.max(1, history));
+    }
+
+    // Wie viele Bilder alt der Inhalt des Hintergrundpuffers nach show() ist
+    // (0 = unbekannt, dann muss jedes Bild komplett gezeichnet werden)
+    private static int historyOf(BufferStrategy strategy) {
+        BufferCapabilities caps = strategy.getCapabilities();
+        BufferCapabilities.FlipContents contents = caps.getFlipContents();
+        if (!caps.isPageFlipping() || contents == BufferCapabilities.FlipContents.COPIED) {
+            return 1;   // Blit oder kopierendes Flipping: Puffer = letztes Bild
+        }
+        if (contents == BufferCapabilities.FlipContents.PRIOR) {
+            return 2;   // Puffer = vorletztes Bild
+        }
+        return 0;   // Inhalt undefiniert
+    }
+
+    // Zeichnet ein Bild (wird vom Thread der Spielschleife aufgerufen)
+    private void renderFrame(double alpha) {
+        if (strategy == null) {
+            return;
+        }
+
+        synchronized (engine) {   // Eingaben kommen vom EDT
+            TickProfiler profiler = engine.getProfiler();
+            long start = profiler.start();
+            renderer.setInterpolation(alpha);
+            renderer.setPaused(gameLoop.isSuspended());
+            if (alwaysFull) {
+                tracker.requestFullRepaint();
+            }
+            renderer.collectDirtyRegions(tracker);
+            if (tracker.getRegionCount() == 0) {
+                return;   // Nichts hat sich geändert
+            }
+
+            boolean restored;
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        for (int i = 0; i < tracker.getRegionCount(); i++) {
+                            g.setClip(tracker.getRegion(i));
+                            renderer.paint(g);
+                        }
+                    } finally {
+                        g.dispose();
+                    }
+                    restored = strategy.contentsRestored();
+                    if (restored) {
+                        tracker.markAll();   // Pufferinhalt war verloren
+                    }
+                } while (restored);
+
+                strategy.show();
+                if (strategy.contentsLost()) {
+                    tracker.markAll();
+                }
+            } while (strategy.contentsLost());
+            profiler.lap(Phase.FRAME, start);
+        }
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // Tastatursteuerung - übersetzt die Taste und gibt sie an die Spiellogik
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            renderer.toggleOverlay();   // Messanzeige
+            gameLoop.refresh();
+            return;
+        }
+        if (e.getKeyCode() == KeyEvent.VK_P || e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+            gameLoop.togglePause();
+            return;
+        }
+        if (cameraControls.keyPressed(e)) {
+            return;
+        }
+        gameLoop.submit(Input.fromKeyCode(e.getKeyCode()));   // Ohne Sperre, wird im Takt angewendet
+    }
+
+    public GameLoop getGameLoop() { return gameLoop; }
+
+    @Override
+    public void keyReleased(KeyEvent e) {}
+    @Override
+    public void keyTyped(KeyEvent e) {}
+}
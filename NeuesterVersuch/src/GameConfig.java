@@ -0,0 +1,101 @@
+// Start-Einstellungen, gelesen aus System-Properties (java -Dfrogger.xyz=...)
+public class GameConfig {
+    // Vorgaben - 20 Takte pro Sekunde entsprechen dem alten 50ms-Timer. Die
+    // Taktrate ändert nur die Auflösung der Simulation: Tempi, Rücktaste und
+    // Bots rechnen auf die gleiche Spielgeschwindigkeit je Sekunde um.
+    public static final int DEFAULT_TICK_RATE = 20;
+    public static final int DEFAULT_FRAME_RATE = 60;
+
+    private final int tickRate;   // Spieltakte pro Sekunde
+    private final int frameRate;  // Bilder pro Sekunde, 0 = ungebremst
+    private final RenderMode renderMode; // Passives Swing oder aktives Zeichnen
+    private GameMode gameMode = GameMode.CLASSIC; // Festes Feld oder endlose Welt
+    private long seed = FastRandom.randomSeed(); // Startwert des Zufalls
+    private CoalescingPolicy inputCoalescing = CoalescingPolicy.COLLAPSE_REPEATS;
+    private int inputQueueCapacity = 256; // Zweierpotenz
+    private boolean profiling = true; // Takt- und Bildzeiten messen (F3 zeigt sie an)
+    private String recordPath;    // Aufzeichnung beim Beenden speichern, null = aus
+    private int rewindBytes = RewindBuffer.DEFAULT_CAPACITY_BYTES; // Speicher fürs Zurückspulen, 0 = aus
+    private BotType botType = BotType.NONE; // Automatischer Spieler (nur klassisch)
+    private boolean sprites = true; // Grafiken aus dem SpriteAtlas statt Rechtecke (nur klassisch)
+    private String mapPath;       // Karte (Text oder übersetzt), null = klassisches Feld
+    private boolean autoPause = true; // Pause bei Fokusverlust und minimiertem Fenster
+
+    public GameConfig(int tickRate, int frameRate) {
+        this(tickRate, frameRate, RenderMode.PASSIVE);
+    }
+
+    public GameConfig(int tickRate, int frameRate, RenderMode renderMode) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("tickRate muss positiv sein: " + tickRate);
+        }
+        if (frameRate < 0) {
+            throw new IllegalArgumentException("frameRate darf nicht negativ sein: " + frameRate);
+        }
+        this.tickRate = tickRate;
+        this.frameRate = frameRate;
+        this.renderMode = renderMode;
+    }
+
+    // Liest frogger.tickRate, frogger.frameRate, frogger.render,
+    // frogger.mode, frogger.seed, frogger.record, frogger.profile,
+    // frogger.rewind.mb (0 = aus), frogger.bot (none|random|planner),
+    // frogger.sprites, frogger.map (Datei), frogger.autopause und
+    // frogger.input.coalesce (all|collapse_repeats|one_per_tick)
+    public static GameConfig fromSystemProperties() {
+        GameConfig config = new GameConfig(
+                Integer.getInteger("frogger.tickRate", DEFAULT_TICK_RATE),
+                Integer.getInteger("frogger.frameRate", DEFAULT_FRAME_RATE),
+                RenderMode.parse(System.getProperty("frogger.render", "passive"))
+        );
+        config.setGameMode(GameMode.parse(System.getProperty("frogger.mode", "classic")));
+        String seed = System.getProperty("frogger.seed");
+        if (seed != null) {
+            config.setSeed(Long.parseLong(seed.trim()));
+        }
+        config.setRecordPath(System.getProperty("frogger.record"));
+        config.setInputCoalescing(CoalescingPolicy.parse(
+                System.getProperty("frogger.input.coalesce", "collapse_repeats")));
+        config.setProfiling(Boolean.parseBoolean(System.getProperty("frogger.profile", "true")));
+        config.setBotType(BotType.parse(System.getProperty("frogger.bot", "none")));
+        config.setSprites(Boolean.parseBoolean(System.getProperty("frogger.sprites", "true")));
+        config.setMapPath(System.getProperty("frogger.map"));
+        config.setAutoPause(Boolean.parseBoolean(System.getProperty("frogger.autopause", "true")));
+        int rewindMb = Integer.getInteger("frogger.rewind.mb", RewindBuffer.DEFAULT_CAPACITY_BYTES >> 20);
+        if (rewindMb < 0 || rewindMb > Integer.MAX_VALUE >> 20) {   // Bytes müssen in ein int passen
+            throw new IllegalArgumentException("frogger.rewind.mb muss zwischen 0 und "
+                    + (Integer.MAX_VALUE >> 20) + " liegen: " + rewindMb);
+        }
+        config.setRewindBytes(rewindMb << 20);
+        return config;
+    }
+
+    // Fester Seed, z.B. um einen Fehlerbericht nachzuspielen
+    public void setSeed(long seed) { this.seed = seed; }
+    public void setGameMode(GameMode gameMode) { this.gameMode = gameMode; }
+    public void setInputCoalescing(CoalescingPolicy policy) { this.inputCoalescing = policy; }
+    public void setInputQueueCapacity(int capacity) { this.inputQueueCapacity = capacity; }
+    public void setProfiling(boolean profiling) { this.profiling = profiling; }
+    public void setRecordPath(String recordPath) { this.recordPath = recordPath; }
+    public void setRewindBytes(int rewindBytes) { this.rewindBytes = rewindBytes; }
+    public void setBotType(BotType botType) { this.botType = botType; }
+    public void setSprites(boolean sprites) { this.sprites = sprites; }
+    public void setMapPath(String mapPath) { this.mapPath = mapPath; }
+    public void setAutoPause(boolean autoPause) { this.autoPause = autoPause; }
+
+    // Getter-Methoden
+    public int getTickRate() { return tickRate; }
+    public int getFrameRate() { return frameRate; }
+    public RenderMode getRenderMode() { return renderMode; }
+    public GameMode getGameMode() { return gameMode; }
+    public long getSeed() { return seed; }
+    public String getRecordPath() { return recordPath; }
+    public boolean isProfiling() { return profiling; }
+    public int getRewindBytes() { return rewindBytes; }
+    public BotType getBotType() { return botType; }
+    public boolean isSprites() { return sprites; }
+    public String getMapPath() { return mapPath; }
+    public boolean isAutoPause() { return autoPause; }
+    public CoalescingPolicy getInputCoalescing() { return inputCoalescing; }
+    public int getInputQueueCapacity() { return inputQueueCapacity; }
+}
@@ -0,0 +1,693 @@
+import java.nio.ByteBuffer;    // Für Spielstände
+import java.util.ArrayList;    // Für die Beobachterliste
+import java.util.Arrays;
+
+// Spiellogik ohne Swing - kann ohne Bildschirm und ohne EDT getaktet werden.
+// Gleicher Seed und gleiche Eingaben zu gleichen Takten ergeben dasselbe
+// Spiel. Zonen, Spuren und Level kommen aus einer LevelMap (ohne Angabe die
+// klassische Karte), der Fahrplan der Hindernisse aus dem SpawnScheduler.
+public class GameEngine implements Game {
+    // Konstanten für die Fenstergröße (Sichtbereich der Kamera)
+    public static final int PANEL_WIDTH = 800;   // Breite des Spielbereichs
+    public static final int PANEL_HEIGHT = 600;  // Höhe des Spielbereichs
+
+    // Spuren bis zu diesem Abstand vom Spieler laufen in jedem Takt voll;
+    // weiter weg fahren Hindernisse ein paar Takte länger ins Leere, bevor
+    // sie neu eingereiht werden. Gemessen am Spieler, nicht an der Kamera -
+    // so hängt der Ablauf nur vom Spielzustand ab (Aufzeichnungen, Rückspulen).
+    static final int ACTIVE_RANGE = PANEL_HEIGHT;
+    static final int OFFSCREEN_INTERVAL = 4;     // Takte zwischen zwei Prüfungen weiter weg
+
+    // Spieler-Einstellungen
+    public static final int PLAYER_SIZE = 30;    // Größe des Spielers
+
+    // Hindernis-Einstellungen
+    public static final int OBSTACLE_HEIGHT = 40;      // Höhe der Hindernisse
+
+    // Archetypen (Reihenfolge = Reihenfolge der Systeme)
+    static final int CARS = 0;
+    static final int LOGS = 1;
+    static final int TURTLES = 2;
+    private static final int[] COMPONENTS = {
+            ObstacleStore.LETHAL,                                // Autos
+            ObstacleStore.RIDEABLE,                              // Baumstämme
+            ObstacleStore.RIDEABLE | ObstacleStore.DIVING };     // Schildkröten
+
+    private static final int NEW_SLOT = -1;            // spawn: neuen Slot anhängen
+
+    // Spielobjekte
+    private final Player player;              // Der Spielercharakter
+    private final ObstacleStore[] archetypes; // Speicher je Archetyp
+    private final LaneIndex[] indexes;        // Je Archetyp nach Spur und X sortiert
+
+    // Spielstatus
+    private int score;                       // Aktueller Punktestand
+    private int currentLevel;                // Aktuelles Level (1 bis Anzahl Level der Karte)
+    private boolean gameWon;                 // True wenn alle Level geschafft
+    private boolean gameOver;                // True bei Spielende
+
+    // Spielfeld
+    private final LevelMap map;              // Zonen, Spuren und Level
+    private final int worldWidth;            // Größe der Welt laut Karte
+    private final int worldHeight;
+    private final int startX;                // Position des Spielers beim Start
+    private final int startY;
+    private final int tickRate;              // Spieltakte pro Sekunde
+    private final SpawnScheduler scheduler;  // Reihen und Anzahlen je Level
+    private final int[] rowCounts;           // Zwischenwerte beim Levelwechsel
+    private final int[] rowSpeeds;
+    private boolean crowded;                 // populate(): ohne Fahrplan (für Benchmarks)
+
+    // Zufall und Zeit
+    private long seed;                       // Startwert dieser Sitzung
+    private final FastRandom random;         // Einzige Zufallsquelle des Spiels
+    private long tick;                       // Anzahl ausgeführter Spieltakte
+
+    // Messung der Takt-Abschnitte
+    private TickProfiler profiler = TickProfiler.DISABLED;
+
+    // Beobachter (z.B. Aufzeichnung von Eingaben)
+    private final ArrayList<GameListener> listeners = new ArrayList<>();
+
+    // Konstruktor mit zufälligem Seed
+    public GameEngine() {
+        this(FastRandom.randomSeed());
+    }
+
+    // Konstruktor - initialisiert das Spiel mit festem Seed
+    public GameEngine(long seed) {
+        this(seed, LevelMap.classic());
+    }
+
+    // Konstruktor - Spiel auf einer eigenen Karte
+    public GameEngine(long seed, LevelMap map) {
+        this(seed, map, GameConfig.DEFAULT_TICK_RATE);
+    }
+
+    // Konstruktor - Spiel auf einer eigenen Karte mit eigener Taktrate
+    public GameEngine(long seed, LevelMap map, int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("tickRate muss positiv sein: " + tickRate);
+        }
+        this.tickRate = tickRate;
+        this.seed = seed;
+        this.random = new FastRandom(seed);
+        this.map = map;
+        worldWidth = map.getWidth();
+        worldHeight = map.getHeight();
+        startX = worldWidth / 2 - PLAYER_SIZE / 2;
+        startY = map.getStartY();
+        scheduler = new SpawnScheduler(map, startY);
+        rowCounts = new int[scheduler.getRowCount()];
+        rowSpeeds = new int[scheduler.getRowCount()];
+
+        // Initialisiert den Spieler (mittig unten)
+        player = new Player(startX, startY);
+
+        // Erstellt leere Speicher für Hindernisse
+        archetypes = new ObstacleStore[COMPONENTS.length];
+        indexes = new LaneIndex[COMPONENTS.length];
+        for (int a = 0; a < COMPONENTS.length; a++) {
+            archetypes[a] = new ObstacleStore(COMPONENTS[a], worldWidth);
+            indexes[a] = new LaneIndex(archetypes[a], worldHeight, OBSTACLE_HEIGHT);
+        }
+
+        // Platz für das höchste Level: die Speicher wachsen danach nicht mehr
+        int[] capacities = new int[COMPONENTS.length];
+        for (int row = 0; row < scheduler.getRowCount(); row++) {
+            capacities[archetypeOf(scheduler.getRowLane(row))] += scheduler.getMaxTarget(row);
+        }
+        for (int a = 0; a < COMPONENTS.length; a++) {
+            archetypes[a].ensureCapacity(capacities[a]);
+        }
+
+        // Setzt das Spiel zurück (initialisiert es)
+        resetGame();
+    }
+
+    // Führt einen Spieltakt aus: erst die Eingabe, dann die Spiellogik
+    @Override
+    public void step(Input input) {
+        applyInput(input);
+        if (isRunning()) {
+            updateGame();
+        }
+    }
+
+    // Verarbeitet eine Eingabe sofort (ohne Spieltakt)
+    @Override
+    public void applyInput(Input input) {
+        if (input != Input.NONE) {
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).inputApplied(tick, input);
+            }
+        }
+
+        if ((gameOver || gameWon) && input == Input.RESTART) {
+            resetGame();
+        }
+        else if (!gameOver && !gameWon) {
+            movePlayer(player, input);
+        }
+    }
+
+    // Bewegt einen Spieler um ein Feld (nicht aus dem Spielfeld heraus).
+    // Auch vom Mehrspieler-Server für jeden Spieler genutzt.
+    void movePlayer(Player player, Input input) {
+        switch (input) {
+            case UP:
+                player.move(0, -PLAYER_SIZE);
+                break;
+            case DOWN:
+                if (player.getY() < startY) {
+                    player.move(0, PLAYER_SIZE);
+                }
+                break;
+            case LEFT:
+                if (player.getX() > 0) {
+                    player.move(-PLAYER_SIZE, 0);
+                }
+                break;
+            case RIGHT:
+                if (player.getX() < worldWidth - PLAYER_SIZE) {
+                    player.move(PLAYER_SIZE, 0);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Reiht ein Hindernis in eine Reihe ein: neu (NEW_SLOT) oder in einem
+    // freien Slot, mit dem Tempo der Reihe (samt Richtung). 'edge' ist die
+    // hintere Kante des Vordermanns; dahinter bleiben MIN_GAP plus Zufall
+    // frei. Mit 'outside' beginnt es frühestens am Rand des Felds und fährt
+    // von dort herein. Straßen liefern Autos, Flüsse Baumstämme oder (mit
+    // Tauchzyklus) Schildkröten. Liefert den Slot; Kante und Tempo in
+    // Subpixeln.
+    private int enqueue(int slot, int row, int speed, int edge, boolean outside) {
+        int lane = scheduler.getRowLane(row);
+        int width = randomWidth(lane);
+        int gap = SpawnScheduler.MIN_GAP
+                + (int) (random.nextDouble() * 2 * scheduler.getExtraGap(currentLevel, row));
+        int x;
+        if (speed > 0) {
+            int right = edge - fixed(gap);
+            x = (outside ? Math.min(0, right) : right) - fixed(width);
+        } else {
+            int left = edge + fixed(gap);
+            x = outside ? Math.max(fixed(worldWidth), left) : left;
+        }
+
+        // Schildkröten starten an zufälliger Stelle ihres Tauchzyklus
+        int dive = ticks(map.getDivePeriod(lane));
+        int phase = dive == 0 ? 0 : (int) (random.nextDouble() * dive);
+        return spawn(archetypeOf(lane), slot, x, scheduler.getRowY(row), width, speed, dive, phase);
+    }
+
+    // Hintere Kante des letzten Hindernisses einer Reihe (in Fahrtrichtung,
+    // in Subpixeln); ohne eins eine Kante knapp hinter dem Ausgang, so dass
+    // das erste irgendwo im Feld bzw. direkt am Rand beginnt
+    private int rearEdge(int archetype, int row, int speed) {
+        int trailing = indexes[archetype].trailing(scheduler.getRowY(row), speed);
+        if (trailing < 0) {
+            return fixed(speed > 0 ? worldWidth + SpawnScheduler.MIN_GAP : -SpawnScheduler.MIN_GAP);
+        }
+        ObstacleStore obstacles = archetypes[archetype];
+        int x = obstacles.getFixedX(trailing);
+        return speed > 0 ? x : x + fixed(obstacles.getWidth(trailing));
+    }
+
+    // Zufällige Breite (in Spielergrößen laut Karte)
+    private int randomWidth(int lane) {
+        int minWidth = map.getMinWidth(lane);
+        return (int) (random.nextDouble() * (map.getMaxWidth(lane) - minWidth + 1) + minWidth) * PLAYER_SIZE;
+    }
+
+    // Zufälliges Tempo laut Karte für das aktuelle Level (ohne Richtung), in
+    // Subpixeln je Takt
+    private int randomSpeed(int lane) {
+        int minSpeed = map.getMinSpeed(currentLevel, lane);
+        return fixedSpeed((int) (random.nextDouble() * (map.getMaxSpeed(currentLevel, lane) - minSpeed + 1)
+                + minSpeed) * map.getSpeedStep(lane), tickRate);
+    }
+
+    // Die Karte gibt Tempi in Pixeln und Tauchzyklen in Takten bei
+    // GameConfig.DEFAULT_TICK_RATE an; bei einer anderen Taktrate bleibt das
+    // Tempo in Pixeln je Sekunde (und die Dauer in Sekunden) gleich. Tempi
+    // werden dafür in Subpixeln gerechnet und auf ganze Subpixel gerundet
+    // (auch für die endlose Welt).
+    static int fixedSpeed(int pixels, int tickRate) {
+        long scaled = (long) fixed(pixels) * GameConfig.DEFAULT_TICK_RATE;
+        return (int) ((scaled + tickRate / 2) / tickRate);
+    }
+
+    private int ticks(int defaultTicks) {
+        if (defaultTicks == 0) {
+            return 0;
+        }
+        long scaled = (long) defaultTicks * tickRate + GameConfig.DEFAULT_TICK_RATE / 2;
+        return (int) Math.max(1, scaled / GameConfig.DEFAULT_TICK_RATE);
+    }
+
+    private static int fixed(int pixels) {
+        return pixels << ObstacleStore.SUBPIXEL_BITS;
+    }
+
+    // Ohne Fahrplan (populate): irgendeine Reihe der Spur, eigenes Tempo,
+    // direkt am Rand - ohne Rücksicht auf Abstände
+    private void addObstacle(int lane, int slot) {
+        int[] rows = scheduler.getLaneRows(lane);
+        int y = scheduler.getRowY(rows[(int) (random.nextDouble() * rows.length)]);
+        int width = randomWidth(lane);
+        int speed = randomSpeed(lane);
+
+        // 50% Chance von links oder rechts
+        boolean fromLeft = random.nextDouble() < 0.5;
+
+        int dive = ticks(map.getDivePeriod(lane));
+        int phase = dive == 0 ? 0 : (int) (random.nextDouble() * dive);
+
+        if (fromLeft) {
+            spawn(archetypeOf(lane), slot, fixed(-width), y, width, speed, dive, phase);
+        } else {
+            spawn(archetypeOf(lane), slot, fixed(worldWidth), y, width, -speed, dive, phase);
+        }
+    }
+
+    // Archetyp der Hindernisse einer Spur
+    private int archetypeOf(int lane) {
+        return archetypeOf(map, lane);
+    }
+
+    static int archetypeOf(LevelMap map, int lane) {
+        if (map.getLaneType(lane) == LaneType.ROAD) {
+            return CARS;
+        }
+        return map.getDivePeriod(lane) == 0 ? LOGS : TURTLES;
+    }
+
+    // Belegt die Reihen für Level 1: je Reihe eine Richtung und ein Tempo,
+    // dann die Hindernisse hintereinander - das vorderste irgendwo im Feld,
+    // die übrigen dahinter (was nicht mehr ins Feld passt, wartet davor)
+    private void fillRows() {
+        for (int row = 0; row < scheduler.getRowCount(); row++) {
+            int lane = scheduler.getRowLane(row);
+            int direction = random.nextDouble() < 0.5 ? 1 : -1;
+            int speed = direction * randomSpeed(lane);
+            int archetype = archetypeOf(lane);
+            for (int k = 0; k < scheduler.getTarget(currentLevel, row); k++) {
+                enqueue(NEW_SLOT, row, speed, rearEdge(archetype, row, speed), false);
+            }
+        }
+    }
+
+    // Nächstes Level: jede Reihe fährt im neuen Tempo (alle Hindernisse darin
+    // zugleich, die Abstände bleiben) und bekommt die zusätzlichen
+    // Hindernisse der Karte hinten in ihre Warteschlange
+    private void raiseLevel() {
+        if (crowded) {
+            return;   // populate() hat die Anzahl festgelegt
+        }
+        Arrays.fill(rowCounts, 0);
+        Arrays.fill(rowSpeeds, 0);
+        for (int a = 0; a < archetypes.length; a++) {
+            ObstacleStore obstacles = archetypes[a];
+            for (int i = 0; i < obstacles.size(); i++) {
+                int row = scheduler.rowAt(obstacles.getY(i));
+                rowCounts[row]++;
+                rowSpeeds[row] = obstacles.getFixedSpeed(i);
+            }
+        }
+        for (int row = 0; row < rowSpeeds.length; row++) {
+            int direction = rowSpeeds[row] != 0 ? Integer.signum(rowSpeeds[row])
+                    : random.nextDouble() < 0.5 ? 1 : -1;
+            rowSpeeds[row] = direction * randomSpeed(scheduler.getRowLane(row));
+        }
+
+        for (int a = 0; a < archetypes.length; a++) {
+            ObstacleStore obstacles = archetypes[a];
+            for (int i = 0; i < obstacles.size(); i++) {
+                int speed = rowSpeeds[scheduler.rowAt(obstacles.getY(i))];
+                if (speed != obstacles.getFixedSpeed(i)) {
+                    int period = obstacles.getDivePeriod(i);
+                    int phase = obstacles.getDivePhase(i);
+                    indexes[a].remove(i);
+                    spawn(a, i, obstacles.getFixedX(i), obstacles.getY(i), obstacles.getWidth(i), speed, period, phase);
+                }
+            }
+        }
+        for (int row = 0; row < rowSpeeds.length; row++) {
+            int archetype = archetypeOf(scheduler.getRowLane(row));
+            for (int k = rowCounts[row]; k < scheduler.getTarget(currentLevel, row); k++) {
+                enqueue(NEW_SLOT, row, rowSpeeds[row], rearEdge(archetype, row, rowSpeeds[row]), true);
+            }
+        }
+    }
+
+    // Trägt ein Hindernis in Speicher und Index seines Archetyps ein und
+    // liefert seinen Slot (x und Tempo in Subpixeln)
+    private int spawn(int archetype, int slot, int x, int y, int width, int speed, int dive, int phase) {
+        ObstacleStore obstacles = archetypes[archetype];
+        if (slot == NEW_SLOT) {
+            slot = obstacles.addFixed(x, y, width, OBSTACLE_HEIGHT, speed);
+        } else {
+            obstacles.setFixed(slot, x, y, width, OBSTACLE_HEIGHT, speed);
+        }
+        if (dive != 0) {
+            obstacles.setDive(slot, dive, phase);
+        }
+        indexes[archetype].add(slot);
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).obstacleSpawned(obstacles, slot);
+        }
+        return slot;
+    }
+
+    // Entfernt ein Hindernis aus Speicher und Index
+    void removeObstacle(ObstacleStore obstacles, LaneIndex index, int slot) {
+        index.remove(slot);
+        int moved = obstacles.remove(slot);
+        if (moved != slot) {
+            index.renumber(moved, slot);
+        }
+    }
+
+    // Setzt das Spiel zurück (Neustart)
+    public void resetGame() {
+        // Spieler zur Startposition
+        player.reset(startX, startY);
+
+        score = 0;           // Punktestand zurücksetzen
+        currentLevel = 1;    // Startlevel
+        gameWon = false;    // Spielgewinn zurücksetzen
+        gameOver = false;   // Spielstatus zurücksetzen
+        crowded = false;
+
+        // Hindernisse entfernen
+        clearObstacles();
+
+        // Initiale Hindernisse erstellen
+        fillRows();
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).gameReset();
+        }
+    }
+
+    // Leert Speicher und Indizes
+    private void clearObstacles() {
+        for (int a = 0; a < archetypes.length; a++) {
+            archetypes[a].clear();
+            indexes[a].clear();
+        }
+    }
+
+    // Aktualisiert den Spielzustand
+    void updateGame() {
+        tick++;
+        long start = profiler.start();
+        moveObstacles();      // Bewegt alle Hindernisse
+        start = profiler.lap(Phase.MOVE, start);
+        checkCollisions();    // Prüft Kollisionen
+        start = profiler.lap(Phase.COLLISIONS, start);
+        checkWinCondition();  // Prüft Levelabschluss
+        profiler.lap(Phase.WIN_CHECK, start);
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).tickCompleted(tick);
+        }
+    }
+
+    // Bewegungssystem: bewegt alle Archetypen nacheinander (auch leere -
+    // alle Uhren bleiben gleich)
+    void moveObstacles() {
+        for (int a = 0; a < archetypes.length; a++) {
+            moveObstacles(a);
+        }
+    }
+
+    // Bewegt alle Hindernisse eines Archetyps (der Index bleibt dabei
+    // sortiert). Wer das Feld verlässt, wird im selben Slot hinten in seiner
+    // Reihe eingereiht (nach Slot geordnet) - weit weg vom Spieler nur jeden
+    // OFFSCREEN_INTERVAL-ten Takt. Der Takt ist der des Spiels (im Spielstand),
+    // nicht die Uhr des Speichers - die beginnt nach dem Laden neu.
+    void moveObstacles(int archetype) {
+        ObstacleStore obstacles = archetypes[archetype];
+        LaneIndex index = indexes[archetype];
+        obstacles.moveAll();  // Bewegt alle Hindernisse
+
+        int firstLane = 0;
+        int lastLane = index.getLaneCount() - 1;
+        if (tick % OFFSCREEN_INTERVAL != 0) {
+            firstLane = index.laneOf(player.getY() - ACTIVE_RANGE);
+            lastLane = index.laneOf(player.getY() + ACTIVE_RANGE);
+        }
+        int left = index.collectLeft(firstLane, lastLane);
+        for (int k = 0; k < left; k++) {
+            int i = index.leftSlot(k);
+            index.remove(i);
+            int row = scheduler.rowAt(obstacles.getY(i));
+            if (crowded) {
+                addObstacle(scheduler.getRowLane(row), i);
+            } else {
+                int speed = obstacles.getFixedSpeed(i);   // Tempo der Reihe
+                enqueue(i, row, speed, rearEdge(archetype, row, speed), true);
+            }
+        }
+    }
+
+    // Prüft Kollisionen - der Index liefert nur Hindernisse aus den
+    // Spuren, die der Spieler gerade überdeckt. Tödliches zählt mit der
+    // ganzen Strecke, die es im Takt gefahren ist (kein Durchtunneln, auch
+    // bei niedriger Taktrate); Tragendes mit seiner Position am Ende des
+    // Takts.
+    void checkCollisions() {
+        if (collides(player)) {
+            gameOver = true;
+        }
+    }
+
+    // Kollisions- und Tragesystem: true wenn der Spieler auf der Straße
+    // etwas Tödliches berührt oder ins Wasser fällt; auf etwas Tragendem
+    // (Baumstamm, aufgetauchte Schildkröte) treibt er mit - auf dem ersten
+    // in Archetyp-Reihenfolge. Gilt für jeden Spieler in dieser Welt (auch
+    // die des Mehrspieler-Servers).
+    boolean collides(Player player) {
+        LaneType zone = map.zoneAt(player.getY());
+
+        // Kollision mit Tödlichem
+        if (zone == LaneType.ROAD) {
+            for (int a = 0; a < archetypes.length; a++) {
+                if (archetypes[a].has(ObstacleStore.LETHAL) && indexes[a].findSwept(player) >= 0) {
+                    return true;
+                }
+            }
+        }
+
+        // Im Wasserbereich
+        if (zone == LaneType.RIVER) {
+            for (int a = 0; a < archetypes.length; a++) {
+                if (!archetypes[a].has(ObstacleStore.RIDEABLE)) {
+                    continue;
+                }
+                int ride = indexes[a].findIntersecting(player);
+                if (ride >= 0) {
+                    player.moveWithObstacle(archetypes[a].stepX(ride));
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Prüft ob Level abgeschlossen
+    void checkWinCondition() {
+        if (player.getY() < map.getGoalY()) {
+            score += map.getPoints(currentLevel); // Mehr Punkte für höhere Level
+
+            if (currentLevel >= map.getLevelCount()) {
+                gameWon = true; // Alle Level geschafft
+            } else {
+                currentLevel++; // Nächstes Level
+                // Spieler zurücksetzen
+                player.reset(startX, startY);
+                // Schwierigkeit erhöhen: Tempo und Dichte laut Karte
+                raiseLevel();
+            }
+        }
+    }
+
+    // Für Benchmarks: setzt das Level und verteilt die gewünschte Anzahl
+    // Hindernisse (reihum auf die Spuren mit Reihen, klassisch je zur Hälfte
+    // Autos und Baumstämme) über das ganze Spielfeld. Ohne Fahrplan: beliebig
+    // dicht, jedes mit eigenem Tempo, wer das Feld verlässt, kommt sofort
+    // am Rand wieder.
+    void populate(int level, int obstacleCount) {
+        resetGame();
+        currentLevel = level;
+        crowded = true;
+        clearObstacles();
+
+        int lanes = 0;
+        int[] crowdLanes = new int[map.getLaneCount()];
+        for (int lane = 0; lane < map.getLaneCount(); lane++) {
+            if (scheduler.getLaneRows(lane).length > 0) {
+                crowdLanes[lanes++] = lane;
+            }
+        }
+        if (lanes == 0 && obstacleCount > 0) {
+            throw new IllegalStateException("Karte hat keine Spur mit Reihen für "
+                    + obstacleCount + " Hindernisse");
+        }
+        for (int i = 0; i < obstacleCount; i++) {
+            addObstacle(crowdLanes[i % lanes], NEW_SLOT);
+        }
+        for (int a = 0; a < archetypes.length; a++) {
+            scatter(archetypes[a], indexes[a]);
+        }
+    }
+
+    // Setzt jedes Hindernis an eine zufällige X-Position
+    private void scatter(ObstacleStore obstacles, LaneIndex index) {
+        for (int i = 0; i < obstacles.size(); i++) {
+            int width = obstacles.getWidth(i);
+            int x = (int) (random.nextDouble() * (worldWidth + width)) - width;
+            index.remove(i);
+            int phase = obstacles.getDivePhase(i);
+            int period = obstacles.has(ObstacleStore.DIVING) ? obstacles.getDivePeriod(i) : 0;
+            obstacles.setFixed(i, fixed(x), obstacles.getY(i), width, obstacles.getHeight(i),
+                    obstacles.getFixedSpeed(i));
+            if (period != 0) {
+                obstacles.setDive(i, period, phase);
+            }
+            index.add(i);
+        }
+    }
+
+    // Bytes, die writeState() schreibt (für GameSnapshot)
+    int stateBytes() {
+        int bytes = 8 + 4 + 8 + 16 + 4 + 4 + 1 + 8;
+        for (int a = 0; a < archetypes.length; a++) {
+            bytes += archetypes[a].snapshotBytes() + indexes[a].snapshotBytes();
+        }
+        return bytes;
+    }
+
+    // Schreibt den kompletten Simulationszustand in einen Puffer
+    void writeState(ByteBuffer out) {
+        out.putLong(seed);
+        out.putInt(tickRate);
+        out.putLong(tick);
+        out.putLong(random.getState0());
+        out.putLong(random.getState1());
+        out.putInt(score);
+        out.putInt(currentLevel);
+        out.put((byte) ((gameWon ? 1 : 0) | (gameOver ? 2 : 0) | (crowded ? 4 : 0)));
+        out.putInt(player.getX());
+        out.putInt(player.getY());
+        for (int a = 0; a < archetypes.length; a++) {
+            archetypes[a].writeTo(out);
+            indexes[a].writeTo(out);
+        }
+    }
+
+    // Prüft einen mit writeState() geschriebenen Zustand, ohne die Engine zu
+    // ändern (IllegalArgumentException, wenn er nicht passt); danach steht
+    // 'in' am Ende des Zustands
+    void checkState(ByteBuffer in) {
+        in.getLong();   // Seed
+        int stateRate = in.getInt();
+        if (stateRate != tickRate) {
+            // Tempi und Positionen gelten nur für ihre Taktrate
+            throw new IllegalArgumentException("Spielstand mit " + stateRate + " statt "
+                    + tickRate + " Takten pro Sekunde");
+        }
+        if (in.getLong() < 0) {
+            throw new IllegalArgumentException("Negativer Takt");
+        }
+        in.position(in.position() + 16 + 4);   // Zufall, Punkte
+        int level = in.getInt();
+        if (level < 1 || level > map.getLevelCount()) {
+            throw new IllegalArgumentException("Ungültiges Level: " + level);
+        }
+        in.position(in.position() + 1 + 8);   // Flags, Spieler
+        for (int a = 0; a < archetypes.length; a++) {
+            int size = archetypes[a].checkState(in);
+            indexes[a].checkState(in, size);
+        }
+    }
+
+    // Übernimmt einen mit writeState() geschriebenen und mit checkState()
+    // geprüften Zustand
+    void readState(ByteBuffer in) {
+        seed = in.getLong();
+        in.getInt();   // Taktrate (geprüft)
+        tick = in.getLong();
+        long state0 = in.getLong();
+        long state1 = in.getLong();
+        random.setState(state0, state1);
+        score = in.getInt();
+        currentLevel = in.getInt();
+        int flags = in.get();
+        gameWon = (flags & 1) != 0;
+        gameOver = (flags & 2) != 0;
+        crowded = (flags & 4) != 0;
+        int playerX = in.getInt();
+        player.reset(playerX, in.getInt());
+        for (int a = 0; a < archetypes.length; a++) {
+            archetypes[a].readFrom(in);
+            indexes[a].readFrom(in);
+        }
+    }
+
+    // Setzt den Spielstatus direkt (für RewindBuffer)
+    void setStatus(long tick, int score, int level, boolean won, boolean over) {
+        this.tick = tick;
+        this.score = score;
+        this.currentLevel = level;
+        this.gameWon = won;
+        this.gameOver = over;
+    }
+
+    // Meldet einen Beobachter an
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    // True solange weder verloren noch gewonnen
+    @Override
+    public boolean isRunning() { return !gameOver && !gameWon; }
+
+    // Getter-Methoden
+    public Player getPlayer() { return player; }
+    public ObstacleStore getCars() { return archetypes[CARS]; }
+    public ObstacleStore getLogs() { return archetypes[LOGS]; }
+    public ObstacleStore getTurtles() { return archetypes[TURTLES]; }
+    public int getArchetypeCount() { return archetypes.length; }
+    public ObstacleStore getArchetype(int archetype) { return archetypes[archetype]; }
+    LaneIndex getIndex(int archetype) { return indexes[archetype]; }
+    public int getScore() { return score; }
+    public int getCurrentLevel() { return currentLevel; }
+    public boolean isGameWon() { return gameWon; }
+    public boolean isGameOver() { return gameOver; }
+    public LevelMap getMap() { return map; }
+    public SpawnScheduler getScheduler() { return scheduler; }
+    public int getTickRate() { return tickRate; }
+    public int getStartY() { return startY; }
+    public int getWorldWidth() { return worldWidth; }
+    public int getWorldHeight() { return worldHeight; }
+    public long getSeed() { return seed; }
+    public long getTick() { return tick; }
+    @Override
+    public TickProfiler getProfiler() { return profiler; }
+    @Override
+    public void setProfiler(TickProfiler profiler) { this.profiler = profiler; }
+    FastRandom getRandom() { return random; }
+}
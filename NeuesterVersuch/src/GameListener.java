@@ -0,0 +1,14 @@
+// Beobachter für Ereignisse der GameEngine (z.B. Aufzeichnung)
+public interface GameListener {
+    // Eine Eingabe wurde vor dem Takt 'tick' angewendet
+    default void inputApplied(long tick, Input input) {}
+
+    // Ein Hindernis wurde in 'slot' neu erzeugt (neuer Slot oder wiederverwendet)
+    default void obstacleSpawned(ObstacleStore store, int slot) {}
+
+    // Der Spieltakt 'tick' ist vollständig ausgeführt
+    default void tickCompleted(long tick) {}
+
+    // Das Spiel wurde neu gestartet (komplett neue Hindernisse)
+    default void gameReset() {}
+}
@@ -0,0 +1,219 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+// Spielschleife in einem eigenen Thread mit festem Simulationstakt.
+// Verspätete Takte werden über einen Akkumulator nachgeholt; gezeichnet wird
+// unabhängig davon mit eigener Bildrate. Der Renderer bekommt dabei den Anteil
+// (0..1), wie weit die Zeit schon zwischen zwei Takten liegt, und kann die
+// Hindernisse entsprechend interpolieren.
+//
+// Gibt es nichts zu tun, ruht die Schleife ganz: pausiert (suspend()), auf
+// dem Endbildschirm ohne wartende Eingabe, bei verlorenem Fokus oder
+// minimiertem Fenster. Sie zeichnet dann noch ein Bild (Pause-Anzeige bzw.
+// Endbildschirm) und parkt den Thread ohne Zeitlimit - keine Takte, keine
+// Bilder, kein Aufwachen. submit(), resume() und refresh() wecken sie.
+// Eingaben während einer Pause verfallen; die Ruhezeit wird nicht
+// nachgeholt.
+public class GameLoop implements Runnable {
+    // Gründe für eine Pause (Bitmaske, mehrere gleichzeitig möglich)
+    public static final int PAUSED = 1;      // Pausetaste
+    public static final int UNFOCUSED = 2;   // Fenster hat den Fokus verloren
+    public static final int ICONIFIED = 4;   // Fenster minimiert
+
+    // Höchstens so viele Takte werden pro Durchlauf nachgeholt; was darüber
+    // hinausgeht, wird verworfen, damit die Schleife nach einem Hänger
+    // (z.B. GC-Pause) nicht in eine Aufholspirale gerät
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final Game engine;
+    private final DoubleConsumer renderer;  // Zeichnet ein Bild (Parameter: Interpolation)
+    private final long tickNanos;           // Dauer eines Spieltakts
+    private final long frameNanos;          // Mindestabstand zweier Bilder, 0 = ungebremst
+    private final InputQueue inputs;        // Tastendrücke vom EDT, abgeholt zu Taktbeginn
+    private final InputQueue.Sink inputSink = this::applyInput;
+    private final InputQueue.Sink discardSink = (input, nanos) -> { };
+
+    private final AtomicInteger suspended = new AtomicInteger();   // Gesetzte Gründe, 0 = läuft
+    private volatile boolean refresh;       // Ein Bild zeichnen, obwohl die Schleife ruht
+    private volatile long wakeups;          // Durchläufe der Schleife (nur dieser Thread schreibt)
+    private volatile boolean resting;       // Thread parkt ohne Zeitlimit
+
+    private volatile boolean running;
+    private volatile Thread thread;         // Wird von submit() & Co. geweckt
+
+    public GameLoop(Game engine, GameConfig config, DoubleConsumer renderer) {
+        this.engine = engine;
+        this.renderer = renderer;
+        this.tickNanos = 1_000_000_000L / config.getTickRate();
+        this.frameNanos = config.getFrameRate() == 0 ? 0 : 1_000_000_000L / config.getFrameRate();
+        this.inputs = new InputQueue(config.getInputQueueCapacity(), config.getInputCoalescing());
+    }
+
+    // Reicht eine Eingabe an die Spielschleife weiter (vom EDT, blockiert nie);
+    // angewendet wird sie zu Beginn des nächsten Takts
+    public boolean submit(Input input) {
+        if (input == Input.NONE) {
+            return false;
+        }
+        boolean accepted = inputs.offer(input, System.nanoTime());
+        wake();
+        return accepted;
+    }
+
+    // Pausiert aus einem der Gründe PAUSED, UNFOCUSED, ICONIFIED
+    public void suspend(int reason) {
+        suspended.getAndUpdate(reasons -> reasons | reason);
+        wake();   // Pause-Anzeige zeichnen
+    }
+
+    // Nimmt einen Grund zurück; weiter geht es, wenn keiner mehr gesetzt ist
+    public void resume(int reason) {
+        suspended.getAndUpdate(reasons -> reasons & ~reason);
+        wake();
+    }
+
+    // Pausetaste
+    public void togglePause() {
+        suspended.getAndUpdate(reasons -> reasons ^ PAUSED);
+        wake();
+    }
+
+    // Zeichnet ein Bild, auch wenn die Schleife ruht (z.B. nach Kamera
+    // oder Messanzeige)
+    public void refresh() {
+        refresh = true;
+        wake();
+    }
+
+    private void wake() {
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    // Startet den Schleifen-Thread
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "GameLoop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Hält die Schleife an und wartet auf das Ende des Threads
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextFrame = previous;
+        boolean idleFrame = false;   // Bild im Ruhezustand schon gezeichnet
+
+        while (running) {
+            wakeups++;
+            if (isIdle()) {
+                if (suspended.get() != 0) {
+                    inputs.drain(discardSink);   // Tasten während der Pause verfallen
+                }
+                if (!idleFrame || refresh) {
+                    refresh = false;
+                    renderer.accept((double) accumulator / tickNanos);
+                    idleFrame = true;
+                }
+                resting = true;
+                if (isIdle() && !refresh) {
+                    LockSupport.park(this);   // Bis submit(), resume(), refresh() oder stop()
+                }
+                continue;
+            }
+            if (resting) {
+                // Ruhezeit nicht nachholen; eine wartende Eingabe sofort anwenden
+                resting = false;
+                idleFrame = false;
+                previous = System.nanoTime();
+                nextFrame = previous;
+                if (inputs.size() > 0) {
+                    accumulator = Math.max(accumulator, tickNanos);
+                }
+            }
+
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+
+            // Feste Takte nachholen
+            int ticks = 0;
+            while (accumulator >= tickNanos && ticks < MAX_CATCH_UP_TICKS) {
+                synchronized (engine) {
+                    TickProfiler profiler = engine.getProfiler();
+                    long start = profiler.start();
+                    inputs.drain(inputSink);    // Auch im Stillstand (Neustart)
+                    if (engine.isRunning()) {   // Nur wenn Spiel läuft
+                        engine.step(Input.NONE);
+                        if (profiler.isEnabled()) {
+                            long nanos = System.nanoTime() - start;
+                            profiler.record(Phase.TICK, nanos);
+                            if (nanos > tickNanos) {
+                                profiler.countOverBudget();   // Takt länger als sein Zeitbudget
+                            }
+                        }
+                    }
+                }
+                accumulator -= tickNanos;
+                ticks++;
+            }
+            if (accumulator >= tickNanos) {
+                accumulator %= tickNanos;   // Rückstand verwerfen
+            }
+
+            // Bild zeichnen, sobald es fällig ist
+            if (now >= nextFrame) {
+                renderer.accept((double) accumulator / tickNanos);
+                nextFrame = frameNanos == 0 ? now : Math.max(nextFrame + frameNanos, now);
+            }
+
+            // Bis zum nächsten Takt bzw. Bild schlafen
+            long nextTick = now + (tickNanos - accumulator);
+            long wakeUp = frameNanos == 0 ? nextTick : Math.min(nextTick, nextFrame);
+            long sleep = wakeUp - System.nanoTime();
+            if (frameNanos == 0) {
+                Thread.yield();   // Ungebremst: nur kurz anderen Threads Platz machen
+            } else if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+        }
+    }
+
+    // Nichts zu tun: pausiert oder Spielende ohne wartende Eingabe (nur im
+    // Thread der Schleife, der als einziger die Engine ändert)
+    private boolean isIdle() {
+        return suspended.get() != 0 || (!engine.isRunning() && inputs.size() == 0);
+    }
+
+    // Wendet eine abgeholte Eingabe an (unter der Sperre der Spiellogik)
+    private void applyInput(Input input, long nanos) {
+        engine.applyInput(input);
+        engine.getProfiler().record(Phase.INPUT, System.nanoTime() - nanos);
+    }
+
+    // Getter-Methoden
+    public InputQueue getInputQueue() { return inputs; }
+    public long getTickNanos() { return tickNanos; }
+    public boolean isRunning() { return running; }
+    public boolean isSuspended() { return suspended.get() != 0; }
+    public int getSuspendReasons() { return suspended.get(); }
+    public boolean isResting() { return resting; }
+    public long getWakeups() { return wakeups; }
+}
@@ -0,0 +1,12 @@
+import java.util.Locale;
+
+// Spielmodus, beim Start wählbar (-Dfrogger.mode=classic|endless)
+public enum GameMode {
+    CLASSIC,  // Festes Spielfeld mit fünf Leveln
+    ENDLESS;  // Endlos nach oben scrollende Welt (siehe Textplanung)
+
+    // Liest den Modus aus einem Text (Groß-/Kleinschreibung egal)
+    public static GameMode parse(String value) {
+        return GameMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
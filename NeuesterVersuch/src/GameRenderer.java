@@ -0,0 +1,582 @@
+import java.awt.*;             // Für Grafikfunktionen
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+
+// Zeichnet den Zustand einer GameEngine auf ein beliebiges Graphics-Objekt
+// (Panel, Offscreen-Bild oder Benchmark).
+//
+// Ist die Welt größer als das Fenster (oder wird gezoomt), zeigt eine Camera
+// den Ausschnitt um den Spieler. Gezeichnet wird dann nur, was der LaneIndex
+// für den Ausschnitt liefert - bei 100.000 Hindernissen einige hundert -, der
+// Hintergrund direkt statt aus dem Cache und ohne Verdeckungsmaske.
+public class GameRenderer implements FrameRenderer {
+    // Farben und Schriften werden einmal angelegt statt in jedem Bild
+    static final Color LOG_COLOR = new Color(139, 69, 19);
+    static final Color TURTLE_COLOR = new Color(20, 120, 90);
+    private static final Font UI_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 50);
+
+    private final GameEngine engine;
+    private final Camera camera;
+
+    // Ausschnitt dieses Bildes (aus der Kamera) und je Archetyp die Slots
+    // darin, aufsteigend (= Zeichenreihenfolge)
+    private final Rectangle view = new Rectangle();
+    private double zoom = 1.0;
+    private final int[][] visible;
+    private boolean culling = true;          // Aus: alle Hindernisse zeichnen (zum Vergleich)
+    private final Rectangle trackedView = new Rectangle();
+    private double trackedZoom = 1.0;
+
+    // Sprites aus dem Atlas statt einfarbiger Rechtecke (null = Rechtecke)
+    private final SpriteCache sprites;
+    private final OcclusionMask occlusion;
+    private boolean[] hiddenCars = new boolean[0];   // Ganz verdeckt in diesem Bild
+    private boolean[] hiddenLogs = new boolean[0];
+    private boolean[] hiddenTurtles = new boolean[0];
+    private BufferedImage texturedBackground;        // Gekachelter Untergrund (ohne Beschleunigung)
+
+    // Vorgerenderter Hintergrund (Zonen, Fluss, Straße); wird nur neu
+    // aufgebaut, wenn der Grafikspeicher verloren ging oder invalidate() kommt.
+    // Ohne Hardwarebeschleunigung ist das Kopieren eines ganzen Bildes teurer
+    // als die Rechtecke der Zonen direkt zu füllen - dann bleibt der Cache aus.
+    private VolatileImage background;
+    private boolean backgroundCached = true;
+
+    // Texte mit festen Schriften - String nur neu bei geändertem Wert
+    private final CachedText scoreText = new CachedText("Punkte: ", "", UI_FONT, Color.BLACK);
+    private final CachedText levelText;
+    private final CachedText gameOverText = new CachedText("GAME OVER", TITLE_FONT, Color.RED);
+    private final CachedText gameOverRestartText = new CachedText("Leertaste zum Neustart", UI_FONT, Color.RED);
+    private final CachedText gameWonText = new CachedText("GEWONNEN!", TITLE_FONT, Color.GREEN);
+    private final CachedText finalScoreText = new CachedText("Punktestand: ", "", UI_FONT, Color.GREEN);
+    private final CachedText gameWonRestartText = new CachedText("Leertaste zum Neustart", UI_FONT, Color.GREEN);
+    private final CachedText pausedText = new CachedText("PAUSE", TITLE_FONT, Color.BLUE);
+    private final CachedText resumeText = new CachedText("P zum Weiterspielen", UI_FONT, Color.BLUE);
+
+    // Bereich der Punkte-/Levelanzeige (für die Änderungsverfolgung)
+    private static final Rectangle UI_BOUNDS = new Rectangle(0, 0, 250, 70);
+
+    // Zustand beim letzten collectDirtyRegions() - Änderung = neu zeichnen
+    private int trackedScore = -1;
+    private int trackedLevel = -1;
+    private boolean trackedRunning;
+    private boolean trackedPaused;
+
+    private final Rectangle clip = new Rectangle();   // Wiederverwendet beim Zeichnen
+
+    private final ProfilerOverlay overlay;            // Messanzeige (F3)
+    private boolean trackedOverlay;
+
+    // Anteil (0..1) zwischen letztem und nächstem Spieltakt; Hindernisse
+    // werden um (1 - interpolation) Takte zurückversetzt gezeichnet
+    private volatile double interpolation = 1.0;
+    private volatile boolean paused;   // Pause-Anzeige
+
+    public GameRenderer(GameEngine engine) {
+        this(engine, null);
+    }
+
+    public GameRenderer(GameEngine engine, SpriteCache sprites) {
+        this.engine = engine;
+        this.sprites = sprites;
+        this.camera = new Camera(GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT,
+                engine.getWorldWidth(), engine.getWorldHeight());
+        this.visible = new int[engine.getArchetypeCount()][0];
+        followPlayer();
+        this.levelText = new CachedText("Level: ", "/" + engine.getMap().getLevelCount(), UI_FONT, Color.BLACK);
+        this.occlusion = sprites == null ? null
+                : new OcclusionMask(GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT);
+        this.overlay = new ProfilerOverlay(engine);
+    }
+
+    // Setzt den Interpolationsanteil für die nächsten Bilder
+    @Override
+    public void setInterpolation(double interpolation) {
+        this.interpolation = interpolation;
+        followPlayer();
+    }
+
+    // Kamera für das nächste Bild auf den Spieler
+    private void followPlayer() {
+        Player player = engine.getPlayer();
+        camera.update(player.getX() + player.getWidth() / 2, player.getY() + player.getHeight() / 2);
+    }
+
+    @Override
+    public void zoomBy(int steps) {
+        camera.zoomBy(steps);
+    }
+
+    @Override
+    public void panBy(int dx, int dy) {
+        camera.panBy(dx, dy);
+    }
+
+    @Override
+    public void resetView() {
+        camera.reset();
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    public void setCulling(boolean culling) {
+        this.culling = culling;
+    }
+
+    // True wenn das Bild genau die ganze Welt zeigt (klassisches Feld) -
+    // dann wird gezeichnet wie ohne Kamera
+    private boolean showsWholeWorld() {
+        return zoom == 1.0 && view.x == 0 && view.y == 0
+                && view.width == engine.getWorldWidth() && view.height == engine.getWorldHeight();
+    }
+
+    // Zeichnet das komplette Bild
+    @Override
+    public void paint(Graphics g) {
+        TickProfiler profiler = engine.getProfiler();
+        long start = profiler.start();
+        if (sprites != null && sprites.validate(g)) {
+            texturedBackground = null;   // Anderes Ziel: Untergrund neu umwandeln
+        }
+        zoom = camera.view(view);
+
+        // Welt in Weltkoordinaten zeichnen; das Fenster zeigt den Ausschnitt
+        Graphics scene = g;
+        if (!showsWholeWorld()) {
+            Graphics2D world = (Graphics2D) g.create();
+            world.scale(zoom, zoom);
+            world.translate(-view.x, -view.y);
+            scene = world;
+        }
+        try {
+            drawBackground(scene);
+            start = profiler.lap(Phase.BACKGROUND, start);
+            if (sprites == null) {
+                drawObstacles(scene, GameEngine.CARS, Color.RED);
+                drawObstacles(scene, GameEngine.LOGS, LOG_COLOR);
+                drawObstacles(scene, GameEngine.TURTLES, TURTLE_COLOR);
+            } else {
+                drawSprites(scene);
+            }
+            start = profiler.lap(Phase.OBSTACLES, start);
+            Player player = engine.getPlayer();
+            if (sprites == null) {
+                player.draw(scene);
+            } else {
+                sprites.draw(scene, Sprite.FROG, player.getX(), player.getY(),
+                        player.getWidth(), player.getHeight(), false);
+            }
+            start = profiler.lap(Phase.PLAYER, start);
+        } finally {
+            if (scene != g) {
+                scene.dispose();
+            }
+        }
+        drawUI(g);
+        profiler.lap(Phase.UI, start);
+    }
+
+    // Sammelt die Slots eines Archetyps im Ausschnitt (um ein Höchsttempo
+    // verbreitert - gezeichnet wird bis zu einen Takt zurück); liefert die
+    // Anzahl. Zeigt das Bild die ganze Welt, sind es einfach alle.
+    private int collectVisible(int archetype) {
+        ObstacleStore obstacles = engine.getArchetype(archetype);
+        int[] slots = visible[archetype];
+        if (slots.length < obstacles.size()) {
+            slots = new int[Math.max(obstacles.size(), 2 * slots.length)];
+            visible[archetype] = slots;
+        }
+        if (showsWholeWorld() || !culling) {
+            for (int i = 0; i < obstacles.size(); i++) {
+                slots[i] = i;
+            }
+            return obstacles.size();
+        }
+        int count = engine.getIndex(archetype).collect(view.x - LevelMap.MAX_SPEED, view.y,
+                view.width + 2 * LevelMap.MAX_SPEED, view.height, slots);
+        Arrays.sort(slots, 0, count);
+        return count;
+    }
+
+    @Override
+    public void toggleOverlay() {
+        overlay.toggle();
+    }
+
+    @Override
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    // Verwirft den vorgerenderten Hintergrund (z.B. nach Farbwechsel oder
+    // Wechsel auf einen anderen Bildschirm); er wird beim nächsten Bild neu gebaut
+    public void invalidate() {
+        flushBackground();
+        backgroundCached = true;
+        texturedBackground = null;
+    }
+
+    private void flushBackground() {
+        if (background != null) {
+            background.flush();
+            background = null;
+        }
+    }
+
+    // Kopiert den vorgerenderten Hintergrund; baut ihn bei Bedarf neu auf
+    private void drawBackground(Graphics g) {
+        if (!showsWholeWorld()) {
+            drawZones(g);   // Ausschnitt wechselt mit der Kamera
+            return;
+        }
+        if (!backgroundCached) {
+            if (sprites != null) {
+                drawTexturedBackground(g);   // Kacheln einzeln wären zu teuer
+            } else {
+                drawZones(g);
+            }
+            return;
+        }
+
+        GraphicsConfiguration gc = ((Graphics2D) g).getDeviceConfiguration();
+        do {
+            int state = background == null
+                    ? VolatileImage.IMAGE_INCOMPATIBLE
+                    : background.validate(gc);
+
+            if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                flushBackground();
+                background = gc.createCompatibleVolatileImage(
+                        GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT);
+                if (!background.getCapabilities().isAccelerated()) {
+                    // Reines Software-Rendering: direkt füllen ist billiger
+                    flushBackground();
+                    backgroundCached = false;
+                    drawZones(g);
+                    return;
+                }
+                renderBackground(background);
+            } else if (state == VolatileImage.IMAGE_RESTORED) {
+                renderBackground(background);
+            }
+
+            g.drawImage(background, 0, 0, null);
+        } while (background.contentsLost());
+    }
+
+    // Rendert den Hintergrund in das Cache-Bild
+    private void renderBackground(VolatileImage image) {
+        Graphics2D bg = image.createGraphics();
+        drawZones(bg);
+        bg.dispose();
+    }
+
+    // Kopiert den einmal gekachelten Untergrund (passend zum Ziel umgewandelt)
+    private void drawTexturedBackground(Graphics g) {
+        if (texturedBackground == null) {
+            texturedBackground = ((Graphics2D) g).getDeviceConfiguration().createCompatibleImage(
+                    GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT, Transparency.OPAQUE);
+            Graphics2D bg = texturedBackground.createGraphics();
+            drawZones(bg);
+            bg.dispose();
+        }
+        g.drawImage(texturedBackground, 0, 0, null);
+    }
+
+    // Zeichnet die Zonen des Spielfelds
+    private void drawZones(Graphics g) {
+        if (sprites != null) {
+            drawTiledZones(g);
+            return;
+        }
+        // Zonen laut Karte: Wiese (Ziel, Mittelstreifen, Start), Fluss, Straße -
+        // nur der sichtbare Teil
+        LevelMap map = engine.getMap();
+        for (int zone = 0; zone < map.getZoneCount(); zone++) {
+            int top = Math.max(map.getZoneTop(zone), view.y);
+            int bottom = Math.min(map.getZoneBottom(zone), view.y + view.height);
+            if (top >= bottom) {
+                continue;
+            }
+            LaneType type = map.getZoneType(zone);
+            g.setColor(type == LaneType.RIVER ? Color.BLUE : type == LaneType.ROAD ? Color.GRAY : Color.GREEN);
+            g.fillRect(visibleLeft(), top, visibleRight() - visibleLeft(), bottom - top);
+        }
+    }
+
+    // Sichtbarer Teil der Welt in X (der Ausschnitt kann breiter sein)
+    private int visibleLeft() {
+        return Math.max(0, view.x);
+    }
+
+    private int visibleRight() {
+        return Math.min(engine.getWorldWidth(), view.x + view.width);
+    }
+
+    // Zonen aus Kacheln des Atlas (beim Aufbau des Hintergrunds oder mit Kamera)
+    private void drawTiledZones(Graphics g) {
+        LevelMap map = engine.getMap();
+        for (int zone = 0; zone < map.getZoneCount(); zone++) {
+            LaneType type = map.getZoneType(zone);
+            drawTiles(g, type == LaneType.RIVER ? Sprite.RIVER : type == LaneType.ROAD ? Sprite.ROAD : Sprite.SAFEZONE,
+                    map.getZoneTop(zone), map.getZoneBottom(zone));
+        }
+    }
+
+    // Füllt die Zeilen [top, bottom) mit einer Kachel (das Raster beginnt bei
+    // x = 0 und an der Oberkante der Zone)
+    private void drawTiles(Graphics g, Sprite tile, int top, int bottom) {
+        SpriteAtlas atlas = SpriteAtlas.get();
+        if (!showsWholeWorld()) {
+            // Mit Kamera: der sichtbare Teil als eine Fläche mit Muster -
+            // hunderte einzeln skalierte Kacheln kosten beim Herauszoomen
+            // mehr als ein ganzes Bild. Das Muster aus dem SpriteCache ist
+            // bei (0, 0) verankert; die Verschiebung auf die Zone legt es
+            // an deren Oberkante, ohne ein neues anzulegen.
+            int visibleTop = Math.max(top, view.y);
+            int visibleBottom = Math.min(bottom, view.y + view.height);
+            if (visibleTop < visibleBottom) {
+                Graphics2D g2 = (Graphics2D) g;
+                Paint paint = g2.getPaint();
+                g2.setPaint(sprites.tilePaint(tile));
+                g2.translate(0, top);
+                g2.fillRect(visibleLeft(), visibleTop - top, visibleRight() - visibleLeft(), visibleBottom - visibleTop);
+                g2.translate(0, -top);
+                g2.setPaint(paint);
+            }
+            return;
+        }
+        Graphics clipped = g.create(0, top, engine.getWorldWidth(), bottom - top);
+        for (int y = 0; y < bottom - top; y += tile.getHeight()) {
+            for (int x = 0; x < engine.getWorldWidth(); x += tile.getWidth()) {
+                atlas.draw(clipped, tile, x, y, tile.getWidth(), tile.getHeight(), false);
+            }
+        }
+        clipped.dispose();
+    }
+
+    // Zeichnet Hindernisse eines Archetyps (abgetauchte nicht)
+    private void drawObstacles(Graphics g, int archetype, Color color) {
+        ObstacleStore obstacles = engine.getArchetype(archetype);
+        int count = collectVisible(archetype);
+        int[] slots = visible[archetype];
+        double behind = behindTicks();
+
+        // Nur Hindernisse zeichnen, die den Clip-Bereich berühren
+        boolean clipped = g.getClip() != null;
+        if (clipped) {
+            g.getClipBounds(clip);
+        }
+
+        g.setColor(color);
+        for (int k = 0; k < count; k++) {
+            int i = slots[k];
+            int x = drawnX(obstacles, i, behind);
+            int y = obstacles.getY(i);
+            int width = obstacles.getWidth(i);
+            int height = obstacles.getHeight(i);
+            if ((clipped && (x >= clip.x + clip.width || x + width <= clip.x
+                    || y >= clip.y + clip.height || y + height <= clip.y)) || obstacles.isSubmerged(i)) {
+                continue;
+            }
+            g.fillRect(x, y, width, height);
+        }
+    }
+
+    // Zeichnet Autos, Baumstämme und Schildkröten als Sprites. Erst wird von
+    // vorne nach hinten bestimmt, welche ganz verdeckt sind, dann werden die
+    // übrigen in der normalen Reihenfolge gezeichnet - das Bild bleibt gleich.
+    // Schildkröten liegen ganz vorne, sind aber nicht undurchsichtig: sie
+    // verdecken nichts. Die Maske hat Fenstergröße - mit Kamera entfällt sie.
+    private void drawSprites(Graphics g) {
+        double behind = behindTicks();
+        boolean clipped = g.getClip() != null;
+        if (clipped) {
+            g.getClipBounds(clip);
+        }
+        boolean occlude = showsWholeWorld();
+        int turtles = collectVisible(GameEngine.TURTLES);
+        int logs = collectVisible(GameEngine.LOGS);
+        int cars = collectVisible(GameEngine.CARS);
+
+        occlusion.clear();
+        hiddenTurtles = markHidden(GameEngine.TURTLES, turtles, hiddenTurtles, behind, clipped, false);
+        hiddenLogs = markHidden(GameEngine.LOGS, logs, hiddenLogs, behind, clipped, occlude);
+        hiddenCars = markHidden(GameEngine.CARS, cars, hiddenCars, behind, clipped, occlude);
+        drawVisible(g, GameEngine.CARS, cars, hiddenCars, Sprite.CAR, behind);
+        drawVisible(g, GameEngine.LOGS, logs, hiddenLogs, Sprite.LOG, behind);
+        drawTiled(g, GameEngine.TURTLES, turtles, hiddenTurtles, Sprite.TURTLE, behind);
+    }
+
+    // Markiert ganz verdeckte (oder abgetauchte) Hindernisse unter den ersten
+    // 'count' sichtbaren Slots; nur undurchsichtige tragen sich selbst in die
+    // Maske ein
+    private boolean[] markHidden(int archetype, int count, boolean[] hidden, double behind, boolean clipped,
+                                 boolean opaque) {
+        ObstacleStore obstacles = engine.getArchetype(archetype);
+        int[] slots = visible[archetype];
+        if (hidden.length < count) {
+            hidden = new boolean[Math.max(count, 2 * hidden.length)];
+        }
+        for (int k = count - 1; k >= 0; k--) {
+            int i = slots[k];
+            int x = drawnX(obstacles, i, behind);
+            int y = obstacles.getY(i);
+            int width = obstacles.getWidth(i);
+            int height = obstacles.getHeight(i);
+            hidden[k] = (clipped && (x >= clip.x + clip.width || x + width <= clip.x
+                    || y >= clip.y + clip.height || y + height <= clip.y))
+                    || obstacles.isSubmerged(i)
+                    || (opaque && occlusion.occlude(x, y, width, height));
+        }
+        return hidden;
+    }
+
+    private void drawVisible(Graphics g, int archetype, int count, boolean[] hidden, Sprite sprite,
+                             double behind) {
+        ObstacleStore obstacles = engine.getArchetype(archetype);
+        int[] slots = visible[archetype];
+        for (int k = 0; k < count; k++) {
+            if (!hidden[k]) {
+                int i = slots[k];
+                sprites.draw(g, sprite, drawnX(obstacles, i, behind), obstacles.getY(i),
+                        obstacles.getWidth(i), obstacles.getHeight(i), obstacles.getSpeed(i) < 0);
+            }
+        }
+    }
+
+    // Zeichnet jedes Hindernis als Reihe einzelner Sprites (je Spielerbreite
+    // eins, z.B. Schildkröten)
+    private void drawTiled(Graphics g, int archetype, int count, boolean[] hidden, Sprite sprite,
+                           double behind) {
+        ObstacleStore obstacles = engine.getArchetype(archetype);
+        int[] slots = visible[archetype];
+        for (int k = 0; k < count; k++) {
+            if (hidden[k]) {
+                continue;
+            }
+            int i = slots[k];
+            int x = drawnX(obstacles, i, behind);
+            int end = x + obstacles.getWidth(i);
+            for (; x < end; x += GameEngine.PLAYER_SIZE) {
+                sprites.draw(g, sprite, x, obstacles.getY(i), Math.min(GameEngine.PLAYER_SIZE, end - x),
+                        obstacles.getHeight(i), obstacles.getSpeed(i) < 0);
+            }
+        }
+    }
+
+    // Wie viele Takte die Hindernisse zurückversetzt gezeichnet werden.
+    // Steht das Spiel, bewegt sich nichts - dann nicht interpolieren
+    private double behindTicks() {
+        return engine.isRunning() ? 1.0 - interpolation : 0.0;
+    }
+
+    // Gezeichnete X-Position eines Hindernisses (interpoliert)
+    private static int drawnX(ObstacleStore obstacles, int slot, double behind) {
+        return (int) Math.round(obstacles.xAt(slot, obstacles.getTick() - behind));
+    }
+
+    // Meldet alle gezeichneten Objekte an den Tracker, damit er die
+    // geänderten Bereiche gegenüber dem letzten Bild bestimmen kann
+    @Override
+    public void collectDirtyRegions(DirtyRegionTracker tracker) {
+        // Spielende/Neustart ändert das ganze Bild (Overlay-Texte),
+        // ebenso Pause und das Ein- und Ausblenden der Messanzeige
+        if (engine.isRunning() != trackedRunning || paused != trackedPaused
+                || overlay.isVisible() != trackedOverlay) {
+            trackedRunning = engine.isRunning();
+            trackedPaused = paused;
+            trackedOverlay = overlay.isVisible();
+            tracker.requestFullRepaint();
+        }
+
+        // Neuer Ausschnitt: alles verschiebt sich
+        zoom = camera.view(view);
+        if (!view.equals(trackedView) || zoom != trackedZoom) {
+            trackedView.setBounds(view);
+            trackedZoom = zoom;
+            tracker.requestFullRepaint();
+        }
+
+        tracker.beginFrame();
+
+        double behind = behindTicks();
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            trackObstacles(tracker, a, behind);
+        }
+
+        Player player = engine.getPlayer();
+        track(tracker, player.getX(), player.getY(), player.getWidth(), player.getHeight());
+
+        if (engine.getScore() != trackedScore || engine.getCurrentLevel() != trackedLevel) {
+            trackedScore = engine.getScore();
+            trackedLevel = engine.getCurrentLevel();
+            tracker.add(UI_BOUNDS.x, UI_BOUNDS.y, UI_BOUNDS.width, UI_BOUNDS.height);
+        }
+        if (overlay.isVisible()) {
+            Rectangle r = ProfilerOverlay.BOUNDS;   // Werte ändern sich laufend
+            tracker.add(r.x, r.y, r.width, r.height);
+        }
+
+        tracker.endFrame();
+    }
+
+    private void trackObstacles(DirtyRegionTracker tracker, int archetype, double behind) {
+        ObstacleStore obstacles = engine.getArchetype(archetype);
+        int count = collectVisible(archetype);
+        int[] slots = visible[archetype];
+        for (int k = 0; k < count; k++) {
+            int i = slots[k];
+            track(tracker, drawnX(obstacles, i, behind), obstacles.getY(i),
+                    obstacles.getWidth(i), obstacles.getHeight(i));
+        }
+    }
+
+    // Meldet ein Rechteck der Welt in Fensterkoordinaten
+    private void track(DirtyRegionTracker tracker, int x, int y, int width, int height) {
+        if (zoom == 1.0) {
+            tracker.track(x - view.x, y - view.y, width, height);
+            return;
+        }
+        int left = (int) Math.floor((x - view.x) * zoom);
+        int top = (int) Math.floor((y - view.y) * zoom);
+        tracker.track(left, top, (int) Math.ceil((x + width - view.x) * zoom) - left,
+                (int) Math.ceil((y + height - view.y) * zoom) - top);
+    }
+
+    // Zeichnet UI-Elemente aus dem Text-Cache
+    private void drawUI(Graphics g) {
+        int score = engine.getScore();
+        int centerX = GameEngine.PANEL_WIDTH / 2;
+        int centerY = GameEngine.PANEL_HEIGHT / 2;
+
+        scoreText.draw(g, score, 20, 30);
+        levelText.draw(g, engine.getCurrentLevel(), 20, 60);
+
+        if (engine.isGameOver()) {
+            gameOverText.draw(g, centerX - 150, centerY);
+            gameOverRestartText.draw(g, centerX - 100, centerY + 50);
+        }
+
+        if (engine.isGameWon()) {
+            gameWonText.draw(g, centerX - 150, centerY);
+            finalScoreText.draw(g, score, centerX - 100, centerY + 50);
+            gameWonRestartText.draw(g, centerX - 100, centerY + 80);
+        }
+
+        if (paused && engine.isRunning()) {
+            pausedText.draw(g, centerX - 80, centerY);
+            resumeText.draw(g, centerX - 100, centerY + 50);
+        }
+
+        int obstacles = 0;
+        for (int a = 0; a < engine.getArchetypeCount(); a++) {
+            obstacles += engine.getArchetype(a).size();
+        }
+        overlay.draw(g, obstacles);
+    }
+}
@@ -0,0 +1,353 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+// Autoritativer Mehrspieler-Server ohne Bildschirm. Ein einziger Thread
+// bedient alle Verbindungen über einen Selector (nicht blockierend) und
+// taktet dazwischen die SharedWorld im festen Takt. Clients schicken nur
+// Eingaben; der Server schickt jedem nach jedem Takt dasselbe Delta, das
+// dafür nur einmal kodiert wird (siehe NetProtocol). Getaktet wird mit
+// der Taktrate der SharedWorld, deren Tempi dazu passen.
+//
+// Wer mit dem Lesen nicht hinterherkommt, sammelt Daten in seinem
+// Ausgangspuffer; wird dieser größer als OUTBOUND_LIMIT, wird die
+// Verbindung getrennt - ein Delta kann man nicht einfach auslassen.
+//
+// Aufruf: java GameServer [port]  (Takt und Seed wie im Spiel:
+// -Dfrogger.tickRate, -Dfrogger.seed)
+public class GameServer implements Runnable {
+    private static final int MAX_CATCH_UP_TICKS = 5;      // Wie in GameLoop
+    private static final int OUTBOUND_LIMIT = 1 << 20;     // 1 MB je Client
+    private static final int READ_BUFFER_BYTES = 512;
+
+    private final SharedWorld world;
+    private final long tickNanos;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    private ByteBuffer message = allocate(64 * 1024);   // Einmal kodiertes Delta bzw. Welcome
+
+    // Messwerte (nur vom Server-Thread geschrieben)
+    private final LatencyHistogram tickJitter = new LatencyHistogram(); // Verspätung je Takt
+    private final LatencyHistogram tickTime = new LatencyHistogram();   // Takt + Versand
+    private long skippedTicks;
+    private long bytesSent;
+    private long bytesReceived;
+    private long slowDisconnects;
+    private volatile int connections;          // Nur vom Server-Thread geändert
+
+    private volatile boolean resetRequested;   // Messwerte beim nächsten Takt löschen
+    private volatile boolean running;
+    private Thread thread;
+
+    // Eine Verbindung samt ihrem Spieler
+    private static final class Connection {
+        final SocketChannel channel;
+        final int playerId;
+        ByteBuffer outbound;   // Noch nicht gesendete Daten, erst bei Bedarf angelegt
+
+        Connection(SocketChannel channel, int playerId) {
+            this.channel = channel;
+            this.playerId = playerId;
+        }
+    }
+
+    public GameServer(SharedWorld world, int port) throws IOException {
+        this.world = world;
+        this.tickNanos = 1_000_000_000L / world.getTickRate();
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    // Startet den Server-Thread
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "GameServer");
+        thread.start();
+    }
+
+    // Hält den Server an und schließt alle Verbindungen
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            selector.wakeup();
+            thread.join();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime() + tickNanos;
+        try {
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait >= 1_000_000) {
+                    selector.select(wait / 1_000_000);
+                } else {
+                    selector.selectNow();
+                    if (wait > 0) {
+                        Thread.yield();   // Weniger als 1 ms: select() kann nicht so fein warten
+                    }
+                }
+                handleKeys();
+
+                // Fällige Takte ausführen
+                long now = System.nanoTime();
+                int ticks = 0;
+                while (now >= nextTick && ticks < MAX_CATCH_UP_TICKS) {
+                    if (resetRequested) {
+                        resetStatistics();
+                    }
+                    tickJitter.record(now - nextTick);
+                    tick();
+                    nextTick += tickNanos;
+                    ticks++;
+                    now = System.nanoTime();
+                }
+                if (now >= nextTick) {
+                    long behind = (now - nextTick) / tickNanos + 1;
+                    skippedTicks += behind;
+                    nextTick += behind * tickNanos;   // Rückstand verwerfen
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Server beendet: " + e.getMessage());
+        } finally {
+            closeAll();
+        }
+    }
+
+    // Ein Takt: Welt weiterrechnen, Delta einmal kodieren, an alle senden
+    private void tick() {
+        long start = System.nanoTime();
+        world.step();
+        ensureMessageCapacity();
+        message.clear();
+        world.writeDelta(message);
+        message.flip();
+
+        // Abgemeldete Schlüssel bleiben bis zum nächsten select() in keys()
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof Connection) {
+                send(key, message);
+            }
+        }
+        tickTime.record(System.nanoTime() - start);
+    }
+
+    private void handleKeys() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                accept();
+                continue;
+            }
+            try {
+                if (key.isReadable()) {
+                    read(key);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(key);
+                }
+            } catch (IOException e) {
+                disconnect(key);   // Client weg oder Verbindung gestört
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            int id = world.join();
+            if (id < 0) {
+                channel.close();   // Welt voll
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ, new Connection(channel, id));
+            connections++;
+
+            ensureMessageCapacity();
+            message.clear();
+            world.writeWelcome(message, id);
+            message.flip();
+            send(key, message);
+        }
+    }
+
+    // Jedes empfangene Byte ist eine Eingabe
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        Input[] inputs = Input.values();
+        int n;
+        while ((n = connection.channel.read(readBuffer)) > 0) {
+            bytesReceived += n;
+            readBuffer.flip();
+            while (readBuffer.hasRemaining()) {
+                int ordinal = readBuffer.get();
+                if (ordinal >= 0 && ordinal < inputs.length) {
+                    world.submit(connection.playerId, inputs[ordinal]);
+                }
+            }
+            readBuffer.clear();
+        }
+        if (n < 0) {
+            disconnect(key);
+        }
+    }
+
+    // Sendet eine Nachricht; was nicht sofort rausgeht, wird gepuffert
+    private void send(SelectionKey key, ByteBuffer data) {
+        Connection connection = (Connection) key.attachment();
+        data.rewind();
+        try {
+            if (connection.outbound == null || connection.outbound.position() == 0) {
+                bytesSent += connection.channel.write(data);
+                if (!data.hasRemaining()) {
+                    return;
+                }
+            }
+            if (!queue(connection, data)) {
+                slowDisconnects++;
+                disconnect(key);
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            disconnect(key);
+        }
+    }
+
+    private static boolean queue(Connection connection, ByteBuffer data) {
+        ByteBuffer outbound = connection.outbound;
+        int needed = (outbound == null ? 0 : outbound.position()) + data.remaining();
+        if (needed > OUTBOUND_LIMIT) {
+            return false;
+        }
+        if (outbound == null || outbound.capacity() < needed) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.min(OUTBOUND_LIMIT,
+                    Math.max(needed, outbound == null ? 4096 : outbound.capacity() * 2)));
+            if (outbound != null) {
+                outbound.flip();
+                bigger.put(outbound);
+            }
+            connection.outbound = outbound = bigger;
+        }
+        outbound.put(data);
+        return true;
+    }
+
+    // Socket wieder beschreibbar: Gepuffertes nachsenden
+    private void flush(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer outbound = connection.outbound;
+        outbound.flip();
+        bytesSent += connection.channel.write(outbound);
+        outbound.compact();
+        if (outbound.position() == 0) {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    // Nur einmal je Verbindung: danach ist der Schlüssel ungültig und die Id
+    // evtl. schon an einen neuen Spieler vergeben
+    private void disconnect(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Schon geschlossen
+        }
+        world.leave(connection.playerId);
+        connections--;
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof Connection) {
+                disconnect(key);
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Server nicht sauber geschlossen: " + e.getMessage());
+        }
+    }
+
+    // Löscht die Messwerte (z.B. nach dem Aufbau aller Verbindungen)
+    public void requestStatisticsReset() {
+        resetRequested = true;
+    }
+
+    private void resetStatistics() {
+        tickJitter.reset();
+        tickTime.reset();
+        skippedTicks = 0;
+        bytesSent = 0;
+        bytesReceived = 0;
+        resetRequested = false;
+    }
+
+    private void ensureMessageCapacity() {
+        int needed = world.maxMessageBytes();
+        if (message.capacity() < needed) {
+            message = allocate(Math.max(needed, message.capacity() * 2));
+        }
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Getter-Methoden
+    public int getPort() { return serverChannel.socket().getLocalPort(); }
+    public int getConnectionCount() { return connections; }
+    public LatencyHistogram getTickJitter() { return tickJitter; }
+    public LatencyHistogram getTickTime() { return tickTime; }
+    public long getSkippedTicks() { return skippedTicks; }
+    public long getBytesSent() { return bytesSent; }
+    public long getBytesReceived() { return bytesReceived; }
+    public long getSlowDisconnects() { return slowDisconnects; }
+    public SharedWorld getWorld() { return world; }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : NetProtocol.DEFAULT_PORT;
+        GameConfig config = GameConfig.fromSystemProperties();
+        GameServer server = new GameServer(new SharedWorld(config.getSeed(), config.getTickRate()), port);
+        server.start();
+        System.out.println("Frogger-Server auf Port " + server.getPort()
+                + " (" + config.getTickRate() + " Takte/s)");
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.printf("Spieler: %d, Takt-Verspätung p99: %.2f ms%n",
+                    server.getConnectionCount(), server.getTickJitter().getPercentile(99) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Binärer Spielstand der GameEngine: Spieler, alle Hindernisse samt
+// Spurindex, Punkte, Level, Zufallszustand und Flags. Nach dem Laden läuft
+// das Spiel exakt so weiter wie das gespeicherte.
+//
+// Aufbau (Little Endian):
+//   int magic "FSNP", short version, short reserviert,
+//   int Kennung der Karte (LevelMap.getFingerprint()),
+//   int Länge der Nutzdaten, int CRC32 der Nutzdaten, Nutzdaten
+//
+// Beim Laden wird alles geprüft (Kopf, Karte, Prüfsumme und die Nutzdaten
+// selbst), bevor die Engine verändert wird - ein abgelehnter Spielstand
+// lässt sie unverändert.
+//
+// Gespeichert wird in einen wiederverwendeten Direct-ByteBuffer; geladen wird
+// aus einem beliebigen ByteBuffer, z.B. einer per mmap eingeblendeten Datei.
+// Nach dem Aufwärmen legen save() und restore() nichts mehr an.
+public class GameSnapshot {
+    private static final int MAGIC = 0x504E5346;   // Bytes "FSNP" (Little Endian)
+    private static final short VERSION = 4;   // 2: mit Schildkröten, 3: Subpixel und Taktrate, 4: Karte
+    private static final int HEADER_BYTES = 20;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(4096).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+
+    // Schreibt den Zustand in den Puffer und liefert ihn (Position 0 bis Ende).
+    // Der Puffer gilt nur bis zum nächsten save().
+    public ByteBuffer save(GameEngine engine) {
+        int needed = HEADER_BYTES + engine.stateBytes();
+        if (buffer.capacity() < needed) {
+            buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(needed) * 2)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        buffer.clear();
+        buffer.position(HEADER_BYTES);
+        engine.writeState(buffer);
+        int length = buffer.position() - HEADER_BYTES;
+
+        buffer.flip();
+        buffer.position(HEADER_BYTES);
+        crc.reset();
+        crc.update(buffer);
+
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) 0);
+        buffer.putInt(8, engine.getMap().getFingerprint());
+        buffer.putInt(12, length);
+        buffer.putInt(16, (int) crc.getValue());
+        buffer.position(0);
+        return buffer;
+    }
+
+    // Lädt einen Spielstand ab der aktuellen Position von 'data' in die Engine.
+    // Die Engine wird erst verändert, wenn alles geprüft ist.
+    public void restore(GameEngine engine, ByteBuffer data) throws IOException {
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        int start = data.position();
+        if (data.remaining() < HEADER_BYTES || data.getInt(start) != MAGIC) {
+            throw new IOException("Kein Frogger-Spielstand");
+        }
+        int version = data.getShort(start + 4);
+        if (version != VERSION) {
+            throw new IOException("Unbekannte Version: " + version);
+        }
+        if (data.getInt(start + 8) != engine.getMap().getFingerprint()) {
+            throw new IOException("Spielstand gehört zu einer anderen Karte");
+        }
+        int length = data.getInt(start + 12);
+        if (length < 0 || length > data.remaining() - HEADER_BYTES) {
+            throw new IOException("Spielstand ist abgeschnitten");
+        }
+
+        int limit = data.limit();
+        int end = start + HEADER_BYTES + length;
+        try {
+            data.limit(end);
+            data.position(start + HEADER_BYTES);
+            crc.reset();
+            crc.update(data);
+            if ((int) crc.getValue() != data.getInt(start + 16)) {
+                throw new IOException("Prüfsumme stimmt nicht");
+            }
+
+            data.position(start + HEADER_BYTES);
+            engine.checkState(data);
+            if (data.position() != end) {
+                throw new IOException("Länge der Nutzdaten stimmt nicht");
+            }
+            data.position(start + HEADER_BYTES);
+            engine.readState(data);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new IOException("Ungültiger Spielstand: " + e.getMessage(), e);
+        } finally {
+            data.limit(limit);
+        }
+    }
+
+    // Speichert den Zustand in eine Datei
+    public void write(GameEngine engine, Path file) throws IOException {
+        ByteBuffer data = save(engine);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    // Lädt einen Spielstand aus einer Datei, die dafür eingeblendet wird (mmap)
+    public void load(GameEngine engine, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            restore(engine, mapped);
+        }
+    }
+
+    // Hilfsmethoden für die Zustandsklassen
+    static void putInts(ByteBuffer out, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            out.putInt(values[i]);
+        }
+    }
+
+    static void getInts(ByteBuffer in, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getInt();
+        }
+    }
+}
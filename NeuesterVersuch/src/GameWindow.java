@@ -1,17 +1,110 @@
 import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
 
 public class GameWindow extends JFrame {
-    private final GamePanel gamePanel;
+    private final Component gameView;   // GamePanel (passiv) oder GameCanvas (aktiv)
 
-    public GameWindow() {
+    public GameWindow(GameConfig config) {
         setTitle("Simple Crossy Road");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setResizable(false);
 
-        gamePanel = new GamePanel();
-        add(gamePanel);
+        Game engine;
+        GameEngine classic = null;
+        FrameRenderer renderer;
+        Bot bot = config.getBotType().create(~config.getSeed());
+        if (config.getGameMode() == GameMode.ENDLESS) {
+            EndlessEngine endless = new EndlessEngine(config.getSeed(), config.getTickRate());
+            engine = endless;
+            renderer = new EndlessRenderer(endless);
+        } else {
+            classic = new GameEngine(config.getSeed(), LevelMap.loadOrClassic(config.getMapPath()), config.getTickRate());
+            if (bot != null) {
+                bot.check(classic);   // Passt der Bot nicht, gleich beim Start statt in der Spielschleife
+            }
+            if (config.getRecordPath() != null) {
+                record(classic, new File(config.getRecordPath()));
+            }
+            if (config.getRewindBytes() > 0) {
+                // Rücktaste spult zurück
+                new RewindBuffer(classic, config.getRewindBytes(), RewindBuffer.DEFAULT_KEYFRAME_INTERVAL);
+            }
+            engine = classic;
+            renderer = new GameRenderer(classic, config.isSprites() ? new SpriteCache() : null);
+        }
+
+        if (config.isProfiling()) {
+            engine.setProfiler(new TickProfiler());
+        }
+
+        GameLoop gameLoop;
+        if (config.getRenderMode() == RenderMode.ACTIVE) {
+            GameCanvas canvas = new GameCanvas(engine, renderer, config);
+            gameLoop = canvas.getGameLoop();
+            gameView = canvas;
+        } else {
+            GamePanel panel = new GamePanel(engine, renderer, config);
+            gameLoop = panel.getGameLoop();
+            gameView = panel;
+        }
+
+        // Bot spielt über denselben Weg wie die Tastatur
+        if (bot != null && classic != null) {
+            new BotDriver(classic, bot, gameLoop);
+        }
+        if (config.isAutoPause()) {
+            autoPause(gameLoop);
+        }
+        add(gameView);
         pack();
 
         setLocationRelativeTo(null); // Fenster zentrieren
     }
+
+    // Schleife ruht, solange das Fenster minimiert ist oder keinen Fokus hat
+    private void autoPause(GameLoop gameLoop) {
+        WindowAdapter listener = new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                gameLoop.suspend(GameLoop.ICONIFIED);
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                gameLoop.resume(GameLoop.ICONIFIED);
+            }
+
+            @Override
+            public void windowLostFocus(WindowEvent e) {
+                gameLoop.suspend(GameLoop.UNFOCUSED);
+            }
+
+            @Override
+            public void windowGainedFocus(WindowEvent e) {
+                gameLoop.resume(GameLoop.UNFOCUSED);
+            }
+        };
+        addWindowListener(listener);
+        addWindowFocusListener(listener);
+    }
+
+    // Zeichnet alle Eingaben auf und speichert sie beim Beenden des Programms
+    private static void record(GameEngine engine, File file) {
+        ReplayRecorder recorder = new ReplayRecorder(engine);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                Replay replay;
+                synchronized (engine) {
+                    replay = recorder.toReplay();
+                }
+                replay.write(file);
+            } catch (IOException e) {
+                System.err.println("Aufzeichnung nicht gespeichert: " + e.getMessage());
+            }
+        }, "ReplaySave"));
+    }
 }
@@ -0,0 +1,32 @@
+import java.awt.event.KeyEvent;
+
+// Eingabebefehle für die Spiellogik - unabhängig von Swing-Tastenereignissen
+public enum Input {
+    NONE,     // Keine Eingabe in diesem Tick
+    UP,       // Ein Feld nach oben
+    DOWN,     // Ein Feld nach unten
+    LEFT,     // Ein Feld nach links
+    RIGHT,    // Ein Feld nach rechts
+    RESTART,  // Neustart nach Spielende
+    REWIND;   // Eine Sekunde zurückspulen (nur mit RewindBuffer)
+
+    // Übersetzt einen Tastencode in einen Eingabebefehl
+    public static Input fromKeyCode(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_UP:
+                return UP;
+            case KeyEvent.VK_DOWN:
+                return DOWN;
+            case KeyEvent.VK_LEFT:
+                return LEFT;
+            case KeyEvent.VK_RIGHT:
+                return RIGHT;
+            case KeyEvent.VK_SPACE:
+                return RESTART;
+            case KeyEvent.VK_BACK_SPACE:
+                return REWIND;
+            default:
+                return NONE;
+        }
+    }
+}
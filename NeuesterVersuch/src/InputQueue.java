@@ -0,0 +1,88 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// Begrenzter, sperrfreier Ringpuffer für Eingaben zwischen genau einem
+// Erzeuger (EDT, Tastenereignisse) und genau einem Verbraucher (Spielschleife).
+// Der Erzeuger blockiert nie: ist der Puffer voll, wird die Eingabe verworfen
+// und gezählt. Eingabe und Zeitstempel liegen in parallelen Arrays; die
+// Positionen werden mit Release-Schreiben (lazySet) veröffentlicht.
+public class InputQueue {
+    private static final Input[] INPUTS = Input.values();
+
+    private final int mask;                  // capacity - 1 (capacity = Zweierpotenz)
+    private final byte[] inputs;             // Input.ordinal()
+    private final long[] times;              // System.nanoTime() beim Tastendruck
+    private final CoalescingPolicy policy;
+
+    private final AtomicLong head = new AtomicLong();  // Nächster Leseplatz (Verbraucher)
+    private final AtomicLong tail = new AtomicLong();  // Nächster Schreibplatz (Erzeuger)
+    private long cachedHead;                 // Letzter gesehener head (nur Erzeuger)
+    private final AtomicLong dropped = new AtomicLong(); // Wegen vollem Puffer verworfen
+
+    // Empfänger der Eingaben beim Abholen
+    public interface Sink {
+        void accept(Input input, long nanos);
+    }
+
+    public InputQueue(int capacity, CoalescingPolicy policy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity muss eine Zweierpotenz sein: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.inputs = new byte[capacity];
+        this.times = new long[capacity];
+        this.policy = policy;
+    }
+
+    // Legt eine Eingabe ab (nur vom Erzeuger-Thread); false wenn der Puffer voll ist
+    public boolean offer(Input input, long nanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();   // Nur bei scheinbar vollem Puffer nachsehen
+            if (t - cachedHead > mask) {
+                dropped.lazySet(dropped.get() + 1);
+                return false;
+            }
+        }
+        int index = (int) t & mask;
+        inputs[index] = (byte) input.ordinal();
+        times[index] = nanos;
+        tail.lazySet(t + 1);   // Veröffentlicht die Einträge davor
+        return true;
+    }
+
+    // Gibt die wartenden Eingaben an 'sink' weiter (nur vom Verbraucher-Thread)
+    // und fasst sie nach der Policy zusammen; liefert die Anzahl weitergegebener
+    public int drain(Sink sink) {
+        long h = head.get();
+        long t = tail.get();
+        int delivered = 0;
+        int previous = -1;
+        while (h < t) {
+            int index = (int) h & mask;
+            int ordinal = inputs[index];
+            long nanos = times[index];
+            h++;
+            if (policy == CoalescingPolicy.COLLAPSE_REPEATS && ordinal == previous) {
+                continue;   // Tastenwiederholung innerhalb desselben Takts
+            }
+            previous = ordinal;
+            sink.accept(INPUTS[ordinal], nanos);
+            delivered++;
+            if (policy == CoalescingPolicy.ONE_PER_TICK) {
+                break;
+            }
+        }
+        head.lazySet(h);   // Gibt die Plätze für den Erzeuger frei
+        return delivered;
+    }
+
+    // Anzahl wartender Eingaben (nur ungefähr, wenn beide Threads laufen)
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    // Getter-Methoden
+    public int getCapacity() { return mask + 1; }
+    public CoalescingPolicy getPolicy() { return policy; }
+    public long getDropped() { return dropped.get(); }
+}
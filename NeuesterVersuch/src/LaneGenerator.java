@@ -0,0 +1,80 @@
+// Erzeugt die Reihen der endlosen Welt prozedural (siehe Textplanung):
+// Abschnitte aus 5 bis 10 Straßen- oder Flussreihen, danach immer eine
+// sichere Wiese. Je weiter oben, desto schneller fahren die Hindernisse.
+public class LaneGenerator {
+    // Abschnittslängen laut Textplanung
+    private static final int MIN_SEGMENT_ROWS = 5;
+    private static final int MAX_SEGMENT_ROWS = 10;
+    private static final int START_ROWS = 2;          // Sichere Startreihen unten
+    private static final int ROWS_PER_SPEED_STEP = 30; // Alle 30 Reihen etwas schneller
+    private static final int MAX_SPEED_STEPS = 4;
+    private static final int SPEED_UNIT = 2;           // Tempo in Vielfachen davon
+
+    private final FastRandom random;
+    private final int block;           // Breite eines Blocks in Pixeln
+
+    private LaneType segmentType;      // Art des aktuellen Abschnitts
+    private int segmentLeft;           // Verbleibende Reihen bis zur nächsten Wiese
+
+    public LaneGenerator(FastRandom random, int block) {
+        this.random = random;
+        this.block = block;
+        reset();
+    }
+
+    // Beginnt wieder mit dem ersten Abschnitt
+    public void reset() {
+        startSegment();
+    }
+
+    private void startSegment() {
+        segmentLeft = MIN_SEGMENT_ROWS + randomInt(MAX_SEGMENT_ROWS - MIN_SEGMENT_ROWS + 1);
+        segmentType = random.nextDouble() < 0.5 ? LaneType.ROAD : LaneType.RIVER;
+    }
+
+    // Erzeugt die Reihe 'row' im Ring
+    public void generate(LaneRing ring, int row) {
+        if (row < START_ROWS) {
+            ring.setLane(row, LaneType.SAFE, 0);
+            return;
+        }
+        if (segmentLeft == 0) {
+            ring.setLane(row, LaneType.SAFE, 0);   // Sicherheitsabschnitt
+            startSegment();
+            return;
+        }
+        segmentLeft--;
+
+        int steps = Math.min(row / ROWS_PER_SPEED_STEP, MAX_SPEED_STEPS);
+        int speed = (1 + randomInt(2 + steps)) * SPEED_UNIT;
+        if (random.nextDouble() < 0.5) {
+            speed = -speed;
+        }
+        ring.setLane(row, segmentType, speed);
+
+        if (segmentType == LaneType.ROAD) {
+            fill(ring, row, 1, 2, 3, 6);   // Autos: 1-2 Blöcke, Lücke 3-6
+        } else {
+            fill(ring, row, 3, 5, 2, 3);   // Baumstämme: 3-5 Blöcke, Lücke 2-3
+        }
+    }
+
+    // Verteilt Hindernisse mit Mindestabstand über die ganze Umlaufstrecke
+    private void fill(LaneRing ring, int row, int minLength, int maxLength, int minGap, int maxGap) {
+        int span = ring.getFieldWidth() + ring.getWrapMargin();
+        int first = -ring.getWrapMargin() + randomInt(maxGap * block);
+        int x = first;
+        while (true) {
+            int width = (minLength + randomInt(maxLength - minLength + 1)) * block;
+            // Auch über den Umlauf hinweg muss die Mindestlücke bleiben
+            if (x + width + minGap * block > first + span || !ring.addObstacle(row, x, width)) {
+                return;
+            }
+            x += width + (minGap + randomInt(maxGap - minGap + 1)) * block;
+        }
+    }
+
+    private int randomInt(int bound) {
+        return (int) (random.nextDouble() * bound);
+    }
+}
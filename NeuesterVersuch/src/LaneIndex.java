@@ -0,0 +1,569 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Räumlicher Index für Hindernisse: teilt das Spielfeld in waagrechte Spuren
+// (Bänder der Höhe laneHeight) und hält jede Spur nach X sortiert.
+// Eine Kollisionsabfrage sieht nur die ein bis zwei Spuren an, die der Spieler
+// überdeckt, und findet den Startpunkt darin per binärer Suche.
+// Gespeichert werden nur die Slot-Nummern aus dem ObstacleStore.
+//
+// Innerhalb einer Spur liegen die Slots in Gruppen gleichen Tempos. Gleich
+// schnelle Hindernisse überholen sich nie - jede Gruppe bleibt beim Bewegen
+// von selbst sortiert, und ein Takt kostet den Index nichts, auch wenn sich
+// in einer vollen Spur mit Gegenverkehr Tausende Hindernisse kreuzen.
+// Die Reihenfolge der ganzen Spur (für findIntersecting() und Spielstände)
+// ist dieselbe wie beim stabilen Nachsortieren nach jedem Takt: nach X, bei
+// gleichem X zuerst das in diesem Takt zuletzt eingetragene, sonst das
+// schnellere (es lag im Takt davor weiter links).
+//
+// Aus derselben Ordnung folgt, wer das Feld verlassen hat: in jeder Gruppe
+// die Einträge am Ende in Fahrtrichtung. collectLeft() sieht nur diese an,
+// statt alle Slots zu prüfen, und kann auf einen Teil der Spuren beschränkt
+// werden. collect() liefert die Hindernisse in einem Rechteck (Sichtbereich
+// der Kamera) - die Spuren sind dabei das grobe Raster, X die binäre Suche.
+// findSwept() prüft statt der Position den im letzten Takt überstrichenen
+// Bereich (für Tödliches); das Suchfenster wird dafür um das Tempo der
+// Gruppe verbreitert. Sortiert und verglichen wird in Subpixeln.
+public class LaneIndex {
+    private final ObstacleStore store; // Die eigentlichen Hindernisdaten
+    private final int laneHeight;      // Höhe einer Spur in Pixeln
+    private final Group[][] groups;    // Gruppen je Spur
+    private final int[] groupCounts;   // Benutzte Gruppen je Spur
+    private final int[] sizes;         // Belegte Einträge je Spur (alle Gruppen)
+    private final int[] maxWidths;     // Breitestes Hindernis je Spur
+    private int maxHeight;             // Höchstes Hindernis insgesamt
+
+    private long adds;                 // Zähler für die Einfügereihenfolge
+
+    private int[] left = new int[8];   // Ergebnis von collectLeft()
+    private int[] merged = new int[8]; // Eine ganze Spur für writeTo()/readFrom()
+    private long[] seen = new long[1]; // Bitmenge der Slots für checkState()
+    private int[] heads = new int[4];  // Position je Gruppe beim Zusammenführen
+    private long[] headX = new long[4]; // X an dieser Position
+
+    // Slots einer Spur mit gleichem Tempo, nach X sortiert. Bei gleichem
+    // Tempo ist X - Tempo * Takt je Slot fest (in Subpixeln); dieser Schlüssel liegt neben
+    // dem Slot, damit Suchen und Zusammenführen nicht quer durch den
+    // ObstacleStore springen. Dazu wann und als wievielter jeder Eintrag
+    // eingetragen wurde (entscheidet bei gleichem X im selben Takt).
+    private static final class Group {
+        int speed;                     // Subpixel je Takt
+        int size;
+        int[] entries = new int[8];
+        long[] keys = new long[8];
+        long[] addedAt = new long[8];
+        long[] addOrder = new long[8];
+
+        long fixedX(int i, long tick) {
+            return keys[i] + (long) speed * tick;
+        }
+
+        int x(int i, long tick) {
+            return (int) (fixedX(i, tick) >> ObstacleStore.SUBPIXEL_BITS);
+        }
+    }
+
+    public LaneIndex(ObstacleStore store, int fieldHeight, int laneHeight) {
+        this.store = store;
+        this.laneHeight = laneHeight;
+        int laneCount = (fieldHeight + laneHeight - 1) / laneHeight;
+        groups = new Group[laneCount][0];
+        groupCounts = new int[laneCount];
+        sizes = new int[laneCount];
+        maxWidths = new int[laneCount];
+    }
+
+    // Spur, in der ein Hindernis mit dieser Y-Position liegt
+    int laneOf(int y) {
+        int lane = Math.floorDiv(y, laneHeight);
+        return Math.max(0, Math.min(groups.length - 1, lane));
+    }
+
+    // Gruppe für ein Tempo oder null
+    private Group findGroup(int lane, int speed) {
+        Group[] list = groups[lane];
+        for (int g = 0; g < groupCounts[lane]; g++) {
+            if (list[g].speed == speed) {
+                return list[g];
+            }
+        }
+        return null;
+    }
+
+    // Gruppe für ein Tempo; legt sie bei Bedarf an (oder belegt eine alte neu)
+    private Group group(int lane, int speed) {
+        Group group = findGroup(lane, speed);
+        if (group != null) {
+            return group;
+        }
+        int count = groupCounts[lane];
+        if (count == groups[lane].length) {
+            groups[lane] = Arrays.copyOf(groups[lane], Math.max(4, count * 2));
+        }
+        if (groups[lane][count] == null) {
+            groups[lane][count] = new Group();
+        }
+        group = groups[lane][count];
+        group.speed = speed;
+        group.size = 0;
+        groupCounts[lane] = count + 1;
+        return group;
+    }
+
+    // Schlüssel eines Slots in seiner Gruppe
+    private long keyOf(int slot) {
+        return store.getFixedX(slot) - (long) store.getFixedSpeed(slot) * store.getTick();
+    }
+
+    // Fügt einen Slot sortiert in seine Spur ein
+    public void add(int slot) {
+        int lane = laneOf(store.getY(slot));
+        Group group = group(lane, store.getFixedSpeed(slot));
+        insert(group, lowerBound(group, store.getFixedX(slot), store.getTick()), slot, ++adds);
+        sizes[lane]++;
+
+        maxWidths[lane] = Math.max(maxWidths[lane], store.getWidth(slot));
+        maxHeight = Math.max(maxHeight, store.getHeight(slot));
+    }
+
+    private void insert(Group group, int pos, int slot, long order) {
+        int size = group.size;
+        if (size == group.entries.length) {
+            group.entries = Arrays.copyOf(group.entries, size * 2);
+            group.keys = Arrays.copyOf(group.keys, size * 2);
+            group.addedAt = Arrays.copyOf(group.addedAt, size * 2);
+            group.addOrder = Arrays.copyOf(group.addOrder, size * 2);
+        }
+        if (pos < size) {
+            System.arraycopy(group.entries, pos, group.entries, pos + 1, size - pos);
+            System.arraycopy(group.keys, pos, group.keys, pos + 1, size - pos);
+            System.arraycopy(group.addedAt, pos, group.addedAt, pos + 1, size - pos);
+            System.arraycopy(group.addOrder, pos, group.addOrder, pos + 1, size - pos);
+        }
+        group.entries[pos] = slot;
+        group.keys[pos] = keyOf(slot);
+        group.addedAt[pos] = store.getTick();
+        group.addOrder[pos] = order;
+        group.size = size + 1;
+    }
+
+    // Entfernt einen Slot (muss noch die Daten haben, mit denen er
+    // eingetragen wurde; die Position darf sich seitdem bewegt haben)
+    public void remove(int slot) {
+        int lane = laneOf(store.getY(slot));
+        Group group = findGroup(lane, store.getFixedSpeed(slot));
+        int pos = group == null ? -1 : find(group, slot);
+        if (pos >= 0) {
+            int tail = group.size - pos - 1;
+            System.arraycopy(group.entries, pos + 1, group.entries, pos, tail);
+            System.arraycopy(group.keys, pos + 1, group.keys, pos, tail);
+            System.arraycopy(group.addedAt, pos + 1, group.addedAt, pos, tail);
+            System.arraycopy(group.addOrder, pos + 1, group.addOrder, pos, tail);
+            group.size--;
+            sizes[lane]--;
+        }
+    }
+
+    // Hinterstes Hindernis mit diesem Tempo (Subpixel je Takt) in der Spur
+    // bei y (in Fahrtrichtung zuletzt: kleinstes X bei Tempo > 0, sonst
+    // größtes) oder -1
+    public int trailing(int y, int speed) {
+        Group group = findGroup(laneOf(y), speed);
+        if (group == null || group.size == 0) {
+            return -1;
+        }
+        return group.entries[speed > 0 ? 0 : group.size - 1];
+    }
+
+    // Ändert die Nummer eines Slots, nachdem der ObstacleStore ihn per
+    // swap-remove verschoben hat (Daten liegen bereits unter newSlot)
+    public void renumber(int oldSlot, int newSlot) {
+        Group group = findGroup(laneOf(store.getY(newSlot)), store.getFixedSpeed(newSlot));
+        if (group == null) {
+            return;
+        }
+        for (int i = lowerBound(group, store.getFixedX(newSlot), store.getTick()); i < group.size; i++) {
+            if (group.entries[i] == oldSlot) {
+                group.entries[i] = newSlot;
+                return;
+            }
+        }
+    }
+
+    // Position eines Slots in seiner Gruppe oder -1
+    private int find(Group group, int slot) {
+        for (int i = lowerBound(group, store.getFixedX(slot), store.getTick()); i < group.size; i++) {
+            if (group.entries[i] == slot) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // True wenn Eintrag ia von Gruppe a in der Reihenfolge der Spur vor
+    // Eintrag ib von Gruppe b steht (zwei Gruppen derselben Spur, gleiches X)
+    private boolean before(Group a, int ia, Group b, int ib) {
+        long now = store.getTick();
+        boolean newA = a.addedAt[ia] == now;
+        boolean newB = b.addedAt[ib] == now;
+        if (newA != newB) {
+            return newA;
+        }
+        if (newA) {
+            return a.addOrder[ia] > b.addOrder[ib];
+        }
+        return a.speed > b.speed;
+    }
+
+    // Sammelt die Slots der Spuren firstLane bis lastLane, die das Feld
+    // verlassen haben (ObstacleStore.hasLeft()), aufsteigend nach Slot;
+    // liefert die Anzahl (Slots per leftSlot()). Nach rechts fahrende stehen
+    // am Ende ihrer Gruppe, nach links fahrende vorne bei X < 0.
+    int collectLeft(int firstLane, int lastLane) {
+        long now = store.getTick();
+        int count = 0;
+        for (int lane = firstLane; lane <= lastLane; lane++) {
+            Group[] list = groups[lane];
+            for (int g = 0; g < groupCounts[lane]; g++) {
+                Group group = list[g];
+                if (group.speed > 0) {
+                    for (int i = group.size - 1; i >= 0 && store.hasLeft(group.entries[i]); i--) {
+                        count = addLeft(count, group.entries[i]);
+                    }
+                } else if (group.speed < 0) {
+                    for (int i = 0; i < group.size && group.x(i, now) < 0; i++) {
+                        if (store.hasLeft(group.entries[i])) {
+                            count = addLeft(count, group.entries[i]);
+                        }
+                    }
+                }
+            }
+        }
+        Arrays.sort(left, 0, count);
+        return count;
+    }
+
+    private int addLeft(int count, int slot) {
+        if (count == left.length) {
+            left = Arrays.copyOf(left, count * 2);
+        }
+        left[count] = slot;
+        return count + 1;
+    }
+
+    // i-ter Slot aus dem letzten collectLeft()
+    int leftSlot(int i) {
+        return left[i];
+    }
+
+    // Sammelt alle Slots, die das Rechteck zum aktuellen Takt berühren, in
+    // 'out' (muss store.size() Einträge fassen); liefert die Anzahl.
+    // Reihenfolge nach Spur und Gruppe, nicht nach Slot.
+    public int collect(int x, int y, int width, int height, int[] out) {
+        long now = store.getTick();
+        int firstLane = laneOf(y - maxHeight + 1);
+        int lastLane = laneOf(y + height - 1);
+        int count = 0;
+        for (int lane = firstLane; lane <= lastLane; lane++) {
+            Group[] list = groups[lane];
+            for (int g = 0; g < groupCounts[lane]; g++) {
+                Group group = list[g];
+                for (int i = lowerBound(group, fixed(x - maxWidths[lane] + 1), now); i < group.size; i++) {
+                    int ox = group.x(i, now);
+                    if (ox >= x + width) {
+                        break;
+                    }
+                    int slot = group.entries[i];
+                    int oy = store.getY(slot);
+                    if (ox + store.getWidth(slot) > x && oy < y + height && oy + store.getHeight(slot) > y) {
+                        out[count++] = slot;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // Anzahl der Spuren
+    public int getLaneCount() {
+        return groups.length;
+    }
+
+    // Leert den Index
+    public void clear() {
+        Arrays.fill(groupCounts, 0);
+        Arrays.fill(sizes, 0);
+        Arrays.fill(maxWidths, 0);
+        maxHeight = 0;
+    }
+
+    // Bytes, die writeTo() schreibt
+    int snapshotBytes() {
+        int bytes = 8 + groups.length * 8;
+        for (int size : sizes) {
+            bytes += size * 4;
+        }
+        return bytes;
+    }
+
+    // Schreibt alle Spuren samt Reihenfolge in einen Puffer (für GameSnapshot).
+    // Die Reihenfolge gleich großer X-Werte bestimmt, welches Hindernis
+    // findIntersecting() liefert - sie muss für ein identisches Weiterspielen
+    // erhalten bleiben.
+    void writeTo(ByteBuffer out) {
+        out.putInt(groups.length);
+        out.putInt(maxHeight);
+        for (int lane = 0; lane < groups.length; lane++) {
+            out.putInt(sizes[lane]);
+            out.putInt(maxWidths[lane]);
+            merge(lane);
+            GameSnapshot.putInts(out, merged, sizes[lane]);
+        }
+    }
+
+    // Führt die Gruppen einer Spur in 'merged' zusammen. Verglichen wird das
+    // X am Kopf jeder Gruppe (Long.MAX_VALUE = Gruppe leer), before() nur bei
+    // Gleichstand.
+    private void merge(int lane) {
+        int count = groupCounts[lane];
+        Group[] list = groups[lane];
+        if (heads.length < count) {
+            heads = new int[count];
+            headX = new long[count];
+        }
+        if (merged.length < sizes[lane]) {
+            merged = new int[Integer.highestOneBit(sizes[lane]) * 2];
+        }
+        int[] heads = this.heads;
+        long[] headX = this.headX;
+        long now = store.getTick();
+        for (int g = 0; g < count; g++) {
+            heads[g] = 0;
+            headX[g] = list[g].size > 0 ? list[g].fixedX(0, now) : Long.MAX_VALUE;
+        }
+        for (int n = 0, size = sizes[lane]; n < size; n++) {
+            int best = 0;
+            long bestX = headX[0];
+            for (int g = 1; g < count; g++) {
+                long x = headX[g];
+                if (x < bestX || (x == bestX && x != Long.MAX_VALUE
+                        && before(list[g], heads[g], list[best], heads[best]))) {
+                    best = g;
+                    bestX = x;
+                }
+            }
+            Group group = list[best];
+            int next = ++heads[best];
+            merged[n] = group.entries[next - 1];
+            headX[best] = next < group.size ? group.fixedX(next, now) : Long.MAX_VALUE;
+        }
+    }
+
+    // Prüft, was readFrom() lesen würde, ohne etwas zu ändern: gleiche
+    // Spuranzahl und jeder der 'slots' Slots des Speichers genau einmal.
+    // Steht danach hinter dem Index.
+    void checkState(ByteBuffer in, int slots) {
+        int laneCount = in.getInt();
+        if (laneCount != groups.length) {
+            throw new IllegalArgumentException("Spuranzahl passt nicht: " + laneCount);
+        }
+        in.getInt();   // Größte Höhe
+        int words = (slots + 63) >>> 6;
+        if (seen.length < words) {
+            seen = new long[words * 2];
+        }
+        Arrays.fill(seen, 0, words, 0L);
+        long total = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            int size = in.getInt();
+            if (size < 0 || size > in.remaining() / 4) {
+                throw new IllegalArgumentException("Ungültige Spurgröße: " + size);
+            }
+            in.getInt();   // Größte Breite
+            for (int i = 0; i < size; i++) {
+                int slot = in.getInt();
+                if (slot < 0 || slot >= slots || (seen[slot >>> 6] & 1L << slot) != 0) {
+                    throw new IllegalArgumentException("Ungültiger Slot: " + slot);
+                }
+                seen[slot >>> 6] |= 1L << slot;
+            }
+            total += size;
+        }
+        if (total != slots) {
+            throw new IllegalArgumentException("Index enthält " + total + " statt " + slots + " Slots");
+        }
+    }
+
+    // Ersetzt den Index durch den aus dem Puffer (der ObstacleStore muss
+    // schon geladen sein, beides mit checkState() geprüft). Die gelesene Reihenfolge gilt für diesen Takt
+    // wie frisch eingetragen.
+    void readFrom(ByteBuffer in) {
+        in.getInt();   // Spuranzahl (geprüft)
+        maxHeight = in.getInt();
+        for (int lane = 0; lane < groups.length; lane++) {
+            int size = in.getInt();
+            maxWidths[lane] = in.getInt();
+            if (merged.length < size) {
+                merged = new int[Integer.highestOneBit(size) * 2];
+            }
+            GameSnapshot.getInts(in, merged, size);
+            groupCounts[lane] = 0;
+            sizes[lane] = size;
+            Group group = null;
+            for (int i = 0; i < size; i++) {
+                int slot = merged[i];
+                int speed = store.getFixedSpeed(slot);
+                if (group == null || group.speed != speed) {
+                    group = group(lane, speed);
+                }
+                insert(group, group.size, slot, -i);   // Weiter vorne = später eingetragen
+            }
+        }
+    }
+
+    // Liefert den ersten Slot, der den Spieler berührt, oder -1 (abgetauchte
+    // Slots zählen nicht)
+    public int findIntersecting(Player player) {
+        int px = player.getX();
+        int py = player.getY();
+        long now = store.getTick();
+
+        // Nur Spuren, deren Hindernisse vertikal überlappen können
+        int firstLane = laneOf(py - maxHeight + 1);
+        int lastLane = laneOf(py + player.getHeight() - 1);
+
+        for (int lane = firstLane; lane <= lastLane; lane++) {
+            Group found = null;
+            int foundAt = -1;
+            Group[] list = groups[lane];
+            for (int g = 0; g < groupCounts[lane]; g++) {
+                Group group = list[g];
+
+                // Hindernisse, die weiter links beginnen als px - maxWidth,
+                // können den Spieler nicht mehr erreichen
+                for (int i = lowerBound(group, fixed(px - maxWidths[lane] + 1), now); i < group.size; i++) {
+                    int x = group.x(i, now);
+                    if (x >= px + player.getWidth()) {
+                        break;
+                    }
+                    int slot = group.entries[i];
+                    if (player.intersects(x, store.getY(slot), store.getWidth(slot), store.getHeight(slot))
+                            && !store.isSubmerged(slot)) {
+                        if (found == null || first(group, i, found, foundAt, now)) {
+                            found = group;
+                            foundAt = i;
+                        }
+                        break;   // Der Rest der Gruppe liegt weiter rechts
+                    }
+                }
+            }
+            if (found != null) {
+                return found.entries[foundAt];
+            }
+        }
+        return -1;
+    }
+
+    // Liefert einen Slot, dessen im letzten Takt überstrichener Bereich
+    // (ObstacleStore.sweptLeftAt()) den Spieler berührt, oder -1 (abgetauchte
+    // Slots zählen nicht). Auch ein Hindernis, das in einem Takt ganz über
+    // den Spieler hinweggefahren ist, wird so gefunden.
+    public int findSwept(Player player) {
+        int px = player.getX();
+        int py = player.getY();
+        long now = store.getTick();
+        int firstLane = laneOf(py - maxHeight + 1);
+        int lastLane = laneOf(py + player.getHeight() - 1);
+
+        for (int lane = firstLane; lane <= lastLane; lane++) {
+            Group[] list = groups[lane];
+            for (int g = 0; g < groupCounts[lane]; g++) {
+                Group group = list[g];
+
+                // Fenster um die Strecke eines Takts verbreitert: nach links
+                // Fahrende kamen von rechts, nach rechts Fahrende von links
+                long back = Math.abs((long) group.speed) + ObstacleStore.SUBPIXELS;
+                long from = fixed(px - maxWidths[lane]) - (group.speed < 0 ? back : 0);
+                long to = fixed(px + player.getWidth()) + (group.speed > 0 ? back : 0);
+                for (int i = lowerBound(group, from, now); i < group.size && group.fixedX(i, now) < to; i++) {
+                    int slot = group.entries[i];
+                    int oy = store.getY(slot);
+                    if (store.sweptLeftAt(slot, now) < px + player.getWidth() && store.sweptRightAt(slot, now) > px
+                            && py < oy + store.getHeight(slot) && oy < py + player.getHeight()
+                            && !store.isSubmerged(slot)) {
+                        return slot;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Vorausschau: erster Slot, der das Rechteck zum Takt 'tick' des
+    // ObstacleStore berührt, oder -1. Eine Gruppe fährt geschlossen, ist
+    // also auch zum Takt 'tick' nach X sortiert - gesucht wird wie in
+    // findIntersecting() nur im Fenster um das Rechteck. Hindernisse, die bis
+    // dahin neu erzeugt werden, kennt sie nicht; zum Takt abgetauchte zählen
+    // nicht.
+    public int findIntersectingAt(int x, int y, int width, int height, long tick) {
+        long now = store.getTick();
+        int firstLane = laneOf(y - maxHeight + 1);
+        int lastLane = laneOf(y + height - 1);
+        for (int lane = firstLane; lane <= lastLane; lane++) {
+            Group found = null;
+            int foundAt = -1;
+            Group[] list = groups[lane];
+            for (int g = 0; g < groupCounts[lane]; g++) {
+                Group group = list[g];
+                for (int i = lowerBound(group, fixed(x - maxWidths[lane] + 1), tick); i < group.size; i++) {
+                    int ox = group.x(i, tick);
+                    if (ox >= x + width) {
+                        break;
+                    }
+                    int slot = group.entries[i];
+                    int oy = store.getY(slot);
+                    if (x < ox + store.getWidth(slot)
+                            && y < oy + store.getHeight(slot) && oy < y + height
+                            && !store.isSubmergedAt(slot, tick)) {
+                        if (found == null || first(group, i, found, foundAt, now)) {
+                            found = group;
+                            foundAt = i;
+                        }
+                        break;
+                    }
+                }
+            }
+            if (found != null) {
+                return found.entries[foundAt];
+            }
+        }
+        return -1;
+    }
+
+    // True wenn Eintrag ia von Gruppe a in der Spur vor Eintrag ib von b steht
+    private boolean first(Group a, int ia, Group b, int ib, long now) {
+        long xa = a.fixedX(ia, now);
+        long xb = b.fixedX(ib, now);
+        return xa != xb ? xa < xb : before(a, ia, b, ib);
+    }
+
+    // Pixel in Subpixeln
+    private static long fixed(int x) {
+        return (long) x << ObstacleStore.SUBPIXEL_BITS;
+    }
+
+    // Erster Index der Gruppe mit X >= x (Subpixel) zum Takt 'tick' (binäre Suche)
+    private static int lowerBound(Group group, long x, long tick) {
+        int low = 0;
+        int high = group.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (group.fixedX(mid, tick) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,168 @@
+// Ringpuffer der Reihen der endlosen Welt. Gehalten werden nur die Reihen
+// um den sichtbaren Ausschnitt; neue Reihen werden blockweise (Chunks) oben
+// erzeugt und überschreiben die Plätze der unten herausgescrollten Reihen.
+// Alle Arrays werden einmal angelegt - Speicher und Aufwand pro Takt bleiben
+// gleich, egal wie weit der Spieler schon gelaufen ist.
+//
+// Hindernisse einer Reihe fahren alle gleich schnell und laufen am Rand über:
+// x liegt immer in [-WRAP_MARGIN, fieldWidth). Wie in ObstacleStore sind x
+// und Tempo Subpixel; der Generator gibt Tempi in Pixeln je Takt bei
+// GameConfig.DEFAULT_TICK_RATE an, umgerechnet auf die Taktrate des Rings.
+public class LaneRing {
+    public static final int MAX_PER_LANE = 8;   // Höchstens so viele Hindernisse pro Reihe
+
+    private static final int BITS = ObstacleStore.SUBPIXEL_BITS;
+
+    private final int capacity;        // Anzahl Reihen im Ring (Vielfaches von chunkRows)
+    private final int chunkRows;       // Reihen pro Chunk
+    private final int fieldWidth;      // Breite des Spielfelds
+    private final int wrapMargin;      // Unsichtbarer Bereich links (>= längstes Hindernis)
+    private final int tickRate;        // Spieltakte pro Sekunde
+
+    // Eine Reihe pro Ringplatz (Platz = Reihe modulo capacity)
+    private final LaneType[] types;
+    private final int[] speeds;        // Subpixel pro Takt, negativ = nach links
+    private final int[] counts;        // Hindernisse in der Reihe
+    private final int[] xs;            // [platz * MAX_PER_LANE + i], Subpixel
+    private final int[] widths;
+
+    private int baseRow;               // Älteste gehaltene Reihe
+    private int endRow;                // Erste noch nicht erzeugte Reihe
+
+    public LaneRing(int minRows, int chunkRows, int fieldWidth, int wrapMargin) {
+        this(minRows, chunkRows, fieldWidth, wrapMargin, GameConfig.DEFAULT_TICK_RATE);
+    }
+
+    public LaneRing(int minRows, int chunkRows, int fieldWidth, int wrapMargin, int tickRate) {
+        this.chunkRows = chunkRows;
+        this.capacity = (minRows + chunkRows - 1) / chunkRows * chunkRows;
+        this.fieldWidth = fieldWidth;
+        this.wrapMargin = wrapMargin;
+        this.tickRate = tickRate;
+        types = new LaneType[capacity];
+        speeds = new int[capacity];
+        counts = new int[capacity];
+        xs = new int[capacity * MAX_PER_LANE];
+        widths = new int[capacity * MAX_PER_LANE];
+    }
+
+    // Verwirft alle Reihen und erzeugt den Ring ab Reihe 0 neu
+    public void reset(LaneGenerator generator) {
+        baseRow = 0;
+        endRow = 0;
+        while (endRow < capacity) {
+            generateChunk(generator);
+        }
+    }
+
+    // Sorgt dafür, dass alle Reihen bis einschließlich lastRow existieren;
+    // dafür fallen unten ganze Chunks heraus
+    public void ensure(int lastRow, LaneGenerator generator) {
+        while (endRow <= lastRow) {
+            if (endRow - baseRow + chunkRows > capacity) {
+                baseRow += chunkRows;   // Unterster Chunk wird überschrieben
+            }
+            generateChunk(generator);
+        }
+    }
+
+    private void generateChunk(LaneGenerator generator) {
+        for (int i = 0; i < chunkRows; i++) {
+            int slot = slot(endRow);
+            counts[slot] = 0;
+            generator.generate(this, endRow);
+            endRow++;
+        }
+    }
+
+    // Legt Art und Geschwindigkeit einer Reihe fest (für den Generator;
+    // Pixel je Takt bei GameConfig.DEFAULT_TICK_RATE)
+    void setLane(int row, LaneType type, int speed) {
+        int slot = slot(row);
+        types[slot] = type;
+        speeds[slot] = Integer.signum(speed) * GameEngine.fixedSpeed(Math.abs(speed), tickRate);
+        counts[slot] = 0;
+    }
+
+    // Fügt einer Reihe ein Hindernis hinzu (für den Generator)
+    boolean addObstacle(int row, int x, int width) {
+        int slot = slot(row);
+        if (counts[slot] == MAX_PER_LANE) {
+            return false;
+        }
+        if (x >= fieldWidth) {
+            x -= fieldWidth + wrapMargin;   // In den Umlaufbereich bringen
+        }
+        int index = slot * MAX_PER_LANE + counts[slot]++;
+        xs[index] = x << BITS;
+        widths[index] = width;
+        return true;
+    }
+
+    // Bewegt die Hindernisse der Reihen fromRow bis toRow (einschließlich)
+    public void move(int fromRow, int toRow) {
+        int right = fieldWidth << BITS;
+        int left = -wrapMargin << BITS;
+        int span = right - left;
+        for (int row = Math.max(fromRow, baseRow); row <= toRow && row < endRow; row++) {
+            int slot = slot(row);
+            int speed = speeds[slot];
+            if (speed == 0) {
+                continue;
+            }
+            int start = slot * MAX_PER_LANE;
+            int end = start + counts[slot];
+            for (int i = start; i < end; i++) {
+                int x = xs[i] + speed;
+                if (x >= right) {
+                    x -= span;
+                } else if (x < left) {
+                    x += span;
+                }
+                xs[i] = x;
+            }
+        }
+    }
+
+    // Index des Hindernisses in 'row', das [x, x + width) überdeckt, sonst -1
+    public int findOverlap(int row, int x, int width) {
+        int slot = slot(row);
+        int start = slot * MAX_PER_LANE;
+        for (int i = 0; i < counts[slot]; i++) {
+            int ox = xs[start + i] >> BITS;
+            if (x < ox + widths[start + i] && ox < x + width) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Ganze Pixel, die Hindernis i im letzten Takt gefahren ist (trägt den
+    // Spieler; ein Überlauf am Rand zählt nicht mit)
+    public int stepX(int row, int i) {
+        int x = xs[slot(row) * MAX_PER_LANE + i];
+        return (x >> BITS) - (x - speeds[slot(row)] >> BITS);
+    }
+
+    private int slot(int row) {
+        return Math.floorMod(row, capacity);
+    }
+
+    // True wenn die Reihe im Ring gehalten wird
+    public boolean contains(int row) {
+        return row >= baseRow && row < endRow;
+    }
+
+    // Getter-Methoden (row muss im Ring liegen)
+    public LaneType getType(int row) { return types[slot(row)]; }
+    public int getFixedSpeed(int row) { return speeds[slot(row)]; }
+    public int getCount(int row) { return counts[slot(row)]; }
+    public int getX(int row, int i) { return xs[slot(row) * MAX_PER_LANE + i] >> BITS; }
+    public int getWidth(int row, int i) { return widths[slot(row) * MAX_PER_LANE + i]; }
+    public int getCapacity() { return capacity; }
+    public int getBaseRow() { return baseRow; }
+    public int getEndRow() { return endRow; }
+    public int getFieldWidth() { return fieldWidth; }
+    public int getWrapMargin() { return wrapMargin; }
+    public int getTickRate() { return tickRate; }
+}
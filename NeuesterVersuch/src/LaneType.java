@@ -0,0 +1,13 @@
+import java.util.Locale;
+
+// Art einer Reihe in der endlosen Welt bzw. einer Zone oder Spur der Karte
+public enum LaneType {
+    SAFE,   // Wiese - nichts bewegt sich
+    ROAD,   // Straße - Autos sind tödlich
+    RIVER;  // Fluss - nur auf Baumstämmen überlebt man
+
+    // Liest die Art aus einem Text (Groß-/Kleinschreibung egal)
+    public static LaneType parse(String value) {
+        return LaneType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
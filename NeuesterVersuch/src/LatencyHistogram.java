@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+// Histogramm für Laufzeiten in Nanosekunden mit festem Speicher: je
+// Zweierpotenz 16 Unterfächer, also höchstens etwa 6% Abweichung. Eintragen
+// kostet nur ein paar Bitoperationen und legt nichts an.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;          // 16 Unterfächer
+    private static final int MAX_SHIFT = 40;                     // bis ca. 2^44 ns (~5 h)
+    private static final int BUCKETS = (MAX_SHIFT + 2) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    // Trägt einen Messwert ein (negative Werte zählen als 0)
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    // Fach eines Werts: kleine Werte exakt, größere logarithmisch
+    private static int index(long value) {
+        if (value < 2 * SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = Math.min(63 - Long.numberOfLeadingZeros(value) - SUB_BITS, MAX_SHIFT);
+        int sub = (int) Math.min(value >>> shift, 2 * SUB_COUNT - 1);
+        return shift * SUB_COUNT + sub;
+    }
+
+    // Größter Wert, der noch in das Fach fällt
+    private static long upperBound(int index) {
+        if (index < 2 * SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        long sub = index % SUB_COUNT + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    // Wert beim Perzentil p (0..100), höchstens das Maximum
+    public long getPercentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    // Übernimmt alle Werte eines anderen Histogramms
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    // Getter-Methoden
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+    public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+}
@@ -0,0 +1,355 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Aufbau eines Spielfelds als Daten statt Konstanten: Zonen (Wiese, Fluss,
+// Straße), Spuren, in denen Hindernisse entstehen (Breite, Tempo und Anzahl
+// je Level), und die Punkte je Level. Geschrieben wird eine Karte als Text
+// (siehe MapCompiler), gespielt wird die übersetzte Binärform.
+//
+// Aufbau (Little Endian):
+//   int magic "FMAP", short version, short reserviert,
+//   int Anzahl Level, int Anzahl Zonen, int Anzahl Spuren,
+//   int Breite der Welt, int Höhe der Welt (ab Version 2; davor 800x600)
+//   je Level: int Punkte
+//   je Zone:  int Art, int oben, int unten
+//   je Spur:  int Art, int oben, int unten, short Breite min, short Breite max,
+//             short Tempo-Schritt, short Tauchzyklus (0 = taucht nicht),
+//             je Level: short neue Hindernisse, byte Tempo min, byte Tempo max
+//
+// Alle Spuren sind gleich groß, Spur i liegt also an fester Stelle. Dateien
+// werden eingeblendet (mmap) statt eingelesen: beim Öffnen werden nur Kopf,
+// Punkte und Zonen geprüft, eine Spur erst bei jedem Zugriff auf sie. Eine
+// Karte mit 100.000 Spuren öffnet so genauso schnell wie eine mit zwei.
+// Die Welt darf größer sein als das Fenster (mindestens so groß); gezeigt
+// wird dann der Ausschnitt einer Kamera.
+// Unveränderlich - mehrere Engines (auch in mehreren Threads) teilen sie.
+public final class LevelMap {
+    static final int MAGIC = 0x50414D46;   // Bytes "FMAP" (Little Endian)
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 28;
+    private static final int V1_HEADER_BYTES = 20;   // Ohne Weltgröße
+    static final int ZONE_BYTES = 12;
+    static final int LANE_BYTES = 20;      // Ohne die Einträge je Level
+    static final int SPAWN_BYTES = 4;
+
+    // Grenzen, damit Hindernisse auf das Feld passen und Tempi in ein byte
+    static final int MAX_LEVELS = 1000;
+    static final int MAX_WIDTH = GameEngine.PANEL_WIDTH / GameEngine.PLAYER_SIZE;
+    static final int MAX_SPEED = 100;
+    static final int MIN_DIVE_PERIOD = 4;      // Mindestens ein Takt unter Wasser
+    static final int MAX_WORLD = 1 << 20;      // Größte Breite bzw. Höhe der Welt
+    private static final LaneType[] LANE_TYPES = LaneType.values();   // values() kopiert bei jedem Aufruf
+
+    // Das ursprüngliche Spielfeld (gleicher Ablauf wie vor den Karten)
+    private static final String CLASSIC_SOURCE = String.join("\n",
+            "frogger-map 1",
+            "# Punkte für das Ziel, je Level",
+            "points 10 20 30 40 50",
+            "",
+            "# Zonen von oben nach unten: Art, oberer und unterer Rand",
+            "zone safe    0  40   # Ziel",
+            "zone river  40 200",
+            "zone safe  200 250   # Mittelstreifen",
+            "zone road  250 540",
+            "zone safe  540 600   # Start",
+            "",
+            "# Spuren: Art, Bereich der Y-Position, Breite in Spielergrößen,",
+            "# Tempo-Schritt, dann je Level neue Hindernisse:Tempo in Schritten",
+            "lane road  250 540 2-4 2   8:1-3 2:2-4 3:3-5 4:4-6 5:5-7",
+            "lane river   0 200 5-6 2   8:1-2 2:2-3 3:3-4 4:4-5 5:5-6",
+            "");
+
+    private final ByteBuffer data;
+    private final int worldWidth;
+    private final int worldHeight;
+    private final int levelCount;
+    private final int zoneCount;
+    private final int laneCount;
+    private final int pointsOffset;
+    private final int zonesOffset;
+    private final int lanesOffset;
+    private final int laneStride;          // Bytes je Spur samt Einträgen je Level
+    private final LaneType[] zoneAt;
+    private volatile long fingerprint = -1;   // CRC32 der Binärform, -1 = noch nicht berechnet
+
+    // Wird erst beim ersten classic() übersetzt
+    private static final class Holder {
+        static final LevelMap CLASSIC = compileClassic();
+    }
+
+    public static LevelMap classic() {
+        return Holder.CLASSIC;
+    }
+
+    private static LevelMap compileClassic() {
+        try {
+            return wrap(MapCompiler.compile(new BufferedReader(new StringReader(CLASSIC_SOURCE))));
+        } catch (IOException e) {
+            throw new IllegalStateException("Eingebaute Karte ist fehlerhaft", e);
+        }
+    }
+
+    // Karte aus frogger.map (Pfad) oder das klassische Feld bei null
+    public static LevelMap loadOrClassic(String path) {
+        if (path == null) {
+            return classic();
+        }
+        try {
+            return load(Paths.get(path));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Karte " + path + " nicht lesbar: " + e.getMessage(), e);
+        }
+    }
+
+    // Lädt eine Karte: Binärform wird eingeblendet, Text übersetzt
+    public static LevelMap load(Path file) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Lesen bis vier Bytes da sind oder die Datei endet
+            }
+        }
+        if (!magic.hasRemaining() && magic.getInt(0) == MAGIC) {
+            return open(file);
+        }
+        try (BufferedReader in = Files.newBufferedReader(file)) {
+            return wrap(MapCompiler.compile(in));
+        }
+    }
+
+    // Blendet eine übersetzte Karte ein (mmap); der Inhalt wird erst beim
+    // Zugriff gelesen
+    public static LevelMap open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return wrap(mapped);
+        }
+    }
+
+    // Karte aus einem Puffer (Position 0 bis Ende); prüft Kopf und Zonen
+    public static LevelMap wrap(ByteBuffer data) throws IOException {
+        return new LevelMap(data.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    private LevelMap(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.capacity() < V1_HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Keine Frogger-Karte");
+        }
+        int version = data.getShort(4);
+        if (version != 1 && version != VERSION) {
+            throw new IOException("Unbekannte Version: " + version);
+        }
+        int headerBytes = version == 1 ? V1_HEADER_BYTES : HEADER_BYTES;
+        if (data.capacity() < headerBytes) {
+            throw new IOException("Karte ist abgeschnitten");
+        }
+        levelCount = data.getInt(8);
+        zoneCount = data.getInt(12);
+        laneCount = data.getInt(16);
+        worldWidth = version == 1 ? GameEngine.PANEL_WIDTH : data.getInt(20);
+        worldHeight = version == 1 ? GameEngine.PANEL_HEIGHT : data.getInt(24);
+        String error = checkWorld(worldWidth, worldHeight);
+        if (error != null) {
+            throw new IOException(error);
+        }
+        if (levelCount < 1 || levelCount > MAX_LEVELS) {
+            throw new IOException("Ungültige Anzahl Level: " + levelCount);
+        }
+        if (zoneCount < 1 || zoneCount > worldHeight) {
+            throw new IOException("Ungültige Anzahl Zonen: " + zoneCount);
+        }
+        if (laneCount < 0) {
+            throw new IOException("Ungültige Anzahl Spuren: " + laneCount);
+        }
+        pointsOffset = headerBytes;
+        zonesOffset = pointsOffset + 4 * levelCount;
+        lanesOffset = zonesOffset + ZONE_BYTES * zoneCount;
+        laneStride = LANE_BYTES + SPAWN_BYTES * levelCount;
+        long size = lanesOffset + (long) laneStride * laneCount;
+        if (size != data.capacity()) {
+            throw new IOException(size > data.capacity() ? "Karte ist abgeschnitten"
+                    : "Länge der Karte stimmt nicht");
+        }
+
+        zoneAt = new LaneType[worldHeight];
+        for (int level = 1; level <= levelCount; level++) {
+            if (getPoints(level) < 0) {
+                throw new IOException("Negative Punkte in Level " + level);
+            }
+        }
+        checkZones();
+    }
+
+    // Zonen müssen das Feld lückenlos von oben nach unten teilen; Ziel
+    // (oben) und Start (unten) sind Wiesen
+    private void checkZones() throws IOException {
+        int expectedTop = 0;
+        for (int i = 0; i < zoneCount; i++) {
+            int type = data.getInt(zonesOffset + ZONE_BYTES * i);
+            int top = getZoneTop(i);
+            int bottom = getZoneBottom(i);
+            if (type < 0 || type >= LANE_TYPES.length) {
+                throw new IOException("Zone " + i + ": unbekannte Art " + type);
+            }
+            if (top != expectedTop || bottom <= top || bottom > worldHeight) {
+                throw new IOException("Zone " + i + ": Zonen müssen lückenlos von 0 bis "
+                        + worldHeight + " reichen");
+            }
+            for (int y = top; y < bottom; y++) {
+                zoneAt[y] = LANE_TYPES[type];
+            }
+            expectedTop = bottom;
+        }
+        if (expectedTop != worldHeight) {
+            throw new IOException("Zonen reichen nur bis " + expectedTop);
+        }
+        if (getZoneType(0) != LaneType.SAFE || getZoneType(zoneCount - 1) != LaneType.SAFE) {
+            throw new IOException("Ziel und Start müssen sichere Zonen sein");
+        }
+        if (getStartY() < getGoalY()) {
+            throw new IOException("Startzone ist zu hoch für den Spieler");
+        }
+    }
+
+    // Prüft die ganze Karte, auch alle Spuren (z.B. nach dem Übersetzen)
+    public void validate() throws IOException {
+        try {
+            for (int lane = 0; lane < laneCount; lane++) {
+                for (int level = 1; level <= levelCount; level++) {
+                    spawn(level, lane);
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    // Fehler der Weltgröße oder null (auch vom MapCompiler genutzt)
+    static String checkWorld(int width, int height) {
+        if (width < GameEngine.PANEL_WIDTH || height < GameEngine.PANEL_HEIGHT
+                || width > MAX_WORLD || height > MAX_WORLD) {
+            return "Welt " + width + "x" + height + " muss zwischen " + GameEngine.PANEL_WIDTH + "x"
+                    + GameEngine.PANEL_HEIGHT + " und " + MAX_WORLD + "x" + MAX_WORLD + " liegen";
+        }
+        return null;
+    }
+
+    // Fehler einer Spur oder null (auch vom MapCompiler genutzt)
+    static String checkLane(int worldHeight, int type, int top, int bottom, int minWidth, int maxWidth,
+                            int speedStep, int divePeriod) {
+        if (type != LaneType.ROAD.ordinal() && type != LaneType.RIVER.ordinal()) {
+            return "Spuren gibt es nur auf Straße und Fluss";
+        }
+        if (top < 0 || bottom > worldHeight || bottom - top < GameEngine.OBSTACLE_HEIGHT) {
+            return "Bereich " + top + "-" + bottom + " passt nicht ins Feld oder ist zu schmal";
+        }
+        if (minWidth < 1 || minWidth > maxWidth || maxWidth > MAX_WIDTH) {
+            return "Ungültige Breite " + minWidth + "-" + maxWidth;
+        }
+        if (speedStep < 1 || speedStep > MAX_SPEED) {
+            return "Ungültiger Tempo-Schritt " + speedStep;
+        }
+        if (divePeriod != 0 && (type != LaneType.RIVER.ordinal() || divePeriod < MIN_DIVE_PERIOD)) {
+            return "Tauchen nur im Fluss und mit mindestens " + MIN_DIVE_PERIOD + " Takten";
+        }
+        return null;
+    }
+
+    // Fehler eines Eintrags je Level oder null
+    static String checkSpawn(int count, int minSpeed, int maxSpeed, int speedStep) {
+        if (count < 0) {
+            return "Negative Anzahl " + count;
+        }
+        if (minSpeed < 1 || minSpeed > maxSpeed || maxSpeed * speedStep > MAX_SPEED) {
+            return "Ungültiges Tempo " + minSpeed + "-" + maxSpeed;
+        }
+        return null;
+    }
+
+    // Anfang von Spur 'lane' - geprüft bei jedem Zugriff
+    private int lane(int lane) {
+        if (lane < 0 || lane >= laneCount) {
+            throw new IndexOutOfBoundsException("Spur " + lane + " von " + laneCount);
+        }
+        int offset = lanesOffset + laneStride * lane;
+        String error = checkLane(worldHeight, data.getInt(offset), data.getInt(offset + 4), data.getInt(offset + 8),
+                data.getShort(offset + 12), data.getShort(offset + 14), data.getShort(offset + 16),
+                data.getShort(offset + 18));
+        if (error != null) {
+            throw new IllegalStateException("Karte fehlerhaft, Spur " + lane + ": " + error);
+        }
+        return offset;
+    }
+
+    // Eintrag für Level 'level' in Spur 'lane'
+    private int spawn(int level, int lane) {
+        int offset = lane(lane);
+        if (level < 1 || level > levelCount) {
+            throw new IndexOutOfBoundsException("Level " + level + " von " + levelCount);
+        }
+        int entry = offset + LANE_BYTES + SPAWN_BYTES * (level - 1);
+        String error = checkSpawn(data.getShort(entry), data.get(entry + 2), data.get(entry + 3),
+                data.getShort(offset + 16));
+        if (error != null) {
+            throw new IllegalStateException("Karte fehlerhaft, Spur " + lane + ", Level " + level + ": " + error);
+        }
+        return entry;
+    }
+
+    // Art der Zone an Höhe y (außerhalb des Felds: sicher)
+    public LaneType zoneAt(int y) {
+        return y < 0 || y >= zoneAt.length ? LaneType.SAFE : zoneAt[y];
+    }
+
+    // Unterkante der Zielzone: wer darüber ist, hat das Level geschafft
+    public int getGoalY() { return getZoneBottom(0); }
+
+    // Y-Position des Spielers beim Start (direkt über der Startzone)
+    public int getStartY() { return getZoneTop(zoneCount - 1) - GameEngine.PLAYER_SIZE; }
+
+    // CRC32 der ganzen Binärform - gleiche Karte, gleicher Wert (Spielstände
+    // merken sich so, zu welcher Karte sie gehören). Beim ersten Aufruf
+    // einmal über alle Spuren berechnet.
+    public int getFingerprint() {
+        long value = fingerprint;
+        if (value < 0) {
+            CRC32 crc = new CRC32();
+            crc.update(data.duplicate().clear());
+            value = crc.getValue();
+            fingerprint = value;
+        }
+        return (int) value;
+    }
+
+    // Getter-Methoden (Level ab 1, Breiten in Spielergrößen, Tempi in Schritten)
+    public int getWidth() { return worldWidth; }
+    public int getHeight() { return worldHeight; }
+    public int getLevelCount() { return levelCount; }
+    public int getPoints(int level) { return data.getInt(pointsOffset + 4 * (level - 1)); }
+    public int getZoneCount() { return zoneCount; }
+    public LaneType getZoneType(int zone) { return zoneAt[getZoneTop(zone)]; }
+    public int getZoneTop(int zone) { return data.getInt(zonesOffset + ZONE_BYTES * zone + 4); }
+    public int getZoneBottom(int zone) { return data.getInt(zonesOffset + ZONE_BYTES * zone + 8); }
+    public int getLaneCount() { return laneCount; }
+    public LaneType getLaneType(int lane) { return LANE_TYPES[data.getInt(lane(lane))]; }
+    public int getLaneTop(int lane) { return data.getInt(lane(lane) + 4); }
+    public int getLaneBottom(int lane) { return data.getInt(lane(lane) + 8); }
+    public int getMinWidth(int lane) { return data.getShort(lane(lane) + 12); }
+    public int getMaxWidth(int lane) { return data.getShort(lane(lane) + 14); }
+    public int getSpeedStep(int lane) { return data.getShort(lane(lane) + 16); }
+    public int getDivePeriod(int lane) { return data.getShort(lane(lane) + 18); }
+    public int getSpawnCount(int level, int lane) { return data.getShort(spawn(level, lane)); }
+    public int getMinSpeed(int level, int lane) { return data.get(spawn(level, lane) + 2); }
+    public int getMaxSpeed(int level, int lane) { return data.get(spawn(level, lane) + 3); }
+}
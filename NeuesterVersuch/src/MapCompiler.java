@@ -0,0 +1,280 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Locale;
+
+// Übersetzt eine Karte aus Textform in die Binärform von LevelMap. Gelesen
+// wird Zeile für Zeile und jede Spur sofort geschrieben - auch eine Karte mit
+// 100.000 Spuren liegt dabei nie ganz im Speicher.
+//
+// Textform (# bis Zeilenende ist Kommentar):
+//   frogger-map 2                                      (1 geht auch)
+//   points <Punkte Level 1> <Punkte Level 2> ...      (legt die Anzahl Level fest)
+//   world <Breite> <Höhe>                              (optional, sonst 800 600)
+//   zone <safe|road|river> <oben> <unten>              (von oben nach unten, lückenlos)
+//   lane <road|river> <oben> <unten> <Breite min>-<max> <Tempo-Schritt> <Anzahl>:<Tempo min>-<max> ... [dive <Takte>]
+// Eine Spur hat je Level einen Eintrag: so viele Hindernisse kommen beim
+// Start des Levels dazu (verteilt auf die Reihen der Spur, höchstens so
+// viele, wie mit Abstand hineinpassen - siehe SpawnScheduler), mit Tempo
+// (Zufall zwischen min und max) mal Schritt.
+// Mit "dive" sind es im Fluss Schildkröten, die alle <Takte> eine Weile
+// abtauchen.
+//
+// Aufruf: java MapCompiler <karte.txt> <karte.fmap>   (übersetzen)
+//         java MapCompiler <karte.fmap>               (prüfen und beschreiben)
+public final class MapCompiler {
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private MapCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length > 2) {
+            System.err.println("Aufruf: java MapCompiler <karte.txt> [karte.fmap]");
+            System.exit(2);
+        }
+        Path target = Paths.get(args[args.length - 1]);
+        long start = System.nanoTime();
+        if (args.length == 2) {
+            try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]))) {
+                compile(in, target);
+            }
+        }
+        LevelMap map = LevelMap.load(target);
+        map.validate();
+        System.out.printf(Locale.ROOT, "%s: %d Level, %d Zonen, %d Spuren, %d Bytes, %.1f ms%n",
+                target, map.getLevelCount(), map.getZoneCount(), map.getLaneCount(),
+                Files.size(target), (System.nanoTime() - start) / 1e6);
+    }
+
+    // Übersetzt in den Speicher (kleine Karten, die eingebaute)
+    public static ByteBuffer compile(BufferedReader in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ByteBuffer header = compile(in, Channels.newChannel(bytes));
+        ByteBuffer result = ByteBuffer.wrap(bytes.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        result.put(header);
+        return result.clear();
+    }
+
+    // Übersetzt direkt in eine Datei
+    public static void compile(BufferedReader in, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = compile(in, channel);
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        }
+    }
+
+    // Schreibt einen leeren Kopf und dann alle Tabellen; liefert den
+    // fertigen Kopf, den der Aufrufer an den Anfang setzt (Anzahl Spuren
+    // steht erst am Ende fest)
+    private static ByteBuffer compile(BufferedReader in, WritableByteChannel out) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        chunk.put(new byte[LevelMap.HEADER_BYTES]);
+
+        int[] points = null;
+        ArrayList<int[]> zones = new ArrayList<>();
+        int worldWidth = GameEngine.PANEL_WIDTH;
+        int worldHeight = GameEngine.PANEL_HEIGHT;
+        boolean worldSeen = false;
+        boolean versionSeen = false;
+        boolean tablesWritten = false;
+        int laneCount = 0;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            String where = "Zeile " + lineNumber + ": ";
+            try {
+                if (!versionSeen) {
+                    if (!words[0].equals("frogger-map") || words.length != 2
+                            || Integer.parseInt(words[1]) < 1 || Integer.parseInt(words[1]) > LevelMap.VERSION) {
+                        throw new IOException(where + "erwartet 'frogger-map " + LevelMap.VERSION + "'");
+                    }
+                    versionSeen = true;
+                    continue;
+                }
+                switch (words[0]) {
+                    case "points":
+                        if (points != null || !zones.isEmpty()) {
+                            throw new IOException(where + "'points' nur einmal und vor den Zonen");
+                        }
+                        if (words.length < 2 || words.length > LevelMap.MAX_LEVELS + 1) {
+                            throw new IOException(where + "1 bis " + LevelMap.MAX_LEVELS + " Level erwartet");
+                        }
+                        points = new int[words.length - 1];
+                        for (int i = 0; i < points.length; i++) {
+                            points[i] = Integer.parseInt(words[i + 1]);
+                        }
+                        break;
+                    case "world":
+                        if (points == null || worldSeen || !zones.isEmpty()) {
+                            throw new IOException(where + "'world' nur einmal, nach 'points' und vor den Zonen");
+                        }
+                        if (words.length != 3) {
+                            throw new IOException(where + "erwartet 'world <breite> <höhe>'");
+                        }
+                        worldWidth = Integer.parseInt(words[1]);
+                        worldHeight = Integer.parseInt(words[2]);
+                        String error = LevelMap.checkWorld(worldWidth, worldHeight);
+                        if (error != null) {
+                            throw new IOException(where + error);
+                        }
+                        worldSeen = true;
+                        break;
+                    case "zone":
+                        if (points == null || tablesWritten) {
+                            throw new IOException(where + "Zonen nach 'points' und vor den Spuren");
+                        }
+                        if (words.length != 4) {
+                            throw new IOException(where + "erwartet 'zone <art> <oben> <unten>'");
+                        }
+                        zones.add(new int[] { LaneType.parse(words[1]).ordinal(),
+                                Integer.parseInt(words[2]), Integer.parseInt(words[3]) });
+                        break;
+                    case "lane":
+                        if (points == null) {
+                            throw new IOException(where + "'points' fehlt vor den Spuren");
+                        }
+                        if (!tablesWritten) {
+                            chunk = writeTables(out, chunk, points, zones);
+                            tablesWritten = true;
+                        }
+                        if (words.length != 6 + points.length && (words.length != 8 + points.length
+                                || !words[6 + points.length].equals("dive"))) {
+                            throw new IOException(where + "Spur braucht " + points.length
+                                    + " Einträge je Level (danach optional 'dive <takte>')");
+                        }
+                        chunk = ensure(out, chunk, LevelMap.LANE_BYTES + LevelMap.SPAWN_BYTES * points.length);
+                        writeLane(chunk, words, points.length, worldHeight, where);
+                        laneCount++;
+                        break;
+                    default:
+                        throw new IOException(where + "unbekannt: " + words[0]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException(where + "keine Zahl: " + e.getMessage(), e);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(where + e.getMessage(), e);
+            }
+        }
+        if (points == null) {
+            throw new IOException("'points' fehlt");
+        }
+        if (!tablesWritten) {
+            chunk = writeTables(out, chunk, points, zones);
+        }
+        flush(out, chunk);
+
+        ByteBuffer header = ByteBuffer.allocate(LevelMap.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LevelMap.MAGIC);
+        header.putShort(LevelMap.VERSION);
+        header.putShort((short) 0);
+        header.putInt(points.length);
+        header.putInt(zones.size());
+        header.putInt(laneCount);
+        header.putInt(worldWidth);
+        header.putInt(worldHeight);
+        return header.flip();
+    }
+
+    private static ByteBuffer writeTables(WritableByteChannel out, ByteBuffer chunk,
+                                          int[] points, ArrayList<int[]> zones) throws IOException {
+        chunk = ensure(out, chunk, 4 * points.length + LevelMap.ZONE_BYTES * zones.size());
+        for (int value : points) {
+            chunk.putInt(value);
+        }
+        for (int[] zone : zones) {
+            chunk.putInt(zone[0]).putInt(zone[1]).putInt(zone[2]);
+        }
+        return chunk;
+    }
+
+    // lane <art> <oben> <unten> <min>-<max> <schritt> <anzahl>:<min>-<max> ... [dive <takte>]
+    private static void writeLane(ByteBuffer chunk, String[] words, int levels, int worldHeight, String where)
+            throws IOException {
+        int type = LaneType.parse(words[1]).ordinal();
+        int top = Integer.parseInt(words[2]);
+        int bottom = Integer.parseInt(words[3]);
+        int[] width = range(words[4]);
+        int step = Integer.parseInt(words[5]);
+        int dive = words.length > 6 + levels ? Integer.parseInt(words[7 + levels]) : 0;
+        String error = dive > Short.MAX_VALUE ? "Tauchzyklus zu lang: " + dive
+                : LevelMap.checkLane(worldHeight, type, top, bottom, width[0], width[1], step, dive);
+        if (error != null) {
+            throw new IOException(where + error);
+        }
+        chunk.putInt(type).putInt(top).putInt(bottom);
+        chunk.putShort((short) width[0]).putShort((short) width[1]);
+        chunk.putShort((short) step).putShort((short) dive);
+
+        for (int level = 0; level < levels; level++) {
+            String entry = words[6 + level];
+            int colon = entry.indexOf(':');
+            if (colon < 0) {
+                throw new IOException(where + "erwartet <anzahl>:<min>-<max> statt " + entry);
+            }
+            int count = Integer.parseInt(entry.substring(0, colon));
+            int[] speed = range(entry.substring(colon + 1));
+            error = count > Short.MAX_VALUE ? "Zu viele Hindernisse: " + count
+                    : LevelMap.checkSpawn(count, speed[0], speed[1], step);
+            if (error != null) {
+                throw new IOException(where + "Level " + (level + 1) + ": " + error);
+            }
+            chunk.putShort((short) count).put((byte) speed[0]).put((byte) speed[1]);
+        }
+    }
+
+    // "a-b" oder "a" (dann a-a)
+    private static int[] range(String text) {
+        int dash = text.indexOf('-', 1);
+        if (dash < 0) {
+            int value = Integer.parseInt(text);
+            return new int[] { value, value };
+        }
+        return new int[] { Integer.parseInt(text.substring(0, dash)), Integer.parseInt(text.substring(dash + 1)) };
+    }
+
+    // Sorgt für Platz im Puffer (voller Puffer geht in die Ausgabe)
+    private static ByteBuffer ensure(WritableByteChannel out, ByteBuffer chunk, int bytes) throws IOException {
+        if (chunk.remaining() >= bytes) {
+            return chunk;
+        }
+        flush(out, chunk);
+        if (chunk.capacity() < bytes) {
+            return ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return chunk;
+    }
+
+    private static void flush(WritableByteChannel out, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        chunk.clear();
+    }
+}
@@ -0,0 +1,103 @@
+import java.nio.ByteBuffer;
+
+// Netzwerkprotokoll zwischen GameServer und Clients (TCP, little endian).
+//
+// Client -> Server: je Eingabe ein Byte (Input.ordinal()).
+//
+// Server -> Client: Nachrichten [int Länge][byte Typ][Inhalt], Länge ohne
+// das Längenfeld selbst.
+//   WELCOME  int eigeneId, int Taktrate, long Takt, Autos, Baumstämme,
+//            alle Spieler
+//   DELTA    long Takt, byte Flags, [long Prüfsumme], neue Hindernisse,
+//            geänderte Spieler, gegangene Spieler
+//
+// Hindernisse bewegen sich nur um ihr Tempo (x += speed, beides in
+// Subpixeln wie in ObstacleStore; das Tempo hängt von der Taktrate des
+// Servers ab, die WELCOME deshalb mitteilt). Ein Client bewegt sie selbst und bekommt je Takt nur neu erzeugte Hindernisse
+// und Spieler, die sich bewegt haben. Alle HASH_INTERVAL Takte enthält das
+// Delta eine Prüfsumme der Welt, mit der ein Client seinen Stand prüft.
+public final class NetProtocol {
+    public static final int DEFAULT_PORT = 4711;
+
+    public static final byte MSG_WELCOME = 1;
+    public static final byte MSG_DELTA = 2;
+
+    public static final int FLAG_HASH = 1;     // Delta enthält eine Prüfsumme
+    public static final int HASH_INTERVAL = 20;
+
+    public static final int HEADER_BYTES = 5;  // Länge + Typ
+    public static final int OBSTACLE_BYTES = 12; // x (int), y, Breite (short), Tempo (int)
+    public static final int SPAWN_BYTES = 3 + OBSTACLE_BYTES; // Speicher (byte), Slot (short)
+    public static final int PLAYER_BYTES = 10;   // Id, x, y (short), Punkte (int)
+
+    public static final byte STORE_CARS = 0;
+    public static final byte STORE_LOGS = 1;
+
+    private NetProtocol() {}
+
+    // Beginnt eine Nachricht; die Länge trägt end() nach
+    public static int begin(ByteBuffer out, byte type) {
+        int start = out.position();
+        out.putInt(0);
+        out.put(type);
+        return start;
+    }
+
+    public static void end(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    // Hindernis ohne Höhe (immer GameEngine.OBSTACLE_HEIGHT), x und Tempo
+    // in Subpixeln
+    public static void putObstacle(ByteBuffer out, ObstacleStore store, int slot) {
+        out.putInt(store.getFixedX(slot));
+        out.putShort((short) store.getY(slot));
+        out.putShort((short) store.getWidth(slot));
+        out.putInt(store.getFixedSpeed(slot));
+    }
+
+    // Liest ein Hindernis in 'slot' (== size(): neu anhängen)
+    public static void getObstacle(ByteBuffer in, ObstacleStore store, int slot) {
+        int x = in.getInt();
+        int y = in.getShort();
+        int width = in.getShort();
+        int speed = in.getInt();
+        if (slot == store.size()) {
+            store.addFixed(x, y, width, GameEngine.OBSTACLE_HEIGHT, speed);
+        } else {
+            store.setFixed(slot, x, y, width, GameEngine.OBSTACLE_HEIGHT, speed);
+        }
+    }
+
+    // Prüfsumme über Hindernisse und Spieler (Server und Client rechnen gleich)
+    public static long hash(ObstacleStore cars, ObstacleStore logs,
+                            boolean[] active, int[] playerX, int[] playerY, int players) {
+        long h = 0x9E3779B97F4A7C15L;
+        h = hash(h, cars);
+        h = hash(h, logs);
+        for (int id = 0; id < players; id++) {
+            if (active[id]) {
+                h = mix(h, id);
+                h = mix(h, playerX[id]);
+                h = mix(h, playerY[id]);
+            }
+        }
+        return h;
+    }
+
+    private static long hash(long h, ObstacleStore store) {
+        h = mix(h, store.size());
+        for (int i = 0; i < store.size(); i++) {
+            h = mix(h, store.getFixedX(i));
+            h = mix(h, store.getY(i));
+            h = mix(h, store.getWidth(i));
+            h = mix(h, store.getFixedSpeed(i));
+        }
+        return h;
+    }
+
+    private static long mix(long h, int value) {
+        h = (h ^ value) * 0x100000001B3L;
+        return h ^ (h >>> 29);
+    }
+}
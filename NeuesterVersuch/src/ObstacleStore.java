@@ -0,0 +1,365 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Speicher für Hindernisse als parallele int-Arrays (ein Eintrag = ein Slot).
+// Entfernen tauscht den letzten Slot an die freie Stelle (swap-remove), damit
+// die Daten lückenlos bleiben; freigewordene Slots werden beim nächsten add()
+// wiederverwendet. Im eingeschwungenen Zustand wird nichts mehr alloziert.
+//
+// Hindernisse fahren gleichförmig. Gespeichert wird deshalb nicht die
+// aktuelle X-Position, sondern Start-X und Starttakt; die Position zu jedem
+// Takt t ist originX + speed * (t - spawnTick). moveAll() erhöht nur die Uhr
+// des Speichers, und Fragen wie "wo ist Slot 3 in 20 Takten?" kosten O(1).
+// Start-X und Tempo sind Festkommazahlen in Subpixeln (1/SUBPIXELS Pixel),
+// damit das Tempo je Takt auch bei anderen Taktraten exakt bleibt; getX()
+// und xAt() runden auf ganze Pixel ab. Bei ganzzahligem Tempo ergibt das
+// genau das Gleiche wie wiederholtes x += speed.
+//
+// Zwischen zwei Takten fährt ein Hindernis eine Strecke, nicht von Punkt zu
+// Punkt: sweptLeftAt()/sweptRightAt() liefern den Bereich, den es im Takt
+// überstrichen hat. Prüft die Kollision diesen Bereich, kann kein schnelles
+// Hindernis mehr durch den Spieler hindurchspringen - bei jeder Taktrate.
+// Ist die Feldbreite bekannt, steht auch der Takt fest, zu dem ein Slot das
+// Feld verlässt; hasLeft() ist dann ein Vergleich statt einer
+// Positionsrechnung.
+//
+// Ein Speicher ist ein Archetyp: alle Hindernisse darin haben dieselben
+// Komponenten. Position, Tempo und Maße hat jedes; dazu kommen Merkmale aus
+// der Maske (tödlich, trägt den Spieler, taucht). Nur ein tauchender
+// Archetyp hat die Arrays für den Tauchzyklus. Die Systeme der Engine
+// (Bewegen, Kollision, Tragen) und der Renderer laufen Archetyp für
+// Archetyp linear über diese Arrays.
+public class ObstacleStore {
+    // Komponenten (Bitmaske des Archetyps)
+    public static final int LETHAL = 1;      // Berührung ist tödlich (Autos)
+    public static final int RIDEABLE = 2;    // Trägt den Spieler (Baumstämme, Schildkröten)
+    public static final int DIVING = 4;      // Taucht zeitweise ab und trägt dann nicht
+
+    public static final int SUBPIXEL_BITS = 8;
+    public static final int SUBPIXELS = 1 << SUBPIXEL_BITS;   // Subpixel je Pixel
+
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int SUBMERGED_SHARE = 4;   // Ein Viertel des Zyklus unter Wasser
+
+    private final int components;
+    private final int fieldWidth;   // Für exitTick (0 = unbekannt)
+
+    private int[] originX = new int[INITIAL_CAPACITY];  // X zum Starttakt (Subpixel)
+    private long[] spawnTick = new long[INITIAL_CAPACITY];
+    private long[] exitTick = new long[INITIAL_CAPACITY];   // Ab hier isOffScreen(fieldWidth)
+    private int[] positions = new int[INITIAL_CAPACITY]; // Zwischenwerte für writeTo()/readFrom()
+    private int[] y = new int[INITIAL_CAPACITY];
+    private int[] width = new int[INITIAL_CAPACITY];
+    private int[] height = new int[INITIAL_CAPACITY];
+    private int[] speed = new int[INITIAL_CAPACITY];     // Subpixel je Takt
+    private int[] divePeriod;   // Takte je Tauchzyklus (nur DIVING)
+    private int[] diveOffset;   // Stelle im Zyklus zum Takt 0 der Uhr (nur DIVING)
+    private int size;   // Anzahl belegter Slots (0 bis size-1)
+    private long tick;  // Uhr des Speichers (Anzahl Bewegungsschritte)
+
+    // Archetyp ohne besondere Komponenten
+    public ObstacleStore() {
+        this(0, 0);
+    }
+
+    // Archetyp auf einem Feld der Breite fieldWidth (für hasLeft())
+    public ObstacleStore(int components, int fieldWidth) {
+        this.components = components;
+        this.fieldWidth = fieldWidth;
+        if (has(DIVING)) {
+            divePeriod = new int[INITIAL_CAPACITY];
+            diveOffset = new int[INITIAL_CAPACITY];
+        }
+    }
+
+    // True wenn der Archetyp alle angegebenen Komponenten hat
+    public boolean has(int component) {
+        return (components & component) == component;
+    }
+
+    // Hängt ein Hindernis an und liefert seinen Slot (x in Pixeln, Tempo
+    // in Pixeln je Takt)
+    public int add(int x, int y, int width, int height, int speed) {
+        return addFixed(x << SUBPIXEL_BITS, y, width, height, speed << SUBPIXEL_BITS);
+    }
+
+    // Wie add(), x und Tempo in Subpixeln
+    public int addFixed(int x, int y, int width, int height, int speed) {
+        if (size == originX.length) {
+            grow();
+        }
+        int slot = size++;
+        setFixed(slot, x, y, width, height, speed);
+        return slot;
+    }
+
+    // Belegt einen vorhandenen Slot neu (Recycling ohne Allokation);
+    // x ist die Position zum aktuellen Takt
+    public void set(int slot, int x, int y, int width, int height, int speed) {
+        setFixed(slot, x << SUBPIXEL_BITS, y, width, height, speed << SUBPIXEL_BITS);
+    }
+
+    // Wie set(), x und Tempo in Subpixeln
+    public void setFixed(int slot, int x, int y, int width, int height, int speed) {
+        originX[slot] = x;
+        spawnTick[slot] = tick;
+        this.y[slot] = y;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        this.speed[slot] = speed;
+        exitTick[slot] = exitTick(slot);
+        if (divePeriod != null) {
+            divePeriod[slot] = 0;
+        }
+    }
+
+    private long exitTick(int slot) {
+        long ticks = fieldWidth == 0 ? Long.MAX_VALUE : ticksUntilOffScreen(slot, fieldWidth);
+        return ticks == Long.MAX_VALUE ? Long.MAX_VALUE : tick + ticks;
+    }
+
+    // True wenn der Slot das Feld verlassen hat
+    public boolean hasLeft(int slot) {
+        return exitTick[slot] <= tick;
+    }
+
+    // Tauchzyklus eines Slots (nur DIVING): 'period' Takte, davon das letzte
+    // Viertel unter Wasser; 'phase' ist die Stelle im Zyklus zum aktuellen Takt
+    public void setDive(int slot, int period, int phase) {
+        divePeriod[slot] = period;
+        diveOffset[slot] = period == 0 ? 0 : Math.floorMod(phase - tick, period);
+    }
+
+    // Stelle im Tauchzyklus zum aktuellen Takt (0 ohne Zyklus)
+    public int getDivePhase(int slot) {
+        int period = divePeriod == null ? 0 : divePeriod[slot];
+        return period == 0 ? 0 : Math.floorMod(tick + diveOffset[slot], period);
+    }
+
+    // True wenn der Slot zum Takt t abgetaucht ist
+    public boolean isSubmergedAt(int slot, long t) {
+        if (divePeriod == null || divePeriod[slot] == 0) {
+            return false;
+        }
+        int period = divePeriod[slot];
+        return Math.floorMod(t + diveOffset[slot], period) >= period - period / SUBMERGED_SHARE;
+    }
+
+    // Entfernt einen Slot: der letzte Slot rückt an seine Stelle.
+    // Liefert den alten Index des verschobenen Slots (oder slot selbst,
+    // wenn der letzte entfernt wurde)
+    public int remove(int slot) {
+        int last = --size;
+        if (slot != last) {
+            originX[slot] = originX[last];
+            spawnTick[slot] = spawnTick[last];
+            exitTick[slot] = exitTick[last];
+            y[slot] = y[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            speed[slot] = speed[last];
+            if (divePeriod != null) {
+                divePeriod[slot] = divePeriod[last];
+                diveOffset[slot] = diveOffset[last];
+            }
+        }
+        return last;
+    }
+
+    // Entfernt alle Hindernisse (Kapazität bleibt erhalten)
+    public void clear() {
+        size = 0;
+    }
+
+    // Bewegt alle Hindernisse um ihre Geschwindigkeit (ein Takt)
+    public void moveAll() {
+        tick++;
+    }
+
+    // Bewegt alle Hindernisse um 'ticks' Takte auf einmal. Wer dabei den
+    // Bildschirm verlassen würde, wird nicht neu erzeugt - zum Überspringen
+    // taugen nur Takte bis ticksUntilOffScreen().
+    public void advance(long ticks) {
+        tick += ticks;
+    }
+
+    // X-Position in Subpixeln zum Takt t
+    public long fixedXAt(int slot, long t) {
+        return originX[slot] + (long) speed[slot] * (t - spawnTick[slot]);
+    }
+
+    // X-Position zum Takt t (auch in der Vergangenheit oder Zukunft)
+    public int xAt(int slot, long t) {
+        return (int) (fixedXAt(slot, t) >> SUBPIXEL_BITS);
+    }
+
+    // X-Position zu einem Zeitpunkt zwischen zwei Takten (zum Zeichnen)
+    public double xAt(int slot, double t) {
+        return (originX[slot] + speed[slot] * (t - spawnTick[slot])) / SUBPIXELS;
+    }
+
+    // Ganze Pixel, die der Slot im letzten Takt gefahren ist (trägt den Spieler)
+    public int stepX(int slot) {
+        return getX(slot) - xAt(slot, tick - 1);
+    }
+
+    // Bereich, den der Slot im Takt bis t überstrichen hat - ab seiner
+    // Position im Takt davor, frühestens ab seiner Erzeugung: linke Kante
+    // (abgerundet) und rechte Kante (exklusiv, aufgerundet) in Pixeln. Ein
+    // Rechteck aus ganzen Pixeln berührt ihn genau dann irgendwann in diesem
+    // Takt, wenn es diesen Bereich berührt.
+    public int sweptLeftAt(int slot, long t) {
+        long from = fixedXAt(slot, Math.max(t - 1, spawnTick[slot]));
+        return (int) (Math.min(from, fixedXAt(slot, t)) >> SUBPIXEL_BITS);
+    }
+
+    public int sweptRightAt(int slot, long t) {
+        long from = fixedXAt(slot, Math.max(t - 1, spawnTick[slot]));
+        long right = Math.max(from, fixedXAt(slot, t)) + ((long) width[slot] << SUBPIXEL_BITS);
+        return (int) -(-right >> SUBPIXEL_BITS);
+    }
+
+    // True wenn der Slot den sichtbaren Bereich [0, fieldWidth] in
+    // Fahrtrichtung verlassen hat
+    public boolean isOffScreen(int slot, int fieldWidth) {
+        int x = getX(slot);
+        return (speed[slot] > 0 && x > fieldWidth) ||
+                (speed[slot] < 0 && x + width[slot] < 0);
+    }
+
+    // Takte ab jetzt, bis isOffScreen() true wird (0 = schon draußen,
+    // Long.MAX_VALUE = steht still). Gerechnet in Subpixeln: rechts heißt
+    // X >= (fieldWidth + 1) Pixel, links X + Breite < 0.
+    public long ticksUntilOffScreen(int slot, int fieldWidth) {
+        long x = fixedXAt(slot, tick);
+        int v = speed[slot];
+        if (v > 0) {
+            return Math.max(0, Math.floorDiv(((long) fieldWidth + 1 << SUBPIXEL_BITS) - 1 - x, v) + 1);
+        }
+        if (v < 0) {
+            return Math.max(0, Math.floorDiv(x + ((long) width[slot] << SUBPIXEL_BITS), -v) + 1);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // Bytes, die writeTo() schreibt
+    int snapshotBytes() {
+        return 4 + size * (divePeriod != null ? 7 : 5) * 4;
+    }
+
+    // Schreibt alle Slots spaltenweise in einen Puffer (für GameSnapshot)
+    void writeTo(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            positions[i] = getFixedX(i);
+        }
+        GameSnapshot.putInts(out, positions, size);
+        GameSnapshot.putInts(out, y, size);
+        GameSnapshot.putInts(out, width, size);
+        GameSnapshot.putInts(out, height, size);
+        GameSnapshot.putInts(out, speed, size);
+        if (divePeriod != null) {
+            GameSnapshot.putInts(out, divePeriod, size);
+            for (int i = 0; i < size; i++) {
+                positions[i] = getDivePhase(i);
+            }
+            GameSnapshot.putInts(out, positions, size);
+        }
+    }
+
+    // Prüft, was readFrom() lesen würde, ohne etwas zu ändern; liefert die
+    // Anzahl der Slots und steht danach hinter ihnen
+    int checkState(ByteBuffer in) {
+        int columns = divePeriod != null ? 7 : 5;
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / (columns * 4)) {
+            throw new IllegalArgumentException("Ungültige Hindernisanzahl: " + count);
+        }
+        int start = in.position();
+        for (int column = 2; column <= 3; column++) {   // Breite, Höhe
+            for (int i = 0; i < count; i++) {
+                if (in.getInt(start + (column * count + i) * 4) <= 0) {
+                    throw new IllegalArgumentException("Ungültige Größe in Slot " + i);
+                }
+            }
+        }
+        if (divePeriod != null) {
+            for (int i = 0; i < count; i++) {
+                int period = in.getInt(start + (5 * count + i) * 4);
+                if (period < 0) {
+                    throw new IllegalArgumentException("Ungültiger Tauchzyklus: " + period);
+                }
+            }
+        }
+        in.position(start + columns * count * 4);
+        return count;
+    }
+
+    // Ersetzt alle Slots durch die aus dem Puffer (Slot-Reihenfolge bleibt
+    // gleich); nur mit Daten, die checkState() angenommen hat
+    void readFrom(ByteBuffer in) {
+        int count = in.getInt();
+        while (originX.length < count) {
+            grow();
+        }
+        GameSnapshot.getInts(in, originX, count);
+        Arrays.fill(spawnTick, 0, count, tick);
+        GameSnapshot.getInts(in, y, count);
+        GameSnapshot.getInts(in, width, count);
+        GameSnapshot.getInts(in, height, count);
+        GameSnapshot.getInts(in, speed, count);
+        size = count;
+        for (int i = 0; i < count; i++) {
+            exitTick[i] = exitTick(i);
+        }
+        if (divePeriod != null) {
+            GameSnapshot.getInts(in, divePeriod, count);
+            GameSnapshot.getInts(in, positions, count);
+            for (int i = 0; i < count; i++) {
+                setDive(i, divePeriod[i], positions[i]);
+            }
+        }
+    }
+
+    // Legt Platz für 'capacity' Slots an, damit add() danach nicht mehr
+    // vergrößern muss
+    public void ensureCapacity(int capacity) {
+        if (capacity > originX.length) {
+            resize(capacity);
+        }
+    }
+
+    // Verdoppelt die Kapazität aller Arrays
+    private void grow() {
+        resize(originX.length * 2);
+    }
+
+    private void resize(int capacity) {
+        originX = Arrays.copyOf(originX, capacity);
+        spawnTick = Arrays.copyOf(spawnTick, capacity);
+        exitTick = Arrays.copyOf(exitTick, capacity);
+        positions = new int[capacity];
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        if (divePeriod != null) {
+            divePeriod = Arrays.copyOf(divePeriod, capacity);
+            diveOffset = Arrays.copyOf(diveOffset, capacity);
+        }
+    }
+
+    // Getter-Methoden
+    public int size() { return size; }
+    public int getX(int slot) { return xAt(slot, tick); }
+    public int getFixedX(int slot) { return (int) fixedXAt(slot, tick); }
+    public int getY(int slot) { return y[slot]; }
+    public int getWidth(int slot) { return width[slot]; }
+    public int getHeight(int slot) { return height[slot]; }
+    public int getSpeed(int slot) { return speed[slot] >> SUBPIXEL_BITS; }   // Ganze Pixel (abgerundet)
+    public int getFixedSpeed(int slot) { return speed[slot]; }
+    public boolean isSubmerged(int slot) { return isSubmergedAt(slot, tick); }
+    public int getDivePeriod(int slot) { return divePeriod == null ? 0 : divePeriod[slot]; }
+    public int getComponents() { return components; }
+    public long getTick() { return tick; }
+}
@@ -0,0 +1,82 @@
+import java.util.Arrays;
+
+// Grobe Verdeckungsprüfung für undurchsichtige Rechtecke, die von vorne
+// nach hinten (umgekehrt zur Zeichenreihenfolge) geprüft werden. Das Bild
+// ist in Zellen von 8x8 Pixeln geteilt; eine Zelle ist bedeckt, sobald ein
+// schon geprüftes - also später gezeichnetes - Rechteck sie ganz enthält.
+// Liegt ein Rechteck nur auf bedeckten Zellen, sieht man es nicht und es
+// muss nicht gezeichnet werden. Bei sehr vielen Hindernissen (dichte
+// Level, Stresstests) fällt so der größte Teil der Zeichenarbeit weg.
+public class OcclusionMask {
+    private static final int CELL_SHIFT = 3;   // 8 Pixel je Zelle
+
+    private final int columns;
+    private final int rows;
+    private final int words;                   // long-Wörter je Zellenzeile
+    private final long[] covered;
+
+    public OcclusionMask(int width, int height) {
+        columns = (width + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        rows = (height + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        words = (columns + 63) >>> 6;
+        covered = new long[rows * words];
+    }
+
+    // Alles wieder unbedeckt (vor jedem Bild)
+    public void clear() {
+        Arrays.fill(covered, 0);
+    }
+
+    // True, wenn das Rechteck im Bild ganz verdeckt ist (oder außerhalb
+    // liegt). Sonst wird es als Verdecker eingetragen und false geliefert.
+    public boolean occlude(int x, int y, int width, int height) {
+        // Berührte Zellen
+        int c0 = Math.max(0, x >> CELL_SHIFT);
+        int c1 = Math.min(columns - 1, (x + width - 1) >> CELL_SHIFT);
+        int r0 = Math.max(0, y >> CELL_SHIFT);
+        int r1 = Math.min(rows - 1, (y + height - 1) >> CELL_SHIFT);
+        if (c0 > c1 || r0 > r1) {
+            return true;
+        }
+        if (allCovered(c0, c1, r0, r1)) {
+            return true;
+        }
+
+        // Ganz enthaltene Zellen bedecken
+        int f0 = (x + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        int f1 = Math.min(columns, (x + width) >> CELL_SHIFT) - 1;
+        int g0 = (y + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        int g1 = Math.min(rows, (y + height) >> CELL_SHIFT) - 1;
+        f0 = Math.max(0, f0);
+        g0 = Math.max(0, g0);
+        for (int r = g0; r <= g1; r++) {
+            for (int c = f0; c <= f1; ) {
+                int w = c >>> 6;
+                int end = Math.min(f1, (w << 6) + 63);
+                covered[r * words + w] |= range(c & 63, end & 63);
+                c = end + 1;
+            }
+        }
+        return false;
+    }
+
+    private boolean allCovered(int c0, int c1, int r0, int r1) {
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; ) {
+                int w = c >>> 6;
+                int end = Math.min(c1, (w << 6) + 63);
+                long mask = range(c & 63, end & 63);
+                if ((covered[r * words + w] & mask) != mask) {
+                    return false;
+                }
+                c = end + 1;
+            }
+        }
+        return true;
+    }
+
+    // Bits from..to (einschließlich) eines Worts
+    private static long range(int from, int to) {
+        return (-1L >>> (63 - to)) & (-1L << from);
+    }
+}
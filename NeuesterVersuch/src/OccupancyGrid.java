@@ -0,0 +1,301 @@
+import java.util.Arrays;
+
+// Belegung des Spielfelds für die nächsten HORIZON Takte, wie sie ein
+// Spieler sieht: je Takt, Spielerzeile und X-Position (pixelgenau) ein Bit
+// "sicher" (nicht überfahren, nicht im Wasser) und das Tempo, mit dem ein
+// Baumstamm den Spieler weiterträgt (0 an Land und auf freier Straße).
+// Welche Hindernisse überfahren und welche tragen, sagen die Komponenten
+// ihres Archetyps; abgetauchte Schildkröten tragen nicht.
+// Zeilen sind die Y-Positionen, die der Spieler erreichen kann (Start unten,
+// je PLAYER_SIZE nach oben bis zum Ziel); wie viele es sind und welche Art
+// sie haben, steht in der Karte der Engine. Als Bits kann der Planer ganze
+// Zeilen auf einmal verschieben und verknüpfen.
+//
+// Die Ebenen werden aus den geschlossenen Bahnen des ObstacleStore berechnet
+// und zwischen den Entscheidungen wiederverwendet: pro Takt kommt nur die
+// neue hinterste Ebene dazu. Neu erzeugte Hindernisse werden über
+// obstacleSpawned() in alle vorhandenen Ebenen eingetragen; der Slot, den sie
+// ersetzen, hat das Feld verlassen und fährt davon - er belegt nichts mehr
+// und muss nicht ausgetragen werden. Nach Neustart, Zurückspulen oder einem
+// neuen Level (dort ändert jede Reihe ihr Tempo) wird alles neu berechnet.
+//
+// Auf der Straße zählt wie im Spiel die ganze Strecke, die ein Auto im Takt
+// gefahren ist (ObstacleStore.sweptLeftAt()), im Fluss die Position am Ende
+// des Takts. Tempi müssen ganze Pixel je Takt sein (Standard-Taktrate).
+//
+// Ungenau ist nur ein Sonderfall: Überlappen sich zwei tragende Hindernisse
+// mit verschiedenem Tempo, gilt das zuletzt eingetragene (das Spiel nimmt
+// das erste aus seinen Indizes). Da vor jedem Takt neu geplant wird, korrigiert
+// sich das sofort.
+public class OccupancyGrid implements GameListener {
+    public static final int HORIZON = 64;   // Vorausschau in Takten
+    public static final byte DEAD = Byte.MIN_VALUE;
+
+    static final int WIDTH = GameEngine.PANEL_WIDTH - GameEngine.PLAYER_SIZE + 1; // Mögliche X-Werte
+    static final int WORDS = (WIDTH + 63) / 64;   // longs je Zeile
+
+    private static final byte LAND = 0;
+    private static final byte ROAD = 1;
+    private static final byte RIVER = 2;
+
+    private long[][] safe = new long[HORIZON][0];        // Bit je Zeile und x
+    private byte[][] carry = new byte[HORIZON][0];       // Tempo des Stamms
+    private final long[] layerTicks = new long[HORIZON];   // Takt (Uhr der Autos) je Ebene
+    private byte[] rowKinds = new byte[0];
+    private final long[] fullRow = new long[WORDS];        // Alle x sicher
+
+    private GameEngine engine;
+    private int startY;                      // Y-Position von Zeile 0 (Start)
+    private int goalRow;                     // Erste Zeile im Ziel
+    private int rows;                        // goalRow + 1
+    private boolean valid;
+    private long syncedTick;                 // Takt der letzten Abstimmung
+    private int syncedLevel;                 // Level der letzten Abstimmung
+    private long[] offsets = new long[0];    // Uhr je Archetyp minus Uhr der Autos
+    private long layersBuilt;                // Für Messungen
+
+    public OccupancyGrid() {
+        setRange(fullRow, 0, 0, WIDTH);
+    }
+
+    // IllegalArgumentException, wenn das Gitter die Engine nicht abbilden kann
+    public static void checkSupported(GameEngine engine) {
+        if (engine.getWorldWidth() != GameEngine.PANEL_WIDTH) {
+            // Zeilen sind so breit wie das klassische Feld
+            throw new IllegalArgumentException("Planer braucht eine " + GameEngine.PANEL_WIDTH
+                    + " Pixel breite Welt, nicht " + engine.getWorldWidth());
+        }
+        if (engine.getTickRate() != GameConfig.DEFAULT_TICK_RATE) {
+            // Tempo des Stamms ist ein ganzes Pixel je Takt
+            throw new IllegalArgumentException("Planer braucht " + GameConfig.DEFAULT_TICK_RATE
+                    + " Takte pro Sekunde, nicht " + engine.getTickRate());
+        }
+    }
+
+    // Hängt das Gitter an eine Engine (und löst es von der vorigen)
+    public void attach(GameEngine engine) {
+        if (this.engine == engine) {
+            return;
+        }
+        checkSupported(engine);
+        if (this.engine != null) {
+            this.engine.removeListener(this);
+        }
+        this.engine = engine;
+        engine.addListener(this);
+
+        LevelMap map = engine.getMap();
+        startY = map.getStartY();
+        goalRow = Math.floorDiv(startY - map.getGoalY(), GameEngine.PLAYER_SIZE) + 1;
+        if (rows != goalRow + 1) {
+            rows = goalRow + 1;
+            safe = new long[HORIZON][rows * WORDS];
+            carry = new byte[HORIZON][rows * WIDTH];
+            rowKinds = new byte[rows];
+        }
+        offsets = new long[engine.getArchetypeCount()];
+        for (int row = 0; row < rows; row++) {
+            LaneType zone = map.zoneAt(rowY(row));
+            rowKinds[row] = zone == LaneType.ROAD ? ROAD : zone == LaneType.RIVER ? RIVER : LAND;
+        }
+        invalidate();
+    }
+
+    // Erzwingt eine komplette Neuberechnung bei der nächsten Abstimmung
+    public void invalidate() {
+        valid = false;
+    }
+
+    // Bringt die Ebenen auf den aktuellen Takt: danach gilt ebene(d) für
+    // d = 1..HORIZON Takte in der Zukunft
+    public void sync() {
+        long now = engine.getCars().getTick();
+        boolean clocksMoved = false;
+        for (int a = 0; a < offsets.length; a++) {
+            long offset = engine.getArchetype(a).getTick() - now;
+            if (offset != offsets[a]) {
+                offsets[a] = offset;
+                clocksMoved = true;
+            }
+        }
+        if (engine.getCurrentLevel() != syncedLevel) {
+            syncedLevel = engine.getCurrentLevel();
+            valid = false;
+        }
+        if (!valid || clocksMoved || now < syncedTick || now - syncedTick > HORIZON) {
+            for (long t = now + 1; t <= now + HORIZON; t++) {
+                build(t);
+            }
+            valid = true;
+        } else {
+            for (long t = syncedTick + HORIZON + 1; t <= now + HORIZON; t++) {
+                build(t);
+            }
+        }
+        syncedTick = now;
+    }
+
+    // Wert an (d Takte voraus, Zeile, x): DEAD oder das Tempo des Stamms;
+    // x muss in [0, WIDTH) liegen
+    public byte get(int ahead, int row, int x) {
+        int layer = layer(ahead);
+        long word = safe[layer][row * WORDS + (x >>> 6)];
+        return (word & (1L << x)) == 0 ? DEAD : carry[layer][row * WIDTH + x];
+    }
+
+    // Sichere Bits der Ebene d Takte voraus (Zeile r ab r * WORDS)
+    long[] safeLayer(int ahead) {
+        return safe[layer(ahead)];
+    }
+
+    // Tempo des Stamms je x in der Ebene d Takte voraus (Zeile r ab r * WIDTH)
+    byte[] carryLayer(int ahead) {
+        return carry[layer(ahead)];
+    }
+
+    boolean isRiver(int row) {
+        return rowKinds[row] == RIVER;
+    }
+
+    private int layer(int ahead) {
+        return (int) ((syncedTick + ahead) % HORIZON);
+    }
+
+    // Berechnet die Ebene für Takt t komplett
+    private void build(long t) {
+        int layer = (int) (t % HORIZON);
+        long[] bits = safe[layer];
+        for (int row = 0; row < rows; row++) {
+            if (rowKinds[row] == RIVER) {
+                Arrays.fill(bits, row * WORDS, (row + 1) * WORDS, 0);
+            } else {
+                System.arraycopy(fullRow, 0, bits, row * WORDS, WORDS);
+            }
+        }
+        layerTicks[layer] = t;
+        for (int a = 0; a < offsets.length; a++) {
+            ObstacleStore store = engine.getArchetype(a);
+            byte kind = kindOf(store);
+            if (kind == LAND) {
+                continue;
+            }
+            for (int slot = 0; slot < store.size(); slot++) {
+                paint(layer, store, slot, t + offsets[a], kind);
+            }
+        }
+        layersBuilt++;
+    }
+
+    // Zeilenart, in der ein Archetyp zählt (LAND: nirgends)
+    private static byte kindOf(ObstacleStore store) {
+        if (store.has(ObstacleStore.LETHAL)) {
+            return ROAD;
+        }
+        return store.has(ObstacleStore.RIDEABLE) ? RIVER : LAND;
+    }
+
+    // Trägt ein Hindernis zum Takt t (Uhr seines Speichers) in eine Ebene ein
+    private void paint(int layer, ObstacleStore store, int slot, long t, byte kind) {
+        if (store.isSubmergedAt(slot, t)) {
+            return;
+        }
+        int oy = store.getY(slot);
+        int firstRow = Math.max(0, Math.floorDiv(startY - oy - store.getHeight(slot), GameEngine.PLAYER_SIZE) + 1);
+        int lastRow = Math.min(rows - 1, Math.floorDiv(startY + GameEngine.PLAYER_SIZE - oy - 1, GameEngine.PLAYER_SIZE));
+        if (firstRow > lastRow) {
+            return;
+        }
+        // Spieler bei x berührt das Hindernis, wenn x in (links - PLAYER_SIZE, rechts);
+        // auf der Straße mit der Strecke seit dem Takt davor
+        int left;
+        int right;
+        if (kind == ROAD) {
+            left = store.sweptLeftAt(slot, t);
+            right = store.sweptRightAt(slot, t);
+        } else {
+            left = store.xAt(slot, t);
+            right = left + store.getWidth(slot);
+        }
+        int from = Math.max(0, left - GameEngine.PLAYER_SIZE + 1);
+        int to = Math.min(WIDTH, right);
+        if (from >= to) {
+            return;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (rowKinds[row] != kind) {
+                continue;
+            }
+            if (kind == ROAD) {
+                clearRange(safe[layer], row * WORDS, from, to);
+            } else {
+                setRange(safe[layer], row * WORDS, from, to);
+                Arrays.fill(carry[layer], row * WIDTH + from, row * WIDTH + to, (byte) store.getSpeed(slot));
+            }
+        }
+    }
+
+    // Setzt bzw. löscht die Bits [from, to) einer Zeile ab Wort 'offset'
+    private static void setRange(long[] bits, int offset, int from, int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            bits[offset + word] |= rangeMask(word, from, to);
+        }
+    }
+
+    private static void clearRange(long[] bits, int offset, int from, int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            bits[offset + word] &= ~rangeMask(word, from, to);
+        }
+    }
+
+    private static long rangeMask(int word, int from, int to) {
+        int low = Math.max(from - (word << 6), 0);
+        int high = Math.min(to - (word << 6), 64);   // Exklusiv
+        long upper = high == 64 ? -1L : (1L << high) - 1;
+        return upper & (-1L << low);
+    }
+
+    @Override
+    public void obstacleSpawned(ObstacleStore store, int slot) {
+        if (!valid) {
+            return;
+        }
+        int archetype = 0;
+        while (engine.getArchetype(archetype) != store) {
+            archetype++;
+        }
+        byte kind = kindOf(store);
+        if (kind == LAND) {
+            return;
+        }
+        long now = engine.getCars().getTick();
+        for (int layer = 0; layer < HORIZON; layer++) {
+            long t = layerTicks[layer];
+            if (t >= now) {
+                paint(layer, store, slot, t + offsets[archetype], kind);
+            }
+        }
+    }
+
+    @Override
+    public void gameReset() {
+        invalidate();
+    }
+
+    @Override
+    public void inputApplied(long tick, Input input) {
+        if (input == Input.REWIND) {
+            invalidate();   // Der Stand wird gleich ersetzt
+        }
+    }
+
+    // Y-Position einer Spielerzeile
+    int rowY(int row) {
+        return startY - row * GameEngine.PLAYER_SIZE;
+    }
+
+    // Getter-Methoden (gelten für die zuletzt angehängte Engine)
+    int getStartY() { return startY; }
+    int getGoalRow() { return goalRow; }
+    int getRows() { return rows; }
+    public long getLayersBuilt() { return layersBuilt; }
+}
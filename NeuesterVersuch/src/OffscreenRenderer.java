@@ -0,0 +1,38 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+// Zeichnet eine Szene ohne Fenster in ein Bild aus int-Pixeln - dieselbe
+// Szene wie GamePanel.paintComponent, aber auch mit java.awt.headless=true
+// (Server ohne Bildschirm). Gedacht für Bildexport und Vorschaubilder.
+public class OffscreenRenderer {
+    private final FrameRenderer renderer;
+
+    public OffscreenRenderer(FrameRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    // Neues Bild in Spielfeldgröße (ein int pro Pixel, ohne Alphakanal)
+    public static BufferedImage newFrame() {
+        return new BufferedImage(GameEngine.PANEL_WIDTH, GameEngine.PANEL_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+    }
+
+    // Zeichnet den aktuellen Zustand in 'target' (komplett, ohne Interpolation)
+    public void render(BufferedImage target) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);   // Wie super.paintComponent: erst löschen
+            g.fillRect(0, 0, target.getWidth(), target.getHeight());
+            renderer.setInterpolation(1.0);
+            renderer.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Direkter Zugriff auf die Pixel eines Bildes aus newFrame() (0xRRGGBB)
+    public static int[] pixels(BufferedImage frame) {
+        return ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+    }
+}
@@ -0,0 +1,21 @@
+// Abschnitte eines Spieltakts bzw. eines Bildes, die einzeln gemessen werden
+public enum Phase {
+    MOVE("Bewegen"),            // Hindernisse bewegen
+    COLLISIONS("Kollisionen"),  // Kollisionen prüfen
+    WIN_CHECK("Levelende"),     // Levelabschluss prüfen
+    TICK("Takt"),               // Ganzer Spieltakt
+    INPUT("Eingabe"),           // Vom Tastendruck bis zur Anwendung im Takt
+    BACKGROUND("Hintergrund"),  // Zonen bzw. Reihen zeichnen
+    OBSTACLES("Hindernisse"),   // Autos und Baumstämme zeichnen
+    PLAYER("Spieler"),          // Spieler zeichnen
+    UI("Anzeige"),              // Texte zeichnen
+    FRAME("Bild");              // Ganzes Bild
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+}
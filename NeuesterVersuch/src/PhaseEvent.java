@@ -0,0 +1,16 @@
+import jdk.jfr.*;
+
+// JFR-Ereignis für einen gemessenen Abschnitt (java -XX:StartFlightRecording)
+@Name("frogger.Phase")
+@Label("Frogger Phase")
+@Category("Frogger")
+@Description("Dauer eines Abschnitts im Spieltakt oder beim Zeichnen")
+@StackTrace(false)
+class PhaseEvent extends Event {
+    @Label("Abschnitt")
+    String phase;
+
+    @Label("Dauer")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+}
@@ -0,0 +1,241 @@
+import java.util.Arrays;
+
+// Bot, der vorausplant: Breitensuche über ein zeitlich aufgefächertes
+// Gitter (Takt x Spielerzeile x X-Position). Jeder Schritt ist ein Takt mit
+// einer Eingabe (oder keiner); ein Zustand ist erlaubt, wenn das
+// OccupancyGrid ihn zu diesem Takt als sicher meldet. Auf Baumstämmen wird
+// der Spieler wie im Spiel um das Tempo des Stamms weitergetragen.
+//
+// Die erreichbaren Zustände eines Takts sind eine Bitmenge je Zeile; ein
+// Schritt nach links/rechts ist eine Verschiebung um PLAYER_SIZE Bits, nach
+// oben/unten der Wechsel der Zeile, und die Prüfung gegen das Gitter ein
+// UND. So wird ein ganzer Takt mit wenigen hundert Wortoperationen
+// weitergerechnet. Für jede mögliche erste Eingabe gibt es eine eigene
+// Menge - die erste, die das Ziel erreicht, liefert die Eingabe. Ohne Weg
+// zum Ziel innerhalb des Horizonts nimmt der Bot den, der am längsten
+// überlebt (und dabei am weitesten oben ist).
+//
+// Geplant wird vor jedem Takt neu - das Gitter dafür wird aber nicht neu
+// berechnet, sondern fortgeschrieben. Neu auftauchende Hindernisse kann der
+// Bot nicht vorhersehen.
+public class PlannerBot implements Bot {
+    // Reihenfolge bei Gleichstand: vorwärts zuerst
+    private static final Input[] ACTIONS = { Input.UP, Input.LEFT, Input.RIGHT, Input.NONE, Input.DOWN };
+
+    private static final int WORDS = OccupancyGrid.WORDS;
+    private static final int WIDTH = OccupancyGrid.WIDTH;
+    private static final int STEP = GameEngine.PLAYER_SIZE;
+
+    private final OccupancyGrid grid = new OccupancyGrid();
+    private final boolean memoize;           // false: Gitter jedes Mal neu (zum Vergleich)
+
+    // Erreichbare Zustände je erster Eingabe (aktueller und nächster Takt),
+    // so viele Zeilen wie das Gitter für die Karte hat
+    private int goalRow;
+    private long[][] reach = new long[ACTIONS.length][0];
+    private long[][] next = new long[ACTIONS.length][0];
+    private final long[] river = new long[WORDS];   // Kandidaten einer Flusszeile
+    private final boolean[] alive = new boolean[ACTIONS.length];
+    private final int[] survived = new int[ACTIONS.length];   // Letzter Takt mit Zuständen
+    private final int[] topRow = new int[ACTIONS.length];     // Höchste Zeile dort
+    private long expandedLayers;
+
+    public PlannerBot() {
+        this(true);
+    }
+
+    public PlannerBot(boolean memoize) {
+        this.memoize = memoize;
+    }
+
+    @Override
+    public void check(GameEngine engine) {
+        OccupancyGrid.checkSupported(engine);
+    }
+
+    @Override
+    public Input decide(GameEngine engine) {
+        if (!engine.isRunning()) {
+            return Input.NONE;
+        }
+        grid.attach(engine);
+        if (!memoize) {
+            grid.invalidate();
+        }
+        grid.sync();
+        goalRow = grid.getGoalRow();
+        if (reach[0].length != grid.getRows() * WORDS) {
+            reach = new long[ACTIONS.length][grid.getRows() * WORDS];
+            next = new long[ACTIONS.length][grid.getRows() * WORDS];
+        }
+
+        Player player = engine.getPlayer();
+        int x = player.getX();
+        int offset = grid.getStartY() - player.getY();
+        if (offset % STEP != 0 || x < 0 || x >= WIDTH) {
+            return Input.NONE;   // Außerhalb des Rasters (z.B. vom Stamm getragen)
+        }
+        return search(offset / STEP, x);
+    }
+
+    // Breitensuche ab (Zeile, x) zum jetzigen Takt; liefert die erste Eingabe
+    private Input search(int startRow, int startX) {
+        // Erster Takt: jede Eingabe einzeln (gleiche Regeln wie GameEngine.movePlayer)
+        for (int a = 0; a < ACTIONS.length; a++) {
+            Arrays.fill(reach[a], 0);
+            alive[a] = false;
+            survived[a] = 0;
+            topRow[a] = -1;
+            int row = startRow;
+            int x = startX;
+            switch (ACTIONS[a]) {
+                case UP:
+                    row++;
+                    break;
+                case DOWN:
+                    if (row > 0) {
+                        row--;
+                    }
+                    break;
+                case LEFT:
+                    if (x > 0) {
+                        x -= STEP;
+                    }
+                    break;
+                case RIGHT:
+                    if (x < GameEngine.PANEL_WIDTH - STEP) {
+                        x += STEP;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (row == goalRow) {
+                return ACTIONS[a];
+            }
+            if (x < 0 || x >= WIDTH) {
+                continue;   // Planer bleibt im sichtbaren Feld
+            }
+            byte cell = grid.get(1, row, x);
+            if (cell == OccupancyGrid.DEAD) {
+                continue;
+            }
+            x += cell;   // Vom Baumstamm getragen
+            if (x >= 0 && x < WIDTH) {
+                reach[a][row * WORDS + (x >>> 6)] |= 1L << x;
+                alive[a] = true;
+                survived[a] = 1;
+                topRow[a] = row;
+            }
+        }
+
+        for (int ahead = 1; ahead < OccupancyGrid.HORIZON; ahead++) {
+            // Ziel: aus der Zeile darunter einen Schritt nach oben
+            for (int a = 0; a < ACTIONS.length; a++) {
+                if (alive[a] && !isEmpty(reach[a], goalRow - 1)) {
+                    return ACTIONS[a];
+                }
+            }
+            boolean any = false;
+            for (int a = 0; a < ACTIONS.length; a++) {
+                if (alive[a]) {
+                    alive[a] = expand(reach[a], next[a], ahead + 1, a);
+                    any |= alive[a];
+                }
+            }
+            long[][] swap = reach;
+            reach = next;
+            next = swap;
+            if (!any) {
+                break;
+            }
+        }
+
+        // Kein Weg zum Ziel: am längsten überleben, dann möglichst weit oben
+        int best = -1;
+        for (int a = 0; a < ACTIONS.length; a++) {
+            if (topRow[a] >= 0 && (best < 0 || survived[a] > survived[best]
+                    || (survived[a] == survived[best] && topRow[a] > topRow[best]))) {
+                best = a;
+            }
+        }
+        return best < 0 ? Input.NONE : ACTIONS[best];
+    }
+
+    // Ein Takt weiter: alle Eingaben auf einmal, dann gegen die Ebene prüfen
+    private boolean expand(long[] from, long[] to, int ahead, int family) {
+        expandedLayers++;
+        long[] safe = grid.safeLayer(ahead);
+        byte[] carry = grid.carryLayer(ahead);
+        boolean any = false;
+        for (int row = 0; row < goalRow; row++) {
+            int base = row * WORDS;
+            boolean isRiver = grid.isRiver(row);
+            boolean rowAny = false;
+            for (int w = 0; w < WORDS; w++) {
+                long bits = from[base + w];                                  // Keine Eingabe
+                bits |= from[base + w] << STEP;                              // Rechts
+                if (w > 0) {
+                    bits |= from[base + w - 1] >>> (64 - STEP);
+                }
+                bits |= from[base + w] >>> STEP;                             // Links
+                if (w + 1 < WORDS) {
+                    bits |= from[base + w + 1] << (64 - STEP);
+                }
+                if (row > 0) {
+                    bits |= from[base - WORDS + w];                          // Hoch (von unten)
+                }
+                if (row + 1 < goalRow) {
+                    bits |= from[base + WORDS + w];                          // Runter (von oben)
+                }
+                bits &= safe[base + w];
+                if (isRiver) {
+                    river[w] = bits;
+                    to[base + w] = 0;
+                } else {
+                    to[base + w] = bits;
+                    rowAny |= bits != 0;
+                }
+            }
+            if (isRiver) {
+                rowAny = carry(river, to, base, carry, row * WIDTH);
+            }
+            if (rowAny) {
+                any = true;
+                survived[family] = ahead;
+                topRow[family] = row;   // Zeilen aufsteigend: am Ende die höchste
+            }
+        }
+        return any;
+    }
+
+    // Flusszeile: jedes Bit um das Tempo seines Stamms verschieben
+    private static boolean carry(long[] candidates, long[] to, int base, byte[] carry, int carryBase) {
+        boolean any = false;
+        for (int w = 0; w < WORDS; w++) {
+            long bits = candidates[w];
+            while (bits != 0) {
+                int x = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int carried = x + carry[carryBase + x];
+                if (carried >= 0 && carried < WIDTH) {
+                    to[base + (carried >>> 6)] |= 1L << carried;
+                    any = true;
+                }
+            }
+        }
+        return any;
+    }
+
+    private static boolean isEmpty(long[] bits, int row) {
+        for (int w = row * WORDS; w < (row + 1) * WORDS; w++) {
+            if (bits[w] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public OccupancyGrid getGrid() { return grid; }
+    public long getExpandedLayers() { return expandedLayers; }
+}
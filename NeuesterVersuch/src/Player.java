@@ -20,11 +20,11 @@ public class Player {
         x += speed;
     }
 
-    public boolean intersects(Obstacle other) {
-        return x < other.getX() + other.getWidth() &&
-                x + width > other.getX() &&
-                y < other.getY() + other.getHeight() &&
-                y + height > other.getY();
+    public boolean intersects(int otherX, int otherY, int otherWidth, int otherHeight) {
+        return x < otherX + otherWidth &&
+                x + width > otherX &&
+                y < otherY + otherHeight &&
+                y + height > otherY;
     }
 
     public void draw(Graphics g) {
@@ -40,5 +40,7 @@ public class Player {
     // Getter-Methods
     public int getX() { return x; }
     public int getY() { return y; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
 }
 
@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Schlanker PNG-Kodierer für Bilder aus int-Pixeln (0xRRGGBB, 8 Bit RGB).
+// Jede Zeile wird mit dem Filter "Sub" (Differenz zum linken Nachbarn)
+// vorbereitet, eine Zeile gleich der vorigen mit "Up" (dann nur Nullen) -
+// bei den großen einfarbigen Flächen des Spielfelds bleibt kaum etwas
+// übrig, was Deflate schnell packt. ImageIO probiert dagegen je Zeile alle
+// Filter durch und ist deutlich langsamer.
+// Nicht threadsicher: jeder Worker hat seinen eigenen Kodierer.
+public class PngEncoder {
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final int IHDR = 0x49484452;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] chunkHeader = new byte[8];
+    private final byte[] header = new byte[13];
+    private byte[] filtered = new byte[0];          // Gefilterte Zeilen (wiederverwendet)
+    private final byte[] compressed = new byte[64 * 1024];
+
+    public PngEncoder() {
+        this(Deflater.BEST_SPEED);
+    }
+
+    public PngEncoder(int level) {
+        deflater = new Deflater(level);
+    }
+
+    // Schreibt das Bild als komplette PNG-Datei nach 'out'
+    public void encode(int[] pixels, int width, int height, OutputStream out) throws IOException {
+        if (width <= 0 || height <= 0 || pixels.length < width * height) {
+            throw new IllegalArgumentException("Ungültige Bildgröße: " + width + "x" + height);
+        }
+        int length = filter(pixels, width, height);
+
+        out.write(SIGNATURE);
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;    // Bit je Kanal
+        header[9] = 2;    // RGB
+        header[10] = 0;   // Deflate
+        header[11] = 0;   // Standardfilter
+        header[12] = 0;   // Ohne Interlacing
+        writeChunk(out, IHDR, header, header.length);
+
+        deflater.reset();
+        deflater.setInput(filtered, 0, length);
+        deflater.finish();
+        while (!deflater.finished()) {
+            int n = deflater.deflate(compressed);
+            if (n > 0) {
+                writeChunk(out, IDAT, compressed, n);
+            }
+        }
+        writeChunk(out, IEND, compressed, 0);
+    }
+
+    // Zeilen mit Filterbyte davor; jeder Kanal als Differenz zum linken
+    // Pixel oder - bei gleicher Zeile darüber - nur Nullen
+    private int filter(int[] pixels, int width, int height) {
+        int stride = 1 + 3 * width;
+        int length = stride * height;
+        if (filtered.length < length) {
+            filtered = new byte[length];
+        }
+        int out = 0;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            if (y > 0 && Arrays.equals(pixels, row, row + width, pixels, row - width, row)) {
+                filtered[out++] = FILTER_UP;
+                Arrays.fill(filtered, out, out + 3 * width, (byte) 0);
+                out += 3 * width;
+                continue;
+            }
+            filtered[out++] = FILTER_SUB;
+            int left = 0;
+            for (int x = 0; x < width; x++) {
+                int p = pixels[row + x];
+                filtered[out++] = (byte) ((p >>> 16) - (left >>> 16));
+                filtered[out++] = (byte) ((p >>> 8) - (left >>> 8));
+                filtered[out++] = (byte) (p - left);
+                left = p;
+            }
+        }
+        return length;
+    }
+
+    // Chunk: Länge, Typ, Daten, CRC über Typ und Daten
+    private void writeChunk(OutputStream out, int type, byte[] data, int length) throws IOException {
+        putInt(chunkHeader, 0, length);
+        putInt(chunkHeader, 4, type);
+        out.write(chunkHeader);
+        out.write(data, 0, length);
+        crc.reset();
+        crc.update(chunkHeader, 4, 4);
+        crc.update(data, 0, length);
+        putInt(chunkHeader, 0, (int) crc.getValue());
+        out.write(chunkHeader, 0, 4);
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,73 @@
+import java.awt.*;
+import java.util.Locale;
+
+// Einblendbare Messanzeige (F3): Takt- und Bildzeit, FPS, Hindernisse.
+// Die Texte werden nur zweimal pro Sekunde neu gebaut, damit die Anzeige
+// selbst kaum Zeit kostet und die Zahlen lesbar bleiben.
+public class ProfilerOverlay {
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.BOLD, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final int LINE_HEIGHT = 15;
+
+    // Bereich oben rechts (für die Änderungsverfolgung)
+    public static final Rectangle BOUNDS = new Rectangle(GameEngine.PANEL_WIDTH - 290, 0, 290, 85);
+
+    private final Game game;           // Liefert den aktuellen TickProfiler
+    private volatile boolean visible;
+
+    private final String[] lines = new String[5];
+    private long lastRefresh;
+    private long lastFrameCount;
+
+    public ProfilerOverlay(Game game) {
+        this.game = game;
+    }
+
+    // Schaltet die Anzeige ein oder aus
+    public void toggle() {
+        visible = !visible;
+        lastRefresh = 0;   // Beim Einschalten sofort aktuelle Werte
+    }
+
+    public void draw(Graphics g, int obstacleCount) {
+        if (!visible) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastRefresh == 0 || now - lastRefresh >= REFRESH_NANOS) {
+            refresh(now, obstacleCount);
+        }
+
+        g.setColor(BACKGROUND);
+        g.fillRect(BOUNDS.x, BOUNDS.y, BOUNDS.width, BOUNDS.height);
+        g.setFont(FONT);
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], BOUNDS.x + 8, BOUNDS.y + 15 + i * LINE_HEIGHT);
+        }
+    }
+
+    private void refresh(long now, int obstacleCount) {
+        TickProfiler profiler = game.getProfiler();
+        long frames = profiler.getHistogram(Phase.FRAME).getCount();
+        double fps = lastRefresh == 0 ? 0 : (frames - lastFrameCount) * 1e9 / (now - lastRefresh);
+        lastRefresh = now;
+        lastFrameCount = frames;
+
+        lines[0] = describe(profiler, Phase.TICK);
+        lines[1] = describe(profiler, Phase.FRAME);
+        lines[2] = String.format(Locale.ROOT, "FPS %.1f", fps);
+        lines[3] = "Hindernisse " + obstacleCount;
+        lines[4] = "Takte über Budget " + profiler.getOverBudget();
+    }
+
+    private static String describe(TickProfiler profiler, Phase phase) {
+        LatencyHistogram h = profiler.getHistogram(phase);
+        return String.format(Locale.ROOT, "%-5s %7.1f  p99 %7.1f  max %7.1f us",
+                phase.getLabel(), profiler.getLast(phase) / 1e3,
+                h.getPercentile(99) / 1e3, h.getMax() / 1e3);
+    }
+
+    public boolean isVisible() { return visible; }
+}
@@ -0,0 +1,39 @@
+// Einfacher Zufallsspieler für Massentests: drückt etwa alle paar Takte eine
+// Taste, meistens nach oben. Jeder Bot hat seinen eigenen Zufallsgenerator,
+// damit Sitzungen unabhängig und reproduzierbar bleiben.
+public class RandomBot implements Bot {
+    private final FastRandom random;
+    private final double pressChance;   // Chance pro Takt (bei GameConfig.DEFAULT_TICK_RATE), eine Taste zu drücken
+    private final double upChance;      // Anteil der Tastendrücke nach oben
+
+    public RandomBot(long seed) {
+        this(seed, 0.25, 0.6);
+    }
+
+    public RandomBot(long seed, double pressChance, double upChance) {
+        this.random = new FastRandom(seed);
+        this.pressChance = pressChance;
+        this.upChance = upChance;
+    }
+
+    @Override
+    public Input decide(GameEngine engine) {
+        // Bei anderer Taktrate gleich viele Tastendrücke pro Sekunde
+        double chance = engine.getTickRate() == GameConfig.DEFAULT_TICK_RATE ? pressChance
+                : pressChance * GameConfig.DEFAULT_TICK_RATE / engine.getTickRate();
+        if (random.nextDouble() >= chance) {
+            return Input.NONE;
+        }
+        double roll = random.nextDouble();
+        if (roll < upChance) {
+            return Input.UP;
+        }
+        // Rest gleichmäßig auf die anderen drei Richtungen verteilen
+        int other = (int) ((roll - upChance) / (1 - upChance) * 3);
+        switch (other) {
+            case 0: return Input.LEFT;
+            case 1: return Input.RIGHT;
+            default: return Input.DOWN;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+import java.util.Locale;
+
+// Zeichenverfahren, beim Start wählbar (-Dfrogger.render=active|passive)
+public enum RenderMode {
+    PASSIVE,  // Swing: repaint() -> paintComponent über den RepaintManager
+    ACTIVE;   // Canvas mit BufferStrategy, nur geänderte Bereiche neu zeichnen
+
+    // Liest den Modus aus einem Text (Groß-/Kleinschreibung egal)
+    public static RenderMode parse(String value) {
+        return RenderMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,208 @@
+import java.io.*;
+import java.util.Arrays;
+
+// Aufzeichnung einer Spielsitzung: Seed, Taktrate, Karte (Fingerabdruck,
+// LevelMap.getFingerprint()), alle Eingaben mit ihrem Takt und der Endstand. Gespeichert wird kompakt binär - je Eingabe der Abstand zum
+// vorigen Takt als Varint plus ein Byte für die Taste.
+// Version 1 kannte keine Taktrate - solche Aufzeichnungen laufen mit
+// GameConfig.DEFAULT_TICK_RATE; vor Version 3 gab es nur die klassische Karte.
+public class Replay {
+    private static final int MAGIC = 0x4652504C;   // "FRPL"
+    private static final int VERSION = 3;   // 2: Taktrate, 3: Karte
+
+    private final long seed;
+    private final int tickRate;                    // Spieltakte pro Sekunde
+    private final int mapFingerprint;              // Karte, auf der gespielt wurde
+    private final long[] ticks;                    // Takt jeder Eingabe (aufsteigend)
+    private final Input[] inputs;
+    private final long finalTick;                  // Endstand zur Prüfung
+    private final int finalScore;
+    private final int finalLevel;
+
+    public Replay(long seed, long[] ticks, Input[] inputs,
+                  long finalTick, int finalScore, int finalLevel) {
+        this(seed, GameConfig.DEFAULT_TICK_RATE, ticks, inputs, finalTick, finalScore, finalLevel);
+    }
+
+    public Replay(long seed, int tickRate, long[] ticks, Input[] inputs,
+                  long finalTick, int finalScore, int finalLevel) {
+        this(seed, tickRate, LevelMap.classic().getFingerprint(), ticks, inputs, finalTick, finalScore, finalLevel);
+    }
+
+    public Replay(long seed, int tickRate, int mapFingerprint, long[] ticks, Input[] inputs,
+                  long finalTick, int finalScore, int finalLevel) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("tickRate muss positiv sein: " + tickRate);
+        }
+        if (ticks.length != inputs.length) {
+            throw new IllegalArgumentException("ticks und inputs sind verschieden lang");
+        }
+        for (int i = 1; i < ticks.length; i++) {
+            if (ticks[i] < ticks[i - 1]) {
+                throw new IllegalArgumentException("Takte sind nicht aufsteigend bei Eingabe " + i);
+            }
+        }
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.mapFingerprint = mapFingerprint;
+        this.ticks = ticks;
+        this.inputs = inputs;
+        this.finalTick = finalTick;
+        this.finalScore = finalScore;
+        this.finalLevel = finalLevel;
+    }
+
+    // Schreibt die Aufzeichnung in eine Datei
+    public void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            write(out);
+        }
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeInt(tickRate);
+        out.writeInt(mapFingerprint);
+        writeVarLong(out, ticks.length);
+        long last = 0;
+        for (int i = 0; i < ticks.length; i++) {
+            writeVarLong(out, ticks[i] - last);
+            out.writeByte(inputs[i].ordinal());
+            last = ticks[i];
+        }
+        writeVarLong(out, finalTick - last);
+        out.writeInt(finalScore);
+        out.writeInt(finalLevel);
+    }
+
+    // Liest eine Aufzeichnung aus einer Datei
+    public static Replay read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return read(in);
+        }
+    }
+
+    public static Replay read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Keine Frogger-Aufzeichnung");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unbekannte Version: " + version);
+        }
+        long seed = in.readLong();
+        int tickRate = version >= 2 ? in.readInt() : GameConfig.DEFAULT_TICK_RATE;
+        if (tickRate <= 0) {
+            throw new IOException("Ungültige Taktrate: " + tickRate);
+        }
+        int mapFingerprint = version >= 3 ? in.readInt() : LevelMap.classic().getFingerprint();
+        long count = readVarLong(in);
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Zu viele Eingaben: " + count);
+        }
+
+        Input[] values = Input.values();
+        long[] ticks = new long[(int) count];
+        Input[] inputs = new Input[(int) count];
+        long last = 0;
+        for (int i = 0; i < count; i++) {
+            last += readVarLong(in);
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= values.length) {
+                throw new IOException("Unbekannte Eingabe: " + ordinal);
+            }
+            ticks[i] = last;
+            inputs[i] = values[ordinal];
+        }
+        long finalTick = last + readVarLong(in);
+        int finalScore = in.readInt();
+        int finalLevel = in.readInt();
+        return new Replay(seed, tickRate, mapFingerprint, ticks, inputs, finalTick, finalScore, finalLevel);
+    }
+
+    // Spielt die Aufzeichnung so schnell wie möglich auf einer neuen Engine
+    // mit der klassischen Karte ab
+    public GameEngine simulate() {
+        return simulate(LevelMap.classic());
+    }
+
+    public GameEngine simulate(LevelMap map) {
+        return simulate(new GameEngine(seed, map, tickRate));
+    }
+
+    // Spielt auf einer vorbereiteten Engine ab (neu, mit getSeed(), getTickRate()
+    // und der Karte der Aufzeichnung erzeugt), z.B. mit angemeldetem
+    // Beobachter für den Bildexport
+    public GameEngine simulate(GameEngine engine) {
+        if (!fits(engine.getMap())) {
+            throw new IllegalArgumentException("Aufzeichnung gehört zu einer anderen Karte (-Dfrogger.map)");
+        }
+        if (engine.getSeed() != seed || engine.getTickRate() != tickRate || engine.getTick() != 0) {
+            throw new IllegalArgumentException("Engine passt nicht zur Aufzeichnung");
+        }
+        if (Arrays.asList(inputs).contains(Input.REWIND)) {
+            new RewindBuffer(engine);   // Zurückspulen wie im Spiel
+        }
+        for (int i = 0; i < ticks.length; i++) {
+            runUntil(engine, ticks[i]);
+            engine.applyInput(inputs[i]);
+        }
+        runUntil(engine, finalTick);
+        return engine;
+    }
+
+    // Taktet die Engine bis zum Takt 'tick'. Im Stillstand (verloren oder
+    // gewonnen) zählt die Engine keine Takte - dann ist das Abspielen
+    // auseinandergelaufen und matches() meldet es.
+    private static void runUntil(GameEngine engine, long tick) {
+        while (engine.getTick() < tick && engine.isRunning()) {
+            engine.updateGame();
+        }
+    }
+
+    // True wenn die Aufzeichnung auf dieser Karte gespielt wurde
+    public boolean fits(LevelMap map) {
+        return map.getFingerprint() == mapFingerprint;
+    }
+
+    // True wenn die Engine den aufgezeichneten Endstand erreicht hat
+    public boolean matches(GameEngine engine) {
+        return engine.getTick() == finalTick
+                && engine.getScore() == finalScore
+                && engine.getCurrentLevel() == finalLevel;
+    }
+
+    // Varint: 7 Bit pro Byte, höchstes Bit = es folgt noch ein Byte
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint zu lang");
+    }
+
+    // Getter-Methoden
+    public long getSeed() { return seed; }
+    public int getTickRate() { return tickRate; }
+    public int getMapFingerprint() { return mapFingerprint; }
+    public int getInputCount() { return ticks.length; }
+    public long getFinalTick() { return finalTick; }
+    public int getFinalScore() { return finalScore; }
+    public int getFinalLevel() { return finalLevel; }
+}
@@ -0,0 +1,41 @@
+import java.io.File;
+import java.io.IOException;
+
+// Spielt eine Aufzeichnung ohne Fenster schneller als in Echtzeit ab und
+// prüft, ob Punkte und Level mit dem aufgezeichneten Endstand übereinstimmen.
+// Eigene Karten wie im Spiel über -Dfrogger.map.
+// Aufruf: java [-Dfrogger.map=karte] ReplayPlayer spiel.frpl
+public class ReplayPlayer {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Aufruf: java ReplayPlayer <datei>");
+            System.exit(2);
+        }
+
+        Replay replay = Replay.read(new File(args[0]));
+        String mapPath = System.getProperty("frogger.map");
+        LevelMap map = LevelMap.loadOrClassic(mapPath);
+        if (!replay.fits(map)) {
+            System.err.println("Aufzeichnung gehört zu einer anderen Karte als "
+                    + (mapPath == null ? "der klassischen" : mapPath) + " (-Dfrogger.map)");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        GameEngine engine = replay.simulate(map);
+        long nanos = Math.max(1, System.nanoTime() - start);
+
+        System.out.printf("Seed %d, %d Eingaben, %d Takte in %.1f ms (%.0f Takte/s)%n",
+                replay.getSeed(), replay.getInputCount(), engine.getTick(),
+                nanos / 1e6, engine.getTick() * 1e9 / nanos);
+        System.out.printf("Erwartet: Takt %d, Punkte %d, Level %d%n",
+                replay.getFinalTick(), replay.getFinalScore(), replay.getFinalLevel());
+        System.out.printf("Ergebnis: Takt %d, Punkte %d, Level %d%n",
+                engine.getTick(), engine.getScore(), engine.getCurrentLevel());
+
+        if (!replay.matches(engine)) {
+            System.out.println("ABWEICHUNG");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.Arrays;
+
+// Zeichnet alle Eingaben einer GameEngine mit ihrem Takt auf
+public class ReplayRecorder implements GameListener {
+    private final GameEngine engine;
+    private long[] ticks = new long[64];
+    private Input[] inputs = new Input[64];
+    private int count;
+
+    public ReplayRecorder(GameEngine engine) {
+        this.engine = engine;
+        engine.addListener(this);
+    }
+
+    @Override
+    public void inputApplied(long tick, Input input) {
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            inputs = Arrays.copyOf(inputs, count * 2);
+        }
+        ticks[count] = tick;
+        inputs[count] = input;
+        count++;
+    }
+
+    // Erstellt die Aufzeichnung mit dem aktuellen Stand als Endstand
+    public Replay toReplay() {
+        return new Replay(engine.getSeed(), engine.getTickRate(), engine.getMap().getFingerprint(),
+                Arrays.copyOf(ticks, count),
+                Arrays.copyOf(inputs, count),
+                engine.getTick(), engine.getScore(), engine.getCurrentLevel());
+    }
+
+    public int getInputCount() { return count; }
+}
@@ -0,0 +1,414 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Zeichnet den Spielverlauf zum Zurückspulen auf: in festen Abständen ein
+// Schlüsselbild (GameSnapshot), dazwischen je Takt nur ein kleines Delta.
+// X-Positionen ergeben sich aus der Geschwindigkeit; gespeichert werden nur
+// neu erzeugte Hindernisse, Spielerposition, Status und Zufallszustand,
+// sofern sie sich geändert haben.
+//
+// Alles liegt in einem Speicherblock fester Größe (harte Obergrenze). Ist er
+// voll, fallen die ältesten Bilder weg - immer bis zum nächsten Schlüsselbild,
+// damit das älteste gehaltene Bild wiederherstellbar bleibt.
+//
+// Bildnummern zählen ab 0 für das erste aufgezeichnete Bild und laufen weiter,
+// auch wenn alte Bilder verdrängt werden.
+public class RewindBuffer implements GameListener {
+    public static final int DEFAULT_CAPACITY_BYTES = 8 << 20;   // 8 MB
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 40;      // 2 Sekunden bei 20 Takten
+    public static final int REWIND_SECONDS = 1;                  // Rücktaste, bei jeder Taktrate
+
+    private static final int BYTES_PER_FRAME_ENTRY = 9;  // Offset, Länge, Schlüsselbild-Flag
+    private static final int MIN_BYTES_PER_FRAME = 32;   // Bemisst die Bildtabelle
+
+    // Einträge eines Deltas
+    private static final byte OP_END = 0;
+    private static final byte OP_SPAWN = 1;     // Hindernis: Archetyp, Slot, x, y, Breite, Höhe, Tempo (x und Tempo in Subpixeln)
+                                                // (tauchende dazu Zyklus und Stelle darin)
+    private static final byte OP_PLAYER = 2;    // Spielerposition
+    private static final byte OP_STATUS = 3;    // Punkte, Level, Flags
+    private static final byte OP_RANDOM = 4;    // Zufallszustand
+
+    private final GameEngine engine;            // Aufgezeichnete Engine
+    private final int keyframeInterval;
+    private final GameSnapshot snapshot = new GameSnapshot();
+
+    private final ByteBuffer arena;             // Bilddaten im Ring
+    private final int[] frameOffsets;           // Bildtabelle im Ring (Bildnummer % Länge)
+    private final int[] frameLengths;
+    private final boolean[] keyframes;
+    private long firstFrame;                    // Ältestes gehaltenes Bild
+    private long endFrame;                      // Nächste Bildnummer
+    private int writeOffset;                    // Nächste freie Stelle in der Arena
+
+    private ByteBuffer delta = ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN);
+    private int framesSinceKeyframe;
+    private boolean keyframePending;            // Neustart: nächstes Bild ist ein Schlüsselbild
+
+    // Zuletzt aufgezeichneter Zustand (für die Deltas)
+    private int lastPlayerX;
+    private int lastPlayerY;
+    private int lastScore;
+    private int lastLevel;
+    private int lastFlags;
+    private long lastRandom0;
+    private long lastRandom1;
+
+    // Zuletzt per seek() hergestellter Zustand - erlaubt kurzes Vorspulen
+    private GameEngine seekTarget;
+    private long seekFrame = -1;
+
+    public RewindBuffer(GameEngine engine) {
+        this(engine, DEFAULT_CAPACITY_BYTES, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    public RewindBuffer(GameEngine engine, int capacityBytes, int keyframeInterval) {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframeInterval muss positiv sein: " + keyframeInterval);
+        }
+        int frames = capacityBytes / MIN_BYTES_PER_FRAME;
+        if (frames < 2) {
+            throw new IllegalArgumentException("Speicher zu klein: " + capacityBytes);
+        }
+        this.engine = engine;
+        this.keyframeInterval = keyframeInterval;
+        frameOffsets = new int[frames];
+        frameLengths = new int[frames];
+        keyframes = new boolean[frames];
+        arena = ByteBuffer.allocateDirect(capacityBytes - frames * BYTES_PER_FRAME_ENTRY)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        engine.addListener(this);
+        recordKeyframe();
+    }
+
+    // ---- Aufzeichnen ----
+
+    @Override
+    public void obstacleSpawned(ObstacleStore store, int slot) {
+        ensureDelta(34);
+        delta.put(OP_SPAWN);
+        delta.put((byte) archetypeOf(engine, store));
+        delta.putInt(slot);
+        delta.putInt(store.getFixedX(slot));
+        delta.putInt(store.getY(slot));
+        delta.putInt(store.getWidth(slot));
+        delta.putInt(store.getHeight(slot));
+        delta.putInt(store.getFixedSpeed(slot));
+        if (store.has(ObstacleStore.DIVING)) {
+            delta.putInt(store.getDivePeriod(slot));
+            delta.putInt(store.getDivePhase(slot));
+        }
+    }
+
+    private static int archetypeOf(GameEngine engine, ObstacleStore store) {
+        int archetype = 0;
+        while (engine.getArchetype(archetype) != store) {
+            archetype++;
+        }
+        return archetype;
+    }
+
+    @Override
+    public void tickCompleted(long tick) {
+        if (keyframePending || framesSinceKeyframe + 1 >= keyframeInterval) {
+            recordKeyframe();
+            return;
+        }
+
+        Player player = engine.getPlayer();
+        if (player.getX() != lastPlayerX || player.getY() != lastPlayerY) {
+            ensureDelta(9);
+            delta.put(OP_PLAYER);
+            delta.putInt(player.getX());
+            delta.putInt(player.getY());
+        }
+        int flags = flags(engine);
+        if (engine.getScore() != lastScore || engine.getCurrentLevel() != lastLevel || flags != lastFlags) {
+            ensureDelta(10);
+            delta.put(OP_STATUS);
+            delta.putInt(engine.getScore());
+            delta.putInt(engine.getCurrentLevel());
+            delta.put((byte) flags);
+        }
+        FastRandom random = engine.getRandom();
+        if (random.getState0() != lastRandom0 || random.getState1() != lastRandom1) {
+            ensureDelta(17);
+            delta.put(OP_RANDOM);
+            delta.putLong(random.getState0());
+            delta.putLong(random.getState1());
+        }
+        ensureDelta(1);
+        delta.put(OP_END);
+
+        delta.flip();
+        commit(delta, false);
+        delta.clear();
+        framesSinceKeyframe++;
+        remember();
+    }
+
+    @Override
+    public void gameReset() {
+        // Neues Spiel: komplett neue Hindernisse. Das Schlüsselbild wird erst
+        // nach dem nächsten Takt geschrieben, damit jedes Bild genau einem
+        // abgeschlossenen Takt entspricht.
+        delta.clear();
+        keyframePending = true;
+    }
+
+    @Override
+    public void inputApplied(long tick, Input input) {
+        if (input == Input.REWIND) {
+            rewind(getRewindTicks());
+        }
+    }
+
+    // Speichert den aktuellen Zustand als Schlüsselbild
+    private void recordKeyframe() {
+        delta.clear();   // Angefangenes Delta ist im Schlüsselbild enthalten
+        commit(snapshot.save(engine), true);
+        framesSinceKeyframe = 0;
+        keyframePending = false;
+        remember();
+    }
+
+    private void remember() {
+        Player player = engine.getPlayer();
+        lastPlayerX = player.getX();
+        lastPlayerY = player.getY();
+        lastScore = engine.getScore();
+        lastLevel = engine.getCurrentLevel();
+        lastFlags = flags(engine);
+        lastRandom0 = engine.getRandom().getState0();
+        lastRandom1 = engine.getRandom().getState1();
+    }
+
+    private static int flags(GameEngine engine) {
+        return (engine.isGameWon() ? 1 : 0) | (engine.isGameOver() ? 2 : 0);
+    }
+
+    private void ensureDelta(int bytes) {
+        if (delta.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocateDirect(delta.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            delta.flip();
+            bigger.put(delta);
+            delta = bigger;
+        }
+    }
+
+    // Kopiert ein Bild in die Arena und verdrängt dafür alte Bilder
+    private void commit(ByteBuffer data, boolean keyframe) {
+        int length = data.remaining();
+        if (length > arena.capacity()) {
+            // Ein einzelnes Schlüsselbild passt nicht: nichts mehr zurückspulbar
+            firstFrame = endFrame;
+            framesSinceKeyframe = keyframeInterval;
+            return;
+        }
+        if (!keyframe && firstFrame == endFrame) {
+            return;   // Ohne Schlüsselbild davor ist ein Delta wertlos
+        }
+
+        int offset = writeOffset;
+        if (offset + length > arena.capacity()) {
+            offset = 0;   // Am Ende ist kein Platz mehr: vorne weiter
+        }
+        while (firstFrame < endFrame && (endFrame - firstFrame == frameOffsets.length
+                || overlaps(firstFrame, offset, length))) {
+            evictOldestGroup();
+        }
+        if (!keyframe && firstFrame == endFrame) {
+            return;
+        }
+
+        arena.clear();
+        arena.position(offset);
+        arena.put(data);
+        int entry = entry(endFrame);
+        frameOffsets[entry] = offset;
+        frameLengths[entry] = length;
+        keyframes[entry] = keyframe;
+        endFrame++;
+        writeOffset = offset + length;
+        seekTarget = null;   // Gespeicherter Seek-Zustand kann überholt sein
+    }
+
+    private boolean overlaps(long frame, int offset, int length) {
+        int entry = entry(frame);
+        int start = frameOffsets[entry];
+        return start < offset + length && offset < start + frameLengths[entry];
+    }
+
+    // Entfernt das älteste Bild und alle Deltas bis zum nächsten Schlüsselbild
+    private void evictOldestGroup() {
+        do {
+            firstFrame++;
+        } while (firstFrame < endFrame && !keyframes[entry(firstFrame)]);
+    }
+
+    private int entry(long frame) {
+        return (int) (frame % frameOffsets.length);
+    }
+
+    // ---- Zurückspulen ----
+
+    // Stellt in 'target' den Zustand von Bild 'frame' her. target kann die
+    // aufgezeichnete Engine sein (Spieler spult zurück) oder eine eigene
+    // Engine (Analyse, z.B. Vor- und Zurückscrubben vor einem Tod).
+    public void seek(GameEngine target, long frame) {
+        if (frame < firstFrame || frame >= endFrame) {
+            throw new IllegalArgumentException("Bild " + frame + " liegt nicht in ["
+                    + firstFrame + ", " + endFrame + ")");
+        }
+        long key = frame;
+        while (!keyframes[entry(key)]) {
+            key--;
+        }
+
+        long from;
+        if (target == seekTarget && seekFrame >= key && seekFrame <= frame) {
+            from = seekFrame + 1;   // Vom letzten Seek aus weiterspulen
+        } else {
+            restoreKeyframe(target, key);
+            from = key + 1;
+        }
+        for (long f = from; f <= frame; f++) {
+            applyDelta(target, f);
+        }
+        seekTarget = target;
+        seekFrame = frame;
+    }
+
+    // Spult die aufgezeichnete Engine um 'ticks' Bilder zurück; alles danach
+    // wird verworfen und ab dort neu aufgezeichnet. Der Taktzähler läuft
+    // weiter, damit Aufzeichnungen (Replay) aufsteigende Takte behalten.
+    public void rewind(int ticks) {
+        if (firstFrame == endFrame) {
+            return;
+        }
+        long tick = engine.getTick();
+        long frame = Math.max(firstFrame, endFrame - 1 - ticks);
+        seek(engine, frame);
+        truncateAfter(frame);
+        engine.setStatus(tick, engine.getScore(), engine.getCurrentLevel(),
+                engine.isGameWon(), engine.isGameOver());
+        keyframePending = true;   // Nächstes Bild mit dem neuen Takt
+        seekTarget = null;
+    }
+
+    // Verwirft alle Bilder nach 'frame'
+    private void truncateAfter(long frame) {
+        int entry = entry(frame);
+        endFrame = frame + 1;
+        writeOffset = frameOffsets[entry] + frameLengths[entry];
+        long key = frame;
+        while (!keyframes[entry(key)]) {
+            key--;
+        }
+        framesSinceKeyframe = (int) (frame - key);
+        keyframePending = false;
+        delta.clear();
+        remember();
+    }
+
+    private void restoreKeyframe(GameEngine target, long frame) {
+        int entry = entry(frame);
+        arena.limit(frameOffsets[entry] + frameLengths[entry]);
+        arena.position(frameOffsets[entry]);
+        try {
+            snapshot.restore(target, arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Schlüsselbild beschädigt", e);
+        } finally {
+            arena.clear();
+        }
+    }
+
+    // Ein Takt vorwärts: Hindernisse nach ihrer Geschwindigkeit bewegen, dann
+    // die aufgezeichneten Änderungen anwenden (gleiche Reihenfolge wie im Spiel:
+    // Archetyp für Archetyp, neu Erzeugtes direkt nach seinem Archetyp)
+    private void applyDelta(GameEngine target, long frame) {
+        int entry = entry(frame);
+        arena.limit(frameOffsets[entry] + frameLengths[entry]);
+        arena.position(frameOffsets[entry]);
+
+        int moved = 0;   // Archetypen 0 bis moved-1 sind schon bewegt
+        int score = target.getScore();
+        int level = target.getCurrentLevel();
+        int flags = flags(target);
+
+        byte op;
+        while ((op = arena.get()) != OP_END) {
+            switch (op) {
+                case OP_SPAWN:
+                    int archetype = arena.get();
+                    for (; moved <= archetype; moved++) {
+                        target.getArchetype(moved).moveAll();
+                    }
+                    spawn(target.getArchetype(archetype), target.getIndex(archetype));
+                    break;
+                case OP_PLAYER:
+                    int x = arena.getInt();
+                    target.getPlayer().reset(x, arena.getInt());
+                    break;
+                case OP_STATUS:
+                    score = arena.getInt();
+                    level = arena.getInt();
+                    flags = arena.get();
+                    break;
+                case OP_RANDOM:
+                    long state0 = arena.getLong();
+                    target.getRandom().setState(state0, arena.getLong());
+                    break;
+                default:
+                    throw new IllegalStateException("Unbekannter Delta-Eintrag: " + op);
+            }
+        }
+        arena.clear();
+
+        for (; moved < target.getArchetypeCount(); moved++) {
+            target.getArchetype(moved).moveAll();
+        }
+        target.setStatus(target.getTick() + 1, score, level, (flags & 1) != 0, (flags & 2) != 0);
+    }
+
+    // Wie GameEngine.spawn(): vorhandenen Slot austragen, neu belegen, eintragen
+    private void spawn(ObstacleStore store, LaneIndex index) {
+        int slot = arena.getInt();
+        int x = arena.getInt();
+        int y = arena.getInt();
+        int width = arena.getInt();
+        int height = arena.getInt();
+        int speed = arena.getInt();
+        if (slot == store.size()) {
+            store.addFixed(x, y, width, height, speed);
+        } else {
+            index.remove(slot);
+            store.setFixed(slot, x, y, width, height, speed);
+        }
+        if (store.has(ObstacleStore.DIVING)) {
+            int period = arena.getInt();
+            store.setDive(slot, period, arena.getInt());
+        }
+        index.add(slot);
+    }
+
+    // Getter-Methoden
+    public long getOldestFrame() { return firstFrame; }
+    public long getNewestFrame() { return endFrame - 1; }
+    public int getRewindTicks() { return REWIND_SECONDS * engine.getTickRate(); }
+    public int getFrameCount() { return (int) (endFrame - firstFrame); }
+    public int getCapacityBytes() { return arena.capacity() + frameOffsets.length * BYTES_PER_FRAME_ENTRY; }
+
+    // Belegte Bytes der Arena (ohne Verschnitt am Ringende)
+    public long getUsedBytes() {
+        long bytes = 0;
+        for (long f = firstFrame; f < endFrame; f++) {
+            bytes += frameLengths[entry(f)];
+        }
+        return bytes;
+    }
+}
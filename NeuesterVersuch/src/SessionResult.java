@@ -0,0 +1,23 @@
+// Ergebnis einer einzelnen Spielsitzung im Stapellauf
+public final class SessionResult {
+    private final long seed;
+    private final long ticks;        // Überlebte Takte
+    private final int score;
+    private final int level;
+    private final boolean won;
+
+    public SessionResult(long seed, long ticks, int score, int level, boolean won) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.score = score;
+        this.level = level;
+        this.won = won;
+    }
+
+    // Getter-Methoden
+    public long getSeed() { return seed; }
+    public long getTicks() { return ticks; }
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public boolean isWon() { return won; }
+}
@@ -0,0 +1,263 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Eine Welt für viele Spieler (Mehrspieler-Server). Die Hindernisse kommen
+// aus einer GameEngine - gleiche Regeln, gleicher Zufall -, dazu kommt je
+// Spieler eine eigene Spielfigur. Wer überfahren wird oder ins Wasser fällt,
+// startet unten neu; wer oben ankommt, bekommt Punkte und startet ebenfalls
+// neu. Ein gemeinsames Spielende oder Level gibt es nicht.
+//
+// Nach jedem Takt schreibt writeDelta() nur die Änderungen: neu erzeugte
+// Hindernisse und Spieler mit neuer Position oder neuem Punktestand.
+public class SharedWorld implements GameListener {
+    public static final int MAX_PLAYERS = 8192;   // Ids passen in ein short
+    public static final int GOAL_SCORE = 10;
+
+    private static final int START_X = GameEngine.PANEL_WIDTH / 2 - GameEngine.PLAYER_SIZE / 2;
+
+    private final GameEngine engine;         // Hindernisse, Regeln, Zufall
+    private final int startY;                // Start laut Karte der Engine
+    private final int goalY;
+    private long tick;
+
+    // Spieler nach Id (freie Ids werden wiederverwendet)
+    private Player[] players = new Player[64];
+    private boolean[] active = new boolean[64];
+    private byte[] pending = new byte[64];   // Eine Eingabe je Takt, Rest verworfen
+    private int[] scores = new int[64];
+    private boolean[] announced = new boolean[64]; // Den Clients schon gemeldet
+    private int[] sentX = new int[64];       // Zuletzt gesendeter Stand
+    private int[] sentY = new int[64];
+    private int[] sentScore = new int[64];
+    private int playerLimit;                 // Höchste vergebene Id + 1
+    private int playerCount;
+    private long droppedInputs;
+
+    // Änderungen des laufenden Takts
+    private byte[] spawnStores = new byte[64];
+    private int[] spawnSlots = new int[64];
+    private int spawnCount;
+    private int[] leftIds = new int[16];
+    private int leftCount;
+
+    public SharedWorld(long seed) {
+        this(seed, GameConfig.DEFAULT_TICK_RATE);
+    }
+
+    // Tempo der Hindernisse passend zur Taktrate des Servers
+    public SharedWorld(long seed, int tickRate) {
+        engine = new GameEngine(seed, LevelMap.classic(), tickRate);
+        engine.addListener(this);
+        startY = engine.getStartY();
+        goalY = engine.getMap().getGoalY();
+    }
+
+    // Nimmt einen Spieler auf und gibt seine Id zurück (-1 wenn voll)
+    public int join() {
+        int id = 0;
+        while (id < playerLimit && active[id]) {
+            id++;
+        }
+        if (id == MAX_PLAYERS) {
+            return -1;
+        }
+        if (id == players.length) {
+            grow();
+        }
+        if (players[id] == null) {
+            players[id] = new Player(START_X, startY);
+        } else {
+            players[id].reset(START_X, startY);
+        }
+        active[id] = true;
+        pending[id] = (byte) Input.NONE.ordinal();
+        scores[id] = 0;
+        announced[id] = false;
+        playerLimit = Math.max(playerLimit, id + 1);
+        playerCount++;
+        return id;
+    }
+
+    public void leave(int id) {
+        if (!active[id]) {
+            return;
+        }
+        active[id] = false;
+        playerCount--;
+        if (leftCount == leftIds.length) {
+            leftIds = Arrays.copyOf(leftIds, leftCount * 2);
+        }
+        leftIds[leftCount++] = id;
+    }
+
+    // Merkt eine Eingabe für den nächsten Takt; pro Takt zählt die erste
+    public void submit(int id, Input input) {
+        if (input == Input.NONE || !active[id]) {
+            return;
+        }
+        if (pending[id] != Input.NONE.ordinal()) {
+            droppedInputs++;
+            return;
+        }
+        pending[id] = (byte) input.ordinal();
+    }
+
+    // Ein Spieltakt: Eingaben, Hindernisse, dann jeder Spieler für sich
+    public void step() {
+        tick++;
+        Input[] inputs = Input.values();
+        for (int id = 0; id < playerLimit; id++) {
+            if (active[id] && pending[id] != Input.NONE.ordinal()) {
+                engine.movePlayer(players[id], inputs[pending[id]]);
+                pending[id] = (byte) Input.NONE.ordinal();
+            }
+        }
+
+        engine.moveObstacles();
+
+        for (int id = 0; id < playerLimit; id++) {
+            if (!active[id]) {
+                continue;
+            }
+            Player player = players[id];
+            if (engine.collides(player)) {
+                player.reset(START_X, startY);
+            } else if (player.getY() < goalY) {
+                scores[id] += GOAL_SCORE;
+                player.reset(START_X, startY);
+            }
+        }
+    }
+
+    @Override
+    public void obstacleSpawned(ObstacleStore store, int slot) {
+        if (spawnCount == spawnSlots.length) {
+            spawnStores = Arrays.copyOf(spawnStores, spawnCount * 2);
+            spawnSlots = Arrays.copyOf(spawnSlots, spawnCount * 2);
+        }
+        spawnStores[spawnCount] = store == engine.getCars() ? NetProtocol.STORE_CARS : NetProtocol.STORE_LOGS;
+        spawnSlots[spawnCount] = slot;
+        spawnCount++;
+    }
+
+    // Schreibt die Änderungen seit dem letzten Delta als DELTA-Nachricht
+    public void writeDelta(ByteBuffer out) {
+        int start = NetProtocol.begin(out, NetProtocol.MSG_DELTA);
+        out.putLong(tick);
+        boolean withHash = tick % NetProtocol.HASH_INTERVAL == 0;
+        out.put((byte) (withHash ? NetProtocol.FLAG_HASH : 0));
+        int hashPosition = out.position();
+        if (withHash) {
+            out.putLong(0);   // Wird unten nachgetragen
+        }
+
+        out.putShort((short) spawnCount);
+        for (int i = 0; i < spawnCount; i++) {
+            ObstacleStore store = spawnStores[i] == NetProtocol.STORE_CARS ? engine.getCars() : engine.getLogs();
+            out.put(spawnStores[i]);
+            out.putShort((short) spawnSlots[i]);
+            NetProtocol.putObstacle(out, store, spawnSlots[i]);
+        }
+        spawnCount = 0;
+
+        int countPosition = out.position();
+        out.putShort((short) 0);
+        int changed = 0;
+        for (int id = 0; id < playerLimit; id++) {
+            if (!active[id]) {
+                continue;
+            }
+            Player player = players[id];
+            if (announced[id] && player.getX() == sentX[id] && player.getY() == sentY[id]
+                    && scores[id] == sentScore[id]) {
+                continue;
+            }
+            putPlayer(out, id);
+            sentX[id] = player.getX();
+            sentY[id] = player.getY();
+            sentScore[id] = scores[id];
+            announced[id] = true;
+            changed++;
+        }
+        out.putShort(countPosition, (short) changed);
+
+        out.putShort((short) leftCount);
+        for (int i = 0; i < leftCount; i++) {
+            out.putShort((short) leftIds[i]);
+        }
+        leftCount = 0;
+
+        if (withHash) {
+            out.putLong(hashPosition, hash());
+        }
+        NetProtocol.end(out, start);
+    }
+
+    // Schreibt den kompletten Stand für einen neuen Client (aktuelle
+    // Positionen; noch nicht gemeldete Spieler kommen im nächsten Delta
+    // trotzdem für alle)
+    public void writeWelcome(ByteBuffer out, int playerId) {
+        int start = NetProtocol.begin(out, NetProtocol.MSG_WELCOME);
+        out.putInt(playerId);
+        out.putInt(engine.getTickRate());
+        out.putLong(tick);
+        putStore(out, engine.getCars());
+        putStore(out, engine.getLogs());
+        out.putShort((short) playerCount);
+        for (int id = 0; id < playerLimit; id++) {
+            if (active[id]) {
+                putPlayer(out, id);
+            }
+        }
+        NetProtocol.end(out, start);
+    }
+
+    private static void putStore(ByteBuffer out, ObstacleStore store) {
+        out.putShort((short) store.size());
+        for (int i = 0; i < store.size(); i++) {
+            NetProtocol.putObstacle(out, store, i);
+        }
+    }
+
+    private void putPlayer(ByteBuffer out, int id) {
+        Player player = players[id];
+        out.putShort((short) id);
+        out.putShort((short) player.getX());
+        out.putShort((short) player.getY());
+        out.putInt(scores[id]);
+    }
+
+    // Prüfsumme des gesendeten Stands (nach writeDelta gleich dem echten)
+    private long hash() {
+        return NetProtocol.hash(engine.getCars(), engine.getLogs(), active, sentX, sentY, playerLimit);
+    }
+
+    // Obergrenze einer Nachricht (für Puffergrößen)
+    public int maxMessageBytes() {
+        int obstacles = engine.getCars().size() + engine.getLogs().size();
+        return NetProtocol.HEADER_BYTES + 64 + obstacles * NetProtocol.SPAWN_BYTES
+                + playerLimit * (NetProtocol.PLAYER_BYTES + 2);
+    }
+
+    private void grow() {
+        int size = Math.min(players.length * 2, MAX_PLAYERS);
+        players = Arrays.copyOf(players, size);
+        active = Arrays.copyOf(active, size);
+        pending = Arrays.copyOf(pending, size);
+        scores = Arrays.copyOf(scores, size);
+        announced = Arrays.copyOf(announced, size);
+        sentX = Arrays.copyOf(sentX, size);
+        sentY = Arrays.copyOf(sentY, size);
+        sentScore = Arrays.copyOf(sentScore, size);
+    }
+
+    // Getter-Methoden
+    public long getTick() { return tick; }
+    public int getTickRate() { return engine.getTickRate(); }
+    public int getPlayerCount() { return playerCount; }
+    public long getDroppedInputs() { return droppedInputs; }
+    public Player getPlayer(int id) { return players[id]; }
+    public int getScore(int id) { return scores[id]; }
+    public ObstacleStore getCars() { return engine.getCars(); }
+    public ObstacleStore getLogs() { return engine.getLogs(); }
+}
@@ -5,7 +5,7 @@ public class SimpleCrossyRoad {
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            gameWindow = new GameWindow();
+            gameWindow = new GameWindow(GameConfig.fromSystemProperties());
             gameWindow.setVisible(true);
         });
     }
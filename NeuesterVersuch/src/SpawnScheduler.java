@@ -0,0 +1,187 @@
+import java.util.Arrays;
+
+// Feste Reihen und Fahrplan der Hindernisse einer Karte.
+//
+// Jede Spur der Karte wird von oben in Reihen der Höhe OBSTACLE_HEIGHT
+// geteilt (eine niedrigere Spur bekommt eine Reihe an ihrer Oberkante);
+// Hindernisse liegen nur genau in einer Reihe, nie dazwischen.
+// Überlappen sich Spuren, gehören die Reihen der späteren Spur (z.B.
+// Schildkröten mitten im Fluss). Reihen, die in die Startreihe des Spielers
+// ragen, gibt es nicht. Alle Hindernisse einer Reihe fahren gleich schnell in
+// dieselbe Richtung: ihre Abstände bleiben, wie sie beim Einreihen waren -
+// nie kleiner als MIN_GAP.
+//
+// Die Warteschlange einer Reihe sind ihre Hindernisse selbst. Wer das Feld
+// verlässt, wird sofort hinter dem letzten der Reihe eingereiht, außerhalb
+// des Felds; seine X-Position legt fest, zu welchem Takt es hereinfährt.
+// Der Fahrplan steckt so ganz im ObstacleStore - Spielstände, Zurückspulen,
+// Mehrspieler-Deltas und der Planer sehen ihn ohne eigenen Zustand.
+//
+// Wie viele Hindernisse eine Reihe hat, sagt die Karte: die Anzahlen einer
+// Spur bis zum aktuellen Level, reihum verteilt auf die Reihen ihres
+// Archetyps, die ganz in ihr liegen (auch verdrängte Spuren zählen so mit). Höchstens
+// so viele, wie mit Mindestabstand über die Welt passen, und zusammen
+// höchstens POPULATION_CAP. Speicher und Arbeit je Takt sind damit in jedem
+// Level beschränkt; schwerer wird es über Dichte und Tempo. Alles hier wird
+// einmal aus der Karte berechnet und ändert sich danach nicht.
+public class SpawnScheduler {
+    static final int MIN_GAP = 2 * GameEngine.PLAYER_SIZE;   // Frosch passt mit Luft dazwischen
+    static final int POPULATION_CAP = 1 << 17;               // Hindernisse insgesamt
+
+    private static final int NO_ROW = -1;
+    private static final int[] NO_ROWS = new int[0];
+
+    private final LevelMap map;
+    private final int worldWidth;
+    private final int[] rowY;              // Oberkante je Reihe (von oben nach unten)
+    private final int[] rowLane;           // Spur der Karte je Reihe
+    private final int[][] laneRows;        // Reihen je Spur (gleicher Archetyp, ganz darin)
+    private final int[] rowAt;             // Reihe je Oberkante (NO_ROW: keine)
+    private final int[][] targets;         // Hindernisse je Level (ab 1) und Reihe
+
+    public SpawnScheduler(LevelMap map, int startY) {
+        this.map = map;
+        worldWidth = map.getWidth();
+        int height = GameEngine.OBSTACLE_HEIGHT;
+
+        // Jede Spur nur einmal lesen (die Karte prüft bei jedem Zugriff)
+        int lanes = map.getLaneCount();
+        int[] laneTop = new int[lanes];
+        int[] laneBottom = new int[lanes];   // Mindestens eine Reihe hoch
+        int[] laneArchetype = new int[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            laneTop[lane] = Math.max(0, map.getLaneTop(lane));
+            laneBottom[lane] = Math.max(map.getLaneBottom(lane), laneTop[lane] + height);
+            laneArchetype[lane] = GameEngine.archetypeOf(map, lane);
+        }
+
+        // Reihen in Kartenreihenfolge anlegen; spätere verdrängen frühere,
+        // mit denen sie sich überlappen
+        int[] owner = new int[map.getHeight()];   // Oberkante der Reihe je Y (-1: frei)
+        int[] laneOfTop = new int[map.getHeight()];
+        Arrays.fill(owner, -1);
+        int bottomLimit = Math.min(map.getHeight(), startY);
+        for (int lane = 0; lane < lanes; lane++) {
+            int bottom = Math.min(laneBottom[lane], bottomLimit);
+            for (int top = laneTop[lane]; top + height <= bottom; top += height) {
+                for (int y = top; y < top + height; y++) {
+                    if (owner[y] >= 0) {
+                        Arrays.fill(owner, owner[y], owner[y] + height, -1);
+                    }
+                }
+                Arrays.fill(owner, top, top + height, top);
+                laneOfTop[top] = lane;
+            }
+        }
+
+        rowAt = new int[map.getHeight()];
+        Arrays.fill(rowAt, NO_ROW);
+        int rows = 0;
+        for (int y = 0; y < owner.length; y++) {
+            if (owner[y] == y) {
+                rowAt[y] = rows++;
+            }
+        }
+        rowY = new int[rows];
+        rowLane = new int[rows];
+        for (int y = 0; y < owner.length; y++) {
+            if (rowAt[y] != NO_ROW) {
+                rowY[rowAt[y]] = y;
+                rowLane[rowAt[y]] = laneOfTop[y];
+            }
+        }
+
+        laneRows = new int[lanes][];
+        int[] found = new int[rows];
+        for (int lane = 0; lane < lanes; lane++) {
+            int count = 0;
+            int last = Math.min(laneBottom[lane], rowAt.length) - height;
+            for (int y = laneTop[lane]; y <= last; y++) {
+                int row = rowAt[y];
+                if (row != NO_ROW && laneArchetype[rowLane[row]] == laneArchetype[lane]) {
+                    found[count++] = row;
+                }
+            }
+            laneRows[lane] = count == 0 ? NO_ROWS : Arrays.copyOf(found, count);
+        }
+
+        targets = computeTargets();
+    }
+
+    // Anzahl je Level und Reihe. Nie weniger als im Level davor (beim
+    // Levelwechsel kommen nur Hindernisse dazu); was über POPULATION_CAP
+    // hinausginge, wird reihum verteilt, solange Platz ist.
+    private int[][] computeTargets() {
+        int levels = map.getLevelCount();
+        int[][] result = new int[levels + 1][rowY.length];
+        int[] laneTotal = new int[map.getLaneCount()];
+        long[] wanted = new long[rowY.length];   // Viele Spuren je Reihe: kein int
+        int population = 0;
+        for (int level = 1; level <= levels; level++) {
+            Arrays.fill(wanted, 0);
+            for (int lane = 0; lane < laneTotal.length; lane++) {
+                laneTotal[lane] += map.getSpawnCount(level, lane);
+                int[] rows = laneRows[lane];
+                for (int j = 0; j < rows.length; j++) {
+                    wanted[rows[j]] += laneTotal[lane] / rows.length + (j < laneTotal[lane] % rows.length ? 1 : 0);
+                }
+            }
+            for (int row = 0; row < wanted.length; row++) {
+                wanted[row] = Math.min(wanted[row], capacity(row));
+            }
+            int[] current = result[level];
+            System.arraycopy(result[level - 1], 0, current, 0, current.length);
+            long missing = 0;
+            for (int row = 0; row < current.length; row++) {
+                missing += Math.max(0, wanted[row] - current[row]);
+            }
+            if (population + missing <= POPULATION_CAP) {
+                for (int row = 0; row < current.length; row++) {
+                    current[row] = (int) Math.max(current[row], wanted[row]);
+                }
+                population += (int) missing;
+                continue;
+            }
+            boolean added = true;
+            while (added && population < POPULATION_CAP) {
+                added = false;
+                for (int row = 0; row < current.length && population < POPULATION_CAP; row++) {
+                    if (current[row] < wanted[row]) {
+                        current[row]++;
+                        population++;
+                        added = true;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // Höchstens so viele Hindernisse, wie mit Mindestabstand über die Welt passen
+    private int capacity(int row) {
+        int lane = rowLane[row];
+        return worldWidth / (map.getMinWidth(lane) * GameEngine.PLAYER_SIZE + MIN_GAP) + 1;
+    }
+
+    // Mittlerer Abstand über MIN_GAP hinaus, bei dem die Hindernisse einer
+    // Reihe gleichmäßig über die Welt verteilt sind
+    public int getExtraGap(int level, int row) {
+        int lane = rowLane[row];
+        int averageWidth = (map.getMinWidth(lane) + map.getMaxWidth(lane)) * GameEngine.PLAYER_SIZE / 2;
+        int target = Math.max(1, targets[level][row]);
+        return Math.max(0, worldWidth / target - averageWidth - MIN_GAP);
+    }
+
+    // Reihe mit dieser Oberkante oder -1
+    public int rowAt(int y) {
+        return y >= 0 && y < rowAt.length ? rowAt[y] : NO_ROW;
+    }
+
+    // Getter-Methoden (Level ab 1)
+    public int getRowCount() { return rowY.length; }
+    public int getRowY(int row) { return rowY[row]; }
+    public int getRowLane(int row) { return rowLane[row]; }
+    public int[] getLaneRows(int lane) { return laneRows[lane]; }
+    public int getTarget(int level, int row) { return targets[level][row]; }
+    public int getMaxTarget(int row) { return targets[targets.length - 1][row]; }
+}
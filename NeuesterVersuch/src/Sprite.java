@@ -0,0 +1,26 @@
+// Grafiken im SpriteAtlas (Namen wie die Entwürfe in public/) mit ihrer
+// Grundgröße. Undurchsichtige Sprites füllen ihr Rechteck ganz aus - sie
+// lassen sich am schnellsten kopieren und dürfen andere verdecken.
+public enum Sprite {
+    CAR(90, 40, true),
+    LOG(150, 40, true),
+    FROG(30, 30, false),
+    TURTLE(40, 40, false),
+    RIVER(40, 40, true),      // Kacheln für den Untergrund
+    ROAD(40, 40, true),
+    SAFEZONE(40, 40, true);
+
+    private final int width;
+    private final int height;
+    private final boolean opaque;
+
+    Sprite(int width, int height, boolean opaque) {
+        this.width = width;
+        this.height = height;
+        this.opaque = opaque;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public boolean isOpaque() { return opaque; }
+}
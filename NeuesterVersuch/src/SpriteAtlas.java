@@ -0,0 +1,169 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Alle Grafiken in einem Bild (Textur-Atlas), Zeile für Zeile gepackt. Es
+// gibt noch keine Bilddateien - die Sprites werden hier gezeichnet, in den
+// Farben der bisherigen Rechtecke. Echte Grafiken ersetzen später nur
+// paint(). Der Atlas wird erst beim ersten Zugriff angelegt und danach nur
+// gelesen; für schnelles Zeichnen holt man die Sprites über einen
+// SpriteCache (passend zum Bildschirm und zur Größe umgewandelt).
+public final class SpriteAtlas {
+    private static final int SHEET_WIDTH = 256;   // Breite des Atlas
+    private static final int PADDING = 1;         // Abstand zwischen den Sprites
+
+    // Farben der Sprites (Grundfarben wie die bisherigen Rechtecke)
+    private static final Color WINDOW = new Color(170, 210, 240);
+    private static final Color TIRE = new Color(30, 30, 30);
+    private static final Color BARK = new Color(100, 50, 15);
+    private static final Color FROG_DARK = new Color(0, 120, 0);
+    private static final Color SHELL = new Color(20, 120, 90);
+    private static final Color SHELL_DARK = new Color(10, 80, 60);
+    private static final Color WAVE = new Color(80, 80, 255);
+    private static final Color ASPHALT = new Color(120, 120, 120);
+    private static final Color GRASS = new Color(0, 200, 0);
+
+    private final BufferedImage sheet;
+    private final int[] regionX = new int[Sprite.values().length];
+    private final int[] regionY = new int[Sprite.values().length];
+
+    // Wird erst beim ersten get() geladen (Klasseninitialisierung ist threadsicher)
+    private static final class Holder {
+        static final SpriteAtlas INSTANCE = new SpriteAtlas();
+    }
+
+    public static SpriteAtlas get() {
+        return Holder.INSTANCE;
+    }
+
+    private SpriteAtlas() {
+        // Packen: von links nach rechts, neue Zeile wenn der Platz nicht reicht
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        for (Sprite sprite : Sprite.values()) {
+            if (x + sprite.getWidth() > SHEET_WIDTH) {
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            regionX[sprite.ordinal()] = x;
+            regionY[sprite.ordinal()] = y;
+            x += sprite.getWidth() + PADDING;
+            shelfHeight = Math.max(shelfHeight, sprite.getHeight());
+        }
+
+        sheet = new BufferedImage(SHEET_WIDTH, y + shelfHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sheet.createGraphics();
+        try {
+            for (Sprite sprite : Sprite.values()) {
+                Graphics2D s = (Graphics2D) g.create(getX(sprite), getY(sprite),
+                        sprite.getWidth(), sprite.getHeight());
+                paint(s, sprite, sprite.getWidth(), sprite.getHeight());
+                s.dispose();
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Zeichnet den Bereich eines Sprites nach (x, y) in Größe w x h,
+    // auf Wunsch horizontal gespiegelt (z.B. Autos nach links)
+    public void draw(Graphics g, Sprite sprite, int x, int y, int width, int height, boolean mirrored) {
+        // Teilbild statt Quellrechteck: beim Skalieren werden so keine
+        // Pixel der Nachbarn im Atlas mit eingerechnet
+        BufferedImage region = sheet.getSubimage(getX(sprite), getY(sprite),
+                sprite.getWidth(), sprite.getHeight());
+        int left = mirrored ? x + width : x;
+        int right = mirrored ? x : x + width;
+        g.drawImage(region, left, y, right, y + height,
+                0, 0, sprite.getWidth(), sprite.getHeight(), null);
+    }
+
+    // Die Grafiken selbst (Ursprung oben links im Sprite, ohne Kantenglättung,
+    // damit durchsichtige Pixel ganz durchsichtig bleiben)
+    private static void paint(Graphics2D g, Sprite sprite, int w, int h) {
+        switch (sprite) {
+            case CAR:
+                g.setColor(Color.GRAY);                        // Straße in den Ecken
+                g.fillRect(0, 0, w, h);
+                g.setColor(TIRE);
+                g.fillRect(12, 0, 16, 5);
+                g.fillRect(w - 28, 0, 16, 5);
+                g.fillRect(12, h - 5, 16, 5);
+                g.fillRect(w - 28, h - 5, 16, 5);
+                g.setColor(Color.RED);
+                g.fillRoundRect(2, 4, w - 4, h - 8, 12, 12);
+                g.setColor(WINDOW);                            // Fahrtrichtung rechts
+                g.fillRect(w - 30, 9, 8, h - 18);
+                g.fillRect(18, 10, 6, h - 20);
+                break;
+            case LOG:
+                g.setColor(Color.BLUE);                        // Wasser in den Ecken
+                g.fillRect(0, 0, w, h);
+                g.setColor(GameRenderer.LOG_COLOR);
+                g.fillRoundRect(0, 2, w, h - 4, 16, 16);
+                g.setColor(BARK);
+                for (int i = 0; i < 4; i++) {
+                    int gy = 8 + i * (h - 16) / 3;
+                    g.drawLine(12 + i * 7, gy, w - 20 - i * 9, gy);
+                }
+                g.drawOval(w - 14, h / 2 - 6, 10, 12);
+                break;
+            case FROG:
+                g.setColor(FROG_DARK);
+                g.fillOval(1, 3, 8, 10);                       // Beine
+                g.fillOval(w - 9, 3, 8, 10);
+                g.fillOval(1, h - 12, 8, 10);
+                g.fillOval(w - 9, h - 12, 8, 10);
+                g.setColor(Color.GREEN);
+                g.fillOval(5, 4, w - 10, h - 7);
+                g.setColor(Color.BLACK);
+                g.fillRect(9, 5, 4, 4);                        // Augen
+                g.fillRect(w - 13, 5, 4, 4);
+                break;
+            case TURTLE:
+                g.setColor(SHELL_DARK);
+                g.fillOval(16, 0, 8, 8);                       // Kopf
+                g.fillOval(3, 8, 8, 8);
+                g.fillOval(w - 11, 8, 8, 8);
+                g.fillOval(3, h - 14, 8, 8);
+                g.fillOval(w - 11, h - 14, 8, 8);
+                g.setColor(SHELL);
+                g.fillOval(6, 5, w - 12, h - 9);
+                g.setColor(SHELL_DARK);
+                g.drawLine(w / 2, 9, w / 2, h - 8);
+                g.drawLine(10, h / 2, w - 10, h / 2);
+                break;
+            case RIVER:
+                g.setColor(Color.BLUE);
+                g.fillRect(0, 0, w, h);
+                g.setColor(WAVE);
+                g.drawArc(4, 8, 12, 6, 0, 180);
+                g.drawArc(22, 26, 12, 6, 0, 180);
+                break;
+            case ROAD:
+                g.setColor(Color.GRAY);
+                g.fillRect(0, 0, w, h);
+                g.setColor(ASPHALT);
+                g.fillRect(7, 11, 2, 2);
+                g.fillRect(29, 5, 2, 2);
+                g.fillRect(17, 29, 2, 2);
+                break;
+            case SAFEZONE:
+                g.setColor(Color.GREEN);
+                g.fillRect(0, 0, w, h);
+                g.setColor(GRASS);
+                g.drawLine(8, 14, 10, 9);
+                g.drawLine(10, 9, 12, 14);
+                g.drawLine(26, 32, 28, 27);
+                g.drawLine(28, 27, 30, 32);
+                break;
+            default:
+                throw new IllegalArgumentException("Kein Bild für " + sprite);
+        }
+    }
+
+    public BufferedImage getSheet() { return sheet; }
+    public int getX(Sprite sprite) { return regionX[sprite.ordinal()]; }
+    public int getY(Sprite sprite) { return regionY[sprite.ordinal()]; }
+}
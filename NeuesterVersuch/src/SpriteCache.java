@@ -0,0 +1,160 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+// Sprites in der gezeichneten Größe (je Zoomstufe, gespiegelt oder nicht),
+// umgewandelt in Bilder, die zum Ziel passen (GraphicsConfiguration) - so
+// kopiert Java2D sie ohne Umrechnen, undurchsichtige sogar ohne Alphatest.
+// Höchstens 'capacity' Varianten; ist der Cache voll, fliegt die am
+// längsten nicht benutzte heraus (LRU). Die Suche legt nichts an und prüft
+// zuerst die zuletzt benutzte Variante desselben Sprites.
+// Für Kacheln gibt es dazu je Sprite ein Muster (TexturePaint) über der
+// Variante in Originalgröße, verankert bei (0, 0).
+// Nicht threadsicher: jeder Renderer hat seinen eigenen Cache.
+public class SpriteCache {
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final SpriteAtlas atlas;
+    private final long[] keys;
+    private final BufferedImage[] images;
+    private final long[] lastUse;                // Zeitpunkt der letzten Benutzung
+    private final int[] lastSlot = new int[Sprite.values().length];
+    private final TexturePaint[] tilePaints = new TexturePaint[Sprite.values().length];
+    private int size;
+    private long clock;
+
+    private GraphicsConfiguration config;        // Ziel, zu dem die Bilder passen
+    private long misses;
+    private long evictions;
+
+    public SpriteCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SpriteCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity muss positiv sein: " + capacity);
+        }
+        atlas = SpriteAtlas.get();   // Atlas erst jetzt laden
+        keys = new long[capacity];
+        images = new BufferedImage[capacity];
+        lastUse = new long[capacity];
+        Arrays.fill(lastSlot, -1);
+    }
+
+    // Vor dem Zeichnen in 'g' aufrufen: passen die Bilder nicht mehr zum
+    // Ziel (z.B. anderer Bildschirm), wird der Cache geleert. Liefert true,
+    // wenn das passiert ist.
+    public boolean validate(Graphics g) {
+        GraphicsConfiguration target = ((Graphics2D) g).getDeviceConfiguration();
+        if (target == config) {
+            return false;
+        }
+        clear();
+        config = target;
+        return true;
+    }
+
+    // Verwirft alle Varianten
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            images[i].flush();
+            images[i] = null;
+        }
+        size = 0;
+        Arrays.fill(lastSlot, -1);
+        Arrays.fill(tilePaints, null);
+    }
+
+    // Muster aus einer Kachel in Originalgröße (einmal je Sprite und Ziel)
+    public TexturePaint tilePaint(Sprite tile) {
+        TexturePaint paint = tilePaints[tile.ordinal()];
+        if (paint == null) {
+            paint = new TexturePaint(variant(tile, tile.getWidth(), tile.getHeight(), false),
+                    new Rectangle(0, 0, tile.getWidth(), tile.getHeight()));
+            tilePaints[tile.ordinal()] = paint;
+        }
+        return paint;
+    }
+
+    // Zeichnet ein Sprite in Größe w x h nach (x, y)
+    public void draw(Graphics g, Sprite sprite, int x, int y, int width, int height, boolean mirrored) {
+        g.drawImage(variant(sprite, width, height, mirrored), x, y, null);
+    }
+
+    // Liefert die Variante aus dem Cache oder legt sie an
+    public BufferedImage variant(Sprite sprite, int width, int height, boolean mirrored) {
+        if (config == null) {
+            throw new IllegalStateException("validate() wurde noch nicht aufgerufen");
+        }
+        long key = key(sprite, width, height, mirrored);
+        int slot = lastSlot[sprite.ordinal()];
+        if (slot < 0 || keys[slot] != key) {
+            slot = find(key);
+            if (slot < 0) {
+                slot = load(sprite, width, height, mirrored, key);
+            }
+            lastSlot[sprite.ordinal()] = slot;
+        }
+        lastUse[slot] = ++clock;
+        return images[slot];
+    }
+
+    private static long key(Sprite sprite, int width, int height, boolean mirrored) {
+        if (width <= 0 || height <= 0 || width >= 1 << 20 || height >= 1 << 20) {
+            throw new IllegalArgumentException("Ungültige Größe: " + width + "x" + height);
+        }
+        return (long) sprite.ordinal() << 41 | (long) width << 21 | (long) height << 1 | (mirrored ? 1 : 0);
+    }
+
+    private int find(long key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Neue Variante: freier Platz oder die am längsten unbenutzte ersetzen
+    private int load(Sprite sprite, int width, int height, boolean mirrored, long key) {
+        misses++;
+        int slot;
+        if (size < keys.length) {
+            slot = size++;
+        } else {
+            slot = 0;
+            for (int i = 1; i < size; i++) {
+                if (lastUse[i] < lastUse[slot]) {
+                    slot = i;
+                }
+            }
+            images[slot].flush();
+            evictions++;
+            for (int i = 0; i < lastSlot.length; i++) {
+                if (lastSlot[i] == slot) {
+                    lastSlot[i] = -1;
+                }
+            }
+        }
+
+        BufferedImage image = config.createCompatibleImage(width, height,
+                sprite.isOpaque() ? Transparency.OPAQUE : Transparency.BITMASK);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            atlas.draw(g, sprite, 0, 0, width, height, mirrored);
+        } finally {
+            g.dispose();
+        }
+        keys[slot] = key;
+        images[slot] = image;
+        return slot;
+    }
+
+    // Getter-Methoden (Werte für Messungen)
+    public int size() { return size; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+}
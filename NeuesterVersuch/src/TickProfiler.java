@@ -0,0 +1,94 @@
+import java.io.PrintStream;
+import java.util.Locale;
+import jdk.jfr.EventType;
+
+// Misst die Abschnitte (Phase) von Spieltakt und Bild. Jede Messung landet in
+// einem LatencyHistogram und - wenn eine JFR-Aufzeichnung läuft - zusätzlich
+// als PhaseEvent. Aufgerufen wird nur unter der Sperre der Spiellogik, daher
+// ohne eigene Synchronisation.
+public class TickProfiler {
+    private static final EventType PHASE_EVENT = EventType.getEventType(PhaseEvent.class);
+    private static final Phase[] PHASES = Phase.values();
+
+    // Für Sitzungen ohne Messung (Stapellauf, Abspielen): kostet fast nichts
+    public static final TickProfiler DISABLED = new TickProfiler(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final long[] last = new long[PHASES.length];  // Letzter Messwert je Abschnitt
+    private long overBudget;           // Takte, die länger als ihr Zeitbudget brauchten
+
+    public TickProfiler() {
+        this(true);
+    }
+
+    private TickProfiler(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    // Startzeit für die erste Messung (0 wenn ausgeschaltet)
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    // Misst den Abschnitt seit 'start' und gibt den Start des nächsten zurück
+    public long lap(Phase phase, long start) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        record(phase, now - start);
+        return now;
+    }
+
+    // Trägt eine fertige Messung ein
+    public void record(Phase phase, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        histograms[phase.ordinal()].record(nanos);
+        last[phase.ordinal()] = nanos;
+        if (PHASE_EVENT.isEnabled()) {
+            PhaseEvent event = new PhaseEvent();
+            event.phase = phase.name();
+            event.nanos = nanos;
+            event.commit();
+        }
+    }
+
+    // Ein Takt hat sein Zeitbudget überschritten
+    public void countOverBudget() {
+        overBudget++;
+    }
+
+    // Setzt alle Messungen zurück
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        overBudget = 0;
+    }
+
+    // Gibt p50/p99/max aller Abschnitte aus
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-12s %10s %10s %10s %10s%n", "Abschnitt", "Anzahl", "p50 us", "p99 us", "max us");
+        for (Phase phase : PHASES) {
+            LatencyHistogram h = histograms[phase.ordinal()];
+            if (h.getCount() == 0) {
+                continue;
+            }
+            out.printf(Locale.ROOT, "%-12s %10d %10.1f %10.1f %10.1f%n", phase.getLabel(), h.getCount(),
+                    h.getPercentile(50) / 1e3, h.getPercentile(99) / 1e3, h.getMax() / 1e3);
+        }
+        out.println("Takte über Budget: " + overBudget);
+    }
+
+    // Getter-Methoden
+    public boolean isEnabled() { return enabled; }
+    public LatencyHistogram getHistogram(Phase phase) { return histograms[phase.ordinal()]; }
+    public long getLast(Phase phase) { return last[phase.ordinal()]; }
+    public long getOverBudget() { return overBudget; }
+}
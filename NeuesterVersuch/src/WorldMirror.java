@@ -0,0 +1,120 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Stand der Welt auf Client-Seite, aufgebaut aus den Nachrichten des
+// GameServers: WELCOME setzt alles, jedes DELTA bewegt die Hindernisse um
+// ihr Tempo und übernimmt Neues. Enthält ein Delta eine Prüfsumme, wird der
+// eigene Stand damit verglichen.
+public class WorldMirror {
+    private final ObstacleStore cars = new ObstacleStore();
+    private final ObstacleStore logs = new ObstacleStore();
+
+    private boolean[] active = new boolean[64];
+    private int[] playerX = new int[64];
+    private int[] playerY = new int[64];
+    private int[] scores = new int[64];
+    private int playerLimit;
+
+    private int playerId = -1;               // Eigene Id (aus WELCOME)
+    private int tickRate;                    // Takte pro Sekunde des Servers (aus WELCOME)
+    private long tick;
+    private long hashChecks;
+    private long hashMismatches;
+
+    // Wendet eine Nachricht an ('message' steht hinter dem Längenfeld)
+    public void apply(ByteBuffer message) {
+        byte type = message.get();
+        switch (type) {
+            case NetProtocol.MSG_WELCOME:
+                applyWelcome(message);
+                break;
+            case NetProtocol.MSG_DELTA:
+                applyDelta(message);
+                break;
+            default:
+                throw new IllegalStateException("Unbekannte Nachricht: " + type);
+        }
+    }
+
+    private void applyWelcome(ByteBuffer in) {
+        playerId = in.getInt();
+        tickRate = in.getInt();
+        tick = in.getLong();
+        readStore(in, cars);
+        readStore(in, logs);
+        Arrays.fill(active, false);
+        playerLimit = 0;
+        int players = in.getShort();
+        for (int i = 0; i < players; i++) {
+            readPlayer(in);
+        }
+    }
+
+    private static void readStore(ByteBuffer in, ObstacleStore store) {
+        store.clear();
+        int count = in.getShort();
+        for (int i = 0; i < count; i++) {
+            NetProtocol.getObstacle(in, store, i);
+        }
+    }
+
+    private void applyDelta(ByteBuffer in) {
+        tick = in.getLong();
+        boolean withHash = (in.get() & NetProtocol.FLAG_HASH) != 0;
+        long expected = withHash ? in.getLong() : 0;
+
+        // Bewegung ergibt sich aus dem Tempo
+        cars.moveAll();
+        logs.moveAll();
+
+        int spawns = in.getShort();
+        for (int i = 0; i < spawns; i++) {
+            ObstacleStore store = in.get() == NetProtocol.STORE_CARS ? cars : logs;
+            NetProtocol.getObstacle(in, store, in.getShort());
+        }
+        int players = in.getShort();
+        for (int i = 0; i < players; i++) {
+            readPlayer(in);
+        }
+        int left = in.getShort();
+        for (int i = 0; i < left; i++) {
+            active[in.getShort()] = false;
+        }
+
+        if (withHash) {
+            hashChecks++;
+            if (NetProtocol.hash(cars, logs, active, playerX, playerY, playerLimit) != expected) {
+                hashMismatches++;
+            }
+        }
+    }
+
+    private void readPlayer(ByteBuffer in) {
+        int id = in.getShort();
+        if (id >= active.length) {
+            int size = Math.max(id + 1, active.length * 2);
+            active = Arrays.copyOf(active, size);
+            playerX = Arrays.copyOf(playerX, size);
+            playerY = Arrays.copyOf(playerY, size);
+            scores = Arrays.copyOf(scores, size);
+        }
+        active[id] = true;
+        playerX[id] = in.getShort();
+        playerY[id] = in.getShort();
+        scores[id] = in.getInt();
+        playerLimit = Math.max(playerLimit, id + 1);
+    }
+
+    // Getter-Methoden
+    public int getPlayerId() { return playerId; }
+    public int getTickRate() { return tickRate; }
+    public long getTick() { return tick; }
+    public long getHashChecks() { return hashChecks; }
+    public long getHashMismatches() { return hashMismatches; }
+    public ObstacleStore getCars() { return cars; }
+    public ObstacleStore getLogs() { return logs; }
+    public boolean isActive(int id) { return id < playerLimit && active[id]; }
+    public int getPlayerX(int id) { return playerX[id]; }
+    public int getPlayerY(int id) { return playerY[id]; }
+    public int getScore(int id) { return scores[id]; }
+}